@@ -38,26 +38,16 @@ public class MyApp extends Application {
     public static final ConferenceTimeFrame conferenceTimeFrame =
             new ConferenceTimeFrame(FIRST_DAY_START, LAST_DAY_END);
 
-    public enum TASKS {
-        NONE,
-        FETCH,
-        PARSE,
-        FETCH_CANCELLED
-    }
-
     // requestCodes für startActivityForResult
     public static final int ALARMLIST = 1;
     public static final int SESSION_VIEW = 2;
     public static final int SETTINGS = 5;
 
-    public static TASKS task_running = TASKS.NONE;
-
     @CallSuper
     @Override
     public void onCreate() {
         super.onCreate();
         TraceDroid.init(this);
-        task_running = TASKS.NONE;
         AppRepository.INSTANCE.initialize(
                 getApplicationContext(),
                 Logging.Companion.get()
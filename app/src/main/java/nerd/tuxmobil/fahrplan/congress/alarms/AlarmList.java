@@ -114,12 +114,14 @@ public class AlarmList extends ActionBarListActivity {
 
         int alarmId = cursor.getInt(cursor.getColumnIndex(Columns.ID));
         db.delete(AlarmsTable.NAME, Columns.ID + " = ?", new String[]{String.valueOf(alarmId)});
+        new SessionAlarmQueue(this, appRepository).armNext();
         cursor.requery();
         mAdapter.notifyDataSetChanged();
     }
 
     public void deleteAllAlarms() {
         db.delete(AlarmsTable.NAME, null, null);
+        new SessionAlarmQueue(this, appRepository).armNext();
         setListAdapter(null);
     }
 
@@ -11,18 +11,25 @@ import androidx.core.app.NotificationCompat;
 
 import org.ligi.tracedroid.logging.Log;
 
+import java.util.List;
+
+import info.metadude.android.eventfahrplan.commons.temporal.Moment;
 import nerd.tuxmobil.fahrplan.congress.MyApp;
-import nerd.tuxmobil.fahrplan.congress.autoupdate.UpdateService;
+import nerd.tuxmobil.fahrplan.congress.autoupdate.WorkManagerSyncJobScheduler;
 import nerd.tuxmobil.fahrplan.congress.contract.BundleKeys;
 import nerd.tuxmobil.fahrplan.congress.exceptions.BuilderException;
+import nerd.tuxmobil.fahrplan.congress.models.Alarm;
 import nerd.tuxmobil.fahrplan.congress.notifications.NotificationHelper;
 import nerd.tuxmobil.fahrplan.congress.repositories.AppRepository;
 import nerd.tuxmobil.fahrplan.congress.schedule.MainActivity;
+import nerd.tuxmobil.fahrplan.congress.utils.FahrplanMisc;
 
 public final class AlarmReceiver extends BroadcastReceiver {
 
     public static final String ALARM_SESSION = "nerd.tuxmobil.fahrplan.congress.ALARM_SESSION";
 
+    public static final String ALARM_SESSIONS_DUE = "nerd.tuxmobil.fahrplan.congress.ALARM_SESSIONS_DUE";
+
     public static final String ALARM_UPDATE = "nerd.tuxmobil.fahrplan.congress.ALARM_UPDATE";
 
     private static final String ALARM_DISMISSED = "nerd.tuxmobil.fahrplan.congress.ALARM_DISMISSED";
@@ -43,45 +50,54 @@ public final class AlarmReceiver extends BroadcastReceiver {
 
         MyApp.LogDebug(LOG_TAG, "Received alarm = " + intent.getAction() + ".");
 
-        if (intent.getAction().equals(ALARM_SESSION)) {
-            String sessionId = intent.getStringExtra(BundleKeys.ALARM_SESSION_ID);
-            Log.d(LOG_TAG, "sessionId = " + sessionId + ", intent = " + intent);
-            int day = intent.getIntExtra(BundleKeys.ALARM_DAY, 1);
-            long when = intent
-                    .getLongExtra(BundleKeys.ALARM_START_TIME, System.currentTimeMillis());
-            String title = intent.getStringExtra(BundleKeys.ALARM_TITLE);
-            //Toast.makeText(context, "Alarm worked.", Toast.LENGTH_LONG).show();
-
-            int uniqueNotificationId = appRepository.createSessionAlarmNotificationId(sessionId);
-            Intent launchIntent = MainActivity.createLaunchIntent(context, sessionId, day, uniqueNotificationId);
-            PendingIntent contentIntent = PendingIntent
-                    .getActivity(context, DEFAULT_REQUEST_CODE, launchIntent, PendingIntent.FLAG_ONE_SHOT);
-
-            NotificationHelper notificationHelper = new NotificationHelper(context);
-            Uri soundUri = appRepository.readAlarmToneUri();
+        String action = intent.getAction();
+        // Session alarms armed by previous app versions are handled by the queue, too.
+        if (action.equals(ALARM_SESSIONS_DUE) || action.equals(ALARM_SESSION)) {
+            onSessionAlarmsDue(context);
 
-            Intent deleteNotificationIntent = createDeleteNotificationIntent(context, uniqueNotificationId);
-            PendingIntent deleteBroadcastIntent = PendingIntent
-                    .getBroadcast(context, DEFAULT_REQUEST_CODE, deleteNotificationIntent, NO_FLAGS);
-
-            NotificationCompat.Builder builder = notificationHelper.getSessionAlarmNotificationBuilder(
-                    contentIntent, title, when, soundUri, deleteBroadcastIntent);
-            boolean isInsistentAlarmsEnabled = appRepository.readInsistentAlarmsEnabled();
-            MyApp.LogDebug(LOG_TAG, "Preference 'isInsistentAlarmsEnabled' = " + isInsistentAlarmsEnabled + ".");
-            notificationHelper.notify(uniqueNotificationId, builder, isInsistentAlarmsEnabled);
+        } else if (action.equals(ALARM_DISMISSED)) {
+            onSessionAlarmNotificationDismissed(intent);
 
-            appRepository.deleteAlarmForSessionId(sessionId);
+        } else if (action.equals(ALARM_UPDATE)) {
+            // Alarm of a previous app version. Hands over to the sync job.
+            FahrplanMisc.scheduleUpdates(context, true);
+            new WorkManagerSyncJobScheduler(context).scheduleOnce(appRepository.readAutoUpdateConstraints());
+        }
+    }
 
+    private void onSessionAlarmsDue(@NonNull Context context) {
+        long now = Moment.now().toMilliseconds();
+        List<Alarm> alarms = new SessionAlarmQueue(context, appRepository).pollDue(now);
+        for (Alarm alarm : alarms) {
+            showSessionAlarmNotification(context, alarm);
+        }
+        if (!alarms.isEmpty()) {
             appRepository.notifyAlarmsChanged();
-
-        } else if (intent.getAction().equals(ALARM_DISMISSED)) {
-            onSessionAlarmNotificationDismissed(intent);
-
-        } else if (intent.getAction().equals(ALARM_UPDATE)) {
-            UpdateService.start(context);
         }
     }
 
+    private void showSessionAlarmNotification(@NonNull Context context, @NonNull Alarm alarm) {
+        String sessionId = alarm.getSessionId();
+        Log.d(LOG_TAG, "sessionId = " + sessionId + ", alarm = " + alarm);
+        int uniqueNotificationId = appRepository.createSessionAlarmNotificationId(sessionId);
+        Intent launchIntent = MainActivity.createLaunchIntent(context, sessionId, alarm.getDay(), uniqueNotificationId);
+        PendingIntent contentIntent = PendingIntent
+                .getActivity(context, DEFAULT_REQUEST_CODE, launchIntent, PendingIntent.FLAG_ONE_SHOT);
+
+        NotificationHelper notificationHelper = new NotificationHelper(context);
+        Uri soundUri = appRepository.readAlarmToneUri();
+
+        Intent deleteNotificationIntent = createDeleteNotificationIntent(context, uniqueNotificationId);
+        PendingIntent deleteBroadcastIntent = PendingIntent
+                .getBroadcast(context, DEFAULT_REQUEST_CODE, deleteNotificationIntent, NO_FLAGS);
+
+        NotificationCompat.Builder builder = notificationHelper.getSessionAlarmNotificationBuilder(
+                contentIntent, alarm.getSessionTitle(), alarm.getStartTime(), soundUri, deleteBroadcastIntent);
+        boolean isInsistentAlarmsEnabled = appRepository.readInsistentAlarmsEnabled();
+        MyApp.LogDebug(LOG_TAG, "Preference 'isInsistentAlarmsEnabled' = " + isInsistentAlarmsEnabled + ".");
+        notificationHelper.notify(uniqueNotificationId, builder, isInsistentAlarmsEnabled);
+    }
+
     private void onSessionAlarmNotificationDismissed(@NonNull Intent intent) {
         int notificationId = intent.getIntExtra(BUNDLE_KEY_NOTIFICATION_ID, INVALID_NOTIFICATION_ID);
         if (notificationId == INVALID_NOTIFICATION_ID) {
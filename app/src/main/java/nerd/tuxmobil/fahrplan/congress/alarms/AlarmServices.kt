@@ -4,6 +4,7 @@ import android.app.AlarmManager
 import android.app.PendingIntent
 import android.content.Context
 import android.content.Intent
+import nerd.tuxmobil.fahrplan.congress.autoupdate.ScheduleSyncJob
 import nerd.tuxmobil.fahrplan.congress.models.SchedulableAlarm
 
 typealias PendingIntentCallback = (Context, Intent) -> PendingIntent
@@ -26,25 +27,21 @@ class AlarmServices @JvmOverloads constructor(
     }
 
     /**
-     * Schedules the given [alarm] via the [AlarmManager].
-     * Existing alarms for the associated session are discarded if configured via [discardExisting].
+     * Arms the single system alarm of the [SessionAlarmQueue] for the given [alarmTime].
+     * The alarm which has been armed before is replaced.
      */
-    @JvmOverloads
-    fun scheduleSessionAlarm(context: Context, alarm: SchedulableAlarm, discardExisting: Boolean = false) {
-        val intent = AlarmReceiver.AlarmIntentBuilder()
-                .setContext(context)
-                .setSessionId(alarm.sessionId)
-                .setDay(alarm.day)
-                .setTitle(alarm.sessionTitle)
-                .setStartTime(alarm.startTime)
-                .setIsAddAlarm()
-                .build()
-
+    fun scheduleNextSessionAlarm(context: Context, alarmTime: Long) {
+        val intent = createSessionsDueIntent(context)
         val pendingIntent = onPendingIntentBroadcast(context, intent)
-        if (discardExisting) {
-            alarmManager.cancel(pendingIntent)
-        }
-        alarmManager.set(AlarmManager.RTC_WAKEUP, alarm.startTime, pendingIntent)
+        alarmManager.set(AlarmManager.RTC_WAKEUP, alarmTime, pendingIntent)
+    }
+
+    /**
+     * Discards the single system alarm of the [SessionAlarmQueue].
+     */
+    fun discardNextSessionAlarm(context: Context) {
+        val intent = createSessionsDueIntent(context)
+        discardAlarm(context, intent)
     }
 
     /**
@@ -63,7 +60,8 @@ class AlarmServices @JvmOverloads constructor(
     }
 
     /**
-     * Discards an internal alarm used for automatic schedule updates via the [AlarmManager].
+     * Discards the internal alarm which previous app versions used for automatic schedule updates
+     * via the [AlarmManager]. Updates are run by the [ScheduleSyncJob] instead.
      */
     fun discardAutoUpdateAlarm(context: Context) {
         val intent = Intent(context, AlarmReceiver::class.java)
@@ -71,6 +69,11 @@ class AlarmServices @JvmOverloads constructor(
         discardAlarm(context, intent)
     }
 
+    private fun createSessionsDueIntent(context: Context) =
+            Intent(context, AlarmReceiver::class.java).apply {
+                action = AlarmReceiver.ALARM_SESSIONS_DUE
+            }
+
     private fun discardAlarm(context: Context, intent: Intent) {
         val pendingIntent = onPendingIntentBroadcast(context, intent)
         alarmManager.cancel(pendingIntent)
@@ -18,26 +18,55 @@ public class AlarmUpdater {
 
     }
 
+    private static final long TWO_HOURS = 2 * AlarmManager.INTERVAL_HOUR;
+
+    /**
+     * Share of the scheduled interval by which the conference interval has to differ
+     * before the alarm is rescheduled. Rescheduling postpones the next fetch by a full interval.
+     */
+    private static final double RESCHEDULE_TOLERANCE = 0.25;
+
     private final ConferenceTimeFrame conference;
 
     private final OnAlarmUpdateListener listener;
 
+    private final long conferenceInterval;
+
+    private final long scheduledInterval;
+
     public AlarmUpdater(@NonNull ConferenceTimeFrame conferenceTimeFrame,
                         @NonNull OnAlarmUpdateListener listener) {
+        this(conferenceTimeFrame, listener, TWO_HOURS, TWO_HOURS);
+    }
+
+    /**
+     * Creates an updater which uses the given {@code conferenceInterval} during the conference.
+     * An alarm whose {@code scheduledInterval} differs noticeably is rescheduled during the
+     * conference so that the interval can adapt to how often the schedule changes.
+     */
+    public AlarmUpdater(@NonNull ConferenceTimeFrame conferenceTimeFrame,
+                        @NonNull OnAlarmUpdateListener listener,
+                        long conferenceInterval,
+                        long scheduledInterval) {
         this.conference = conferenceTimeFrame;
         this.listener = listener;
+        this.conferenceInterval = conferenceInterval;
+        this.scheduledInterval = scheduledInterval;
     }
 
     public long calculateInterval(long time, boolean initial) {
         long interval;
         long nextFetch;
 
-        long TWO_HOURS = 2 * AlarmManager.INTERVAL_HOUR;
         long ONE_DAY = AlarmManager.INTERVAL_DAY;
 
         if (conference.contains(time)) {
-            interval = TWO_HOURS;
+            interval = conferenceInterval;
             nextFetch = time + interval;
+            if (!initial && differsNoticeably(interval, scheduledInterval)) {
+                listener.onCancelAlarm();
+                listener.onRescheduleAlarm(interval, nextFetch);
+            }
         } else if (conference.endsBefore(time)) {
             listener.onCancelAlarm();
             return 0;
@@ -48,7 +77,7 @@ public class AlarmUpdater {
 
         long shiftedTime = time + ONE_DAY;
         if (conference.startsAfter(time) && conference.startsAtOrBefore(shiftedTime)) {
-            interval = TWO_HOURS;
+            interval = conferenceInterval;
             nextFetch = conference.getFirstDayStartTime();
             if (!initial) {
                 listener.onCancelAlarm();
@@ -63,4 +92,8 @@ public class AlarmUpdater {
         return interval;
     }
 
+    private static boolean differsNoticeably(long interval, long scheduledInterval) {
+        return Math.abs(interval - scheduledInterval) > scheduledInterval * RESCHEDULE_TOLERANCE;
+    }
+
 }
@@ -0,0 +1,69 @@
+package nerd.tuxmobil.fahrplan.congress.alarms
+
+import android.app.AlarmManager
+import android.content.Context
+import nerd.tuxmobil.fahrplan.congress.extensions.getAlarmManager
+import nerd.tuxmobil.fahrplan.congress.models.Alarm
+import nerd.tuxmobil.fahrplan.congress.repositories.AppRepository
+
+/**
+ * Priority queue of the session alarms. The alarms database keeps them ordered by their time.
+ * Only the earliest alarm is armed via the [AlarmManager] no matter how many alarms are queued.
+ * Once it fires all alarms which are due are taken from the queue and the next one is armed.
+ */
+class SessionAlarmQueue @JvmOverloads constructor(
+
+        private val context: Context,
+        private val appRepository: AppRepository = AppRepository,
+        private val alarmServices: AlarmServices = AlarmServices(context.getAlarmManager())
+
+) {
+
+    /**
+     * Adds the given [alarm] to the queue. An existing alarm for the same session is replaced.
+     */
+    fun add(alarm: Alarm) {
+        appRepository.updateAlarm(alarm)
+        armNext()
+    }
+
+    /**
+     * Removes the alarm for the given [sessionId] from the queue.
+     */
+    fun remove(sessionId: String) {
+        appRepository.deleteAlarmForSessionId(sessionId)
+        armNext()
+    }
+
+    /**
+     * Removes the alarms which are due at the given [time] from the queue and returns them.
+     */
+    fun pollDue(time: Long): List<Alarm> {
+        val alarms = appRepository.pollAlarmsUntil(time)
+        armNext()
+        return alarms
+    }
+
+    /**
+     * Discards the alarms which have been missed until the given [time], e.g. while the device
+     * was switched off. The remaining alarms stay queued.
+     */
+    fun discardMissed(time: Long) {
+        appRepository.deleteAlarmsUntil(time)
+        armNext()
+    }
+
+    /**
+     * Arms the system alarm for the earliest alarm of the queue. The alarm which has been armed
+     * before is replaced. The system alarm is discarded if the queue is empty.
+     */
+    fun armNext() {
+        val alarm = appRepository.readNextAlarm()
+        if (alarm == null) {
+            alarmServices.discardNextSessionAlarm(context)
+        } else {
+            alarmServices.scheduleNextSessionAlarm(context, alarm.startTime)
+        }
+    }
+
+}
@@ -0,0 +1,127 @@
+package nerd.tuxmobil.fahrplan.congress.autoupdate
+
+import java.util.concurrent.TimeUnit
+import kotlin.math.exp
+import kotlin.math.ln
+import kotlin.math.max
+import kotlin.math.min
+import kotlin.math.pow
+
+/**
+ * Chooses the interval until the next schedule update based on the [FetchOutcome]s
+ * of the previous updates.
+ *
+ * The change rate of the schedule is estimated from the share of updates which found changes,
+ * using the estimator of Cho and Garcia-Molina for histories which only tell whether something
+ * changed between two fetches. Outcomes are weighted by how recent they are and, to follow the
+ * daily rhythm of a conference, by how close their time of day is to the time of the estimate.
+ * A few [priorFetchesCount] virtual fetches in the [defaultIntervalMillis], half of them
+ * with changes, keep the estimate sane while the history is short.
+ *
+ * The interval is the time in which [changesPerFetch] changes are expected. It is shortened
+ * if the schedule is expected to change faster within it, e.g. in the morning after a quiet
+ * night. The interval is bounded by [minIntervalMillis] and [maxIntervalMillis].
+ */
+class AdaptiveUpdatePolicy(
+
+        private val minIntervalMillis: Long,
+        private val maxIntervalMillis: Long,
+        private val defaultIntervalMillis: Long = TimeUnit.HOURS.toMillis(2),
+        private val changesPerFetch: Double = 0.75,
+        private val priorFetchesCount: Double = 3.0,
+        private val recentHalfLifeMillis: Long = TimeUnit.HOURS.toMillis(3),
+        private val timeOfDayHalfLifeMillis: Long = TimeUnit.DAYS.toMillis(2),
+        private val timeOfDayDeviationMillis: Long = TimeUnit.MINUTES.toMillis(90),
+        private val lookaheadStepMillis: Long = TimeUnit.MINUTES.toMillis(30)
+
+) {
+
+    companion object {
+
+        /**
+         * Number of outcomes worth keeping. Older outcomes hardly contribute to the estimate.
+         */
+        const val HISTORY_SIZE = 200
+
+        private val DAY_MILLIS = TimeUnit.DAYS.toMillis(1)
+
+    }
+
+    init {
+        require(minIntervalMillis > 0) { "minIntervalMillis must be positive but is $minIntervalMillis." }
+        require(defaultIntervalMillis in minIntervalMillis..maxIntervalMillis) {
+            "defaultIntervalMillis must be within $minIntervalMillis and $maxIntervalMillis but is $defaultIntervalMillis."
+        }
+        require(lookaheadStepMillis > 0) { "lookaheadStepMillis must be positive but is $lookaheadStepMillis." }
+    }
+
+    /**
+     * Returns the interval in milliseconds from [now] until the next update.
+     * The given [outcomes] must be ordered by the time they have been fetched at.
+     */
+    fun nextIntervalMillis(outcomes: List<FetchOutcome>, now: Long): Long {
+        if (outcomes.size < 2) {
+            return defaultIntervalMillis
+        }
+        val recentChangeRate = changeRate(outcomes) { _, outcome ->
+            halfLifeWeight(now - outcome.fetchedAt, recentHalfLifeMillis)
+        }
+        var interval = changesPerFetch / max(recentChangeRate, timeOfDayChangeRate(outcomes, now, now))
+        var lookahead = lookaheadStepMillis
+        while (lookahead < min(interval, maxIntervalMillis.toDouble())) {
+            val lookaheadInterval = changesPerFetch / timeOfDayChangeRate(outcomes, now, now + lookahead)
+            interval = min(interval, max(lookahead.toDouble(), lookaheadInterval))
+            lookahead += lookaheadStepMillis
+        }
+        return interval.toLong().coerceIn(minIntervalMillis, maxIntervalMillis)
+    }
+
+    /**
+     * Estimates the change rate at the time of day of the given [time].
+     */
+    private fun timeOfDayChangeRate(outcomes: List<FetchOutcome>, now: Long, time: Long) =
+            changeRate(outcomes) { previous, outcome ->
+                val middle = (previous.fetchedAt + outcome.fetchedAt) / 2
+                halfLifeWeight(now - outcome.fetchedAt, timeOfDayHalfLifeMillis) *
+                        timeOfDayWeight(middle, time)
+            }
+
+    /**
+     * Estimates the changes per millisecond from the consecutive [outcomes] which are weighted
+     * by the given [weightOf] function.
+     */
+    private fun changeRate(outcomes: List<FetchOutcome>,
+                           weightOf: (previous: FetchOutcome, outcome: FetchOutcome) -> Double): Double {
+        var fetchesCount = priorFetchesCount
+        var changedFetchesCount = priorFetchesCount / 2
+        var duration = priorFetchesCount * defaultIntervalMillis
+        for (index in 1 until outcomes.size) {
+            val previous = outcomes[index - 1]
+            val outcome = outcomes[index]
+            val weight = weightOf(previous, outcome)
+            fetchesCount += weight
+            duration += weight * (outcome.fetchedAt - previous.fetchedAt)
+            if (outcome.hasChanges) {
+                changedFetchesCount += weight
+            }
+        }
+        if (fetchesCount <= 0 || duration <= 0) {
+            return 0.0
+        }
+        val estimatedChangesPerFetch = -ln((fetchesCount - changedFetchesCount + 0.5) / (fetchesCount + 0.5))
+        return estimatedChangesPerFetch * fetchesCount / duration
+    }
+
+    private fun halfLifeWeight(age: Long, halfLifeMillis: Long) =
+            0.5.pow(age.toDouble() / halfLifeMillis)
+
+    /**
+     * Gaussian weight of the distance between the times of day of the given times.
+     */
+    private fun timeOfDayWeight(time: Long, otherTime: Long): Double {
+        val distance = ((time - otherTime) % DAY_MILLIS + DAY_MILLIS) % DAY_MILLIS
+        val timeOfDayDistance = min(distance, DAY_MILLIS - distance).toDouble() / timeOfDayDeviationMillis
+        return exp(-0.5 * timeOfDayDistance * timeOfDayDistance)
+    }
+
+}
@@ -0,0 +1,42 @@
+package nerd.tuxmobil.fahrplan.congress.autoupdate
+
+private const val OUTCOMES_SEPARATOR = ","
+private const val FIELDS_SEPARATOR = ":"
+
+/**
+ * Outcome of a schedule update at [fetchedAt] (milliseconds since the epoch).
+ * The [changesCount] is the number of sessions which have been flagged as changed, new or canceled.
+ * It is 0 if the schedule has not been modified.
+ */
+data class FetchOutcome(
+
+        val fetchedAt: Long,
+        val changesCount: Int
+
+) {
+
+    val hasChanges get() = changesCount > 0
+
+}
+
+/**
+ * Returns a compact representation of these outcomes, see [toFetchOutcomes].
+ */
+fun List<FetchOutcome>.toFetchOutcomesString() = joinToString(OUTCOMES_SEPARATOR) {
+    "${it.fetchedAt}$FIELDS_SEPARATOR${it.changesCount}"
+}
+
+/**
+ * Parses the outcomes of the given string created by [toFetchOutcomesString].
+ * Malformed outcomes are skipped.
+ */
+fun String.toFetchOutcomes() = split(OUTCOMES_SEPARATOR).mapNotNull {
+    val fields = it.split(FIELDS_SEPARATOR)
+    val fetchedAt = fields.first().toLongOrNull()
+    val changesCount = fields.getOrNull(1)?.toIntOrNull()
+    if (fields.size == 2 && fetchedAt != null && changesCount != null) {
+        FetchOutcome(fetchedAt, changesCount)
+    } else {
+        null
+    }
+}
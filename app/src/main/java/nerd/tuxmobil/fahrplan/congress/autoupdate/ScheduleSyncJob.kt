@@ -0,0 +1,143 @@
+package nerd.tuxmobil.fahrplan.congress.autoupdate
+
+import android.app.PendingIntent
+import android.content.Context
+import android.content.Intent
+import kotlinx.coroutines.CancellableContinuation
+import kotlinx.coroutines.suspendCancellableCoroutine
+import nerd.tuxmobil.fahrplan.congress.MyApp
+import nerd.tuxmobil.fahrplan.congress.R
+import nerd.tuxmobil.fahrplan.congress.net.CustomHttpClient
+import nerd.tuxmobil.fahrplan.congress.net.FetchScheduleResult
+import nerd.tuxmobil.fahrplan.congress.net.HttpStatus
+import nerd.tuxmobil.fahrplan.congress.net.ParseResult
+import nerd.tuxmobil.fahrplan.congress.net.ParseScheduleResult
+import nerd.tuxmobil.fahrplan.congress.notifications.NotificationHelper
+import nerd.tuxmobil.fahrplan.congress.repositories.AppRepository
+import nerd.tuxmobil.fahrplan.congress.schedule.MainActivity
+import nerd.tuxmobil.fahrplan.congress.utils.FahrplanMisc
+import kotlin.coroutines.resume
+
+/**
+ * Loads the schedule in the background and notifies about its changes.
+ * A loading of the UI which is in progress is joined, see [AppRepository.loadSchedule].
+ * The interval of the next run is adapted to the outcome afterwards unless the run is retried.
+ */
+class ScheduleSyncJob(
+
+        private val context: Context,
+        private val appRepository: AppRepository = AppRepository
+
+) : SyncJob {
+
+    companion object {
+
+        private const val LOG_TAG = "ScheduleSyncJob"
+
+        private val TRANSIENT_IO_HTTP_STATUSES = setOf(
+                HttpStatus.HTTP_DNS_FAILURE,
+                HttpStatus.HTTP_COULD_NOT_CONNECT,
+                HttpStatus.HTTP_CONNECT_TIMEOUT
+        )
+
+        /**
+         * Returns the result of a job whose loading ended with this fetch result.
+         * Network failures, request timeouts (408), too many requests (429) and server errors (5xx)
+         * are retried. Other failures such as a missing or forbidden schedule wait for the next
+         * periodic run.
+         */
+        fun FetchScheduleResult.toSyncJobResult() = when {
+            isSuccessful || isNotModified -> SyncJob.Result.SUCCESS
+            isTransientFailure() -> SyncJob.Result.RETRY
+            else -> SyncJob.Result.FAILURE
+        }
+
+        private fun FetchScheduleResult.isTransientFailure() =
+                if (httpStatusCode == FetchScheduleResult.NO_HTTP_STATUS_CODE) {
+                    httpStatus in TRANSIENT_IO_HTTP_STATUSES
+                } else {
+                    httpStatusCode == 408 || httpStatusCode == 429 || httpStatusCode in 500..599
+                }
+
+    }
+
+    override suspend fun run(): SyncJob.Result {
+        if (!appRepository.readAutoUpdateEnabled()) {
+            return SyncJob.Result.SUCCESS
+        }
+        val result = loadSchedule()
+        if (result != SyncJob.Result.RETRY) {
+            // Rescheduling replaces the periodic job including this run. It is only done
+            // once the interval changed noticeably, see AlarmUpdater, and never while
+            // a retry is pending which would be discarded together with its backoff.
+            FahrplanMisc.scheduleUpdates(context, false)
+        }
+        return result
+    }
+
+    private suspend fun loadSchedule() = suspendCancellableCoroutine<SyncJob.Result> { continuation ->
+        val url = appRepository.readScheduleUrl()
+        val okHttpClient = CustomHttpClient.getHttpClient(context)
+        val handle = appRepository.loadSchedule(url,
+                okHttpClient,
+                onFetchingDone = { fetchScheduleResult ->
+                    if (!fetchScheduleResult.isSuccessful) {
+                        MyApp.LogDebug(LOG_TAG, "Background schedule update ended. HTTP status code: ${fetchScheduleResult.httpStatus}")
+                        continuation.resumeIfActive(fetchScheduleResult.toSyncJobResult())
+                    }
+                },
+                // Sessions of single days are not rendered in the background.
+                onDaySessionsCommitted = {},
+                onParsingDone = { parseResult ->
+                    onParsingDone(parseResult)
+                    continuation.resumeIfActive(if (parseResult.isSuccess) SyncJob.Result.SUCCESS else SyncJob.Result.FAILURE)
+                },
+                // Shift changes are shown once the schedule is opened.
+                onLoadingShiftsDone = {},
+                onLoadingEnded = {
+                    // Loading failed or has been cancelled before a result has been reported.
+                    MyApp.LogDebug(LOG_TAG, "Background schedule update ended without a result.")
+                    continuation.resumeIfActive(SyncJob.Result.RETRY)
+                }
+        )
+        continuation.invokeOnCancellation { handle.detach(cancelIfUnused = true) }
+    }
+
+    /**
+     * Resumes with the given [result] unless a result has been reported before.
+     * Results are reported on the UI thread, the end of loading in the background.
+     */
+    private fun CancellableContinuation<SyncJob.Result>.resumeIfActive(result: SyncJob.Result) = synchronized(this) {
+        if (isActive) {
+            resume(result)
+        }
+    }
+
+    private fun onParsingDone(result: ParseResult) {
+        MyApp.LogDebug(LOG_TAG, "parseDone: ${result.isSuccess}, numDays=${appRepository.readMeta().numDays}")
+        val changesCount = appRepository.loadChangedSessions().size
+        if (changesCount > 0 && result is ParseScheduleResult) {
+            showScheduleUpdateNotification(result.version, changesCount)
+        }
+    }
+
+    private fun showScheduleUpdateNotification(version: String, changesCount: Int) {
+        val notificationIntent = Intent(context, MainActivity::class.java).apply {
+            flags = Intent.FLAG_ACTIVITY_CLEAR_TOP or Intent.FLAG_ACTIVITY_RESET_TASK_IF_NEEDED
+        }
+        val contentIntent = PendingIntent.getActivity(context, 0, notificationIntent, PendingIntent.FLAG_ONE_SHOT)
+
+        val contentText = if (version.isEmpty()) {
+            context.getString(R.string.schedule_updated)
+        } else {
+            context.getString(R.string.schedule_updated_to, version)
+        }
+
+        val soundUri = appRepository.readAlarmToneUri()
+
+        val notificationHelper = NotificationHelper(context)
+        val builder = notificationHelper.getScheduleUpdateNotificationBuilder(contentIntent, contentText, changesCount, soundUri)
+        notificationHelper.notify(NotificationHelper.SCHEDULE_UPDATE_ID, builder)
+    }
+
+}
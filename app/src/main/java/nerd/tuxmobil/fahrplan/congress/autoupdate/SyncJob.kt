@@ -0,0 +1,30 @@
+package nerd.tuxmobil.fahrplan.congress.autoupdate
+
+/**
+ * Work which is run in the background by a [SyncJobScheduler].
+ */
+interface SyncJob {
+
+    enum class Result {
+
+        /**
+         * The job completed. Periodic jobs run again after their interval.
+         */
+        SUCCESS,
+
+        /**
+         * The job failed for a transient reason. It runs again after its backoff delay.
+         */
+        RETRY,
+
+        /**
+         * The job failed for a reason which does not go away by retrying soon.
+         * Periodic jobs run again after their interval.
+         */
+        FAILURE
+
+    }
+
+    suspend fun run(): Result
+
+}
@@ -0,0 +1,41 @@
+package nerd.tuxmobil.fahrplan.congress.autoupdate
+
+import nerd.tuxmobil.fahrplan.congress.alarms.AlarmUpdater
+
+/**
+ * Schedules the periodic [SyncJob] as calculated by the [AlarmUpdater] at the time [now].
+ * The scheduled interval is passed to [onIntervalScheduled] so that the job is only
+ * rescheduled once the interval changes.
+ */
+class SyncJobAlarmUpdateListener(
+
+        private val syncJobScheduler: SyncJobScheduler,
+        private val constraints: SyncConstraints,
+        private val now: Long,
+        private val onIntervalScheduled: (interval: Long) -> Unit
+
+) : AlarmUpdater.OnAlarmUpdateListener {
+
+    override fun onCancelAlarm() {
+        syncJobScheduler.cancelPeriodic()
+    }
+
+    override fun onRescheduleAlarm(interval: Long, nextFetch: Long) {
+        schedulePeriodic(interval, nextFetch)
+    }
+
+    override fun onRescheduleInitialAlarm(interval: Long, nextFetch: Long) {
+        schedulePeriodic(interval, nextFetch)
+    }
+
+    private fun schedulePeriodic(interval: Long, nextFetch: Long) {
+        val request = SyncJobRequest(
+                intervalMillis = interval.coerceAtLeast(SyncJobRequest.MIN_INTERVAL_MILLIS),
+                initialDelayMillis = (nextFetch - now).coerceAtLeast(0),
+                constraints = constraints
+        )
+        syncJobScheduler.schedulePeriodic(request)
+        onIntervalScheduled(interval)
+    }
+
+}
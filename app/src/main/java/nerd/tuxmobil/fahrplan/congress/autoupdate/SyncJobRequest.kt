@@ -0,0 +1,73 @@
+package nerd.tuxmobil.fahrplan.congress.autoupdate
+
+import java.util.concurrent.TimeUnit
+import kotlin.math.min
+import kotlin.math.pow
+
+/**
+ * Periodic run of the [SyncJob] every [intervalMillis], starting after [initialDelayMillis].
+ */
+data class SyncJobRequest(
+
+        val intervalMillis: Long,
+        val initialDelayMillis: Long,
+        val constraints: SyncConstraints,
+        val backoff: SyncBackoff = SyncBackoff()
+
+) {
+
+    init {
+        require(intervalMillis >= MIN_INTERVAL_MILLIS) { "intervalMillis must be at least $MIN_INTERVAL_MILLIS but is $intervalMillis." }
+    }
+
+    companion object {
+
+        /**
+         * Shortest interval supported by the platform job schedulers.
+         */
+        val MIN_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(15)
+
+    }
+
+}
+
+/**
+ * Conditions the device has to meet before the [SyncJob] runs.
+ */
+data class SyncConstraints(
+
+        val requiresNetwork: Boolean = true,
+        val requiresUnmeteredNetwork: Boolean = false,
+        val requiresBatteryNotLow: Boolean = true
+
+)
+
+/**
+ * Exponential backoff of runs of the [SyncJob] which returned [SyncJob.Result.RETRY].
+ * The delay before the n-th retry is [initialDelayMillis] * 2^(n-1), capped at [MAX_DELAY_MILLIS]
+ * which is the cap of the platform job schedulers.
+ */
+data class SyncBackoff(
+
+        val initialDelayMillis: Long = TimeUnit.SECONDS.toMillis(30)
+
+) {
+
+    init {
+        require(initialDelayMillis >= MIN_DELAY_MILLIS) { "initialDelayMillis must be at least $MIN_DELAY_MILLIS but is $initialDelayMillis." }
+    }
+
+    companion object {
+        val MIN_DELAY_MILLIS = TimeUnit.SECONDS.toMillis(10)
+        val MAX_DELAY_MILLIS = TimeUnit.HOURS.toMillis(5)
+    }
+
+    /**
+     * Returns the delay before the given [retry] which starts at 1.
+     */
+    fun delayMillis(retry: Int): Long {
+        require(retry > 0) { "retry must be positive but is $retry." }
+        return min(MAX_DELAY_MILLIS.toDouble(), initialDelayMillis * 2.0.pow(retry - 1)).toLong()
+    }
+
+}
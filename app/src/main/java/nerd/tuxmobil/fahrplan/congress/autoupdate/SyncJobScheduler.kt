@@ -0,0 +1,27 @@
+package nerd.tuxmobil.fahrplan.congress.autoupdate
+
+/**
+ * Runs the [SyncJob] which updates the schedule in the background once its [SyncConstraints]
+ * are met. The device is not woken up while a run could not succeed, e.g. without a network.
+ * Runs which returned [SyncJob.Result.RETRY] are repeated according to their [SyncBackoff].
+ */
+interface SyncJobScheduler {
+
+    /**
+     * Runs the job periodically as described by the given [request].
+     * A periodic job which has been scheduled before is replaced.
+     */
+    fun schedulePeriodic(request: SyncJobRequest)
+
+    /**
+     * Runs the job once as soon as the given [constraints] are met
+     * unless such a run is pending already.
+     */
+    fun scheduleOnce(constraints: SyncConstraints)
+
+    /**
+     * Cancels the periodic job. A pending run of [scheduleOnce] is kept.
+     */
+    fun cancelPeriodic()
+
+}
@@ -0,0 +1,78 @@
+package nerd.tuxmobil.fahrplan.congress.autoupdate
+
+import android.content.Context
+import androidx.work.BackoffPolicy
+import androidx.work.Constraints
+import androidx.work.CoroutineWorker
+import androidx.work.ExistingPeriodicWorkPolicy
+import androidx.work.ExistingWorkPolicy
+import androidx.work.NetworkType
+import androidx.work.OneTimeWorkRequestBuilder
+import androidx.work.PeriodicWorkRequestBuilder
+import androidx.work.WorkManager
+import androidx.work.WorkerParameters
+import java.util.concurrent.TimeUnit
+
+/**
+ * Runs the [ScheduleSyncJob] via the [WorkManager] which defers it until the constraints are met
+ * and batches it with the work of other apps.
+ */
+class WorkManagerSyncJobScheduler(context: Context) : SyncJobScheduler {
+
+    private companion object {
+        const val PERIODIC_WORK_NAME = "schedule-sync-periodic"
+        const val ONE_TIME_WORK_NAME = "schedule-sync-once"
+    }
+
+    private val workManager = WorkManager.getInstance(context.applicationContext)
+
+    override fun schedulePeriodic(request: SyncJobRequest) {
+        val workRequest = PeriodicWorkRequestBuilder<ScheduleSyncWorker>(request.intervalMillis, TimeUnit.MILLISECONDS)
+                .setInitialDelay(request.initialDelayMillis, TimeUnit.MILLISECONDS)
+                .setConstraints(request.constraints.toWorkConstraints())
+                .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, request.backoff.initialDelayMillis, TimeUnit.MILLISECONDS)
+                .build()
+        workManager.enqueueUniquePeriodicWork(PERIODIC_WORK_NAME, ExistingPeriodicWorkPolicy.REPLACE, workRequest)
+    }
+
+    override fun scheduleOnce(constraints: SyncConstraints) {
+        val backoff = SyncBackoff()
+        val workRequest = OneTimeWorkRequestBuilder<ScheduleSyncWorker>()
+                .setConstraints(constraints.toWorkConstraints())
+                .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, backoff.initialDelayMillis, TimeUnit.MILLISECONDS)
+                .build()
+        workManager.enqueueUniqueWork(ONE_TIME_WORK_NAME, ExistingWorkPolicy.KEEP, workRequest)
+    }
+
+    override fun cancelPeriodic() {
+        workManager.cancelUniqueWork(PERIODIC_WORK_NAME)
+    }
+
+    private fun SyncConstraints.toWorkConstraints() = Constraints.Builder()
+            .setRequiredNetworkType(when {
+                requiresUnmeteredNetwork -> NetworkType.UNMETERED
+                requiresNetwork -> NetworkType.CONNECTED
+                else -> NetworkType.NOT_REQUIRED
+            })
+            .setRequiresBatteryNotLow(requiresBatteryNotLow)
+            .build()
+
+}
+
+/**
+ * Runs the [ScheduleSyncJob] on behalf of the [WorkManagerSyncJobScheduler].
+ */
+class ScheduleSyncWorker(
+
+        context: Context,
+        parameters: WorkerParameters
+
+) : CoroutineWorker(context, parameters) {
+
+    override suspend fun doWork() = when (ScheduleSyncJob(applicationContext).run()) {
+        SyncJob.Result.SUCCESS -> Result.success()
+        SyncJob.Result.RETRY -> Result.retry()
+        SyncJob.Result.FAILURE -> Result.failure()
+    }
+
+}
@@ -1,7 +1,6 @@
 package nerd.tuxmobil.fahrplan.congress.base;
 
 import android.os.Bundle;
-import android.util.Log;
 import android.view.MenuItem;
 import android.view.View;
 
@@ -15,16 +14,12 @@ import androidx.core.app.ActivityCompat;
 import androidx.fragment.app.Fragment;
 import androidx.fragment.app.FragmentManager;
 
-import kotlin.Unit;
-import nerd.tuxmobil.fahrplan.congress.autoupdate.UpdateService;
-import nerd.tuxmobil.fahrplan.congress.net.ConnectivityObserver;
+import nerd.tuxmobil.fahrplan.congress.autoupdate.WorkManagerSyncJobScheduler;
 import nerd.tuxmobil.fahrplan.congress.repositories.AppRepository;
 import nerd.tuxmobil.fahrplan.congress.utils.ActivityHelper;
 
 public abstract class BaseActivity extends AppCompatActivity {
 
-    private ConnectivityObserver connectivityObserver;
-
     public BaseActivity() {
         super();
     }
@@ -37,18 +32,7 @@ public abstract class BaseActivity extends AppCompatActivity {
     @Override
     protected void onCreate(@Nullable Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
-        connectivityObserver = new ConnectivityObserver(this, () -> {
-            Log.d(getClass().getSimpleName(), "Network is available.");
-            startUpdateService();
-            return Unit.INSTANCE;
-        });
-        connectivityObserver.start();
-    }
-
-    @Override
-    protected void onDestroy() {
-        super.onDestroy();
-        connectivityObserver.stop();
+        scheduleUpdate();
     }
 
     @Override
@@ -62,10 +46,15 @@ public abstract class BaseActivity extends AppCompatActivity {
         return super.onOptionsItemSelected(item);
     }
 
-    private void startUpdateService() {
-        boolean isAutoUpdateEnabled = AppRepository.INSTANCE.readAutoUpdateEnabled();
+    /**
+     * Updates the schedule in the background as soon as the network is available.
+     * Pending updates are not enqueued twice.
+     */
+    private void scheduleUpdate() {
+        AppRepository appRepository = AppRepository.INSTANCE;
+        boolean isAutoUpdateEnabled = appRepository.readAutoUpdateEnabled();
         if (isAutoUpdateEnabled) {
-            UpdateService.start(this);
+            new WorkManagerSyncJobScheduler(this).scheduleOnce(appRepository.readAutoUpdateConstraints());
         }
     }
 
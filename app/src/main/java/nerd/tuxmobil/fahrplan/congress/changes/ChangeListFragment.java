@@ -155,7 +155,7 @@ public class ChangeListFragment extends AbstractListFragment {
             // fragment is attached to one) that an item has been selected.
             position--;
             Session clicked = changesList.get(mAdapter.getItemIndex(position));
-            if (clicked.changedIsCanceled) return;
+            if (clicked.getChangedIsCanceled()) return;
             mListener.onSessionListClick(clicked);
         }
     }
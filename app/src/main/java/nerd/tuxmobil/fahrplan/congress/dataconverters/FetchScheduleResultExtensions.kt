@@ -6,5 +6,6 @@ import nerd.tuxmobil.fahrplan.congress.net.FetchScheduleResult as AppFetchSchedu
 fun NetworkFetchScheduleResult.toAppFetchScheduleResult() = AppFetchScheduleResult(
         httpStatus = httpStatus.toAppHttpStatus(),
         hostName = hostName,
-        exceptionMessage = exceptionMessage
+        exceptionMessage = exceptionMessage,
+        httpStatusCode = httpStatusCode
 )
@@ -0,0 +1,61 @@
+package nerd.tuxmobil.fahrplan.congress.dataconverters
+
+import nerd.tuxmobil.fahrplan.congress.models.Session
+
+// Avoid conflicts with the IDs of the main schedule, of other sources and of Engelsystem shifts.
+private const val SOURCE_ID_PREFIX = "source"
+private const val SOURCE_ID_SEPARATOR = '-'
+private const val MAIN_SOURCE_INDEX = 0
+
+/**
+ * Moves the sessions of the additional schedule source of the given [sourceIndex]
+ * (starting at 1) into their own namespace by prefixing their session IDs.
+ */
+fun List<Session>.toSourceNamespace(sourceIndex: Int) = map {
+    Session(it).apply { sessionId = "$SOURCE_ID_PREFIX$sourceIndex$SOURCE_ID_SEPARATOR${it.sessionId}" }
+}
+
+/**
+ * Index of the schedule source this session has been loaded from, see [toSourceNamespace].
+ * Only prefixed session IDs belong to an additional source. Sessions of the main schedule
+ * and Engelsystem shifts belong to source 0 whatever their ID looks like.
+ */
+val Session.sourceIndex: Int
+    get() {
+        if (!sessionId.startsWith(SOURCE_ID_PREFIX)) {
+            return MAIN_SOURCE_INDEX
+        }
+        val sourceIndex = sessionId
+                .substring(SOURCE_ID_PREFIX.length)
+                .substringBefore(SOURCE_ID_SEPARATOR, missingDelimiterValue = "")
+                .toIntOrNull()
+        return if (sourceIndex != null && sourceIndex > MAIN_SOURCE_INDEX) sourceIndex else MAIN_SOURCE_INDEX
+    }
+
+/**
+ * Appends the sessions of the additional schedule sources to these sessions of the main schedule.
+ * The given [sourcesSessions] are appended in their order.
+ *
+ * Day indices of appended sessions are taken from sessions on the same date.
+ * Sessions on other dates are dropped. Rooms which already exist keep their index.
+ * Other rooms are appended after the existing rooms in the order of their source.
+ */
+fun List<Session>.plusScheduleSources(sourcesSessions: List<List<Session>>): List<Session> {
+    val sessions = toMutableList()
+    val dayIndicesByDate = associate { it.date to it.day }
+    val roomIndicesByName = associate { it.room to it.roomIndex }.toMutableMap()
+    var nextRoomIndex = (map { it.roomIndex }.maxOrNull() ?: -1) + 1
+    sourcesSessions.forEach { sourceSessions ->
+        sourceSessions
+                .filter { it.date in dayIndicesByDate }
+                .sortedBy { it.roomIndex }
+                .mapTo(sessions) { session ->
+                    val roomIndex = roomIndicesByName.getOrPut(session.room) { nextRoomIndex++ }
+                    Session(session).apply {
+                        day = dayIndicesByDate.getValue(session.date)
+                        this.roomIndex = roomIndex
+                    }
+                }
+    }
+    return sessions.toList()
+}
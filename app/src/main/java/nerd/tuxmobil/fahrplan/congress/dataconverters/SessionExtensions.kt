@@ -14,6 +14,13 @@ fun Session.shiftRoomIndexOnDays(dayIndices: Set<Int>): Session {
     return this
 }
 
+fun Session.unshiftRoomIndexOnDays(dayIndices: Set<Int>): Session {
+    if (dayIndices.contains(day)) {
+        shiftRoomIndexBy(-1)
+    }
+    return this
+}
+
 fun Session.toDateInfo(): DateInfo = DateInfo(day, Moment.parseDate(date))
 
 fun Session.toHighlightDatabaseModel() = HighlightDatabaseModel(
@@ -47,18 +54,7 @@ fun Session.toSessionDatabaseModel() = SessionDatabaseModel(
         type = type,
         url = url,
 
-        changedDay = changedDay,
-        changedDuration = changedDuration,
-        changedIsCanceled = changedIsCanceled,
-        changedIsNew = changedIsNew,
-        changedLanguage = changedLanguage,
-        changedRecordingOptOut = changedRecordingOptOut,
-        changedRoom = changedRoom,
-        changedSpeakers = changedSpeakers,
-        changedSubtitle = changedSubtitle,
-        changedTime = changedTime,
-        changedTitle = changedTitle,
-        changedTrack = changedTrack
+        changeFlags = changeFlags // Same bit layout, see Session.CHANGED_TITLE.
 )
 
 fun SessionDatabaseModel.toSessionAppModel(): Session {
@@ -88,18 +84,7 @@ fun SessionDatabaseModel.toSessionAppModel(): Session {
     session.type = type
     session.url = url
 
-    session.changedDay = changedDay
-    session.changedDuration = changedDuration
-    session.changedIsCanceled = changedIsCanceled
-    session.changedIsNew = changedIsNew
-    session.changedLanguage = changedLanguage
-    session.changedRecordingOptOut = changedRecordingOptOut
-    session.changedRoom = changedRoom
-    session.changedSpeakers = changedSpeakers
-    session.changedSubtitle = changedSubtitle
-    session.changedTime = changedTime
-    session.changedTitle = changedTitle
-    session.changedTrack = changedTrack
+    session.changeFlags = changeFlags // Same bit layout, see Session.CHANGED_TITLE.
 
     return session
 }
@@ -10,6 +10,10 @@ fun List<Session>.shiftRoomIndicesOfMainSchedule(dayIndices: Set<Int>) = map {
     it.shiftRoomIndexOnDays(dayIndices)
 }
 
+fun List<Session>.unshiftRoomIndicesOfMainSchedule(dayIndices: Set<Int>) = map {
+    it.unshiftRoomIndexOnDays(dayIndices)
+}
+
 fun List<Session>.toDayIndices(): Set<Int> {
     val dayIndices = HashSet<Int>()
     forEach {
@@ -3,6 +3,7 @@ package nerd.tuxmobil.fahrplan.congress.dataconverters
 import androidx.annotation.VisibleForTesting
 import info.metadude.android.eventfahrplan.commons.logging.Logging
 import info.metadude.android.eventfahrplan.commons.temporal.DayRange
+import info.metadude.android.eventfahrplan.commons.temporal.DayRangeIndex
 import info.metadude.android.eventfahrplan.commons.temporal.Moment.Companion.toMoment
 import info.metadude.kotlin.library.engelsystem.models.Shift
 import nerd.tuxmobil.fahrplan.congress.models.Session
@@ -17,11 +18,19 @@ fun Shift.toSessionAppModel(
         virtualRoomName: String,
         dayRanges: List<DayRange>
 
+) = toSessionAppModel(logging, virtualRoomName, DayRangeIndex(dayRanges))
+
+fun Shift.toSessionAppModel(
+
+        logging: Logging,
+        virtualRoomName: String,
+        dayRangeIndex: DayRangeIndex
+
 ) = Session("${SHIFT_ID_OFFSET + sID}").apply {
     abstractt = ""
     date = startsAtLocalDateString
     dateUTC = dateUtcMs
-    day = oneBasedDayIndex(logging, dayRanges)
+    day = oneBasedDayIndex(logging, dayRangeIndex)
     description = descriptionText
     duration = shiftDuration // minutes
     relStartTime = minuteOfDay
@@ -39,14 +48,20 @@ fun Shift.toSessionAppModel(
  * If the start time is within the start and end range of a day then the day index is returned.
  */
 @VisibleForTesting
-fun Shift.oneBasedDayIndex(logging: Logging, dayRanges: List<DayRange>): Int {
-    dayRanges.forEachIndexed { index, dayRange ->
-        if (dayRange.contains(startsAt)) {
-            logging.d(javaClass.simpleName, "${dayRange.startsAt} <= $startsAt < ${dayRange.endsAt} -> $talkTitle")
-            return index + 1
-        }
+fun Shift.oneBasedDayIndex(logging: Logging, dayRanges: List<DayRange>) =
+        oneBasedDayIndex(logging, DayRangeIndex(dayRanges))
+
+/**
+ * Returns the day index (starting at 1) of the day range of the given [dayRangeIndex]
+ * which contains the start date and time of this shift.
+ */
+fun Shift.oneBasedDayIndex(logging: Logging, dayRangeIndex: DayRangeIndex): Int {
+    val index = dayRangeIndex.indexOf(startsAt)
+    if (index == -1) {
+        logging.e(javaClass.simpleName, "Shift \"$talkTitle\" starts outside of all day ranges.")
+        error("Shift start time $startsAt (${startsAt.toEpochSecond()}) exceeds all day ranges.")
     }
-    error("Shift start time $startsAt (${startsAt.toEpochSecond()}) exceeds all day ranges.")
+    return index + 1
 }
 
 private val Shift.dateUtcMs
@@ -54,32 +69,30 @@ private val Shift.dateUtcMs
 
 @VisibleForTesting
 val Shift.descriptionText: String
-    get() {
-        var text = ""
+    get() = buildString {
         if (locationName.isNotEmpty()) {
-            text += locationName
+            append(locationName)
         }
         if (locationUrl.isNotEmpty()) {
-            if (text.isNotEmpty()) {
-                text += "<br />"
-            }
-            text += "<a href=\"$locationUrl\">$locationUrl</a>"
+            appendSeparator("<br />")
+            append("<a href=\"").append(locationUrl).append("\">").append(locationUrl).append("</a>")
         }
         if (locationDescription.isNotEmpty()) {
-            if (text.isNotEmpty()) {
-                text += "<br /><br />"
-            }
-            text += locationDescription
+            appendSeparator("<br /><br />")
+            append(locationDescription)
         }
         if (userComment.isNotEmpty()) {
-            if (text.isNotEmpty()) {
-                text += "<br /><br />"
-            }
-            text += "<em>$userComment</em>"
+            appendSeparator("<br /><br />")
+            append("<em>").append(userComment).append("</em>")
         }
-        return text
     }
 
+private fun StringBuilder.appendSeparator(separator: String) {
+    if (isNotEmpty()) {
+        append(separator)
+    }
+}
+
 private val Shift.minuteOfDay
     get() = startsAt.toMoment().minuteOfDay
 
@@ -2,7 +2,9 @@ package nerd.tuxmobil.fahrplan.congress.dataconverters
 
 import info.metadude.android.eventfahrplan.commons.logging.Logging
 import info.metadude.android.eventfahrplan.commons.temporal.DayRange
+import info.metadude.android.eventfahrplan.commons.temporal.DayRangeIndex
 import info.metadude.kotlin.library.engelsystem.models.Shift
+import nerd.tuxmobil.fahrplan.congress.models.Session
 
 fun List<Shift>.toSessionAppModels(
 
@@ -10,11 +12,16 @@ fun List<Shift>.toSessionAppModels(
         virtualRoomName: String,
         dayRanges: List<DayRange>
 
-) = map { it.toSessionAppModel(logging, virtualRoomName, dayRanges) }
+): List<Session> {
+    val dayRangeIndex = DayRangeIndex(dayRanges)
+    return map { it.toSessionAppModel(logging, virtualRoomName, dayRangeIndex) }
+}
 
 /**
  * Returns a list of shifts which only contains shifts which are within the given day ranges extent.
  * Shifts with a start date which is before or after the day ranges are dropped.
  */
-fun List<Shift>.cropToDayRangesExtent(dayRanges: List<DayRange>) =
-        filter { dayRanges.any { dayRange -> dayRange.contains(it.startsAt) } }
+fun List<Shift>.cropToDayRangesExtent(dayRanges: List<DayRange>): List<Shift> {
+    val dayRangeIndex = DayRangeIndex(dayRanges)
+    return filter { it.startsAt in dayRangeIndex }
+}
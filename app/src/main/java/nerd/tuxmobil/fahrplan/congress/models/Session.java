@@ -7,7 +7,7 @@ import androidx.annotation.NonNull;
 import androidx.core.util.ObjectsCompat;
 
 import info.metadude.android.eventfahrplan.commons.temporal.Moment;
-import info.metadude.android.eventfahrplan.network.serialization.FahrplanParser;
+import info.metadude.android.eventfahrplan.network.serialization.ScheduleParser;
 import info.metadude.android.eventfahrplan.network.temporal.DateParser;
 import nerd.tuxmobil.fahrplan.congress.R;
 import nerd.tuxmobil.fahrplan.congress.repositories.SessionsTransformer;
@@ -30,7 +30,7 @@ public class Session {
     public String room;
 
     /**
-     * The value of this field is generated by {@link FahrplanParser} when parsing the schedule. It contributes to how
+     * The value of this field is generated by {@link ScheduleParser} when parsing the schedule. It contributes to how
      * the rooms are sorted in the user interface, see {@link SessionsTransformer}. But it should not be used by any
      * other code!
      */
@@ -54,18 +54,34 @@ public class Session {
     public String recordingLicense;
     public boolean recordingOptOut;
 
-    public boolean changedTitle;
-    public boolean changedSubtitle;
-    public boolean changedRoom;
-    public boolean changedDay;
-    public boolean changedTime;
-    public boolean changedDuration;
-    public boolean changedSpeakers;
-    public boolean changedRecordingOptOut;
-    public boolean changedLanguage;
-    public boolean changedTrack;
-    public boolean changedIsNew;
-    public boolean changedIsCanceled;
+    // The bit layout equals the one of the database model. Keep them in sync!
+    public static final int CHANGED_TITLE = 1;
+    public static final int CHANGED_SUBTITLE = 1 << 1;
+    public static final int CHANGED_ROOM = 1 << 2;
+    public static final int CHANGED_DAY = 1 << 3;
+    public static final int CHANGED_SPEAKERS = 1 << 4;
+    public static final int CHANGED_RECORDING_OPTOUT = 1 << 5;
+    public static final int CHANGED_LANGUAGE = 1 << 6;
+    public static final int CHANGED_TRACK = 1 << 7;
+    public static final int CHANGED_IS_NEW = 1 << 8;
+    public static final int CHANGED_TIME = 1 << 9;
+    public static final int CHANGED_DURATION = 1 << 10;
+    public static final int CHANGED_IS_CANCELED = 1 << 11;
+
+    /**
+     * Flags of all fields which are compared when detecting schedule changes.
+     * The "new" and "canceled" states are not part of it, see {@link #isChanged()}.
+     */
+    public static final int CHANGED_CONTENT_MASK = CHANGED_TITLE | CHANGED_SUBTITLE | CHANGED_ROOM |
+            CHANGED_DAY | CHANGED_SPEAKERS | CHANGED_RECORDING_OPTOUT | CHANGED_LANGUAGE |
+            CHANGED_TRACK | CHANGED_TIME | CHANGED_DURATION;
+
+    /**
+     * Bitmask composed of the CHANGED_* flags above. One int replaces twelve booleans
+     * which keeps copies of this class small. Use the getters and setters below to access
+     * individual flags.
+     */
+    private int changeFlags;
 
     private static final boolean RECORDING_OPTOUT_OFF = false;
 
@@ -93,18 +109,7 @@ public class Session {
         roomIndex = 0;
         recordingLicense = "";
         recordingOptOut = RECORDING_OPTOUT_OFF;
-        changedTitle = false;
-        changedSubtitle = false;
-        changedRoom = false;
-        changedDay = false;
-        changedSpeakers = false;
-        changedRecordingOptOut = false;
-        changedLanguage = false;
-        changedTrack = false;
-        changedIsNew = false;
-        changedTime = false;
-        changedDuration = false;
-        changedIsCanceled = false;
+        changeFlags = 0;
     }
 
     public Session(@NonNull Session session) {
@@ -133,18 +138,7 @@ public class Session {
         this.recordingLicense = session.recordingLicense;
         this.recordingOptOut = session.recordingOptOut;
 
-        this.changedTitle = session.changedTitle;
-        this.changedSubtitle = session.changedSubtitle;
-        this.changedRoom = session.changedRoom;
-        this.changedDay = session.changedDay;
-        this.changedTime = session.changedTime;
-        this.changedDuration = session.changedDuration;
-        this.changedSpeakers = session.changedSpeakers;
-        this.changedRecordingOptOut = session.changedRecordingOptOut;
-        this.changedLanguage = session.changedLanguage;
-        this.changedTrack = session.changedTrack;
-        this.changedIsNew = session.changedIsNew;
-        this.changedIsCanceled = session.changedIsCanceled;
+        this.changeFlags = session.changeFlags;
     }
 
     @NonNull
@@ -215,43 +209,145 @@ public class Session {
     }
 
     public void cancel() {
-        changedIsCanceled = true;
-        changedTitle = false;
-        changedSubtitle = false;
-        changedRoom = false;
-        changedDay = false;
-        changedSpeakers = false;
-        changedRecordingOptOut = false;
-        changedLanguage = false;
-        changedTrack = false;
-        changedIsNew = false;
-        changedTime = false;
-        changedDuration = false;
+        changeFlags = CHANGED_IS_CANCELED;
     }
 
     public String getChangedStateString() {
         return "Session{" +
-                "changedTitle=" + changedTitle +
-                ", changedSubtitle=" + changedSubtitle +
-                ", changedRoom=" + changedRoom +
-                ", changedDay=" + changedDay +
-                ", changedTime=" + changedTime +
-                ", changedDuration=" + changedDuration +
-                ", changedSpeakers=" + changedSpeakers +
-                ", changedRecordingOptOut=" + changedRecordingOptOut +
-                ", changedLanguage=" + changedLanguage +
-                ", changedTrack=" + changedTrack +
-                ", changedIsNew=" + changedIsNew +
-                ", changedIsCanceled=" + changedIsCanceled +
+                "changedTitle=" + getChangedTitle() +
+                ", changedSubtitle=" + getChangedSubtitle() +
+                ", changedRoom=" + getChangedRoom() +
+                ", changedDay=" + getChangedDay() +
+                ", changedTime=" + getChangedTime() +
+                ", changedDuration=" + getChangedDuration() +
+                ", changedSpeakers=" + getChangedSpeakers() +
+                ", changedRecordingOptOut=" + getChangedRecordingOptOut() +
+                ", changedLanguage=" + getChangedLanguage() +
+                ", changedTrack=" + getChangedTrack() +
+                ", changedIsNew=" + getChangedIsNew() +
+                ", changedIsCanceled=" + getChangedIsCanceled() +
                 '}';
     }
 
     @SuppressWarnings("BooleanMethodIsAlwaysInverted")
     public boolean isChanged() {
-        return changedDay || changedDuration ||
-                changedLanguage || changedRecordingOptOut ||
-                changedRoom || changedSpeakers || changedSubtitle ||
-                changedTime || changedTitle || changedTrack;
+        return (changeFlags & CHANGED_CONTENT_MASK) != 0;
+    }
+
+    public int getChangeFlags() {
+        return changeFlags;
+    }
+
+    public void setChangeFlags(int changeFlags) {
+        this.changeFlags = changeFlags;
+    }
+
+    public boolean getChangedTitle() {
+        return hasChangeFlag(CHANGED_TITLE);
+    }
+
+    public void setChangedTitle(boolean changed) {
+        setChangeFlag(CHANGED_TITLE, changed);
+    }
+
+    public boolean getChangedSubtitle() {
+        return hasChangeFlag(CHANGED_SUBTITLE);
+    }
+
+    public void setChangedSubtitle(boolean changed) {
+        setChangeFlag(CHANGED_SUBTITLE, changed);
+    }
+
+    public boolean getChangedRoom() {
+        return hasChangeFlag(CHANGED_ROOM);
+    }
+
+    public void setChangedRoom(boolean changed) {
+        setChangeFlag(CHANGED_ROOM, changed);
+    }
+
+    public boolean getChangedDay() {
+        return hasChangeFlag(CHANGED_DAY);
+    }
+
+    public void setChangedDay(boolean changed) {
+        setChangeFlag(CHANGED_DAY, changed);
+    }
+
+    public boolean getChangedTime() {
+        return hasChangeFlag(CHANGED_TIME);
+    }
+
+    public void setChangedTime(boolean changed) {
+        setChangeFlag(CHANGED_TIME, changed);
+    }
+
+    public boolean getChangedDuration() {
+        return hasChangeFlag(CHANGED_DURATION);
+    }
+
+    public void setChangedDuration(boolean changed) {
+        setChangeFlag(CHANGED_DURATION, changed);
+    }
+
+    public boolean getChangedSpeakers() {
+        return hasChangeFlag(CHANGED_SPEAKERS);
+    }
+
+    public void setChangedSpeakers(boolean changed) {
+        setChangeFlag(CHANGED_SPEAKERS, changed);
+    }
+
+    public boolean getChangedRecordingOptOut() {
+        return hasChangeFlag(CHANGED_RECORDING_OPTOUT);
+    }
+
+    public void setChangedRecordingOptOut(boolean changed) {
+        setChangeFlag(CHANGED_RECORDING_OPTOUT, changed);
+    }
+
+    public boolean getChangedLanguage() {
+        return hasChangeFlag(CHANGED_LANGUAGE);
+    }
+
+    public void setChangedLanguage(boolean changed) {
+        setChangeFlag(CHANGED_LANGUAGE, changed);
+    }
+
+    public boolean getChangedTrack() {
+        return hasChangeFlag(CHANGED_TRACK);
+    }
+
+    public void setChangedTrack(boolean changed) {
+        setChangeFlag(CHANGED_TRACK, changed);
+    }
+
+    public boolean getChangedIsNew() {
+        return hasChangeFlag(CHANGED_IS_NEW);
+    }
+
+    public void setChangedIsNew(boolean changed) {
+        setChangeFlag(CHANGED_IS_NEW, changed);
+    }
+
+    public boolean getChangedIsCanceled() {
+        return hasChangeFlag(CHANGED_IS_CANCELED);
+    }
+
+    public void setChangedIsCanceled(boolean changed) {
+        setChangeFlag(CHANGED_IS_CANCELED, changed);
+    }
+
+    private boolean hasChangeFlag(int flag) {
+        return (changeFlags & flag) != 0;
+    }
+
+    private void setChangeFlag(int flag, boolean changed) {
+        if (changed) {
+            changeFlags |= flag;
+        } else {
+            changeFlags &= ~flag;
+        }
     }
 
     public String getFormattedSpeakers() {
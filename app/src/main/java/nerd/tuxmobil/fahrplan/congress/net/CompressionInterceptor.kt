@@ -0,0 +1,132 @@
+package nerd.tuxmobil.fahrplan.congress.net
+
+import info.metadude.android.eventfahrplan.commons.logging.Logging
+import info.metadude.android.eventfahrplan.commons.logging.Span
+import okhttp3.Interceptor
+import okhttp3.Interceptor.Chain
+import okhttp3.Response
+import okhttp3.ResponseBody
+import okio.Buffer
+import okio.ForwardingSource
+import okio.GzipSource
+import okio.Okio
+import okio.Source
+import java.io.IOException
+import java.util.concurrent.TimeUnit
+
+/**
+ * Requests gzip compressed responses and decompresses them while they are read,
+ * so the body is never held in memory in its compressed form.
+ *
+ * OkHttp does the same transparently unless a request sets "Accept-Encoding" itself.
+ * Doing it here allows to record the compressed and the uncompressed bytes and the
+ * transfer time of each response via the given [logging].
+ * Brotli is not requested because OkHttp 3.12 ships without a brotli decoder.
+ */
+internal class CompressionInterceptor(
+
+        private val logging: Logging
+
+) : Interceptor {
+
+    private companion object {
+        const val LOG_TAG = "CompressionInterceptor"
+        const val GZIP = "gzip"
+        const val HTTP_NO_CONTENT = 204
+        const val HTTP_NOT_MODIFIED = 304
+    }
+
+    @Throws(IOException::class)
+    override fun intercept(chain: Chain): Response {
+        val originalRequest = chain.request()
+        if (originalRequest.header("Accept-Encoding") != null || originalRequest.header("Range") != null) {
+            return chain.proceed(originalRequest)
+        }
+        val request = originalRequest.newBuilder()
+                .header("Accept-Encoding", GZIP)
+                .build()
+        val measurement = TransferMeasurement(request.url().encodedPath(), logging.beginSpan("http.transfer"))
+        val response = try {
+            chain.proceed(request)
+        } catch (e: IOException) {
+            measurement.record()
+            throw e
+        }
+        val body = response.body()
+        val hasBody = body != null && request.method() != "HEAD" &&
+                response.code() != HTTP_NO_CONTENT && response.code() != HTTP_NOT_MODIFIED
+        if (!hasBody) {
+            measurement.record()
+            return response
+        }
+        val isGzipped = GZIP.equals(response.header("Content-Encoding"), ignoreCase = true)
+        val compressedSource = CountingSource(body!!.source(), { measurement.compressedBytes += it })
+        val decompressedSource = if (isGzipped) GzipSource(compressedSource) else compressedSource
+        val uncompressedSource = CountingSource(decompressedSource, { measurement.uncompressedBytes += it }, measurement::record)
+        val responseBuilder = response.newBuilder()
+        val contentLength = if (isGzipped) {
+            responseBuilder.removeHeader("Content-Encoding").removeHeader("Content-Length")
+            -1L
+        } else {
+            body.contentLength()
+        }
+        val uncompressedBody = ResponseBody.create(body.contentType(), contentLength, Okio.buffer(uncompressedSource))
+        return responseBuilder.body(uncompressedBody).build()
+    }
+
+    private inner class TransferMeasurement(
+
+            private val path: String,
+            private val span: Span
+
+    ) {
+
+        var compressedBytes = 0L
+        var uncompressedBytes = 0L
+        private val startedAtNanos = System.nanoTime()
+        private var isRecorded = false
+
+        fun record() {
+            if (isRecorded) {
+                return
+            }
+            isRecorded = true
+            logging.endSpan(span)
+            val durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAtNanos)
+            logging.count("http.compressedBytes", compressedBytes)
+            logging.count("http.uncompressedBytes", uncompressedBytes)
+            logging.d(LOG_TAG, "$path: $compressedBytes bytes transferred, " +
+                    "$uncompressedBytes bytes uncompressed, $durationMillis ms")
+        }
+
+    }
+
+    /**
+     * Reports the number of bytes read to [onRead] and the end of the [delegate] to [onDone].
+     */
+    private class CountingSource(
+
+            delegate: Source,
+            private val onRead: (byteCount: Long) -> Unit,
+            private val onDone: () -> Unit = {}
+
+    ) : ForwardingSource(delegate) {
+
+        override fun read(sink: Buffer, byteCount: Long): Long {
+            val bytesRead = super.read(sink, byteCount)
+            if (bytesRead == -1L) {
+                onDone()
+            } else {
+                onRead(bytesRead)
+            }
+            return bytesRead
+        }
+
+        override fun close() {
+            super.close()
+            onDone()
+        }
+
+    }
+
+}
@@ -1,11 +1,20 @@
 package nerd.tuxmobil.fahrplan.congress.net;
 
 import android.app.Activity;
+import android.content.Context;
 import android.widget.Toast;
 
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import java.io.File;
+
+import info.metadude.android.eventfahrplan.commons.logging.Logging;
 import nerd.tuxmobil.fahrplan.congress.BuildConfig;
 import nerd.tuxmobil.fahrplan.congress.R;
 import nerd.tuxmobil.fahrplan.congress.utils.AlertDialogHelper;
+import okhttp3.Cache;
 import okhttp3.OkHttpClient;
 import okhttp3.logging.HttpLoggingInterceptor;
 import okhttp3.logging.HttpLoggingInterceptor.Level;
@@ -13,8 +22,34 @@ import okhttp3.logging.HttpLoggingInterceptor.Level;
 
 public class CustomHttpClient {
 
-    public static OkHttpClient createHttpClient() {
+    private static final String HTTP_CACHE_DIRECTORY_NAME = "http";
+
+    private static final long HTTP_CACHE_MAX_SIZE = 10 * 1024 * 1024;
+
+    @Nullable
+    private static OkHttpClient httpClient;
+
+    /**
+     * Returns the client which is shared by all requests of the app. Sharing one client
+     * keeps its connection pool and thread pool alive so that connections and TLS sessions
+     * are reused across schedule and Engelsystem requests. Responses are requested
+     * gzip compressed and cached on disk.
+     */
+    @NonNull
+    public static synchronized OkHttpClient getHttpClient(@NonNull Context context) {
+        if (httpClient == null) {
+            File cacheDirectory = new File(context.getApplicationContext().getCacheDir(), HTTP_CACHE_DIRECTORY_NAME);
+            httpClient = createHttpClient(new Cache(cacheDirectory, HTTP_CACHE_MAX_SIZE), Logging.Companion.get());
+        }
+        return httpClient;
+    }
+
+    @VisibleForTesting
+    @NonNull
+    static OkHttpClient createHttpClient(@Nullable Cache cache, @NonNull Logging logging) {
         OkHttpClient.Builder clientBuilder = new OkHttpClient.Builder();
+        clientBuilder.cache(cache);
+        clientBuilder.addInterceptor(new CompressionInterceptor(logging));
         String userAgent = BuildConfig.APPLICATION_ID + ", " + BuildConfig.VERSION_NAME;
         clientBuilder.addNetworkInterceptor(new UserAgentInterceptor(userAgent));
         if (BuildConfig.DEBUG) {
@@ -4,10 +4,15 @@ data class FetchScheduleResult(
 
         val httpStatus: HttpStatus,
         val hostName: String,
-        val exceptionMessage: String = ""
+        val exceptionMessage: String = "",
+        val httpStatusCode: Int = NO_HTTP_STATUS_CODE
 
 ) {
 
+    companion object {
+        const val NO_HTTP_STATUS_CODE = 0
+    }
+
     val isSuccessful
         get() = HttpStatus.HTTP_OK == httpStatus
 
@@ -1,8 +1,10 @@
 package nerd.tuxmobil.fahrplan.congress.net
 
+import nerd.tuxmobil.fahrplan.congress.serialization.ShiftChanges
+
 sealed class LoadShiftsResult {
 
-    object Success : LoadShiftsResult()
+    data class Success(val shiftChanges: ShiftChanges) : LoadShiftsResult()
     data class Error(val httpStatusCode: Int, val exceptionMessage: String) : LoadShiftsResult()
     data class Exception(val throwable: Throwable) : LoadShiftsResult()
 
@@ -1,12 +1,18 @@
 package nerd.tuxmobil.fahrplan.congress.net
 
+import nerd.tuxmobil.fahrplan.congress.serialization.ShiftChanges
+
 sealed class ParseShiftsResult(
 
         override val isSuccess: Boolean
 
 ) : ParseResult {
 
-    object Success : ParseShiftsResult(true)
+    data class Success(
+
+            val shiftChanges: ShiftChanges
+
+    ) : ParseShiftsResult(true)
 
     data class Error(
 
@@ -31,7 +37,7 @@ sealed class ParseShiftsResult(
 
         @JvmStatic
         fun of(result: LoadShiftsResult) = when (result) {
-            is LoadShiftsResult.Success -> Success
+            is LoadShiftsResult.Success -> Success(result.shiftChanges)
             is LoadShiftsResult.Error -> Error(result.httpStatusCode, result.exceptionMessage)
             is LoadShiftsResult.Exception -> Exception(result.throwable)
         }
@@ -4,16 +4,30 @@ import android.content.Context
 import android.content.SharedPreferences
 import androidx.core.content.edit
 import androidx.preference.PreferenceManager
+import info.metadude.android.eventfahrplan.engelsystem.models.ShiftsValidators
 import nerd.tuxmobil.fahrplan.congress.R
+import nerd.tuxmobil.fahrplan.congress.autoupdate.FetchOutcome
+import nerd.tuxmobil.fahrplan.congress.autoupdate.toFetchOutcomes
+import nerd.tuxmobil.fahrplan.congress.autoupdate.toFetchOutcomesString
 
 class SharedPreferencesRepository(val context: Context) {
 
     private companion object {
 
+        const val AUTO_UPDATE_FETCH_OUTCOMES_KEY = "nerd.tuxmobil.fahrplan.congress.Prefs.AUTO_UPDATE_FETCH_OUTCOMES"
+        const val AUTO_UPDATE_SCHEDULED_INTERVAL_KEY = "nerd.tuxmobil.fahrplan.congress.Prefs.AUTO_UPDATE_SCHEDULED_INTERVAL"
         const val CHANGES_SEEN_KEY = "nerd.tuxmobil.fahrplan.congress.Prefs.CHANGES_SEEN"
         const val DISPLAY_DAY_INDEX_KEY = "nerd.tuxmobil.fahrplan.congress.Prefs.DISPLAY_DAY_INDEX"
-        const val ENGELSYSTEM_SHIFTS_HASH_KEY = "nerd.tuxmobil.fahrplan.congress.Prefs.ENGELSYSTEM_SHIFTS_HASH"
+        const val ENGELSYSTEM_SHIFTS_CONTENT_HASH_KEY = "nerd.tuxmobil.fahrplan.congress.Prefs.ENGELSYSTEM_SHIFTS_CONTENT_HASH"
+        const val ENGELSYSTEM_SHIFTS_ETAG_KEY = "nerd.tuxmobil.fahrplan.congress.Prefs.ENGELSYSTEM_SHIFTS_ETAG"
+        const val ENGELSYSTEM_SHIFTS_LAST_MODIFIED_KEY = "nerd.tuxmobil.fahrplan.congress.Prefs.ENGELSYSTEM_SHIFTS_LAST_MODIFIED"
+        const val ENGELSYSTEM_SHIFTS_VALIDATORS_URL_KEY = "nerd.tuxmobil.fahrplan.congress.Prefs.ENGELSYSTEM_SHIFTS_VALIDATORS_URL"
+        const val SCHEDULE_CONTENT_HASH_KEY = "nerd.tuxmobil.fahrplan.congress.Prefs.SCHEDULE_CONTENT_HASH"
         const val SCHEDULE_LAST_FETCHED_AT_KEY = "nerd.tuxmobil.fahrplan.congress.Prefs.SCHEDULE_LAST_FETCHED_AT"
+        const val SCHEDULE_LAST_MODIFIED_KEY = "nerd.tuxmobil.fahrplan.congress.Prefs.SCHEDULE_LAST_MODIFIED"
+        const val SCHEDULE_SOURCE_CONTENT_HASH_KEY_PREFIX = "nerd.tuxmobil.fahrplan.congress.Prefs.SCHEDULE_SOURCE_CONTENT_HASH."
+        const val SCHEDULE_SOURCE_ETAG_KEY_PREFIX = "nerd.tuxmobil.fahrplan.congress.Prefs.SCHEDULE_SOURCE_ETAG."
+        const val SCHEDULE_SOURCE_LAST_MODIFIED_KEY_PREFIX = "nerd.tuxmobil.fahrplan.congress.Prefs.SCHEDULE_SOURCE_LAST_MODIFIED."
 
     }
 
@@ -51,6 +65,12 @@ class SharedPreferencesRepository(val context: Context) {
         return preferences.getBoolean(key, defaultValue)
     }
 
+    fun isAutoUpdateUnmeteredOnly(): Boolean {
+        val key = context.getString(R.string.preference_key_auto_update_unmetered_only)
+        val defaultValue = context.resources.getBoolean(R.bool.preference_default_value_auto_update_unmetered_only)
+        return preferences.getBoolean(key, defaultValue)
+    }
+
     fun getDisplayDayIndex() = preferences.getInt(DISPLAY_DAY_INDEX_KEY, 1)
 
     fun setDisplayDayIndex(displayDayIndex: Int) = preferences.edit {
@@ -70,6 +90,77 @@ class SharedPreferencesRepository(val context: Context) {
         putLong(SCHEDULE_LAST_FETCHED_AT_KEY, fetchedAt)
     }
 
+    fun getFetchOutcomes() =
+            preferences.getString(AUTO_UPDATE_FETCH_OUTCOMES_KEY, "")!!.toFetchOutcomes()
+
+    fun setFetchOutcomes(fetchOutcomes: List<FetchOutcome>) = preferences.edit {
+        putString(AUTO_UPDATE_FETCH_OUTCOMES_KEY, fetchOutcomes.toFetchOutcomesString())
+    }
+
+    /**
+     * Returns the interval of the scheduled auto update alarm or 0 if none has been scheduled.
+     */
+    fun getScheduledAutoUpdateInterval() =
+            preferences.getLong(AUTO_UPDATE_SCHEDULED_INTERVAL_KEY, 0)
+
+    fun setScheduledAutoUpdateInterval(interval: Long) = preferences.edit {
+        putLong(AUTO_UPDATE_SCHEDULED_INTERVAL_KEY, interval)
+    }
+
+    fun getScheduleLastModified() =
+            preferences.getString(SCHEDULE_LAST_MODIFIED_KEY, "")!!
+
+    fun setScheduleLastModified(lastModified: String) = preferences.edit {
+        putString(SCHEDULE_LAST_MODIFIED_KEY, lastModified)
+    }
+
+    fun getScheduleContentHash() =
+            preferences.getString(SCHEDULE_CONTENT_HASH_KEY, "")!!
+
+    fun setScheduleContentHash(contentHash: String) = preferences.edit {
+        putString(SCHEDULE_CONTENT_HASH_KEY, contentHash)
+    }
+
+    fun getScheduleSourceETag(url: String) =
+            preferences.getString(SCHEDULE_SOURCE_ETAG_KEY_PREFIX + url, "")!!
+
+    fun getScheduleSourceLastModified(url: String) =
+            preferences.getString(SCHEDULE_SOURCE_LAST_MODIFIED_KEY_PREFIX + url, "")!!
+
+    fun getScheduleSourceContentHash(url: String) =
+            preferences.getString(SCHEDULE_SOURCE_CONTENT_HASH_KEY_PREFIX + url, "")!!
+
+    /**
+     * Stores the validators of the additional schedule source of the given [url].
+     */
+    fun setScheduleSourceValidators(url: String, eTag: String, lastModified: String, contentHash: String) = preferences.edit {
+        putString(SCHEDULE_SOURCE_ETAG_KEY_PREFIX + url, eTag)
+        putString(SCHEDULE_SOURCE_LAST_MODIFIED_KEY_PREFIX + url, lastModified)
+        putString(SCHEDULE_SOURCE_CONTENT_HASH_KEY_PREFIX + url, contentHash)
+    }
+
+    /**
+     * Returns the validators of the last shifts response of the given Engelsystem [url].
+     * Validators of another URL are ignored.
+     */
+    fun getEngelsystemShiftsValidators(url: String): ShiftsValidators {
+        if (url != preferences.getString(ENGELSYSTEM_SHIFTS_VALIDATORS_URL_KEY, "")) {
+            return ShiftsValidators.NONE
+        }
+        return ShiftsValidators(
+                eTag = preferences.getString(ENGELSYSTEM_SHIFTS_ETAG_KEY, "")!!,
+                lastModified = preferences.getString(ENGELSYSTEM_SHIFTS_LAST_MODIFIED_KEY, "")!!,
+                contentHash = preferences.getString(ENGELSYSTEM_SHIFTS_CONTENT_HASH_KEY, "")!!
+        )
+    }
+
+    fun setEngelsystemShiftsValidators(url: String, validators: ShiftsValidators) = preferences.edit {
+        putString(ENGELSYSTEM_SHIFTS_VALIDATORS_URL_KEY, url)
+        putString(ENGELSYSTEM_SHIFTS_ETAG_KEY, validators.eTag)
+        putString(ENGELSYSTEM_SHIFTS_LAST_MODIFIED_KEY, validators.lastModified)
+        putString(ENGELSYSTEM_SHIFTS_CONTENT_HASH_KEY, validators.contentHash)
+    }
+
     fun getChangesSeen() =
             preferences.getBoolean(CHANGES_SEEN_KEY, true)
 
@@ -89,11 +180,4 @@ class SharedPreferencesRepository(val context: Context) {
         return preferences.getString(key, defaultValue)!!
     }
 
-    fun getLastEngelsystemShiftsHash() =
-            preferences.getInt(ENGELSYSTEM_SHIFTS_HASH_KEY, 0)
-
-    fun setLastEngelsystemShiftsHash(hash: Int) = preferences.edit {
-        putInt(ENGELSYSTEM_SHIFTS_HASH_KEY, hash)
-    }
-
 }
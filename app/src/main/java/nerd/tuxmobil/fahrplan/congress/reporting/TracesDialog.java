@@ -0,0 +1,60 @@
+package nerd.tuxmobil.fahrplan.congress.reporting;
+
+import android.app.Activity;
+import android.app.Dialog;
+import android.graphics.Typeface;
+import android.os.Bundle;
+import android.widget.ScrollView;
+import android.widget.TextView;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.appcompat.app.AlertDialog;
+import androidx.fragment.app.DialogFragment;
+
+import org.ligi.tracedroid.logging.Log;
+
+import info.metadude.android.eventfahrplan.commons.logging.Tracer;
+import nerd.tuxmobil.fahrplan.congress.R;
+
+/**
+ * Shows the per-stage timing histograms and counters recorded by the {@link Tracer}.
+ * The same text is written to the log so that it can be collected from devices via logcat.
+ * Only available in debug builds.
+ */
+public class TracesDialog extends DialogFragment {
+
+    public static final String FRAGMENT_TAG = "TracesDialog";
+
+    private static final String LOG_TAG = "TracesDialog";
+
+    public static TracesDialog newInstance() {
+        return new TracesDialog();
+    }
+
+    @MainThread
+    @NonNull
+    @Override
+    public Dialog onCreateDialog(Bundle savedInstanceState) {
+        Activity activity = requireActivity();
+        String traces = Tracer.DEFAULT.dump();
+        Log.d(LOG_TAG, traces);
+
+        int padding = getResources().getDimensionPixelSize(R.dimen.activity_padding);
+        TextView tracesView = new TextView(activity);
+        tracesView.setTypeface(Typeface.MONOSPACE);
+        tracesView.setTextIsSelectable(true);
+        tracesView.setPadding(padding, padding, padding, padding);
+        tracesView.setText(traces);
+        ScrollView scrollView = new ScrollView(activity);
+        scrollView.addView(tracesView);
+
+        return new AlertDialog.Builder(activity)
+                .setTitle(R.string.traces_dialog_title)
+                .setView(scrollView)
+                .setPositiveButton(R.string.traces_dialog_close, null)
+                .setNeutralButton(R.string.traces_dialog_reset, (dialog, which) -> Tracer.DEFAULT.reset())
+                .create();
+    }
+
+}
@@ -4,6 +4,7 @@ import android.content.Context
 import android.net.Uri
 import info.metadude.android.eventfahrplan.commons.extensions.onFailure
 import info.metadude.android.eventfahrplan.commons.logging.Logging
+import info.metadude.android.eventfahrplan.commons.logging.trace
 import info.metadude.android.eventfahrplan.commons.temporal.Moment
 import info.metadude.android.eventfahrplan.database.extensions.toContentValues
 import info.metadude.android.eventfahrplan.database.repositories.AlarmsDatabaseRepository
@@ -16,19 +17,30 @@ import info.metadude.android.eventfahrplan.database.sqliteopenhelper.MetaDBOpenH
 import info.metadude.android.eventfahrplan.database.sqliteopenhelper.SessionsDBOpenHelper
 import info.metadude.android.eventfahrplan.engelsystem.EngelsystemNetworkRepository
 import info.metadude.android.eventfahrplan.engelsystem.models.ShiftsResult
+import info.metadude.android.eventfahrplan.engelsystem.models.ShiftsValidators
+import info.metadude.android.eventfahrplan.network.fetching.FetchScheduleResult as FetchScheduleNetworkResult
+import info.metadude.android.eventfahrplan.network.fetching.HttpStatus as FetchScheduleNetworkStatus
 import info.metadude.android.eventfahrplan.network.models.Meta
 import info.metadude.android.eventfahrplan.network.repositories.ScheduleNetworkRepository
 import info.metadude.kotlin.library.engelsystem.models.Shift
-import kotlinx.coroutines.Job
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Deferred
+import kotlinx.coroutines.async
+import kotlinx.coroutines.awaitAll
 import nerd.tuxmobil.fahrplan.congress.BuildConfig
+import nerd.tuxmobil.fahrplan.congress.autoupdate.AdaptiveUpdatePolicy
+import nerd.tuxmobil.fahrplan.congress.autoupdate.FetchOutcome
+import nerd.tuxmobil.fahrplan.congress.autoupdate.SyncConstraints
 import nerd.tuxmobil.fahrplan.congress.dataconverters.cropToDayRangesExtent
+import nerd.tuxmobil.fahrplan.congress.dataconverters.plusScheduleSources
 import nerd.tuxmobil.fahrplan.congress.dataconverters.sanitize
 import nerd.tuxmobil.fahrplan.congress.dataconverters.shiftRoomIndicesOfMainSchedule
+import nerd.tuxmobil.fahrplan.congress.dataconverters.sourceIndex
+import nerd.tuxmobil.fahrplan.congress.dataconverters.toAlarmAppModel
 import nerd.tuxmobil.fahrplan.congress.dataconverters.toAlarmDatabaseModel
 import nerd.tuxmobil.fahrplan.congress.dataconverters.toAlarmsAppModel
 import nerd.tuxmobil.fahrplan.congress.dataconverters.toAppFetchScheduleResult
 import nerd.tuxmobil.fahrplan.congress.dataconverters.toDateInfos
-import nerd.tuxmobil.fahrplan.congress.dataconverters.toDayIndices
 import nerd.tuxmobil.fahrplan.congress.dataconverters.toDayRanges
 import nerd.tuxmobil.fahrplan.congress.dataconverters.toHighlightDatabaseModel
 import nerd.tuxmobil.fahrplan.congress.dataconverters.toHighlightsAppModel
@@ -40,8 +52,11 @@ import nerd.tuxmobil.fahrplan.congress.dataconverters.toSessionAppModels
 import nerd.tuxmobil.fahrplan.congress.dataconverters.toSessionsAppModel
 import nerd.tuxmobil.fahrplan.congress.dataconverters.toSessionsAppModel2
 import nerd.tuxmobil.fahrplan.congress.dataconverters.toSessionsDatabaseModel
+import nerd.tuxmobil.fahrplan.congress.dataconverters.toSourceNamespace
+import nerd.tuxmobil.fahrplan.congress.dataconverters.unshiftRoomIndicesOfMainSchedule
 import nerd.tuxmobil.fahrplan.congress.exceptions.AppExceptionHandler
 import nerd.tuxmobil.fahrplan.congress.models.Alarm
+import nerd.tuxmobil.fahrplan.congress.models.ScheduleData
 import nerd.tuxmobil.fahrplan.congress.models.Session
 import nerd.tuxmobil.fahrplan.congress.net.FetchScheduleResult
 import nerd.tuxmobil.fahrplan.congress.net.HttpStatus
@@ -50,10 +65,22 @@ import nerd.tuxmobil.fahrplan.congress.net.ParseResult
 import nerd.tuxmobil.fahrplan.congress.net.ParseScheduleResult
 import nerd.tuxmobil.fahrplan.congress.preferences.AlarmTonePreference
 import nerd.tuxmobil.fahrplan.congress.preferences.SharedPreferencesRepository
+import nerd.tuxmobil.fahrplan.congress.serialization.PrebuiltSchedule
 import nerd.tuxmobil.fahrplan.congress.serialization.ScheduleChanges.computeSessionsWithChangeFlags
+import nerd.tuxmobil.fahrplan.congress.serialization.ScheduleSnapshot
+import nerd.tuxmobil.fahrplan.congress.serialization.ShiftChanges
+import nerd.tuxmobil.fahrplan.congress.serialization.ShiftChanges.Companion.computeShiftChanges
 import nerd.tuxmobil.fahrplan.congress.utils.AlarmToneConversion
 import nerd.tuxmobil.fahrplan.congress.validation.MetaValidation.validate
 import okhttp3.OkHttpClient
+import java.io.File
+import java.io.FileInputStream
+import java.io.FileNotFoundException
+import java.io.IOException
+import java.nio.BufferUnderflowException
+import java.nio.ByteBuffer
+import java.nio.channels.FileChannel
+import java.util.concurrent.TimeUnit
 
 object AppRepository {
 
@@ -64,12 +91,19 @@ object AppRepository {
      */
     const val ENGELSYSTEM_ROOM_NAME = "Engelshifts"
     private const val ALL_DAYS = -1
+    private const val SCHEDULE_SNAPSHOT_FILE_NAME = "schedule-snapshot.bin"
 
     private lateinit var context: Context
 
     private lateinit var logging: Logging
 
-    private val parentJobs = mutableMapOf<String, Job>()
+    private val loadScheduleCoordinator = LoadScheduleCoordinator()
+    private val scheduleSnapshotLock = Any()
+    private val fetchOutcomesLock = Any()
+    private val autoUpdatePolicy = AdaptiveUpdatePolicy(
+            minIntervalMillis = TimeUnit.MINUTES.toMillis(BuildConfig.AUTO_UPDATE_MIN_INTERVAL_MINUTES.toLong()),
+            maxIntervalMillis = TimeUnit.MINUTES.toMillis(BuildConfig.AUTO_UPDATE_MAX_INTERVAL_MINUTES.toLong())
+    )
     private lateinit var networkScope: NetworkScope
 
     private lateinit var alarmsDatabaseRepository: AlarmsDatabaseRepository
@@ -110,145 +144,481 @@ object AppRepository {
         this.sharedPreferencesRepository = sharedPreferencesRepository
     }
 
-    private fun loadingFailed(@Suppress("SameParameterValue") requestIdentifier: String) {
-        parentJobs.remove(requestIdentifier)
-    }
-
+    /**
+     * Cancels the loading of the schedule which is in progress, see [LoadScheduleCoordinator.cancel].
+     */
     fun cancelLoading() {
-        parentJobs.values.forEach {
-            it.cancel()
-        }
-        parentJobs.clear()
+        loadScheduleCoordinator.cancel()
     }
 
+    /**
+     * Progress of loading the schedule. Thread-safe.
+     */
+    val loadScheduleState
+        get() = loadScheduleCoordinator.state
+
+    /**
+     * Loads the schedule from the given [url] and stores it in the database.
+     *
+     * Fetching and parsing run in the background. The given functions are invoked on the UI thread.
+     * Transient network failures are retried, see [ScheduleNetworkRepository].
+     * Loading stops once [cancelLoading] is invoked.
+     *
+     * Only one loading runs at a time. If loading is already in progress the given functions
+     * join it, see [LoadScheduleCoordinator]. The given [url] and [okHttpClient] are then ignored.
+     * The returned handle stops delivering results to the given functions. Loading is cancelled
+     * once no caller is left, see [LoadScheduleHandle.detach].
+     * [onLoadingEnded] is invoked in the background once loading ended, also if it failed
+     * or has been cancelled.
+     *
+     * Engelsystem shifts are fetched while the schedule is fetched and parsed. They are joined
+     * with the schedule once it has been stored, see [updateShifts].
+     *
+     * When the schedule is loaded for the first time the sessions of each day are stored
+     * as soon as the day has been parsed. [onDaySessionsCommitted] is invoked afterwards
+     * so that the day can be rendered before the remaining days are parsed.
+     *
+     * The request is conditional on the ETag and the Last-Modified date of the stored schedule.
+     * A response whose body is identical to the stored schedule is reported as not modified
+     * without parsing it.
+     */
+    @JvmOverloads
     fun loadSchedule(url: String,
                      okHttpClient: OkHttpClient,
                      onFetchingDone: (fetchScheduleResult: FetchScheduleResult) -> Unit,
+                     onDaySessionsCommitted: (dayIndex: Int) -> Unit,
                      onParsingDone: (parseScheduleResult: ParseResult) -> Unit,
-                     onLoadingShiftsDone: (loadShiftsResult: LoadShiftsResult) -> Unit
-    ) {
+                     onLoadingShiftsDone: (loadShiftsResult: LoadShiftsResult) -> Unit,
+                     onLoadingEnded: () -> Unit = {}
+    ): LoadScheduleHandle {
         check(onFetchingDone != {}) { "Nobody registered to receive FetchScheduleResult." }
+        check(onParsingDone != {}) { "Nobody registered to receive ParseScheduleResult." }
+        val callbacks = LoadScheduleCoordinator.Callbacks(onFetchingDone, onDaySessionsCommitted, onParsingDone, onLoadingShiftsDone, onLoadingEnded)
+        val membership = loadScheduleCoordinator.join(callbacks)
+        val loading = membership.startedLoading
+        if (loading == null) {
+            logging.d(javaClass.simpleName, "Joined the schedule loading in progress.")
+            return membership
+        }
+        val requestIdentifier = "loadSchedule"
+        val job = networkScope.launchNamed(requestIdentifier) {
+            try {
+                loadSchedule(url, okHttpClient, loading)
+            } finally {
+                loading.complete()
+            }
+        }
+        loading.onCancel { job.cancel() }
+        return membership
+    }
+
+    private suspend fun CoroutineScope.loadSchedule(url: String,
+                                                    okHttpClient: OkHttpClient,
+                                                    loading: LoadScheduleCoordinator.Loading) {
+        val shiftsUrl = readEnabledEngelsystemShiftsUrl()
+        val shiftsResult = shiftsUrl?.let {
+            fetchShiftsAsync(okHttpClient, it, sharedPreferencesRepository.getEngelsystemShiftsValidators(it))
+        }
         // Fetching
         val meta = readMeta().toMetaNetworkModel()
-        scheduleNetworkRepository.fetchSchedule(okHttpClient, url, meta.eTag) { fetchScheduleResult ->
-            val fetchResult = fetchScheduleResult.toAppFetchScheduleResult()
-            onFetchingDone.invoke(fetchResult)
+        val isInitialLoad = meta.numDays == 0
+        val additionalScheduleFetches = BuildConfig.ADDITIONAL_SCHEDULE_URLS.mapIndexed { index, additionalUrl ->
+            async { fetchAdditionalSchedule(okHttpClient, index + 1, additionalUrl, isInitialLoad) }
+        }
+        val lastModified = if (isInitialLoad) "" else sharedPreferencesRepository.getScheduleLastModified()
+        val fetchScheduleResult = logging.trace("loadSchedule.fetch") {
+            scheduleNetworkRepository.fetchSchedule(okHttpClient, url, meta.eTag, lastModified)
+        }
+        logging.count("loadSchedule.fetchedChars", fetchScheduleResult.scheduleXml.length.toLong())
+        var fetchResult = fetchScheduleResult.toAppFetchScheduleResult()
+        val isUnchangedContent = fetchResult.isSuccessful && !isInitialLoad &&
+                fetchScheduleResult.contentHash == sharedPreferencesRepository.getScheduleContentHash()
+        if (isUnchangedContent) {
+            logging.d(javaClass.simpleName, "Schedule content is unchanged. Skipping parsing.")
+            logging.count("loadSchedule.unchangedContent", 1)
+            // Keep the new validators so that the next request is conditional on them.
+            updateMeta(meta.copy(eTag = fetchScheduleResult.eTag).validate())
+            sharedPreferencesRepository.setScheduleLastModified(fetchScheduleResult.lastModified)
+            fetchResult = fetchResult.copy(httpStatus = HttpStatus.HTTP_NOT_MODIFIED)
+        }
+        val isMainScheduleChanged = fetchResult.isSuccessful
+        val changedAdditionalSchedules = additionalScheduleFetches.awaitAll().filterNotNull()
+        if (fetchResult.isNotModified && changedAdditionalSchedules.isNotEmpty()) {
+            logging.d(javaClass.simpleName, "Additional schedules changed: ${changedAdditionalSchedules.map { it.url }}")
+            fetchResult = fetchResult.copy(httpStatus = HttpStatus.HTTP_OK)
+        }
+        networkScope.withUiContext {
+            loading.onFetchingDone(fetchResult)
+        }
 
-            if (fetchResult.isNotModified || fetchResult.isSuccessful) {
-                updateScheduleLastFetchedAt()
-            }
+        if (fetchResult.isNotModified || fetchResult.isSuccessful) {
+            updateScheduleLastFetchedAt()
+        }
+        if (fetchResult.isNotModified) {
+            appendFetchOutcome(changesCount = 0)
+        }
 
-            if (fetchResult.isSuccessful) {
+        if (fetchResult.isSuccessful) {
+            // Parsing
+            val additionalScheduleParses = changedAdditionalSchedules.map {
+                async { parseAdditionalSchedule(it) }
+            }
+            if (isMainScheduleChanged) {
                 val validMeta = meta.copy(eTag = fetchScheduleResult.eTag).validate()
                 updateMeta(validMeta)
-                check(onParsingDone != {}) { "Nobody registered to receive ParseScheduleResult." }
-                // Parsing
                 parseSchedule(
                         fetchScheduleResult.scheduleXml,
                         fetchScheduleResult.eTag,
-                        okHttpClient,
-                        onParsingDone,
-                        onLoadingShiftsDone
+                        fetchScheduleResult.lastModified,
+                        fetchScheduleResult.contentHash,
+                        isInitialLoad,
+                        additionalScheduleParses,
+                        loading::onDaySessionsCommitted,
+                        loading::onParsingDone
                 )
+            } else {
+                mergeAdditionalSchedules(meta.version, additionalScheduleParses, loading::onParsingDone)
             }
-            if (fetchResult.isNotModified) {
-                loadShifts(okHttpClient, onLoadingShiftsDone)
+        }
+        if (shiftsUrl != null && shiftsResult != null) {
+            if (fetchResult.isNotModified || fetchResult.isSuccessful) {
+                var result = shiftsResult.await()
+                if (result is ShiftsResult.NotModified && fetchResult.isSuccessful) {
+                    // Days of the schedule might have changed. Shifts have to be assigned to them again.
+                    result = fetchShiftsAsync(okHttpClient, shiftsUrl, ShiftsValidators.NONE).await()
+                }
+                mergeShifts(shiftsUrl, result, loading::onLoadingShiftsDone)
+            } else {
+                shiftsResult.cancel()
             }
         }
     }
 
-    private fun parseSchedule(scheduleXml: String,
-                              eTag: String,
-                              okHttpClient: OkHttpClient,
-                              onParsingDone: (parseScheduleResult: ParseResult) -> Unit,
-                              onLoadingShiftsDone: (loadShiftsResult: LoadShiftsResult) -> Unit) {
-        scheduleNetworkRepository.parseSchedule(scheduleXml, eTag,
-                onUpdateSessions = { sessions ->
-                    val oldSessions = loadSessionsForAllDays(true)
-                    val newSessions = sessions.toSessionsAppModel2().sanitize()
-                    val (sessionsWithChangeFlags, foundChanges) = computeSessionsWithChangeFlags(newSessions, oldSessions)
-                    if (foundChanges) {
-                        resetChangesSeenFlag()
-                    }
-                    updateSessions(sessionsWithChangeFlags)
-                },
-                onUpdateMeta = { meta ->
-                    val validMeta = meta.validate()
-                    updateMeta(validMeta)
-                },
-                onParsingDone = { result: Boolean, version: String ->
-                    onParsingDone(ParseScheduleResult(result, version))
-                    loadShifts(okHttpClient, onLoadingShiftsDone)
-                })
+    /**
+     * Parses the given [scheduleXml]. If [isInitialLoad] is true, there are no sessions
+     * to compare with. The sessions of each day are then stored right after the day has
+     * been parsed. Otherwise sessions are stored once all of them have been compared with
+     * the previously stored sessions. The [lastModified] date and the [contentHash] of the
+     * schedule are stored once it has been parsed successfully.
+     *
+     * Days which have been stored during an initial load are deleted again if parsing fails,
+     * times out or is cancelled. Stale days of an initial load which has been aborted before
+     * are deleted once an initial load succeeds.
+     *
+     * Sessions of the [additionalSchedules] are appended before the sessions are compared.
+     * Engelsystem shifts are not compared and stay untouched, see [mergeShifts].
+     */
+    private suspend fun parseSchedule(scheduleXml: String,
+                                      eTag: String,
+                                      lastModified: String,
+                                      contentHash: String,
+                                      isInitialLoad: Boolean,
+                                      additionalSchedules: List<Deferred<AdditionalSchedule>>,
+                                      onDaySessionsCommitted: (dayIndex: Int) -> Unit,
+                                      onParsingDone: (parseScheduleResult: ParseResult) -> Unit) {
+        val parseSpan = logging.beginSpan("parseSchedule")
+        var isSuccess = false
+        val parseScheduleResult = try {
+            parseAndStoreSchedule(scheduleXml, eTag, lastModified, contentHash, isInitialLoad, additionalSchedules, onDaySessionsCommitted)
+                    .also { isSuccess = it.isSuccess }
+        } finally {
+            if (isInitialLoad && !isSuccess) {
+                deleteMainScheduleSessionsExcept(emptyList())
+            }
+            logging.endSpan(parseSpan)
+        }
+        networkScope.withUiContext {
+            onParsingDone(parseScheduleResult)
+        }
+    }
+
+    /**
+     * Parses and stores the schedule, see [parseSchedule].
+     */
+    private suspend fun parseAndStoreSchedule(scheduleXml: String,
+                                              eTag: String,
+                                              lastModified: String,
+                                              contentHash: String,
+                                              isInitialLoad: Boolean,
+                                              additionalSchedules: List<Deferred<AdditionalSchedule>>,
+                                              onDaySessionsCommitted: (dayIndex: Int) -> Unit): ParseScheduleResult {
+        val result = scheduleNetworkRepository.parseSchedule(scheduleXml, eTag) { dayIndex, sessions ->
+            if (isInitialLoad) {
+                logging.trace("parseSchedule.storeDay") {
+                    updateSessions(sessions.toSessionsAppModel2().sanitize())
+                }
+                networkScope.withUiContext {
+                    onDaySessionsCommitted(dayIndex)
+                }
+            }
+        }
+        if (result.isSuccessful) {
+            val sessions = result.sessions
+            logging.count("parseSchedule.parsedSessions", sessions.size.toLong())
+            // Sessions stored per day are not "old" sessions.
+            val oldSessions = if (isInitialLoad) emptyList() else loadSessionsForAllDays(false)
+            val newSessions = logging.trace("parseSchedule.transform") {
+                sessions.toSessionsAppModel2().sanitize()
+            }
+            val parsedAdditionalSchedules = additionalSchedules.awaitAll()
+            val mergedSessions = newSessions
+                    .plusScheduleSources(readAdditionalSessions(parsedAdditionalSchedules, oldSessions))
+                    // Make space for the Engelshifts room which is kept as is.
+                    .shiftRoomIndicesOfMainSchedule(readEngelsystemShiftsDayIndices())
+            updateSessionsWithChangeFlags(mergedSessions, oldSessions)
+            if (isInitialLoad) {
+                deleteMainScheduleSessionsExcept(mergedSessions)
+            }
+            updateMeta(result.meta.validate())
+            sharedPreferencesRepository.setScheduleLastModified(lastModified)
+            sharedPreferencesRepository.setScheduleContentHash(contentHash)
+            updateAdditionalScheduleValidators(parsedAdditionalSchedules)
+        } else {
+            additionalSchedules.forEach { it.cancel() }
+        }
+        return ParseScheduleResult(result.isSuccessful, result.meta.version)
+    }
+
+    /**
+     * Deletes the stored sessions of the main schedule which are not contained in the given
+     * [sessions]. Engelsystem shifts and sessions of additional schedule sources are kept.
+     */
+    private fun deleteMainScheduleSessionsExcept(sessions: List<Session>) {
+        val keptSessionIds = sessions.map { it.sessionId }.toSet()
+        val staleSessionIds = readSessionsOrderedByDateUtcExcludingEngelsystemShifts()
+                .filter { it.sourceIndex == 0 && it.sessionId !in keptSessionIds }
+                .map { it.sessionId }
+        if (staleSessionIds.isNotEmpty()) {
+            logging.d(javaClass.simpleName, "Deleting ${staleSessionIds.size} sessions of an incomplete initial load.")
+            sessionsDatabaseRepository.deleteSessions(*staleSessionIds.toTypedArray())
+        }
+    }
+
+    /**
+     * Merges the changed [additionalSchedules] with the stored sessions of the main schedule
+     * which has not been modified.
+     */
+    private suspend fun mergeAdditionalSchedules(version: String,
+                                                 additionalSchedules: List<Deferred<AdditionalSchedule>>,
+                                                 onParsingDone: (parseScheduleResult: ParseResult) -> Unit) {
+        val parsedAdditionalSchedules = additionalSchedules.awaitAll()
+        logging.trace("mergeAdditionalSchedules") {
+            val oldSessions = loadSessionsForAllDays(false)
+            val mainSessions = oldSessions.filter { it.sourceIndex == 0 && !it.changedIsCanceled }
+            val mergedSessions = mainSessions.plusScheduleSources(readAdditionalSessions(parsedAdditionalSchedules, oldSessions))
+            updateSessionsWithChangeFlags(mergedSessions, oldSessions)
+            updateAdditionalScheduleValidators(parsedAdditionalSchedules)
+        }
+        networkScope.withUiContext {
+            onParsingDone(ParseScheduleResult(true, version))
+        }
+    }
+
+    /**
+     * Flags the given [newSessions] according to their changes compared to
+     * the [oldSessions] and stores them. The number of changes is recorded for
+     * the auto update, see [readAutoUpdateInterval].
+     */
+    private fun updateSessionsWithChangeFlags(newSessions: List<Session>, oldSessions: List<Session>) {
+        val (sessionsWithChangeFlags, foundChanges) = logging.trace("parseSchedule.diff") {
+            computeSessionsWithChangeFlags(newSessions, oldSessions)
+        }
+        if (foundChanges) {
+            resetChangesSeenFlag()
+        }
+        appendFetchOutcome(sessionsWithChangeFlags.count { it.isChanged || it.changedIsCanceled || it.changedIsNew })
+        logging.trace("parseSchedule.store") {
+            updateSessions(sessionsWithChangeFlags)
+        }
+    }
+
+    /**
+     * A schedule which is merged into the main schedule. The sessions of the source of the given
+     * [sourceIndex] (starting at 1) are moved into their own ID namespace, see [toSourceNamespace].
+     * [sessions] is empty until the [fetchScheduleResult] has been parsed successfully.
+     */
+    private class AdditionalSchedule(
+
+            val sourceIndex: Int,
+            val url: String,
+            val fetchScheduleResult: FetchScheduleNetworkResult,
+            val sessions: List<Session> = emptyList(),
+            val isParsed: Boolean = false
+
+    )
+
+    /**
+     * Fetches the additional schedule of the given [url]. Returns null if the schedule is
+     * unchanged or could not be fetched. Its sessions are then taken from the database.
+     */
+    private suspend fun fetchAdditionalSchedule(okHttpClient: OkHttpClient,
+                                                sourceIndex: Int,
+                                                url: String,
+                                                isInitialLoad: Boolean): AdditionalSchedule? {
+        val eTag = if (isInitialLoad) "" else sharedPreferencesRepository.getScheduleSourceETag(url)
+        val lastModified = if (isInitialLoad) "" else sharedPreferencesRepository.getScheduleSourceLastModified(url)
+        val fetchScheduleResult = logging.trace("loadSchedule.fetchAdditional") {
+            scheduleNetworkRepository.fetchSchedule(okHttpClient, url, eTag, lastModified)
+        }
+        if (fetchScheduleResult.httpStatus != FetchScheduleNetworkStatus.HTTP_OK) {
+            logging.d(javaClass.simpleName, "Additional schedule $url: ${fetchScheduleResult.httpStatus}")
+            return null
+        }
+        if (!isInitialLoad && fetchScheduleResult.contentHash == sharedPreferencesRepository.getScheduleSourceContentHash(url)) {
+            logging.d(javaClass.simpleName, "Additional schedule $url is unchanged.")
+            return null
+        }
+        return AdditionalSchedule(sourceIndex, url, fetchScheduleResult)
+    }
+
+    private suspend fun parseAdditionalSchedule(schedule: AdditionalSchedule): AdditionalSchedule {
+        val fetchScheduleResult = schedule.fetchScheduleResult
+        val result = logging.trace("parseSchedule.additional") {
+            scheduleNetworkRepository.parseSchedule(fetchScheduleResult.scheduleXml, fetchScheduleResult.eTag)
+        }
+        if (!result.isSuccessful) {
+            logging.e(javaClass.simpleName, "Parsing additional schedule ${schedule.url} failed.")
+            return schedule
+        }
+        val sessions = result.sessions.toSessionsAppModel2().sanitize().toSourceNamespace(schedule.sourceIndex)
+        return AdditionalSchedule(schedule.sourceIndex, schedule.url, fetchScheduleResult, sessions, isParsed = true)
     }
 
     /**
-     * Loads personal shifts from the Engelsystem and joins them with the conference schedule.
-     * Once loading is done (successful or not) the given [onLoadingShiftsDone] function is invoked.
+     * Returns the sessions of each additional schedule source in the configured order.
+     * Sessions of sources which have not been parsed are taken from the given [storedSessions].
      */
-    private fun loadShifts(okHttpClient: OkHttpClient,
-                           onLoadingShiftsDone: (loadShiftsResult: LoadShiftsResult) -> Unit) {
+    private fun readAdditionalSessions(parsedSchedules: List<AdditionalSchedule>,
+                                       storedSessions: List<Session>): List<List<Session>> {
+        val parsedSchedulesBySourceIndex = parsedSchedules.filter { it.isParsed }.associateBy { it.sourceIndex }
+        return BuildConfig.ADDITIONAL_SCHEDULE_URLS.indices.map { index ->
+            val sourceIndex = index + 1
+            parsedSchedulesBySourceIndex[sourceIndex]?.sessions
+                    ?: storedSessions.filter { it.sourceIndex == sourceIndex && !it.changedIsCanceled }
+        }
+    }
+
+    private fun updateAdditionalScheduleValidators(parsedSchedules: List<AdditionalSchedule>) {
+        parsedSchedules.filter { it.isParsed }.forEach {
+            with(it.fetchScheduleResult) {
+                sharedPreferencesRepository.setScheduleSourceValidators(it.url, eTag, lastModified, contentHash)
+            }
+        }
+    }
+
+    /**
+     * Returns the URL of the personal shifts in the Engelsystem.
+     * Returns null if shifts are disabled or no Engelsystem URL has been configured.
+     */
+    private fun readEnabledEngelsystemShiftsUrl(): String? {
         @Suppress("ConstantConditionIf")
         if (!BuildConfig.ENABLE_ENGELSYSTEM_SHIFTS) {
-            return
+            return null
         }
         val url = readEngelsystemShiftsUrl()
         if (url.isEmpty()) {
             logging.d(javaClass.simpleName, "Engelsystem shifts URL is empty.")
             // TODO Cancel or remote shifts from database?
-            return
+            return null
         }
-        val requestIdentifier = "loadShifts"
-        parentJobs[requestIdentifier] = networkScope.launchNamed(requestIdentifier) {
-            suspend fun notifyLoadingShiftsDone(loadShiftsResult: LoadShiftsResult) {
-                networkScope.withUiContext {
-                    onLoadingShiftsDone(loadShiftsResult)
-                }
-            }
-            when (val result = engelsystemNetworkRepository.load(okHttpClient, url)) {
-                is ShiftsResult.Success -> {
+        return url
+    }
+
+    /**
+     * Starts loading personal shifts from the Engelsystem [url] in the given scope.
+     * The request is conditional on the given [validators] of the previous response.
+     */
+    private fun CoroutineScope.fetchShiftsAsync(okHttpClient: OkHttpClient,
+                                                url: String,
+                                                validators: ShiftsValidators) = async {
+        logging.trace("loadShifts.fetch") {
+            engelsystemNetworkRepository.load(okHttpClient, url, validators)
+        }
+    }
+
+    /**
+     * Joins the shifts of the given [result] with the conference schedule. The validators of
+     * the response of the given [url] are stored once the shifts have been stored.
+     * Unchanged shifts are neither converted nor stored.
+     * Once merging is done (successful or not) the given [onLoadingShiftsDone] function is invoked.
+     */
+    private suspend fun mergeShifts(url: String,
+                                    result: ShiftsResult,
+                                    onLoadingShiftsDone: (loadShiftsResult: LoadShiftsResult) -> Unit) {
+        val loadShiftsResult = when (result) {
+            is ShiftsResult.Success -> {
+                logging.count("loadShifts.fetchedShifts", result.shifts.size.toLong())
+                val shiftChanges = logging.trace("loadShifts.update") {
                     updateShifts(result.shifts)
-                    notifyLoadingShiftsDone(LoadShiftsResult.Success)
-                }
-                is ShiftsResult.Error -> {
-                    logging.e(javaClass.simpleName, "ShiftsResult.Error: $result")
-                    loadingFailed(requestIdentifier)
-                    notifyLoadingShiftsDone(LoadShiftsResult.Error(result.httpStatusCode, result.exceptionMessage))
-                }
-                is ShiftsResult.Exception -> {
-                    logging.e(javaClass.simpleName, "ShiftsResult.Exception: ${result.throwable.message}")
-                    result.throwable.printStackTrace()
-                    notifyLoadingShiftsDone(LoadShiftsResult.Exception(result.throwable))
                 }
+                sharedPreferencesRepository.setEngelsystemShiftsValidators(url, result.validators)
+                LoadShiftsResult.Success(shiftChanges)
+            }
+            is ShiftsResult.NotModified -> {
+                logging.d(javaClass.simpleName, "Shifts are unchanged.")
+                logging.count("loadShifts.notModified", 1)
+                LoadShiftsResult.Success(ShiftChanges.NONE)
+            }
+            is ShiftsResult.Error -> {
+                logging.e(javaClass.simpleName, "ShiftsResult.Error: $result")
+                LoadShiftsResult.Error(result.httpStatusCode, result.exceptionMessage)
             }
+            is ShiftsResult.Exception -> {
+                logging.e(javaClass.simpleName, "ShiftsResult.Exception: ${result.throwable.message}")
+                result.throwable.printStackTrace()
+                LoadShiftsResult.Exception(result.throwable)
+            }
+        }
+        networkScope.withUiContext {
+            onLoadingShiftsDone(loadShiftsResult)
         }
     }
 
     /**
-     * Updates the locally stored shifts. Old shifts are dropped.
+     * Updates the locally stored shifts and returns the changes compared to them.
+     * Only added and changed shifts are written, removed shifts are deleted.
      * Shifts which take place before or after the main conference days are omitted.
-     * New [shifts] are joined with conference schedule session.
+     *
+     * The Engelshifts room is placed before the rooms of the main schedule. Sessions of the
+     * main schedule are only updated on days which gained their first or lost their last shift.
      */
-    private fun updateShifts(shifts: List<Shift>) {
-        if (shifts.isEmpty()) {
-            return
-        }
+    private fun updateShifts(shifts: List<Shift>): ShiftChanges {
         val dayRanges = loadSessionsForAllDays(includeEngelsystemShifts = false)
                 .toDayRanges()
-        val sessionizedShifts = shifts
+        val newShifts = shifts
                 .also { logging.d(javaClass.simpleName, "Shifts unfiltered = ${it.size}") }
                 .cropToDayRangesExtent(dayRanges)
                 .also { logging.d(javaClass.simpleName, "Shifts filtered = ${it.size}") }
                 .toSessionAppModels(logging, ENGELSYSTEM_ROOM_NAME, dayRanges)
                 .sanitize()
-        val sessions = loadSessionsForAllDays(false) // Drop all shifts before ...
-                .toMutableList()
-                // Shift rooms to make space for the Engelshifts room
-                .shiftRoomIndicesOfMainSchedule(sessionizedShifts.toDayIndices())
-                .plus(sessionizedShifts) // ... adding them again.
-                .toList()
-        // TODO Detect shift changes as it happens for sessions
-        updateSessions(sessions)
+                .toSessionsDatabaseModel()
+        val oldShifts = sessionsDatabaseRepository.querySessionsWithinRoom(ENGELSYSTEM_ROOM_NAME)
+        val shiftChanges = computeShiftChanges(newShifts, oldShifts)
+        logging.d(javaClass.simpleName, "$shiftChanges")
+        if (shiftChanges.isEmpty) {
+            return shiftChanges
+        }
+
+        val oldDayIndices = oldShifts.map { it.dayIndex }.toSet()
+        val newDayIndices = newShifts.map { it.dayIndex }.toSet()
+        val addedDayIndices = newDayIndices - oldDayIndices
+        val removedDayIndices = oldDayIndices - newDayIndices
+        if (addedDayIndices.isNotEmpty() || removedDayIndices.isNotEmpty()) {
+            val sessions = loadSessionsForAllDays(false)
+                    .filter { it.day in addedDayIndices || it.day in removedDayIndices }
+                    .shiftRoomIndicesOfMainSchedule(addedDayIndices)
+                    .unshiftRoomIndicesOfMainSchedule(removedDayIndices)
+            updateSessions(sessions)
+        }
+
+        val upsertedShifts = shiftChanges.upsertedShifts
+                .map { it.sessionId to it.toContentValues() }
+                .toTypedArray()
+        sessionsDatabaseRepository.upsertSessions(*upsertedShifts)
+        sessionsDatabaseRepository.deleteSessions(*shiftChanges.removedSessionIds.toTypedArray())
+        logging.count("loadShifts.changedShifts", shiftChanges.upsertedShifts.size.toLong())
+        logging.count("loadShifts.removedShifts", shiftChanges.removedSessionIds.size.toLong())
+        return shiftChanges
     }
 
     /**
@@ -259,6 +629,114 @@ object AppRepository {
             .filterNot { it.changedIsCanceled }
             .also { logging.d(javaClass.simpleName, "${it.size} uncanceled sessions.") }
 
+    /**
+     * Loads all sessions of the given [dayIndex] which have not been canceled on a background thread.
+     * The sessions are passed to [onSessionsLoaded] on the UI thread.
+     */
+    fun loadUncanceledSessionsForDayIndexInBackground(dayIndex: Int, onSessionsLoaded: (sessions: List<Session>) -> Unit) {
+        networkScope.launchNamed("loadUncanceledSessionsForDayIndex") {
+            val sessions = loadUncanceledSessionsForDayIndex(dayIndex)
+            networkScope.withUiContext {
+                onSessionsLoaded(sessions)
+            }
+        }
+    }
+
+    /**
+     * Returns the schedule data of the given [dayIndex] stored via [updateScheduleSnapshot]
+     * or null if there is no snapshot of this day for the schedule version identified by [eTag].
+     * The snapshot file is memory-mapped instead of being copied into the heap.
+     */
+    fun readScheduleSnapshot(eTag: String, dayIndex: Int): ScheduleData? = logging.trace("readScheduleSnapshot") {
+        val file = File(context.cacheDir, SCHEDULE_SNAPSHOT_FILE_NAME)
+        if (!file.exists()) {
+            return null
+        }
+        try {
+            FileInputStream(file).channel.use { channel ->
+                val buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())
+                ScheduleSnapshot.read(buffer, eTag, dayIndex)
+            }
+        } catch (e: IOException) {
+            logging.e(javaClass.simpleName, "Error reading schedule snapshot: ${e.message}")
+            null
+        } catch (e: BufferUnderflowException) {
+            logging.e(javaClass.simpleName, "Truncated schedule snapshot.")
+            null
+        }
+    }
+
+    /**
+     * Replaces the schedule snapshot with the given [scheduleData] of the schedule version
+     * identified by [eTag]. The snapshot is encoded on the calling thread because sessions
+     * are modified on the UI thread. It is written to disk on a background thread.
+     */
+    fun updateScheduleSnapshot(eTag: String, scheduleData: ScheduleData) {
+        val snapshot = logging.trace("writeScheduleSnapshot") {
+            ScheduleSnapshot.write(eTag, scheduleData)
+        }
+        networkScope.launchNamed("updateScheduleSnapshot") {
+            synchronized(scheduleSnapshotLock) {
+                val file = File(context.cacheDir, SCHEDULE_SNAPSHOT_FILE_NAME)
+                val temporaryFile = File(context.cacheDir, "$SCHEDULE_SNAPSHOT_FILE_NAME.tmp")
+                try {
+                    temporaryFile.writeBytes(snapshot)
+                    if (!temporaryFile.renameTo(file)) {
+                        logging.e(javaClass.simpleName, "Error replacing schedule snapshot.")
+                    }
+                } catch (e: IOException) {
+                    logging.e(javaClass.simpleName, "Error writing schedule snapshot: ${e.message}")
+                }
+            }
+        }
+    }
+
+    /**
+     * Stores the schedule which has been bundled at build time on a background thread,
+     * see [importPrebuiltSchedule]. Whether it has been stored is passed to [onImportDone]
+     * on the UI thread. Must only be invoked as long as no schedule has been stored.
+     */
+    fun importPrebuiltScheduleInBackground(onImportDone: (isImported: Boolean) -> Unit) {
+        networkScope.launchNamed("importPrebuiltSchedule") {
+            val isImported = importPrebuiltSchedule()
+            networkScope.withUiContext {
+                onImportDone(isImported)
+            }
+        }
+    }
+
+    /**
+     * Stores the schedule which has been bundled at build time as the [PrebuiltSchedule.ASSET_NAME]
+     * asset. Its ETag is stored as well so that the first schedule update is a conditional request.
+     * Returns true if the schedule has been stored or false if the flavor does not bundle one.
+     */
+    private fun importPrebuiltSchedule(): Boolean {
+        val prebuiltSchedule = try {
+            val bundle = context.assets.open(PrebuiltSchedule.ASSET_NAME).use { it.readBytes() }
+            PrebuiltSchedule.read(ByteBuffer.wrap(bundle))
+        } catch (e: FileNotFoundException) {
+            logging.d(javaClass.simpleName, "No prebuilt schedule bundled.")
+            return false
+        } catch (e: IOException) {
+            logging.e(javaClass.simpleName, "Error reading prebuilt schedule: ${e.message}")
+            return false
+        } catch (e: BufferUnderflowException) {
+            logging.e(javaClass.simpleName, "Truncated prebuilt schedule.")
+            return false
+        }
+        if (prebuiltSchedule == null) {
+            logging.e(javaClass.simpleName, "Prebuilt schedule has been written by another format version.")
+            return false
+        }
+        logging.trace("importPrebuiltSchedule") {
+            updateSessions(prebuiltSchedule.sessions)
+            updateMeta(prebuiltSchedule.meta)
+        }
+        logging.d(javaClass.simpleName, "Imported ${prebuiltSchedule.sessions.size} sessions " +
+                "of the prebuilt schedule version \"${prebuiltSchedule.meta.version}\".")
+        return true
+    }
+
     /**
      * Loads all sessions from the database which have been favored aka. starred but no canceled.
      * The returned list might be empty.
@@ -334,6 +812,21 @@ object AppRepository {
     fun deleteAlarmForSessionId(sessionId: String) =
             alarmsDatabaseRepository.deleteForSessionId(sessionId)
 
+    /**
+     * Returns the alarm which is due next or `null` if there are no alarms.
+     */
+    fun readNextAlarm() =
+            alarmsDatabaseRepository.queryNext()?.toAlarmAppModel()
+
+    /**
+     * Removes the alarms which are due at the given [time] and returns them.
+     */
+    fun pollAlarmsUntil(time: Long) =
+            alarmsDatabaseRepository.pollUntil(time).toAlarmsAppModel()
+
+    fun deleteAlarmsUntil(time: Long) =
+            alarmsDatabaseRepository.deleteUntil(time)
+
     fun updateAlarm(alarm: Alarm) {
         val alarmDatabaseModel = alarm.toAlarmDatabaseModel()
         val values = alarmDatabaseModel.toContentValues()
@@ -384,14 +877,10 @@ object AppRepository {
     private fun readSessionsOrderedByDateUtcExcludingEngelsystemShifts() =
             sessionsDatabaseRepository.querySessionsWithoutRoom(ENGELSYSTEM_ROOM_NAME).toSessionsAppModel()
 
-    fun readLastEngelsystemShiftsHash() =
-            sharedPreferencesRepository.getLastEngelsystemShiftsHash()
-
-    fun updateLastEngelsystemShiftsHash(hash: Int) =
-            sharedPreferencesRepository.setLastEngelsystemShiftsHash(hash)
-
-    fun readEngelsystemShiftsHash() =
-            sessionsDatabaseRepository.querySessionsWithinRoom(ENGELSYSTEM_ROOM_NAME).hashCode()
+    private fun readEngelsystemShiftsDayIndices() =
+            sessionsDatabaseRepository.querySessionsWithinRoom(ENGELSYSTEM_ROOM_NAME)
+                    .map { it.dayIndex }
+                    .toSet()
 
     fun readDateInfos() =
             readSessionsOrderedByDateUtc().toDateInfos()
@@ -454,6 +943,10 @@ object AppRepository {
     fun readAutoUpdateEnabled() =
             sharedPreferencesRepository.isAutoUpdateEnabled()
 
+    fun readAutoUpdateConstraints() = SyncConstraints(
+            requiresUnmeteredNetwork = sharedPreferencesRepository.isAutoUpdateUnmeteredOnly()
+    )
+
     fun readScheduleUrl(): String {
         val alternateScheduleUrl = sharedPreferencesRepository.getAlternativeScheduleUrl()
         return if (alternateScheduleUrl.isEmpty()) {
@@ -473,6 +966,25 @@ object AppRepository {
         sharedPreferencesRepository.setScheduleLastFetchedAt(toMilliseconds())
     }
 
+    /**
+     * Returns the interval in milliseconds until the next auto update of the schedule
+     * as adapted to how often the schedule changed recently, see [AdaptiveUpdatePolicy].
+     */
+    fun readAutoUpdateInterval(now: Long) =
+            autoUpdatePolicy.nextIntervalMillis(sharedPreferencesRepository.getFetchOutcomes(), now)
+
+    fun readScheduledAutoUpdateInterval() =
+            sharedPreferencesRepository.getScheduledAutoUpdateInterval()
+
+    fun updateScheduledAutoUpdateInterval(interval: Long) =
+            sharedPreferencesRepository.setScheduledAutoUpdateInterval(interval)
+
+    private fun appendFetchOutcome(changesCount: Int) = synchronized(fetchOutcomesLock) {
+        val fetchOutcome = FetchOutcome(Moment.now().toMilliseconds(), changesCount)
+        val fetchOutcomes = sharedPreferencesRepository.getFetchOutcomes() + fetchOutcome
+        sharedPreferencesRepository.setFetchOutcomes(fetchOutcomes.takeLast(AdaptiveUpdatePolicy.HISTORY_SIZE))
+    }
+
     fun readScheduleChangesSeen() =
             sharedPreferencesRepository.getChangesSeen()
 
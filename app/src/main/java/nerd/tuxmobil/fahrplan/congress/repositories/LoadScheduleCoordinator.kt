@@ -0,0 +1,176 @@
+package nerd.tuxmobil.fahrplan.congress.repositories
+
+import nerd.tuxmobil.fahrplan.congress.net.FetchScheduleResult
+import nerd.tuxmobil.fahrplan.congress.net.LoadShiftsResult
+import nerd.tuxmobil.fahrplan.congress.net.ParseResult
+
+/**
+ * Lets concurrent requests to load the schedule share a single [Loading].
+ *
+ * The first request starts a loading. Requests which arrive while it is in progress join it.
+ * Their callbacks receive the remaining results of the loading as well as the fetch and parse
+ * results which have been reported before they joined. Each request receives a [Membership]
+ * which lets it leave the loading again. The loading is cancelled once the last request left.
+ *
+ * All functions are thread-safe. Callbacks are invoked on the thread which reports a result,
+ * replayed results on the thread which joins. [Callbacks.onLoadingEnded] is invoked on the thread
+ * which completes or cancels the loading, whether it succeeded or not.
+ */
+internal class LoadScheduleCoordinator {
+
+    class Callbacks(
+
+            val onFetchingDone: (fetchScheduleResult: FetchScheduleResult) -> Unit,
+            val onDaySessionsCommitted: (dayIndex: Int) -> Unit,
+            val onParsingDone: (parseScheduleResult: ParseResult) -> Unit,
+            val onLoadingShiftsDone: (loadShiftsResult: LoadShiftsResult) -> Unit,
+            val onLoadingEnded: () -> Unit = {}
+
+    )
+
+    private val lock = Any()
+
+    private var loading: Loading? = null
+
+    val state: LoadScheduleState
+        get() = synchronized(lock) { loading?.state ?: LoadScheduleState.IDLE }
+
+    /**
+     * Starts a new [Loading] which the caller has to run if no loading is in progress, see
+     * [Membership.startedLoading]. Otherwise the given [callbacks] join the loading in progress.
+     */
+    fun join(callbacks: Callbacks): Membership {
+        val fetchScheduleResult: FetchScheduleResult?
+        val parseResult: ParseResult?
+        val runningLoading: Loading
+        synchronized(lock) {
+            runningLoading = loading ?: return Membership(Loading(callbacks).also { loading = it }, callbacks, true)
+            runningLoading.callbacks += callbacks
+            fetchScheduleResult = runningLoading.fetchScheduleResult
+            parseResult = runningLoading.parseResult
+        }
+        fetchScheduleResult?.let(callbacks.onFetchingDone)
+        parseResult?.let(callbacks.onParsingDone)
+        return Membership(runningLoading, callbacks, false)
+    }
+
+    /**
+     * Cancels the loading in progress, see [Loading.onCancel]. Its remaining results are dropped.
+     * The next request starts a new loading.
+     */
+    fun cancel() {
+        val cancelWork: (() -> Unit)?
+        val receivers: List<Callbacks>
+        synchronized(lock) {
+            val cancelledLoading = loading ?: return
+            loading = null
+            cancelledLoading.isCancelled = true
+            cancelWork = cancelledLoading.cancelWork
+            receivers = cancelledLoading.callbacks
+        }
+        cancelWork?.invoke()
+        receivers.forEach { it.onLoadingEnded() }
+    }
+
+    /**
+     * The [callbacks] of a request which joined the given [loading].
+     */
+    inner class Membership internal constructor(
+
+            private val loading: Loading,
+            private val callbacks: Callbacks,
+            isStarter: Boolean
+
+    ) : LoadScheduleHandle {
+
+        /**
+         * The loading which has been started for the request and which the caller has to run
+         * or null if the request joined a loading in progress.
+         */
+        val startedLoading = if (isStarter) loading else null
+
+        override fun detach(cancelIfUnused: Boolean) {
+            val cancelWork = synchronized(lock) {
+                loading.callbacks = loading.callbacks.filter { it !== callbacks }
+                if (!cancelIfUnused || loading.callbacks.isNotEmpty() || this@LoadScheduleCoordinator.loading !== loading) {
+                    return
+                }
+                this@LoadScheduleCoordinator.loading = null
+                loading.isCancelled = true
+                loading.cancelWork
+            }
+            cancelWork?.invoke()
+        }
+
+    }
+
+    inner class Loading internal constructor(callbacks: Callbacks) {
+
+        // All fields are guarded by the lock of the coordinator.
+        internal var state = LoadScheduleState.FETCHING
+        internal var callbacks = listOf(callbacks)
+        internal var fetchScheduleResult: FetchScheduleResult? = null
+        internal var parseResult: ParseResult? = null
+        internal var isCancelled = false
+        internal var cancelWork: (() -> Unit)? = null
+
+        /**
+         * Registers the function which cancels the work of this loading once the last request
+         * left it. It is invoked right away if this already happened.
+         */
+        fun onCancel(cancelWork: () -> Unit) {
+            val isCancelled = synchronized(lock) {
+                this.cancelWork = cancelWork
+                isCancelled
+            }
+            if (isCancelled) {
+                cancelWork()
+            }
+        }
+
+        fun onFetchingDone(fetchScheduleResult: FetchScheduleResult) = report({
+            this.fetchScheduleResult = fetchScheduleResult
+            state = if (fetchScheduleResult.isSuccessful) LoadScheduleState.PARSING else LoadScheduleState.IDLE
+        }) { it.onFetchingDone(fetchScheduleResult) }
+
+        fun onDaySessionsCommitted(dayIndex: Int) = report({}) {
+            it.onDaySessionsCommitted(dayIndex)
+        }
+
+        fun onParsingDone(parseResult: ParseResult) = report({
+            this.parseResult = parseResult
+            state = LoadScheduleState.IDLE
+        }) { it.onParsingDone(parseResult) }
+
+        fun onLoadingShiftsDone(loadShiftsResult: LoadShiftsResult) = report({}) {
+            it.onLoadingShiftsDone(loadShiftsResult)
+        }
+
+        /**
+         * Ends this loading. Requests which arrive afterwards start a new loading.
+         */
+        fun complete() {
+            val receivers = synchronized(lock) {
+                if (loading !== this) {
+                    return
+                }
+                loading = null
+                callbacks
+            }
+            receivers.forEach { it.onLoadingEnded() }
+        }
+
+        private inline fun report(update: () -> Unit, notify: (callbacks: Callbacks) -> Unit) {
+            val receivers = synchronized(lock) {
+                if (loading !== this) {
+                    return
+                }
+                update()
+                callbacks
+            }
+            receivers.forEach(notify)
+        }
+
+    }
+
+}
@@ -0,0 +1,16 @@
+package nerd.tuxmobil.fahrplan.congress.repositories
+
+/**
+ * Participation of a caller in the loading of the schedule, see [AppRepository.loadSchedule].
+ */
+interface LoadScheduleHandle {
+
+    /**
+     * Stops delivering the results of the loading to the caller.
+     * If [cancelIfUnused] is true the loading is cancelled once no caller is left.
+     * Otherwise it continues so that a caller which arrives later can join it,
+     * e.g. an activity which is recreated after a configuration change.
+     */
+    fun detach(cancelIfUnused: Boolean)
+
+}
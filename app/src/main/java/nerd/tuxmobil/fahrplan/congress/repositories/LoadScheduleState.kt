@@ -0,0 +1,12 @@
+package nerd.tuxmobil.fahrplan.congress.repositories
+
+/**
+ * Progress of loading the schedule, see [LoadScheduleCoordinator].
+ */
+enum class LoadScheduleState {
+
+    IDLE,
+    FETCHING,
+    PARSING
+
+}
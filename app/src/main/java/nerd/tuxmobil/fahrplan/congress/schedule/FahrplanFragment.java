@@ -46,6 +46,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import info.metadude.android.eventfahrplan.commons.logging.Logging;
+import info.metadude.android.eventfahrplan.commons.logging.Span;
 import info.metadude.android.eventfahrplan.commons.temporal.Moment;
 import kotlin.Unit;
 import nerd.tuxmobil.fahrplan.congress.BuildConfig;
@@ -62,6 +64,7 @@ import nerd.tuxmobil.fahrplan.congress.net.ParseResult;
 import nerd.tuxmobil.fahrplan.congress.net.ParseScheduleResult;
 import nerd.tuxmobil.fahrplan.congress.net.ParseShiftsResult;
 import nerd.tuxmobil.fahrplan.congress.repositories.AppRepository;
+import nerd.tuxmobil.fahrplan.congress.repositories.LoadScheduleState;
 import nerd.tuxmobil.fahrplan.congress.repositories.OnSessionsChangeListener;
 import nerd.tuxmobil.fahrplan.congress.repositories.SessionsTransformer;
 import nerd.tuxmobil.fahrplan.congress.sharing.JsonSessionFormat;
@@ -101,6 +104,8 @@ public class FahrplanFragment extends Fragment implements SessionViewEventsHandl
 
     private AppRepository appRepository;
 
+    private final Logging logging = Logging.Companion.get();
+
     private int mDay = 1;
 
     public static Context context = null;
@@ -227,18 +232,19 @@ public class FahrplanFragment extends Fragment implements SessionViewEventsHandl
             saveCurrentDay(mDay);
         }
 
-        Log.d(LOG_TAG, "MyApp.task_running = " + MyApp.task_running);
-        switch (MyApp.task_running) {
-            case FETCH:
+        LoadScheduleState loadScheduleState = appRepository.getLoadScheduleState();
+        Log.d(LOG_TAG, "loadScheduleState = " + loadScheduleState);
+        switch (loadScheduleState) {
+            case FETCHING:
                 Log.d(LOG_TAG, "fetch was pending, restart");
                 if (MyApp.meta.getNumDays() != 0) {
                     viewDay(false);
                 }
                 break;
-            case PARSE:
+            case PARSING:
                 Log.d(LOG_TAG, "parse was pending, restart");
                 break;
-            case NONE:
+            case IDLE:
                 Log.d(LOG_TAG, "meta.getNumDays() = " + MyApp.meta.getNumDays());
                 if (MyApp.meta.getNumDays() != 0) {
                     // auf jeden Fall reload, wenn mit Session ID gestartet
@@ -273,13 +279,26 @@ public class FahrplanFragment extends Fragment implements SessionViewEventsHandl
 
     private void viewDay(boolean forceReload) {
         Log.d(LOG_TAG, "viewDay(" + forceReload + ")");
+        Span viewDaySpan = logging.beginSpan("viewDay");
+        Span loadSessionsSpan = logging.beginSpan("viewDay.loadSessions");
+        loadSessions(appRepository, mDay, forceReload);
+        logging.endSpan(loadSessionsSpan);
+        renderDay(forceReload);
+        logging.endSpan(viewDaySpan);
+    }
+
+    /**
+     * Renders the current {@link #scheduleData}.
+     *
+     * @param forceReload true to recreate all room columns, false to update the visible ones
+     */
+    private void renderDay(boolean forceReload) {
         View layoutRoot = getView();
         int boxHeight = getNormalizedBoxHeight(getResources(), scale, LOG_TAG);
 
         HorizontalSnapScrollView horizontalScroller = requireViewByIdCompat(layoutRoot, R.id.horizScroller);
         horizontalScroller.scrollTo(0, 0);
 
-        loadSessions(appRepository, mDay, forceReload);
         List<Session> sessionsOfDay = scheduleData.getAllSessions();
 
         if (!sessionsOfDay.isEmpty()) {
@@ -294,8 +313,10 @@ public class FahrplanFragment extends Fragment implements SessionViewEventsHandl
         HorizontalScrollView roomScroller = requireViewByIdCompat(layoutRoot, R.id.roomScroller);
         LinearLayout roomTitlesRowLayout = (LinearLayout) roomScroller.getChildAt(0);
         int columnWidth = horizontalScroller.getColumnWidth();
+        Span layoutSpan = logging.beginSpan("viewDay.layout");
         addRoomTitleViews(roomTitlesRowLayout, columnWidth, scheduleData.getRoomNames());
         addRoomColumns(horizontalScroller, columnWidth, scheduleData, forceReload);
+        logging.endSpan(layoutSpan);
 
         MainActivity.getInstance().shouldScheduleScrollToCurrentTimeSlot(() -> {
             scrollToCurrent(boxHeight);
@@ -572,9 +593,52 @@ public class FahrplanFragment extends Fragment implements SessionViewEventsHandl
             return;
         }
 
+        String eTag = MyApp.meta.getETag();
+        if (!forceReload && scheduleData == null) {
+            // Cold start: render the snapshot right away, load the authoritative sessions afterwards.
+            ScheduleData snapshot = appRepository.readScheduleSnapshot(eTag, day);
+            if (snapshot != null) {
+                scheduleData = snapshot;
+                appRepository.loadUncanceledSessionsForDayIndexInBackground(day, sessions -> {
+                    onSessionsLoadedInBackground(day, sessions);
+                    return Unit.INSTANCE;
+                });
+                return;
+            }
+        }
+
         List<Session> sessions = appRepository.loadUncanceledSessionsForDayIndex(day);
 
         scheduleData = sessionsTransformer.transformSessions(day, sessions);
+        appRepository.updateScheduleSnapshot(eTag, scheduleData);
+    }
+
+    /**
+     * Replaces the sessions rendered from the schedule snapshot with the given {@code sessions}
+     * loaded from the database. Room columns are only recreated if the sessions differ.
+     */
+    private void onSessionsLoadedInBackground(int day, @NonNull List<? extends Session> sessions) {
+        if (getView() == null || scheduleData == null || scheduleData.getDayIndex() != day) {
+            return;
+        }
+        ScheduleData loadedScheduleData = sessionsTransformer.transformSessions(day, sessions);
+        appRepository.updateScheduleSnapshot(MyApp.meta.getETag(), loadedScheduleData);
+        if (loadedScheduleData.equals(scheduleData)) {
+            // Highlights, alarms and change flags are not part of Session#equals.
+            List<Session> displayedSessions = scheduleData.getAllSessions();
+            List<Session> loadedSessions = loadedScheduleData.getAllSessions();
+            for (int index = 0; index < displayedSessions.size(); index++) {
+                Session displayedSession = displayedSessions.get(index);
+                Session loadedSession = loadedSessions.get(index);
+                displayedSession.highlight = loadedSession.highlight;
+                displayedSession.hasAlarm = loadedSession.hasAlarm;
+                displayedSession.setChangeFlags(loadedSession.getChangeFlags());
+            }
+            refreshViews();
+        } else {
+            scheduleData = loadedScheduleData;
+            renderDay(true);
+        }
     }
 
     private void reloadAlarms() {
@@ -634,15 +698,28 @@ public class FahrplanFragment extends Fragment implements SessionViewEventsHandl
         actionBar.setListNavigationCallbacks(arrayAdapter, new OnDaySelectedListener());
     }
 
+    /**
+     * Renders the sessions of the given day if it is the displayed day.
+     * Invoked while the remaining days of an initially loaded schedule are still being parsed.
+     *
+     * @return true if the day has been rendered
+     */
+    public boolean onDaySessionsCommitted(int dayIndex) {
+        if (dayIndex != mDay) {
+            return false;
+        }
+        FahrplanMisc.loadDays(appRepository);
+        viewDay(true);
+        fillTimes();
+        return true;
+    }
+
     public void onParseDone(@NonNull ParseResult result) {
         Activity activity = requireActivity();
-        int lastShiftsHash = appRepository.readLastEngelsystemShiftsHash();
-        int currentShiftsHash = appRepository.readEngelsystemShiftsHash();
-        MyApp.LogDebug(LOG_TAG, "Shifts hash (OLD) = " + lastShiftsHash);
-        MyApp.LogDebug(LOG_TAG, "Shifts hash (NEW) = " + currentShiftsHash);
-        boolean shiftsChanged = currentShiftsHash != lastShiftsHash;
+        boolean shiftsChanged = result instanceof ParseShiftsResult.Success
+                && !((ParseShiftsResult.Success) result).getShiftChanges().isEmpty();
         if (shiftsChanged) {
-            appRepository.updateLastEngelsystemShiftsHash(currentShiftsHash);
+            MyApp.LogDebug(LOG_TAG, "Shifts changed: " + ((ParseShiftsResult.Success) result).getShiftChanges());
         }
         if (result.isSuccess()) {
             if (MyApp.meta.getNumDays() == 0
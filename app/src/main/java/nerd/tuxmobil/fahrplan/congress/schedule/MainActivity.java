@@ -26,6 +26,7 @@ import androidx.fragment.app.DialogFragment;
 import androidx.fragment.app.Fragment;
 import androidx.fragment.app.FragmentManager;
 import androidx.fragment.app.FragmentTransaction;
+import androidx.lifecycle.Lifecycle;
 
 import org.ligi.tracedroid.logging.Log;
 
@@ -33,8 +34,8 @@ import java.util.List;
 
 import kotlin.Unit;
 import kotlin.jvm.functions.Function0;
+import nerd.tuxmobil.fahrplan.congress.BuildConfig;
 import nerd.tuxmobil.fahrplan.congress.MyApp;
-import nerd.tuxmobil.fahrplan.congress.MyApp.TASKS;
 import nerd.tuxmobil.fahrplan.congress.R;
 import nerd.tuxmobil.fahrplan.congress.about.AboutDialog;
 import nerd.tuxmobil.fahrplan.congress.alarms.AlarmList;
@@ -61,7 +62,10 @@ import nerd.tuxmobil.fahrplan.congress.net.ParseResult;
 import nerd.tuxmobil.fahrplan.congress.net.ParseScheduleResult;
 import nerd.tuxmobil.fahrplan.congress.net.ParseShiftsResult;
 import nerd.tuxmobil.fahrplan.congress.reporting.TraceDroidEmailSender;
+import nerd.tuxmobil.fahrplan.congress.reporting.TracesDialog;
 import nerd.tuxmobil.fahrplan.congress.repositories.AppRepository;
+import nerd.tuxmobil.fahrplan.congress.repositories.LoadScheduleHandle;
+import nerd.tuxmobil.fahrplan.congress.repositories.LoadScheduleState;
 import nerd.tuxmobil.fahrplan.congress.settings.SettingsActivity;
 import nerd.tuxmobil.fahrplan.congress.sidepane.OnSidePaneCloseListener;
 import nerd.tuxmobil.fahrplan.congress.utils.ConfirmationDialog;
@@ -90,6 +94,9 @@ public class MainActivity extends BaseActivity implements
     private boolean showUpdateAction = true;
     private boolean isScreenLocked = false;
     private boolean isFavoritesInSidePane = false;
+    private boolean isLoadingSchedule = false;
+    @Nullable
+    private LoadScheduleHandle loadScheduleHandle;
     private static MainActivity instance;
 
     @Override
@@ -125,20 +132,21 @@ public class MainActivity extends BaseActivity implements
         MyApp.meta = appRepository.readMeta();
         FahrplanMisc.loadDays(appRepository);
 
-        MyApp.LogDebug(LOG_TAG, "task_running:" + MyApp.task_running);
-        switch (MyApp.task_running) {
-            case FETCH:
-                MyApp.LogDebug(LOG_TAG, "fetch was pending, restart");
-                showFetchingStatus();
-                break;
-            case PARSE:
-                MyApp.LogDebug(LOG_TAG, "parse was pending, restart");
-                showParsingStatus();
+        LoadScheduleState loadScheduleState = appRepository.getLoadScheduleState();
+        MyApp.LogDebug(LOG_TAG, "loadScheduleState:" + loadScheduleState);
+        switch (loadScheduleState) {
+            case FETCHING:
+            case PARSING:
+                MyApp.LogDebug(LOG_TAG, "loading was pending, join");
+                fetchFahrplan();
                 break;
-            case NONE:
+            case IDLE:
                 if (MyApp.meta.getNumDays() == 0 && savedInstanceState == null) {
-                    Log.d(LOG_TAG, "Fetching schedule in onCreate bc. numDays==0");
-                    fetchFahrplan();
+                    Log.d(LOG_TAG, "Importing prebuilt schedule in onCreate bc. numDays==0");
+                    appRepository.importPrebuiltScheduleInBackground(isImported -> {
+                        onPrebuiltScheduleImported(isImported);
+                        return Unit.INSTANCE;
+                    });
                 }
                 break;
         }
@@ -174,14 +182,32 @@ public class MainActivity extends BaseActivity implements
         }
     }
 
+    private void onPrebuiltScheduleImported(boolean isImported) {
+        if (!getLifecycle().getCurrentState().isAtLeast(Lifecycle.State.CREATED)) {
+            return;
+        }
+        if (isImported) {
+            // The bundled schedule is shown right away. It is updated by the fetch below.
+            Fragment fragment = findFragment(FahrplanFragment.FRAGMENT_TAG);
+            if (fragment != null) {
+                ((FahrplanFragment) fragment).onParseDone(new ParseScheduleResult(true, appRepository.readMeta().getVersion()));
+            } else {
+                MyApp.meta = appRepository.readMeta();
+                FahrplanMisc.loadDays(appRepository);
+            }
+        }
+        Log.d(LOG_TAG, "Fetching schedule after importing the prebuilt schedule: " + isImported);
+        fetchFahrplan();
+    }
+
     public void onGotResponse(@NonNull FetchScheduleResult fetchScheduleResult) {
         HttpStatus status = fetchScheduleResult.getHttpStatus();
         MyApp.LogDebug(LOG_TAG, "Response... " + status);
-        MyApp.task_running = TASKS.NONE;
         if (MyApp.meta.getNumDays() == 0) {
             hideProgressDialog();
         }
         if (status != HttpStatus.HTTP_OK) {
+            isLoadingSchedule = false;
             showErrorDialog(fetchScheduleResult.getExceptionMessage(), fetchScheduleResult.getHostName(), status);
             progressBar.setVisibility(View.INVISIBLE);
             showUpdateAction = true;
@@ -195,7 +221,6 @@ public class MainActivity extends BaseActivity implements
 
         // Parser is automatically invoked when response has been received.
         showParsingStatus();
-        MyApp.task_running = TASKS.PARSE;
     }
 
     private void showErrorDialog(@NonNull String exceptionMessage, @NonNull String hostName, HttpStatus status) {
@@ -205,14 +230,23 @@ public class MainActivity extends BaseActivity implements
         CustomHttpClient.showHttpError(this, status, hostName);
     }
 
+    private void onDaySessionsCommitted(int dayIndex) {
+        Fragment fragment = findFragment(FahrplanFragment.FRAGMENT_TAG);
+        if (fragment != null && ((FahrplanFragment) fragment).onDaySessionsCommitted(dayIndex)) {
+            // The remaining days are still being parsed.
+            hideProgressDialog();
+            progressBar.setVisibility(View.VISIBLE);
+        }
+    }
+
     public void onParseDone(@NonNull ParseResult result) {
         if (result instanceof ParseScheduleResult) {
             MyApp.LogDebug(LOG_TAG, "Parsing schedule done successfully: " + result.isSuccess() + " , numDays=" + MyApp.meta.getNumDays());
+            isLoadingSchedule = false;
         }
         if (result instanceof ParseShiftsResult) {
             MyApp.LogDebug(LOG_TAG, "Parsing Engelsystem shifts done successfully: " + result.isSuccess());
         }
-        MyApp.task_running = TASKS.NONE;
 
         if (MyApp.meta.getNumDays() == 0) {
             hideProgressDialog();
@@ -271,17 +305,22 @@ public class MainActivity extends BaseActivity implements
     }
 
     public void fetchFahrplan() {
-        if (MyApp.task_running == TASKS.NONE) {
-            MyApp.task_running = TASKS.FETCH;
+        if (!isLoadingSchedule) {
+            // Joins the loading of the ScheduleSyncJob if it is in progress.
+            isLoadingSchedule = true;
             showFetchingStatus();
             String url = appRepository.readScheduleUrl();
-            OkHttpClient okHttpClient = CustomHttpClient.createHttpClient();
-            appRepository.loadSchedule(url,
+            OkHttpClient okHttpClient = CustomHttpClient.getHttpClient(this);
+            loadScheduleHandle = appRepository.loadSchedule(url,
                     okHttpClient,
                     fetchScheduleResult -> {
                         onGotResponse(fetchScheduleResult);
                         return Unit.INSTANCE;
                     },
+                    dayIndex -> {
+                        onDaySessionsCommitted(dayIndex);
+                        return Unit.INSTANCE;
+                    },
                     parseScheduleResult -> {
                         onParseDone(parseScheduleResult);
                         return Unit.INSTANCE;
@@ -289,16 +328,37 @@ public class MainActivity extends BaseActivity implements
                     loadShiftsResult -> {
                         onLoadShiftsDone(loadShiftsResult);
                         return Unit.INSTANCE;
+                    },
+                    () -> {
+                        // Invoked in the background, also if loading failed without a result.
+                        runOnUiThread(this::onLoadingEnded);
+                        return Unit.INSTANCE;
                     });
         } else {
             Log.d(LOG_TAG, "Fetching schedule already in progress.");
         }
     }
 
+    private void onLoadingEnded() {
+        if (!isLoadingSchedule || !getLifecycle().getCurrentState().isAtLeast(Lifecycle.State.CREATED)) {
+            return;
+        }
+        MyApp.LogDebug(LOG_TAG, "Loading schedule ended without a result.");
+        isLoadingSchedule = false;
+        hideProgressDialog();
+        progressBar.setVisibility(View.INVISIBLE);
+        showUpdateAction = true;
+        invalidateOptionsMenu();
+    }
+
     @Override
     protected void onDestroy() {
         super.onDestroy();
-        appRepository.cancelLoading();
+        if (loadScheduleHandle != null) {
+            // Loading continues across configuration changes. The recreated activity joins it.
+            loadScheduleHandle.detach(!isChangingConfigurations());
+            loadScheduleHandle = null;
+        }
         hideProgressDialog();
     }
 
@@ -328,6 +388,7 @@ public class MainActivity extends BaseActivity implements
         if (item != null) {
             item.setVisible(showUpdateAction);
         }
+        menu.findItem(R.id.menu_item_traces).setVisible(BuildConfig.DEBUG);
         return true;
     }
 
@@ -354,6 +415,10 @@ public class MainActivity extends BaseActivity implements
         ).show(ft, "about");
     }
 
+    void showTracesDialog() {
+        TracesDialog.newInstance().show(getSupportFragmentManager(), TracesDialog.FRAGMENT_TAG);
+    }
+
     @Override
     public boolean onOptionsItemSelected(MenuItem item) {
         Intent intent;
@@ -379,6 +444,9 @@ public class MainActivity extends BaseActivity implements
             case R.id.menu_item_favorites:
                 openFavorites();
                 return true;
+            case R.id.menu_item_traces:
+                showTracesDialog();
+                return true;
             default:
         }
         return super.onOptionsItemSelected(item);
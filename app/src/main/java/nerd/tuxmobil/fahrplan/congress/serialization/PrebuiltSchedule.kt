@@ -0,0 +1,88 @@
+package nerd.tuxmobil.fahrplan.congress.serialization
+
+import info.metadude.android.eventfahrplan.network.models.Meta
+import nerd.tuxmobil.fahrplan.congress.models.Session
+import java.io.ByteArrayOutputStream
+import java.io.DataOutputStream
+import java.nio.ByteBuffer
+
+/**
+ * Complete schedule which is parsed at build time from the schedule checked in for a flavor
+ * and bundled as an asset, see gradle/prebuilt-schedule.gradle. It is imported on first start
+ * so that the schedule can be shown before it has been fetched and parsed.
+ *
+ * The [meta] carries the ETag of the checked-in schedule. Once it has been imported
+ * the first schedule update is a conditional request.
+ */
+data class PrebuiltSchedule(
+
+        val meta: Meta,
+        val sessions: List<Session>
+
+) {
+
+    companion object {
+
+        const val ASSET_NAME = "prebuilt-schedule.bin"
+
+        private const val MAGIC = 0x46505053 // "FPPS"
+
+        /**
+         * Increment whenever the layout below or the fields of [Meta] or [Session] change.
+         */
+        private const val FORMAT_VERSION = 1
+
+        /**
+         * Returns the bundle of the given [prebuiltSchedule].
+         */
+        fun write(prebuiltSchedule: PrebuiltSchedule): ByteArray {
+            val byteStream = ByteArrayOutputStream(prebuiltSchedule.sessions.size * 1024 + 256)
+            val output = DataOutputStream(byteStream)
+            val writer = SessionsWriter(output)
+
+            output.writeInt(MAGIC)
+            output.writeInt(FORMAT_VERSION)
+            with(prebuiltSchedule.meta) {
+                writer.writeString(eTag)
+                output.writeInt(numDays)
+                writer.writeString(subtitle)
+                writer.writeString(title)
+                writer.writeString(timeZoneName)
+                writer.writeString(version)
+            }
+            output.writeInt(prebuiltSchedule.sessions.size)
+            prebuiltSchedule.sessions.forEach(writer::writeSession)
+            output.flush()
+            return byteStream.toByteArray()
+        }
+
+        /**
+         * Returns the schedule stored in the given [buffer] or null
+         * if the bundle has been written by another format version.
+         *
+         * Throws a [java.nio.BufferUnderflowException] if the bundle is truncated.
+         */
+        fun read(buffer: ByteBuffer): PrebuiltSchedule? {
+            val reader = SessionsReader(buffer)
+            if (buffer.remaining() < 8 || buffer.int != MAGIC || buffer.int != FORMAT_VERSION) {
+                return null
+            }
+            val meta = Meta(
+                    eTag = reader.readNonNullString(),
+                    numDays = buffer.int,
+                    subtitle = reader.readNonNullString(),
+                    title = reader.readNonNullString(),
+                    timeZoneName = reader.readString(),
+                    version = reader.readNonNullString()
+            )
+            val sessionsCount = buffer.int
+            val sessions = ArrayList<Session>(sessionsCount)
+            repeat(sessionsCount) {
+                sessions += reader.readSession()
+            }
+            return PrebuiltSchedule(meta, sessions)
+        }
+
+    }
+
+}
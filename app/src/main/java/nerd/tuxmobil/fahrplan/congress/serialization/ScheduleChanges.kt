@@ -1,5 +1,16 @@
 package nerd.tuxmobil.fahrplan.congress.serialization
 
+import nerd.tuxmobil.fahrplan.congress.models.Session.CHANGED_CONTENT_MASK
+import nerd.tuxmobil.fahrplan.congress.models.Session.CHANGED_DAY
+import nerd.tuxmobil.fahrplan.congress.models.Session.CHANGED_DURATION
+import nerd.tuxmobil.fahrplan.congress.models.Session.CHANGED_LANGUAGE
+import nerd.tuxmobil.fahrplan.congress.models.Session.CHANGED_RECORDING_OPTOUT
+import nerd.tuxmobil.fahrplan.congress.models.Session.CHANGED_ROOM
+import nerd.tuxmobil.fahrplan.congress.models.Session.CHANGED_SPEAKERS
+import nerd.tuxmobil.fahrplan.congress.models.Session.CHANGED_SUBTITLE
+import nerd.tuxmobil.fahrplan.congress.models.Session.CHANGED_TIME
+import nerd.tuxmobil.fahrplan.congress.models.Session.CHANGED_TITLE
+import nerd.tuxmobil.fahrplan.congress.models.Session.CHANGED_TRACK
 import nerd.tuxmobil.fahrplan.congress.models.Session as SessionAppModel
 
 object ScheduleChanges {
@@ -45,59 +56,43 @@ object ScheduleChanges {
                 continue
             }
 
-            val sessionChange = SessionChange()
-
+            var detectedChanges = 0
             if (newSession.title != oldSession.title) {
-                sessionChange.changedTitle = true
-                foundChanges = true
+                detectedChanges = detectedChanges or CHANGED_TITLE
             }
             if (newSession.subtitle != oldSession.subtitle) {
-                sessionChange.changedSubtitle = true
-                foundChanges = true
+                detectedChanges = detectedChanges or CHANGED_SUBTITLE
             }
             if (newSession.speakers != oldSession.speakers) {
-                sessionChange.changedSpeakers = true
-                foundChanges = true
+                detectedChanges = detectedChanges or CHANGED_SPEAKERS
             }
             if (newSession.lang != oldSession.lang) {
-                sessionChange.changedLanguage = true
-                foundChanges = true
+                detectedChanges = detectedChanges or CHANGED_LANGUAGE
             }
             if (newSession.room != oldSession.room) {
-                sessionChange.changedRoom = true
-                foundChanges = true
+                detectedChanges = detectedChanges or CHANGED_ROOM
             }
             if (newSession.track != oldSession.track) {
-                sessionChange.changedTrack = true
-                foundChanges = true
+                detectedChanges = detectedChanges or CHANGED_TRACK
             }
             if (newSession.recordingOptOut != oldSession.recordingOptOut) {
-                sessionChange.changedRecordingOptOut = true
-                foundChanges = true
+                detectedChanges = detectedChanges or CHANGED_RECORDING_OPTOUT
             }
             if (newSession.day != oldSession.day) {
-                sessionChange.changedDayIndex = true
-                foundChanges = true
+                detectedChanges = detectedChanges or CHANGED_DAY
             }
             if (newSession.startTime != oldSession.startTime) {
-                sessionChange.changedStartTime = true
-                foundChanges = true
+                detectedChanges = detectedChanges or CHANGED_TIME
             }
             if (newSession.duration != oldSession.duration) {
-                sessionChange.changedDuration = true
+                detectedChanges = detectedChanges or CHANGED_DURATION
+            }
+            if (detectedChanges != 0) {
                 foundChanges = true
             }
             sessionsWithChangeFlags += SessionAppModel(newSession).apply {
-                changedTitle = sessionChange.changedTitle
-                changedSubtitle = sessionChange.changedSubtitle
-                changedSpeakers = sessionChange.changedSpeakers
-                changedLanguage = sessionChange.changedLanguage
-                changedRoom = sessionChange.changedRoom
-                changedTrack = sessionChange.changedTrack
-                changedRecordingOptOut = sessionChange.changedRecordingOptOut
-                changedDay = sessionChange.changedDayIndex
-                changedTime = sessionChange.changedStartTime
-                changedDuration = sessionChange.changedDuration
+                // Replace the content flags but keep the "new" and "canceled" states.
+                changeFlags = (changeFlags and CHANGED_CONTENT_MASK.inv()) or detectedChanges
             }
             oldNotCanceledSessions -= oldSession
             sessionIndex++
@@ -113,19 +108,6 @@ object ScheduleChanges {
         return sessionsWithChangeFlags.toList() to foundChanges
     }
 
-    private data class SessionChange(
-            var changedTitle: Boolean = false,
-            var changedSubtitle: Boolean = false,
-            var changedSpeakers: Boolean = false,
-            var changedLanguage: Boolean = false,
-            var changedRoom: Boolean = false,
-            var changedDayIndex: Boolean = false,
-            var changedTrack: Boolean = false,
-            var changedRecordingOptOut: Boolean = false,
-            var changedStartTime: Boolean = false,
-            var changedDuration: Boolean = false
-    )
-
     private fun SessionAppModel.toCanceledSession() = SessionAppModel(this).apply { cancel() }
 
     private fun SessionAppModel.equalsSession(session: SessionAppModel): Boolean {
@@ -0,0 +1,76 @@
+package nerd.tuxmobil.fahrplan.congress.serialization
+
+import nerd.tuxmobil.fahrplan.congress.models.RoomData
+import nerd.tuxmobil.fahrplan.congress.models.ScheduleData
+import nerd.tuxmobil.fahrplan.congress.models.Session
+import java.io.ByteArrayOutputStream
+import java.io.DataOutputStream
+import java.nio.ByteBuffer
+
+/**
+ * Compact binary representation of the [ScheduleData] of a single day. It is used to render
+ * the last displayed day on cold start before the sessions have been loaded from the database.
+ *
+ * A snapshot is only valid for the schedule version identified by its ETag.
+ * See [SessionsWriter] for how strings and sessions are encoded.
+ */
+object ScheduleSnapshot {
+
+    private const val MAGIC = 0x46505353 // "FPSS"
+
+    /**
+     * Increment whenever the layout below or the fields of [Session] change.
+     */
+    private const val FORMAT_VERSION = 1
+
+    /**
+     * Returns the snapshot of the given [scheduleData] which belongs to the schedule of the given [eTag].
+     */
+    fun write(eTag: String, scheduleData: ScheduleData): ByteArray {
+        val byteStream = ByteArrayOutputStream(scheduleData.roomDataList.sumBy { it.sessions.size } * 256 + 64)
+        val output = DataOutputStream(byteStream)
+        val writer = SessionsWriter(output)
+
+        output.writeInt(MAGIC)
+        output.writeInt(FORMAT_VERSION)
+        writer.writeString(eTag)
+        output.writeInt(scheduleData.dayIndex)
+        output.writeInt(scheduleData.roomDataList.size)
+        for (roomData in scheduleData.roomDataList) {
+            writer.writeString(roomData.roomName)
+            output.writeInt(roomData.sessions.size)
+            roomData.sessions.forEach(writer::writeSession)
+        }
+        output.flush()
+        return byteStream.toByteArray()
+    }
+
+    /**
+     * Returns the schedule data stored in the given [buffer] or null if the snapshot has been
+     * written by another format version, for another [eTag] or for another [dayIndex].
+     *
+     * Throws a [java.nio.BufferUnderflowException] if the snapshot is truncated.
+     */
+    fun read(buffer: ByteBuffer, eTag: String, dayIndex: Int): ScheduleData? {
+        val reader = SessionsReader(buffer)
+        if (buffer.remaining() < 8 || buffer.int != MAGIC || buffer.int != FORMAT_VERSION) {
+            return null
+        }
+        if (reader.readString() != eTag || buffer.int != dayIndex) {
+            return null
+        }
+        val roomsCount = buffer.int
+        val roomDataList = ArrayList<RoomData>(roomsCount)
+        repeat(roomsCount) {
+            val roomName = reader.readNonNullString()
+            val sessionsCount = buffer.int
+            val sessions = ArrayList<Session>(sessionsCount)
+            repeat(sessionsCount) {
+                sessions += reader.readSession()
+            }
+            roomDataList += RoomData(roomName, sessions)
+        }
+        return ScheduleData(dayIndex, roomDataList)
+    }
+
+}
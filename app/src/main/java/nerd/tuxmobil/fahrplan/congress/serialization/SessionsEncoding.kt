@@ -0,0 +1,119 @@
+package nerd.tuxmobil.fahrplan.congress.serialization
+
+import nerd.tuxmobil.fahrplan.congress.models.Session
+import java.io.DataOutputStream
+import java.nio.ByteBuffer
+
+private const val NULL_STRING = -1
+
+/**
+ * Writes strings and [sessions][Session] in the binary layout shared by
+ * [ScheduleSnapshot] and [PrebuiltSchedule].
+ *
+ * Each distinct string is written once. Later occurrences refer to the first one
+ * which keeps the output small and restores shared string instances when reading.
+ */
+internal class SessionsWriter(private val output: DataOutputStream) {
+
+    private val stringIndices = HashMap<String, Int>()
+
+    fun writeString(value: String?) {
+        if (value == null) {
+            output.writeInt(NULL_STRING)
+            return
+        }
+        val index = stringIndices[value]
+        if (index != null) {
+            // References are negative and start at -2 to keep them apart from NULL_STRING.
+            output.writeInt(-index - 2)
+            return
+        }
+        stringIndices[value] = stringIndices.size
+        val bytes = value.toByteArray(Charsets.UTF_8)
+        output.writeInt(bytes.size)
+        output.write(bytes)
+    }
+
+    @Suppress("DEPRECATION") // Session.roomIndex
+    fun writeSession(session: Session) = with(session) {
+        writeString(sessionId)
+        writeString(title)
+        writeString(subtitle)
+        writeString(url)
+        output.writeInt(day)
+        writeString(date)
+        output.writeLong(dateUTC)
+        output.writeInt(startTime)
+        output.writeInt(relStartTime)
+        output.writeInt(duration)
+        writeString(room)
+        output.writeInt(roomIndex)
+        writeString(speakers)
+        writeString(track)
+        writeString(type)
+        writeString(lang)
+        writeString(slug)
+        writeString(abstractt)
+        writeString(description)
+        writeString(links)
+        output.writeBoolean(highlight)
+        output.writeBoolean(hasAlarm)
+        writeString(recordingLicense)
+        output.writeBoolean(recordingOptOut)
+        output.writeInt(changeFlags)
+    }
+
+}
+
+/**
+ * Reads what has been written by a [SessionsWriter].
+ * Throws a [java.nio.BufferUnderflowException] if the [buffer] is truncated.
+ */
+internal class SessionsReader(private val buffer: ByteBuffer) {
+
+    private val strings = ArrayList<String>()
+
+    fun readString(): String? {
+        val length = buffer.int
+        if (length == NULL_STRING) {
+            return null
+        }
+        if (length < NULL_STRING) {
+            return strings[-length - 2]
+        }
+        val bytes = ByteArray(length)
+        buffer.get(bytes)
+        return String(bytes, Charsets.UTF_8).also { strings += it }
+    }
+
+    fun readNonNullString() = readString().orEmpty()
+
+    @Suppress("DEPRECATION") // Session.roomIndex
+    fun readSession() = Session(readNonNullString()).apply {
+        title = readNonNullString()
+        subtitle = readString()
+        url = readString()
+        day = buffer.int
+        date = readString()
+        dateUTC = buffer.long
+        startTime = buffer.int
+        relStartTime = buffer.int
+        duration = buffer.int
+        room = readString()
+        roomIndex = buffer.int
+        speakers = readString()
+        track = readString()
+        type = readString()
+        lang = readString()
+        slug = readString()
+        abstractt = readString()
+        description = readString()
+        links = readString()
+        highlight = buffer.get().toInt() != 0
+        hasAlarm = buffer.get().toInt() != 0
+        recordingLicense = readString()
+        recordingOptOut = buffer.get().toInt() != 0
+        changeFlags = buffer.int
+    }
+
+}
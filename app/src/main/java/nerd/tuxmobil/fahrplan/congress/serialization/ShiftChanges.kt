@@ -0,0 +1,64 @@
+package nerd.tuxmobil.fahrplan.congress.serialization
+
+import info.metadude.android.eventfahrplan.database.models.Session as SessionDatabaseModel
+
+/**
+ * Engelsystem shifts which have been added, changed or removed compared to the stored shifts.
+ * Shifts are identified by their session ID. Removed shifts are only known by their ID.
+ */
+data class ShiftChanges(
+
+        val addedShifts: List<SessionDatabaseModel>,
+        val changedShifts: List<SessionDatabaseModel>,
+        val removedSessionIds: Set<String>
+
+) {
+
+    val isEmpty
+        get() = addedShifts.isEmpty() && changedShifts.isEmpty() && removedSessionIds.isEmpty()
+
+    /**
+     * Shifts which have to be written to the database.
+     */
+    val upsertedShifts
+        get() = addedShifts + changedShifts
+
+    override fun toString() = "ShiftChanges(added=${addedShifts.size}, " +
+            "changed=${changedShifts.size}, removed=${removedSessionIds.size})"
+
+    companion object {
+
+        @JvmField
+        val NONE = ShiftChanges(emptyList(), emptyList(), emptySet())
+
+        /**
+         * Compares the [newShifts] with the [oldShifts] by their session ID. A shift is changed
+         * if any of its stored columns differs. Unchanged shifts are not part of the result.
+         *
+         * This function does not modify the given lists nor any of its elements.
+         */
+        fun computeShiftChanges(
+
+                newShifts: List<SessionDatabaseModel>,
+                oldShifts: List<SessionDatabaseModel>
+
+        ): ShiftChanges {
+            val oldShiftsBySessionId = oldShifts.associateBy { it.sessionId }
+            val addedShifts = mutableListOf<SessionDatabaseModel>()
+            val changedShifts = mutableListOf<SessionDatabaseModel>()
+            newShifts.forEach { newShift ->
+                val oldShift = oldShiftsBySessionId[newShift.sessionId]
+                if (oldShift == null) {
+                    addedShifts += newShift
+                } else if (oldShift != newShift) {
+                    changedShifts += newShift
+                }
+            }
+            val newSessionIds = newShifts.map { it.sessionId }.toSet()
+            val removedSessionIds = oldShiftsBySessionId.keys - newSessionIds
+            return ShiftChanges(addedShifts, changedShifts, removedSessionIds)
+        }
+
+    }
+
+}
@@ -17,9 +17,8 @@ import androidx.preference.PreferenceScreen
 import androidx.preference.SwitchPreferenceCompat
 import nerd.tuxmobil.fahrplan.congress.BuildConfig
 import nerd.tuxmobil.fahrplan.congress.R
-import nerd.tuxmobil.fahrplan.congress.alarms.AlarmServices
+import nerd.tuxmobil.fahrplan.congress.autoupdate.SyncConstraints
 import nerd.tuxmobil.fahrplan.congress.contract.BundleKeys
-import nerd.tuxmobil.fahrplan.congress.extensions.getAlarmManager
 import nerd.tuxmobil.fahrplan.congress.extensions.toSpanned
 import nerd.tuxmobil.fahrplan.congress.extensions.withExtras
 import nerd.tuxmobil.fahrplan.congress.preferences.AlarmTonePreference
@@ -45,12 +44,18 @@ class SettingsFragment : PreferenceFragmentCompat() {
         requirePreference<SwitchPreferenceCompat>(resources.getString(R.string.preference_key_auto_update_enabled)).onPreferenceChangeListener = OnPreferenceChangeListener { _: Preference?, newValue: Any ->
             val isAutoUpdateEnabled = newValue as Boolean
             if (isAutoUpdateEnabled) {
-                FahrplanMisc.setUpdateAlarm(activity, true)
+                FahrplanMisc.scheduleUpdates(requireActivity(), true)
             } else {
-                with(requireActivity()) {
-                    val alarmManager = getAlarmManager()
-                    AlarmServices(alarmManager).discardAutoUpdateAlarm(this)
-                }
+                FahrplanMisc.cancelUpdates(requireActivity())
+            }
+            true
+        }
+
+        requirePreference<SwitchPreferenceCompat>(resources.getString(R.string.preference_key_auto_update_unmetered_only)).onPreferenceChangeListener = OnPreferenceChangeListener { _: Preference?, newValue: Any ->
+            val isAutoUpdateEnabled = requirePreference<SwitchPreferenceCompat>(resources.getString(R.string.preference_key_auto_update_enabled)).isChecked
+            if (isAutoUpdateEnabled) {
+                val constraints = SyncConstraints(requiresUnmeteredNetwork = newValue as Boolean)
+                FahrplanMisc.scheduleUpdates(requireActivity(), true, constraints)
             }
             true
         }
@@ -1,23 +1,13 @@
 package nerd.tuxmobil.fahrplan.congress.system;
 
-import android.app.AlarmManager;
 import android.content.BroadcastReceiver;
 import android.content.Context;
 import android.content.Intent;
 
-import org.ligi.tracedroid.logging.Log;
-
-import java.util.List;
-
 import info.metadude.android.eventfahrplan.commons.temporal.Moment;
 import nerd.tuxmobil.fahrplan.congress.MyApp;
-import nerd.tuxmobil.fahrplan.congress.alarms.AlarmReceiver;
-import nerd.tuxmobil.fahrplan.congress.alarms.AlarmServices;
-import nerd.tuxmobil.fahrplan.congress.autoupdate.UpdateService;
-import nerd.tuxmobil.fahrplan.congress.dataconverters.AlarmExtensions;
-import nerd.tuxmobil.fahrplan.congress.extensions.Contexts;
-import nerd.tuxmobil.fahrplan.congress.models.Alarm;
-import nerd.tuxmobil.fahrplan.congress.models.SchedulableAlarm;
+import nerd.tuxmobil.fahrplan.congress.alarms.SessionAlarmQueue;
+import nerd.tuxmobil.fahrplan.congress.autoupdate.WorkManagerSyncJobScheduler;
 import nerd.tuxmobil.fahrplan.congress.repositories.AppRepository;
 import nerd.tuxmobil.fahrplan.congress.utils.FahrplanMisc;
 
@@ -34,7 +24,12 @@ public final class OnBootReceiver extends BroadcastReceiver {
         if (action == null) {
             return;
         }
-        if (!action.equals(AlarmReceiver.ALARM_UPDATE)) {
+        if (action.equals(Intent.ACTION_TIME_CHANGED)) {
+            MyApp.LogDebug(LOG_TAG, "onReceive (time changed)");
+            new SessionAlarmQueue(context).armNext();
+            return;
+        }
+        if (!action.equals(Intent.ACTION_BOOT_COMPLETED)) {
             return;
         }
 
@@ -43,20 +38,7 @@ public final class OnBootReceiver extends BroadcastReceiver {
         Moment nowMoment = Moment.now().plusSeconds(15);
 
         AppRepository appRepository = AppRepository.INSTANCE;
-        List<Alarm> alarms = appRepository.readAlarms();
-        AlarmManager alarmManager = Contexts.getAlarmManager(context);
-        AlarmServices alarmServices = new AlarmServices(alarmManager);
-        for (Alarm alarm : alarms) {
-            Moment storedAlarmTime = Moment.ofEpochMilli(alarm.getStartTime());
-            if (nowMoment.isBefore(storedAlarmTime)) {
-                Log.d(getClass().getSimpleName(), "Scheduling alarm for session: " + alarm.getSessionId() + ", " + alarm.getSessionTitle());
-                SchedulableAlarm schedulableAlarm = AlarmExtensions.toSchedulableAlarm(alarm);
-                alarmServices.scheduleSessionAlarm(context, schedulableAlarm);
-            } else {
-                MyApp.LogDebug(LOG_TAG, "Deleting alarm from database: " + alarm);
-                appRepository.deleteAlarmForAlarmId(alarm.getId());
-            }
-        }
+        new SessionAlarmQueue(context, appRepository).discardMissed(nowMoment.toMilliseconds());
 
         // start auto updates
         boolean isAutoUpdateEnabled = appRepository.readAutoUpdateEnabled();
@@ -64,11 +46,11 @@ public final class OnBootReceiver extends BroadcastReceiver {
             long lastFetchedAt = appRepository.readScheduleLastFetchedAt();
             long nowMillis = Moment.now().toMilliseconds();
 
-            long interval = FahrplanMisc.setUpdateAlarm(context, true);
+            long interval = FahrplanMisc.scheduleUpdates(context, true);
 
             MyApp.LogDebug(LOG_TAG, "now: " + nowMillis + ", lastFetchedAt: " + lastFetchedAt);
             if (interval > 0 && nowMillis - lastFetchedAt >= interval) {
-                UpdateService.start(context);
+                new WorkManagerSyncJobScheduler(context).scheduleOnce(appRepository.readAutoUpdateConstraints());
             }
         }
     }
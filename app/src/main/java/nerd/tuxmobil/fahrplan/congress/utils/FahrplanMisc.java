@@ -1,9 +1,7 @@
 package nerd.tuxmobil.fahrplan.congress.utils;
 
 import android.app.AlarmManager;
-import android.app.PendingIntent;
 import android.content.Context;
-import android.content.Intent;
 
 import androidx.annotation.NonNull;
 
@@ -17,11 +15,16 @@ import java.util.Date;
 import java.util.List;
 
 import info.metadude.android.eventfahrplan.commons.temporal.Moment;
+import kotlin.Unit;
 import nerd.tuxmobil.fahrplan.congress.MyApp;
 import nerd.tuxmobil.fahrplan.congress.R;
-import nerd.tuxmobil.fahrplan.congress.alarms.AlarmReceiver;
 import nerd.tuxmobil.fahrplan.congress.alarms.AlarmServices;
 import nerd.tuxmobil.fahrplan.congress.alarms.AlarmUpdater;
+import nerd.tuxmobil.fahrplan.congress.alarms.SessionAlarmQueue;
+import nerd.tuxmobil.fahrplan.congress.autoupdate.SyncConstraints;
+import nerd.tuxmobil.fahrplan.congress.autoupdate.SyncJobAlarmUpdateListener;
+import nerd.tuxmobil.fahrplan.congress.autoupdate.SyncJobScheduler;
+import nerd.tuxmobil.fahrplan.congress.autoupdate.WorkManagerSyncJobScheduler;
 import nerd.tuxmobil.fahrplan.congress.dataconverters.AlarmExtensions;
 import nerd.tuxmobil.fahrplan.congress.extensions.Contexts;
 import nerd.tuxmobil.fahrplan.congress.models.Alarm;
@@ -60,7 +63,7 @@ public class FahrplanMisc {
             SchedulableAlarm schedulableAlarm = AlarmExtensions.toSchedulableAlarm(alarm);
             AlarmManager alarmManager = Contexts.getAlarmManager(context);
             new AlarmServices(alarmManager).discardSessionAlarm(context, schedulableAlarm);
-            appRepository.deleteAlarmForSessionId(sessionId);
+            new SessionAlarmQueue(context, appRepository).remove(sessionId);
         }
         session.hasAlarm = false;
         appRepository.notifyAlarmsChanged();
@@ -94,49 +97,48 @@ public class FahrplanMisc {
         int day = session.day;
 
         Alarm alarm = new Alarm(alarmTimeInMin, day, sessionStartTime, sessionId, sessionTitle, alarmTime, timeText);
-        SchedulableAlarm schedulableAlarm = AlarmExtensions.toSchedulableAlarm(alarm);
-        AlarmManager alarmManager = Contexts.getAlarmManager(context);
-        new AlarmServices(alarmManager).scheduleSessionAlarm(context, schedulableAlarm, true);
-        appRepository.updateAlarm(alarm);
+        new SessionAlarmQueue(context, appRepository).add(alarm);
         session.hasAlarm = true;
         appRepository.notifyAlarmsChanged();
     }
 
-    public static long setUpdateAlarm(Context context, boolean initial) {
-        final AlarmManager alarmManager = Contexts.getAlarmManager(context);
-        Intent alarmIntent = new Intent(context, AlarmReceiver.class);
-        alarmIntent.setAction(AlarmReceiver.ALARM_UPDATE);
-        final PendingIntent pendingintent = PendingIntent.getBroadcast(context, 0, alarmIntent, 0);
+    /**
+     * Schedules the background job which updates the schedule.
+     * Its interval adapts to the conference days and to how often the schedule changes.
+     * Returns the interval or 0 if updates have been cancelled after the conference.
+     */
+    public static long scheduleUpdates(@NonNull Context context, boolean initial) {
+        return scheduleUpdates(context, initial, AppRepository.INSTANCE.readAutoUpdateConstraints());
+    }
 
-        MyApp.LogDebug(LOG_TAG, "set update alarm");
+    public static long scheduleUpdates(@NonNull Context context, boolean initial, @NonNull SyncConstraints constraints) {
+        MyApp.LogDebug(LOG_TAG, "schedule updates");
         final long now = Moment.now().toMilliseconds();
+        final AppRepository appRepository = AppRepository.INSTANCE;
+        long conferenceInterval = appRepository.readAutoUpdateInterval(now);
+        long scheduledInterval = appRepository.readScheduledAutoUpdateInterval();
+        if (initial) {
+            // Replaced by the sync job.
+            new AlarmServices(Contexts.getAlarmManager(context)).discardAutoUpdateAlarm(context);
+        }
 
+        SyncJobScheduler syncJobScheduler = new WorkManagerSyncJobScheduler(context);
         AlarmUpdater alarmUpdater = new AlarmUpdater(MyApp.conferenceTimeFrame,
-                new AlarmUpdater.OnAlarmUpdateListener() {
-
-                    @Override
-                    public void onCancelAlarm() {
-                        MyApp.LogDebug(LOG_TAG, "cancel alarm post congress");
-                        alarmManager.cancel(pendingintent);
-                    }
-
-                    @Override
-                    public void onRescheduleAlarm(long interval, long nextFetch) {
-                        MyApp.LogDebug(LOG_TAG, "update alarm to interval " + interval +
-                                ", next in " + (nextFetch - now));
-                        alarmManager.setInexactRepeating(
-                                AlarmManager.RTC_WAKEUP, nextFetch, interval, pendingintent);
-                    }
-
-                    @Override
-                    public void onRescheduleInitialAlarm(long interval, long nextFetch) {
-                        MyApp.LogDebug(LOG_TAG, "set initial alarm to interval " + interval +
-                                ", next in " + (nextFetch - now));
-                        alarmManager.setInexactRepeating(
-                                AlarmManager.RTC_WAKEUP, nextFetch, interval, pendingintent);
-                    }
-                });
+                new SyncJobAlarmUpdateListener(syncJobScheduler, constraints, now, interval -> {
+                    MyApp.LogDebug(LOG_TAG, "scheduled updates with interval " + interval);
+                    appRepository.updateScheduledAutoUpdateInterval(interval);
+                    return Unit.INSTANCE;
+                }), conferenceInterval, scheduledInterval);
         return alarmUpdater.calculateInterval(now, initial);
     }
 
+    /**
+     * Cancels the background job which updates the schedule.
+     */
+    public static void cancelUpdates(@NonNull Context context) {
+        new WorkManagerSyncJobScheduler(context).cancelPeriodic();
+        new AlarmServices(Contexts.getAlarmManager(context)).discardAutoUpdateAlarm(context);
+        AppRepository.INSTANCE.updateScheduledAutoUpdateInterval(0);
+    }
+
 }
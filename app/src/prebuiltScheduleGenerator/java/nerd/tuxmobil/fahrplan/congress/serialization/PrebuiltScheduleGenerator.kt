@@ -0,0 +1,55 @@
+package nerd.tuxmobil.fahrplan.congress.serialization
+
+import info.metadude.android.eventfahrplan.commons.logging.Logging
+import info.metadude.android.eventfahrplan.network.serialization.ScheduleParser
+import nerd.tuxmobil.fahrplan.congress.dataconverters.sanitize
+import nerd.tuxmobil.fahrplan.congress.dataconverters.toSessionsAppModel2
+import nerd.tuxmobil.fahrplan.congress.validation.MetaValidation.validate
+import org.kxml2.io.KXmlParser
+import java.io.File
+
+/**
+ * Parses the schedule checked in for a flavor and writes it as a [PrebuiltSchedule].
+ * It is invoked at build time by gradle/prebuilt-schedule.gradle which compiles this
+ * dedicated source set against the main classes of the release build type of each flavor.
+ *
+ * Arguments: schedule file, ETag file (optional content), output file.
+ */
+object PrebuiltScheduleGenerator {
+
+    @JvmStatic
+    fun main(args: Array<String>) {
+        require(args.size == 3) { "Usage: PrebuiltScheduleGenerator <schedule file> <ETag file> <output file>" }
+        val scheduleFile = File(args[0])
+        val eTagFile = File(args[1])
+        val outputFile = File(args[2])
+
+        val eTag = if (eTagFile.exists()) eTagFile.readText().trim() else ""
+        val prebuiltSchedule = generate(scheduleFile.readText(), eTag)
+        outputFile.parentFile?.mkdirs()
+        outputFile.writeBytes(PrebuiltSchedule.write(prebuiltSchedule))
+        println("Wrote ${prebuiltSchedule.sessions.size} sessions of schedule version " +
+                "\"${prebuiltSchedule.meta.version}\" with ETag \"$eTag\" to $outputFile.")
+    }
+
+    /**
+     * Parses the given frab XML or frab JSON [schedule] the same way as it is done
+     * after it has been fetched. Fails if the schedule cannot be parsed.
+     */
+    fun generate(schedule: String, eTag: String): PrebuiltSchedule {
+        val result = ScheduleParser(::KXmlParser, ErrorLogging).parse(schedule, eTag)
+        check(result.isSuccessful) { "Failed to parse the schedule." }
+        val sessions = result.sessions.toSessionsAppModel2().sanitize()
+        return PrebuiltSchedule(result.meta.validate(), sessions)
+    }
+
+    /**
+     * Prints errors to the build output. Debug messages are dropped.
+     */
+    private object ErrorLogging : Logging {
+        override fun d(tag: String, message: String) = Unit
+        override fun e(tag: String, message: String) = System.err.println("$tag: $message")
+        override fun report(tag: String, message: String) = System.err.println("$tag: $message")
+    }
+
+}
@@ -21,29 +21,28 @@ class AlarmServicesTest {
     private val alarm = SchedulableAlarm(3, "1001", "Welcome", 700)
 
     @Test
-    fun `scheduleSessionAlarm invokes "cancel" then "set" when "discardExisting" is "true"`() {
+    fun `scheduleNextSessionAlarm invokes "set" for the single alarm of the queue`() {
         val onPendingIntentBroadcast: PendingIntentCallback = { context, intent ->
             assertThat(context).isEqualTo(mockContext)
-            assertIntentExtras(intent, AlarmReceiver.ALARM_SESSION)
+            assertSessionsDueIntent(intent)
             pendingIntent
         }
         val alarmServices = AlarmServices(alarmManager, onPendingIntentBroadcast)
-        alarmServices.scheduleSessionAlarm(mockContext, alarm, true)
-        verifyInvokedOnce(alarmManager).cancel(pendingIntent)
-        verifyInvokedOnce(alarmManager).set(AlarmManager.RTC_WAKEUP, alarm.startTime, pendingIntent)
+        alarmServices.scheduleNextSessionAlarm(mockContext, 700)
+        verifyInvokedNever(alarmManager).cancel(pendingIntent)
+        verifyInvokedOnce(alarmManager).set(AlarmManager.RTC_WAKEUP, 700, pendingIntent)
     }
 
     @Test
-    fun `scheduleSessionAlarm only invokes "set" when "discardExisting" is "false"`() {
+    fun `discardNextSessionAlarm invokes "cancel" for the single alarm of the queue`() {
         val onPendingIntentBroadcast: PendingIntentCallback = { context, intent ->
             assertThat(context).isEqualTo(mockContext)
-            assertIntentExtras(intent, AlarmReceiver.ALARM_SESSION)
+            assertSessionsDueIntent(intent)
             pendingIntent
         }
         val alarmServices = AlarmServices(alarmManager, onPendingIntentBroadcast)
-        alarmServices.scheduleSessionAlarm(mockContext, alarm, false)
-        verifyInvokedNever(alarmManager).cancel(pendingIntent)
-        verifyInvokedOnce(alarmManager).set(AlarmManager.RTC_WAKEUP, alarm.startTime, pendingIntent)
+        alarmServices.discardNextSessionAlarm(mockContext)
+        verifyInvokedOnce(alarmManager).cancel(pendingIntent)
     }
 
     @Test
@@ -72,6 +71,13 @@ class AlarmServicesTest {
         verifyInvokedOnce(alarmManager).cancel(pendingIntent)
     }
 
+    private fun assertSessionsDueIntent(intent: Intent) {
+        assertThat(intent.component!!.className).isEqualTo(AlarmReceiver::class.java.name)
+        assertThat(intent.action).isEqualTo(AlarmReceiver.ALARM_SESSIONS_DUE)
+        assertThat(intent.data).isNull()
+        assertThat(intent.extras).isNull()
+    }
+
     // TODO Move into a unit test for AlarmReceiver once it is written.
     private fun assertIntentExtras(intent: Intent, action: String) {
         assertThat(intent.getIntExtra(BundleKeys.ALARM_DAY, 9)).isEqualTo(alarm.day)
@@ -148,4 +148,50 @@ public class AlarmUpdaterTest {
         verifyInvokedNever(mockListener).onRescheduleAlarm(NEVER_USED, NEVER_USED);
     }
 
+    // Adaptive interval
+
+    @Test
+    public void calculateIntervalWithTimeOfFirstDayAndChangedInterval() {
+        alarmUpdater = new AlarmUpdater(conferenceTimeFrame, mockListener, 1800000L, 7200000L);
+        // 2015-12-27T11:30:00+0100, in seconds: 1451212200000
+        long interval = alarmUpdater.calculateInterval(1451212200000L, false);
+        assertThat(interval).isEqualTo(1800000L);
+        verify(mockListener).onCancelAlarm();
+        verify(mockListener).onRescheduleAlarm(1800000L, 1451212200000L + 1800000L);
+        verifyInvokedNever(mockListener).onRescheduleInitialAlarm(NEVER_USED, NEVER_USED);
+    }
+
+    @Test
+    public void calculateIntervalWithTimeOfFirstDayAndUnchangedInterval() {
+        alarmUpdater = new AlarmUpdater(conferenceTimeFrame, mockListener, 1800000L, 1800000L);
+        // 2015-12-27T11:30:00+0100, in seconds: 1451212200000
+        long interval = alarmUpdater.calculateInterval(1451212200000L, false);
+        assertThat(interval).isEqualTo(1800000L);
+        verifyInvokedNever(mockListener).onCancelAlarm();
+        verifyInvokedNever(mockListener).onRescheduleAlarm(NEVER_USED, NEVER_USED);
+        verifyInvokedNever(mockListener).onRescheduleInitialAlarm(NEVER_USED, NEVER_USED);
+    }
+
+    @Test
+    public void calculateIntervalWithTimeOfFirstDayAndSlightlyChangedInterval() {
+        alarmUpdater = new AlarmUpdater(conferenceTimeFrame, mockListener, 1860000L, 1800000L);
+        // 2015-12-27T11:30:00+0100, in seconds: 1451212200000
+        long interval = alarmUpdater.calculateInterval(1451212200000L, false);
+        assertThat(interval).isEqualTo(1860000L);
+        verifyInvokedNever(mockListener).onCancelAlarm();
+        verifyInvokedNever(mockListener).onRescheduleAlarm(NEVER_USED, NEVER_USED);
+        verifyInvokedNever(mockListener).onRescheduleInitialAlarm(NEVER_USED, NEVER_USED);
+    }
+
+    @Test
+    public void calculateIntervalWithTimeOfFirstDayAndChangedIntervalInitial() {
+        alarmUpdater = new AlarmUpdater(conferenceTimeFrame, mockListener, 1800000L, 7200000L);
+        // 2015-12-27T11:30:00+0100, in seconds: 1451212200000
+        long interval = alarmUpdater.calculateInterval(1451212200000L, true);
+        assertThat(interval).isEqualTo(1800000L);
+        verify(mockListener).onCancelAlarm();
+        verify(mockListener).onRescheduleInitialAlarm(1800000L, 1451212200000L + 1800000L);
+        verifyInvokedNever(mockListener).onRescheduleAlarm(NEVER_USED, NEVER_USED);
+    }
+
 }
@@ -0,0 +1,92 @@
+package nerd.tuxmobil.fahrplan.congress.alarms
+
+import android.content.Context
+import com.google.common.truth.Truth.assertThat
+import com.nhaarman.mockitokotlin2.any
+import com.nhaarman.mockitokotlin2.doReturn
+import com.nhaarman.mockitokotlin2.inOrder
+import com.nhaarman.mockitokotlin2.mock
+import com.nhaarman.mockitokotlin2.whenever
+import info.metadude.android.eventfahrplan.commons.testing.verifyInvokedNever
+import info.metadude.android.eventfahrplan.commons.testing.verifyInvokedOnce
+import nerd.tuxmobil.fahrplan.congress.models.Alarm
+import nerd.tuxmobil.fahrplan.congress.repositories.AppRepository
+import org.junit.Test
+import org.mockito.ArgumentMatchers.anyLong
+
+class SessionAlarmQueueTest {
+
+    private val mockContext = mock<Context>()
+    private val appRepository = mock<AppRepository>()
+    private val alarmServices = mock<AlarmServices>()
+    private val queue = SessionAlarmQueue(mockContext, appRepository, alarmServices)
+
+    private val earlyAlarm = createAlarm("1001", 1000)
+    private val lateAlarm = createAlarm("1002", 2000)
+
+    @Test
+    fun `add stores the alarm and arms the earliest alarm`() {
+        whenever(appRepository.readNextAlarm()) doReturn earlyAlarm
+        queue.add(lateAlarm)
+        inOrder(appRepository, alarmServices) {
+            verify(appRepository).updateAlarm(lateAlarm)
+            verify(appRepository).readNextAlarm()
+            verify(alarmServices).scheduleNextSessionAlarm(mockContext, 1000)
+        }
+    }
+
+    @Test
+    fun `remove deletes the alarm and arms the next alarm`() {
+        whenever(appRepository.readNextAlarm()) doReturn lateAlarm
+        queue.remove("1001")
+        inOrder(appRepository, alarmServices) {
+            verify(appRepository).deleteAlarmForSessionId("1001")
+            verify(alarmServices).scheduleNextSessionAlarm(mockContext, 2000)
+        }
+    }
+
+    @Test
+    fun `remove discards the system alarm once the queue is empty`() {
+        whenever(appRepository.readNextAlarm()) doReturn null
+        queue.remove("1001")
+        verifyInvokedOnce(alarmServices).discardNextSessionAlarm(mockContext)
+        verifyInvokedNever(alarmServices).scheduleNextSessionAlarm(any(), anyLong())
+    }
+
+    @Test
+    fun `pollDue returns the due alarms and arms the next alarm`() {
+        whenever(appRepository.pollAlarmsUntil(1500)) doReturn listOf(earlyAlarm)
+        whenever(appRepository.readNextAlarm()) doReturn lateAlarm
+        assertThat(queue.pollDue(1500)).containsExactly(earlyAlarm)
+        verifyInvokedOnce(alarmServices).scheduleNextSessionAlarm(mockContext, 2000)
+    }
+
+    @Test
+    fun `pollDue re-arms the system alarm if no alarm is due`() {
+        whenever(appRepository.pollAlarmsUntil(500)) doReturn emptyList()
+        whenever(appRepository.readNextAlarm()) doReturn earlyAlarm
+        assertThat(queue.pollDue(500)).isEmpty()
+        verifyInvokedOnce(alarmServices).scheduleNextSessionAlarm(mockContext, 1000)
+    }
+
+    @Test
+    fun `discardMissed deletes the missed alarms with a single query and arms the next alarm`() {
+        whenever(appRepository.deleteAlarmsUntil(1500)) doReturn 1
+        whenever(appRepository.readNextAlarm()) doReturn lateAlarm
+        queue.discardMissed(1500)
+        verifyInvokedOnce(appRepository).deleteAlarmsUntil(1500)
+        verifyInvokedNever(appRepository).readAlarms(any())
+        verifyInvokedOnce(alarmServices).scheduleNextSessionAlarm(mockContext, 2000)
+    }
+
+    private fun createAlarm(sessionId: String, startTime: Long) = Alarm(
+            alarmTimeInMin = 10,
+            day = 1,
+            displayTime = startTime + 600_000,
+            sessionId = sessionId,
+            sessionTitle = "Session $sessionId",
+            startTime = startTime,
+            timeText = ""
+    )
+
+}
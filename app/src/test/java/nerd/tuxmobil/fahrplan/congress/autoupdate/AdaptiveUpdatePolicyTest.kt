@@ -0,0 +1,69 @@
+package nerd.tuxmobil.fahrplan.congress.autoupdate
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.Test
+import java.util.concurrent.TimeUnit
+
+class AdaptiveUpdatePolicyTest {
+
+    private companion object {
+        // 2019-12-26T00:00:00Z
+        const val DAY_START = 1577318400000L
+        val MINUTE = TimeUnit.MINUTES.toMillis(1)
+        val HOUR = TimeUnit.HOURS.toMillis(1)
+        val DAY = TimeUnit.DAYS.toMillis(1)
+    }
+
+    private val policy = AdaptiveUpdatePolicy(
+            minIntervalMillis = 15 * MINUTE,
+            maxIntervalMillis = 6 * HOUR
+    )
+
+    @Test
+    fun `nextIntervalMillis returns the default interval without history`() {
+        assertThat(policy.nextIntervalMillis(emptyList(), DAY_START)).isEqualTo(2 * HOUR)
+        assertThat(policy.nextIntervalMillis(listOf(FetchOutcome(DAY_START, 5)), DAY_START)).isEqualTo(2 * HOUR)
+    }
+
+    @Test
+    fun `nextIntervalMillis returns the minimum interval if every update found changes`() {
+        val outcomes = List(25) { FetchOutcome(DAY_START + it * 15 * MINUTE, 1) }
+        assertThat(policy.nextIntervalMillis(outcomes, outcomes.last().fetchedAt)).isEqualTo(15 * MINUTE)
+    }
+
+    @Test
+    fun `nextIntervalMillis returns a longer interval if updates did not find changes`() {
+        val outcomes = List(37) { FetchOutcome(DAY_START + it * 2 * HOUR, 0) }
+        val interval = policy.nextIntervalMillis(outcomes, outcomes.last().fetchedAt)
+        assertThat(interval).isGreaterThan(2 * HOUR).isLessThanOrEqualTo(6 * HOUR)
+    }
+
+    @Test
+    fun `nextIntervalMillis returns at most the maximum interval`() {
+        val policy = AdaptiveUpdatePolicy(minIntervalMillis = 15 * MINUTE, maxIntervalMillis = 4 * HOUR)
+        val outcomes = List(37) { FetchOutcome(DAY_START + it * 2 * HOUR, 0) }
+        assertThat(policy.nextIntervalMillis(outcomes, outcomes.last().fetchedAt)).isEqualTo(4 * HOUR)
+    }
+
+    @Test
+    fun `nextIntervalMillis returns an interval which ends before the time of day of previous changes`() {
+        val now = DAY_START + 3 * DAY + 6 * HOUR
+        val quietOutcomes = hourlyOutcomes(now) { 0 }
+        // The schedule changed between 09:00 and 12:00 on previous days.
+        val outcomes = hourlyOutcomes(now) { hourOfDay -> if (hourOfDay in 9..11) 1 else 0 }
+        val interval = policy.nextIntervalMillis(outcomes, now)
+        assertThat(interval).isLessThanOrEqualTo(3 * HOUR)
+        assertThat(interval).isLessThan(policy.nextIntervalMillis(quietOutcomes, now))
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun `constructor rejects a default interval beyond the bounds`() {
+        AdaptiveUpdatePolicy(minIntervalMillis = 15 * MINUTE, maxIntervalMillis = HOUR)
+    }
+
+    private fun hourlyOutcomes(now: Long, changesCountAt: (hourOfDay: Int) -> Int) =
+            (DAY_START..now step HOUR).map { fetchedAt ->
+                FetchOutcome(fetchedAt, changesCountAt(((fetchedAt - DAY_START) % DAY / HOUR).toInt()))
+            }
+
+}
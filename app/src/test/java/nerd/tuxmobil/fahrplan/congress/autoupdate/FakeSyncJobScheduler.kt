@@ -0,0 +1,99 @@
+package nerd.tuxmobil.fahrplan.congress.autoupdate
+
+import kotlinx.coroutines.runBlocking
+
+/**
+ * In-process [SyncJobScheduler] which runs the given [job] on a virtual clock.
+ * Runs whose [SyncConstraints] are not met by the simulated device state are deferred
+ * until the state allows them, just like the platform job schedulers do.
+ */
+class FakeSyncJobScheduler(
+
+        private val job: SyncJob,
+        var now: Long = 0
+
+) : SyncJobScheduler {
+
+    private class Work(
+            val constraints: SyncConstraints,
+            val backoff: SyncBackoff,
+            val intervalMillis: Long?,
+            var dueAt: Long
+    ) {
+        var retry = 0
+    }
+
+    var isNetworkAvailable = true
+    var isNetworkMetered = false
+    var isBatteryLow = false
+
+    private var periodicWork: Work? = null
+    private var oneTimeWork: Work? = null
+
+    /**
+     * Points in time at which the job ran.
+     */
+    val runs = mutableListOf<Long>()
+
+    val isPeriodicScheduled
+        get() = periodicWork != null
+
+    val isOnceScheduled
+        get() = oneTimeWork != null
+
+    override fun schedulePeriodic(request: SyncJobRequest) {
+        periodicWork = Work(request.constraints, request.backoff, request.intervalMillis, now + request.initialDelayMillis)
+    }
+
+    override fun scheduleOnce(constraints: SyncConstraints) {
+        if (oneTimeWork == null) {
+            oneTimeWork = Work(constraints, SyncBackoff(), null, now)
+        }
+    }
+
+    override fun cancelPeriodic() {
+        periodicWork = null
+    }
+
+    /**
+     * Advances the virtual clock by the given [millis] and runs all work which becomes due
+     * in the meantime and whose constraints are met at that time.
+     */
+    fun advanceTimeBy(millis: Long) {
+        val target = now + millis
+        while (true) {
+            val work = listOfNotNull(oneTimeWork, periodicWork)
+                    .filter { it.dueAt <= target && it.constraints.isMet() }
+                    .minByOrNull { it.dueAt } ?: break
+            now = maxOf(now, work.dueAt)
+            run(work)
+        }
+        now = target
+    }
+
+    private fun run(work: Work) {
+        runs += now
+        when (runBlocking { job.run() }) {
+            SyncJob.Result.RETRY -> {
+                work.retry++
+                work.dueAt = now + work.backoff.delayMillis(work.retry)
+            }
+            SyncJob.Result.SUCCESS, SyncJob.Result.FAILURE -> {
+                work.retry = 0
+                if (work.intervalMillis == null) {
+                    oneTimeWork = null
+                } else {
+                    work.dueAt = now + work.intervalMillis
+                }
+            }
+        }
+    }
+
+    private fun SyncConstraints.isMet() = when {
+        requiresNetwork && !isNetworkAvailable -> false
+        requiresUnmeteredNetwork && (!isNetworkAvailable || isNetworkMetered) -> false
+        requiresBatteryNotLow && isBatteryLow -> false
+        else -> true
+    }
+
+}
@@ -0,0 +1,138 @@
+package nerd.tuxmobil.fahrplan.congress.autoupdate
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.Test
+import java.util.concurrent.TimeUnit
+
+class FakeSyncJobSchedulerTest {
+
+    private companion object {
+        val ONE_MINUTE = TimeUnit.MINUTES.toMillis(1)
+        val ONE_HOUR = TimeUnit.HOURS.toMillis(1)
+        val THIRTY_SECONDS = TimeUnit.SECONDS.toMillis(30)
+    }
+
+    private class RecordingSyncJob(vararg results: SyncJob.Result) : SyncJob {
+        private val results = results.toMutableList()
+        override suspend fun run() = if (results.isEmpty()) SyncJob.Result.SUCCESS else results.removeAt(0)
+    }
+
+    private val defaultConstraints = SyncConstraints()
+
+    @Test
+    fun `schedulePeriodic runs the job after the initial delay and then every interval`() {
+        val scheduler = FakeSyncJobScheduler(RecordingSyncJob())
+        scheduler.schedulePeriodic(SyncJobRequest(ONE_HOUR, 10 * ONE_MINUTE, defaultConstraints))
+        scheduler.advanceTimeBy(3 * ONE_HOUR)
+        assertThat(scheduler.runs).containsExactly(10 * ONE_MINUTE, 70 * ONE_MINUTE, 130 * ONE_MINUTE)
+    }
+
+    @Test
+    fun `schedulePeriodic replaces the periodic job which has been scheduled before`() {
+        val scheduler = FakeSyncJobScheduler(RecordingSyncJob())
+        scheduler.schedulePeriodic(SyncJobRequest(ONE_HOUR, ONE_HOUR, defaultConstraints))
+        scheduler.schedulePeriodic(SyncJobRequest(2 * ONE_HOUR, 2 * ONE_HOUR, defaultConstraints))
+        scheduler.advanceTimeBy(3 * ONE_HOUR)
+        assertThat(scheduler.runs).containsExactly(2 * ONE_HOUR)
+    }
+
+    @Test
+    fun `periodic job does not run without a network and runs once the network is available`() {
+        val scheduler = FakeSyncJobScheduler(RecordingSyncJob())
+        scheduler.isNetworkAvailable = false
+        scheduler.schedulePeriodic(SyncJobRequest(ONE_HOUR, 0, defaultConstraints))
+        scheduler.advanceTimeBy(90 * ONE_MINUTE)
+        assertThat(scheduler.runs).isEmpty()
+
+        scheduler.isNetworkAvailable = true
+        scheduler.advanceTimeBy(0)
+        assertThat(scheduler.runs).containsExactly(90 * ONE_MINUTE)
+    }
+
+    @Test
+    fun `periodic job which requires an unmetered network does not run on a metered network`() {
+        val scheduler = FakeSyncJobScheduler(RecordingSyncJob())
+        scheduler.isNetworkMetered = true
+        scheduler.schedulePeriodic(SyncJobRequest(ONE_HOUR, 0, SyncConstraints(requiresUnmeteredNetwork = true)))
+        scheduler.advanceTimeBy(ONE_HOUR)
+        assertThat(scheduler.runs).isEmpty()
+
+        scheduler.isNetworkMetered = false
+        scheduler.advanceTimeBy(ONE_MINUTE)
+        assertThat(scheduler.runs).containsExactly(ONE_HOUR)
+    }
+
+    @Test
+    fun `periodic job does not run while the battery is low`() {
+        val scheduler = FakeSyncJobScheduler(RecordingSyncJob())
+        scheduler.isBatteryLow = true
+        scheduler.schedulePeriodic(SyncJobRequest(ONE_HOUR, 0, defaultConstraints))
+        scheduler.advanceTimeBy(ONE_HOUR)
+        assertThat(scheduler.runs).isEmpty()
+
+        scheduler.isBatteryLow = false
+        scheduler.advanceTimeBy(0)
+        assertThat(scheduler.runs).containsExactly(ONE_HOUR)
+    }
+
+    @Test
+    fun `job which returns RETRY runs again after an exponential backoff`() {
+        val job = RecordingSyncJob(SyncJob.Result.RETRY, SyncJob.Result.RETRY, SyncJob.Result.RETRY)
+        val scheduler = FakeSyncJobScheduler(job)
+        scheduler.schedulePeriodic(SyncJobRequest(ONE_HOUR, 0, defaultConstraints))
+        scheduler.advanceTimeBy(ONE_HOUR)
+        val firstRetry = THIRTY_SECONDS
+        val secondRetry = firstRetry + 2 * THIRTY_SECONDS
+        val thirdRetry = secondRetry + 4 * THIRTY_SECONDS
+        assertThat(scheduler.runs).containsExactly(0, firstRetry, secondRetry, thirdRetry)
+
+        scheduler.advanceTimeBy(ONE_HOUR)
+        assertThat(scheduler.runs).containsExactly(0, firstRetry, secondRetry, thirdRetry, thirdRetry + ONE_HOUR)
+    }
+
+    @Test
+    fun `job which returns FAILURE waits for the next interval`() {
+        val scheduler = FakeSyncJobScheduler(RecordingSyncJob(SyncJob.Result.FAILURE))
+        scheduler.schedulePeriodic(SyncJobRequest(ONE_HOUR, 0, defaultConstraints))
+        scheduler.advanceTimeBy(90 * ONE_MINUTE)
+        assertThat(scheduler.runs).containsExactly(0, ONE_HOUR)
+    }
+
+    @Test
+    fun `scheduleOnce runs the job once as soon as the constraints are met`() {
+        val scheduler = FakeSyncJobScheduler(RecordingSyncJob())
+        scheduler.isNetworkAvailable = false
+        scheduler.scheduleOnce(defaultConstraints)
+        scheduler.advanceTimeBy(ONE_MINUTE)
+        assertThat(scheduler.runs).isEmpty()
+        assertThat(scheduler.isOnceScheduled).isTrue()
+
+        scheduler.isNetworkAvailable = true
+        scheduler.advanceTimeBy(ONE_HOUR)
+        assertThat(scheduler.runs).containsExactly(ONE_MINUTE)
+        assertThat(scheduler.isOnceScheduled).isFalse()
+    }
+
+    @Test
+    fun `scheduleOnce keeps the pending run`() {
+        val scheduler = FakeSyncJobScheduler(RecordingSyncJob())
+        scheduler.isNetworkAvailable = false
+        scheduler.scheduleOnce(defaultConstraints)
+        scheduler.scheduleOnce(defaultConstraints)
+        scheduler.isNetworkAvailable = true
+        scheduler.advanceTimeBy(ONE_MINUTE)
+        assertThat(scheduler.runs).containsExactly(0)
+    }
+
+    @Test
+    fun `cancelPeriodic stops the periodic job`() {
+        val scheduler = FakeSyncJobScheduler(RecordingSyncJob())
+        scheduler.schedulePeriodic(SyncJobRequest(ONE_HOUR, 0, defaultConstraints))
+        scheduler.advanceTimeBy(ONE_MINUTE)
+        scheduler.cancelPeriodic()
+        scheduler.advanceTimeBy(3 * ONE_HOUR)
+        assertThat(scheduler.runs).containsExactly(0)
+        assertThat(scheduler.isPeriodicScheduled).isFalse()
+    }
+
+}
@@ -0,0 +1,32 @@
+package nerd.tuxmobil.fahrplan.congress.autoupdate
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.Test
+
+class FetchOutcomeTest {
+
+    @Test
+    fun `hasChanges returns true if sessions changed`() {
+        assertThat(FetchOutcome(1000L, 3).hasChanges).isTrue()
+        assertThat(FetchOutcome(1000L, 0).hasChanges).isFalse()
+    }
+
+    @Test
+    fun `toFetchOutcomes restores the outcomes of toFetchOutcomesString`() {
+        val outcomes = listOf(FetchOutcome(1577437200000L, 0), FetchOutcome(1577444400000L, 12))
+        assertThat(outcomes.toFetchOutcomesString()).isEqualTo("1577437200000:0,1577444400000:12")
+        assertThat(outcomes.toFetchOutcomesString().toFetchOutcomes()).isEqualTo(outcomes)
+    }
+
+    @Test
+    fun `toFetchOutcomes returns an empty list for an empty string`() {
+        assertThat("".toFetchOutcomes()).isEmpty()
+    }
+
+    @Test
+    fun `toFetchOutcomes skips malformed outcomes`() {
+        assertThat("1577437200000:0,foo,1577444400000,1577444400000:bar:1,1577448000000:2".toFetchOutcomes())
+                .containsExactly(FetchOutcome(1577437200000L, 0), FetchOutcome(1577448000000L, 2))
+    }
+
+}
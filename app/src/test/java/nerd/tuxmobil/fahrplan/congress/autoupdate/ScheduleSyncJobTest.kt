@@ -0,0 +1,49 @@
+package nerd.tuxmobil.fahrplan.congress.autoupdate
+
+import nerd.tuxmobil.fahrplan.congress.autoupdate.ScheduleSyncJob.Companion.toSyncJobResult
+import nerd.tuxmobil.fahrplan.congress.net.FetchScheduleResult
+import nerd.tuxmobil.fahrplan.congress.net.HttpStatus
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.Test
+
+class ScheduleSyncJobTest {
+
+    @Test
+    fun `toSyncJobResult returns SUCCESS for a fetched or unmodified schedule`() {
+        assertThat(HttpStatus.HTTP_OK.toSyncJobResult()).isEqualTo(SyncJob.Result.SUCCESS)
+        assertThat(HttpStatus.HTTP_NOT_MODIFIED.toSyncJobResult()).isEqualTo(SyncJob.Result.SUCCESS)
+    }
+
+    @Test
+    fun `toSyncJobResult returns RETRY for network failures`() {
+        assertThat(HttpStatus.HTTP_DNS_FAILURE.toSyncJobResult()).isEqualTo(SyncJob.Result.RETRY)
+        assertThat(HttpStatus.HTTP_COULD_NOT_CONNECT.toSyncJobResult()).isEqualTo(SyncJob.Result.RETRY)
+        assertThat(HttpStatus.HTTP_CONNECT_TIMEOUT.toSyncJobResult()).isEqualTo(SyncJob.Result.RETRY)
+    }
+
+    @Test
+    fun `toSyncJobResult returns RETRY for request timeouts, too many requests and server errors`() {
+        listOf(408, 429, 500, 503).forEach {
+            assertThat(HttpStatus.HTTP_COULD_NOT_CONNECT.toSyncJobResult(it)).`as`("$it").isEqualTo(SyncJob.Result.RETRY)
+        }
+    }
+
+    @Test
+    fun `toSyncJobResult returns FAILURE for permanent client errors`() {
+        listOf(400, 403, 410).forEach {
+            assertThat(HttpStatus.HTTP_COULD_NOT_CONNECT.toSyncJobResult(it)).`as`("$it").isEqualTo(SyncJob.Result.FAILURE)
+        }
+    }
+
+    @Test
+    fun `toSyncJobResult returns FAILURE for failures which do not go away by retrying`() {
+        assertThat(HttpStatus.HTTP_NOT_FOUND.toSyncJobResult()).isEqualTo(SyncJob.Result.FAILURE)
+        assertThat(HttpStatus.HTTP_WRONG_HTTP_CREDENTIALS.toSyncJobResult()).isEqualTo(SyncJob.Result.FAILURE)
+        assertThat(HttpStatus.HTTP_CANNOT_PARSE_CONTENT.toSyncJobResult()).isEqualTo(SyncJob.Result.FAILURE)
+        assertThat(HttpStatus.HTTP_CLEARTEXT_NOT_PERMITTED.toSyncJobResult()).isEqualTo(SyncJob.Result.FAILURE)
+    }
+
+    private fun HttpStatus.toSyncJobResult(httpStatusCode: Int = FetchScheduleResult.NO_HTTP_STATUS_CODE) =
+            FetchScheduleResult(this, "example.com", httpStatusCode = httpStatusCode).toSyncJobResult()
+
+}
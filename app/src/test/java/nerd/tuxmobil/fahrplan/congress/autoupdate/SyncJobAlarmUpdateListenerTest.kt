@@ -0,0 +1,58 @@
+package nerd.tuxmobil.fahrplan.congress.autoupdate
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.Test
+import java.util.concurrent.TimeUnit
+
+class SyncJobAlarmUpdateListenerTest {
+
+    private companion object {
+        const val NOW = 1577437200000L
+        val ONE_HOUR = TimeUnit.HOURS.toMillis(1)
+    }
+
+    private val syncJob = object : SyncJob {
+        override suspend fun run() = SyncJob.Result.SUCCESS
+    }
+
+    private val scheduler = FakeSyncJobScheduler(syncJob, NOW)
+
+    private val scheduledIntervals = mutableListOf<Long>()
+
+    private val listener = SyncJobAlarmUpdateListener(scheduler, SyncConstraints(), NOW) {
+        scheduledIntervals += it
+    }
+
+    @Test
+    fun `onRescheduleAlarm schedules the periodic job at the next fetch`() {
+        listener.onRescheduleAlarm(2 * ONE_HOUR, NOW + ONE_HOUR)
+        assertThat(scheduledIntervals).containsExactly(2 * ONE_HOUR)
+
+        scheduler.advanceTimeBy(4 * ONE_HOUR)
+        assertThat(scheduler.runs).containsExactly(NOW + ONE_HOUR, NOW + 3 * ONE_HOUR)
+    }
+
+    @Test
+    fun `onRescheduleInitialAlarm runs the periodic job immediately if the next fetch is overdue`() {
+        listener.onRescheduleInitialAlarm(2 * ONE_HOUR, NOW - ONE_HOUR)
+        scheduler.advanceTimeBy(0)
+        assertThat(scheduler.runs).containsExactly(NOW)
+    }
+
+    @Test
+    fun `onRescheduleAlarm raises an interval below the minimum interval of the job schedulers`() {
+        listener.onRescheduleAlarm(TimeUnit.MINUTES.toMillis(5), NOW)
+        scheduler.advanceTimeBy(SyncJobRequest.MIN_INTERVAL_MILLIS)
+        assertThat(scheduler.runs).containsExactly(NOW, NOW + SyncJobRequest.MIN_INTERVAL_MILLIS)
+    }
+
+    @Test
+    fun `onCancelAlarm cancels the periodic job`() {
+        listener.onRescheduleAlarm(2 * ONE_HOUR, NOW + ONE_HOUR)
+        listener.onCancelAlarm()
+        scheduler.advanceTimeBy(4 * ONE_HOUR)
+        assertThat(scheduler.runs).isEmpty()
+        assertThat(scheduler.isPeriodicScheduled).isFalse()
+    }
+
+}
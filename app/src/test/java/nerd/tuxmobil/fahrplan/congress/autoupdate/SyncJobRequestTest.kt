@@ -0,0 +1,49 @@
+package nerd.tuxmobil.fahrplan.congress.autoupdate
+
+import org.assertj.core.api.Assertions.assertThat
+import org.assertj.core.api.Assertions.assertThatThrownBy
+import org.junit.Test
+import java.util.concurrent.TimeUnit
+
+class SyncJobRequestTest {
+
+    @Test
+    fun `SyncJobRequest accepts the minimum interval`() {
+        val request = SyncJobRequest(SyncJobRequest.MIN_INTERVAL_MILLIS, 0, SyncConstraints())
+        assertThat(request.intervalMillis).isEqualTo(TimeUnit.MINUTES.toMillis(15))
+    }
+
+    @Test
+    fun `SyncJobRequest rejects an interval shorter than the minimum interval`() {
+        assertThatThrownBy { SyncJobRequest(SyncJobRequest.MIN_INTERVAL_MILLIS - 1, 0, SyncConstraints()) }
+                .isInstanceOf(IllegalArgumentException::class.java)
+    }
+
+    @Test
+    fun `SyncBackoff rejects an initial delay shorter than the minimum delay`() {
+        assertThatThrownBy { SyncBackoff(SyncBackoff.MIN_DELAY_MILLIS - 1) }
+                .isInstanceOf(IllegalArgumentException::class.java)
+    }
+
+    @Test
+    fun `delayMillis doubles the delay with every retry`() {
+        val backoff = SyncBackoff(TimeUnit.SECONDS.toMillis(30))
+        assertThat(backoff.delayMillis(1)).isEqualTo(TimeUnit.SECONDS.toMillis(30))
+        assertThat(backoff.delayMillis(2)).isEqualTo(TimeUnit.SECONDS.toMillis(60))
+        assertThat(backoff.delayMillis(3)).isEqualTo(TimeUnit.SECONDS.toMillis(120))
+    }
+
+    @Test
+    fun `delayMillis is capped at the maximum delay`() {
+        val backoff = SyncBackoff()
+        assertThat(backoff.delayMillis(12)).isEqualTo(SyncBackoff.MAX_DELAY_MILLIS)
+        assertThat(backoff.delayMillis(100)).isEqualTo(SyncBackoff.MAX_DELAY_MILLIS)
+    }
+
+    @Test
+    fun `delayMillis rejects a retry which is not positive`() {
+        assertThatThrownBy { SyncBackoff().delayMillis(0) }
+                .isInstanceOf(IllegalArgumentException::class.java)
+    }
+
+}
@@ -0,0 +1,120 @@
+package nerd.tuxmobil.fahrplan.congress.autoupdate
+
+import org.threeten.bp.Instant
+
+/**
+ * Version of a schedule which has been published at [publishedAt] (milliseconds since the epoch)
+ * with [changesCount] changed sessions.
+ */
+data class ScheduleVersion(
+
+        val publishedAt: Long,
+        val changesCount: Int
+
+)
+
+/**
+ * Versions of a schedule which have been published between [start] and [end].
+ */
+class ScheduleVersionTimeline(
+
+        val start: Long,
+        val end: Long,
+        val versions: List<ScheduleVersion>
+
+) {
+
+    companion object {
+
+        private const val COMMENT_PREFIX = "#"
+        private const val START_KEY = "start"
+        private const val END_KEY = "end"
+
+        /**
+         * Reads the timeline of the given resource in the `schedule-version-timelines` folder.
+         * See `synthetic-conference.txt` for the format.
+         */
+        fun fromResource(name: String): ScheduleVersionTimeline {
+            val stream = ScheduleVersionTimeline::class.java.classLoader!!
+                    .getResourceAsStream("schedule-version-timelines/$name")
+            requireNotNull(stream) { "Missing schedule version timeline \"$name\"." }
+            var start: Long? = null
+            var end: Long? = null
+            val versions = mutableListOf<ScheduleVersion>()
+            stream.bufferedReader().useLines { lines ->
+                lines.map { it.trim() }
+                        .filterNot { it.isEmpty() || it.startsWith(COMMENT_PREFIX) }
+                        .forEach { line ->
+                            val (key, value) = line.split(" ", limit = 2)
+                            when (key) {
+                                START_KEY -> start = value.toEpochMilli()
+                                END_KEY -> end = value.toEpochMilli()
+                                else -> versions += ScheduleVersion(key.toEpochMilli(), value.toInt())
+                            }
+                        }
+            }
+            return ScheduleVersionTimeline(
+                    requireNotNull(start) { "Missing start of timeline \"$name\"." },
+                    requireNotNull(end) { "Missing end of timeline \"$name\"." },
+                    versions.sortedBy { it.publishedAt }
+            )
+        }
+
+        private fun String.toEpochMilli() = Instant.parse(this).toEpochMilli()
+
+    }
+
+}
+
+/**
+ * Replays a [timeline] of schedule versions against an update policy. The schedule is updated
+ * at the start of the timeline and then after each interval the policy returns until the end
+ * of the timeline. The policy receives the [FetchOutcome]s of the updates so far just like
+ * the [AdaptiveUpdatePolicy] in the app.
+ */
+class UpdatePolicySimulation(private val timeline: ScheduleVersionTimeline) {
+
+    /**
+     * Summary of a simulation. A version is stale from its publication until the update
+     * which fetched it. Versions published after the last update are not taken into account.
+     */
+    data class Report(
+
+            val fetchesCount: Int,
+            val unchangedFetchesCount: Int,
+            val meanStalenessMillis: Long,
+            val maxStalenessMillis: Long
+
+    )
+
+    fun run(nextIntervalMillis: (outcomes: List<FetchOutcome>, now: Long) -> Long): Report {
+        val outcomes = mutableListOf<FetchOutcome>()
+        val stalenesses = mutableListOf<Long>()
+        var fetchesCount = 0
+        var unchangedFetchesCount = 0
+        var lastFetchedAt = timeline.start
+        var now = timeline.start
+        while (now < timeline.end) {
+            fetchesCount++
+            val fetchedVersions = timeline.versions.filter { it.publishedAt > lastFetchedAt && it.publishedAt <= now }
+            fetchedVersions.mapTo(stalenesses) { now - it.publishedAt }
+            val changesCount = fetchedVersions.sumBy { it.changesCount }
+            if (changesCount == 0) {
+                unchangedFetchesCount++
+            }
+            outcomes += FetchOutcome(now, changesCount)
+            if (outcomes.size > AdaptiveUpdatePolicy.HISTORY_SIZE) {
+                outcomes.removeAt(0)
+            }
+            lastFetchedAt = now
+            now += nextIntervalMillis(outcomes.toList(), now)
+        }
+        return Report(
+                fetchesCount = fetchesCount,
+                unchangedFetchesCount = unchangedFetchesCount,
+                meanStalenessMillis = if (stalenesses.isEmpty()) 0 else stalenesses.sum() / stalenesses.size,
+                maxStalenessMillis = stalenesses.maxOrNull() ?: 0
+        )
+    }
+
+}
@@ -0,0 +1,42 @@
+package nerd.tuxmobil.fahrplan.congress.autoupdate
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.Test
+import java.util.concurrent.TimeUnit
+
+class UpdatePolicySimulationTest {
+
+    private companion object {
+        val FIXED_INTERVAL_MILLIS = TimeUnit.HOURS.toMillis(2)
+    }
+
+    private val simulation = UpdatePolicySimulation(ScheduleVersionTimeline.fromResource("synthetic-conference.txt"))
+
+    private val adaptivePolicy = AdaptiveUpdatePolicy(
+            minIntervalMillis = TimeUnit.MINUTES.toMillis(15),
+            maxIntervalMillis = TimeUnit.HOURS.toMillis(6)
+    )
+
+    @Test
+    fun `fixed interval fetches at the same rate day and night`() {
+        val report = simulation.run { _, _ -> FIXED_INTERVAL_MILLIS }
+        assertThat(report.fetchesCount).isEqualTo(60)
+        assertThat(report.maxStalenessMillis).isLessThan(FIXED_INTERVAL_MILLIS)
+    }
+
+    @Test
+    fun `adaptive policy fetches unchanged schedules less often and fresh versions sooner than a fixed interval`() {
+        val fixedReport = simulation.run { _, _ -> FIXED_INTERVAL_MILLIS }
+        val adaptiveReport = simulation.run(adaptivePolicy::nextIntervalMillis)
+        assertThat(adaptiveReport.fetchesCount).isLessThanOrEqualTo(fixedReport.fetchesCount)
+        assertThat(adaptiveReport.unchangedFetchesCount).isLessThan(fixedReport.unchangedFetchesCount)
+        assertThat(adaptiveReport.meanStalenessMillis).isLessThan(fixedReport.meanStalenessMillis)
+    }
+
+    @Test
+    fun `adaptive policy keeps versions stale for at most the maximum interval`() {
+        val report = simulation.run(adaptivePolicy::nextIntervalMillis)
+        assertThat(report.maxStalenessMillis).isLessThanOrEqualTo(TimeUnit.HOURS.toMillis(6))
+    }
+
+}
@@ -0,0 +1,68 @@
+package nerd.tuxmobil.fahrplan.congress.benchmarks;
+
+import org.kxml2.io.KXmlParser;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import info.metadude.android.eventfahrplan.commons.testing.schedule.SyntheticSchedule;
+import info.metadude.android.eventfahrplan.commons.testing.schedule.SyntheticScheduleConfig;
+import info.metadude.android.eventfahrplan.commons.testing.schedule.SyntheticScheduleGenerator;
+import info.metadude.android.eventfahrplan.commons.testing.schedule.SyntheticScheduleSerialization;
+import info.metadude.android.eventfahrplan.network.serialization.ScheduleParser;
+import nerd.tuxmobil.fahrplan.congress.NoLogging;
+import nerd.tuxmobil.fahrplan.congress.models.Session;
+
+import static nerd.tuxmobil.fahrplan.congress.dataconverters.SessionsExtensionsKt.sanitize;
+import static nerd.tuxmobil.fahrplan.congress.dataconverters.SessionsExtensionsKt.toSessionsAppModel2;
+
+/**
+ * Creates sessions of a given size for benchmarks from schedules of the {@link SyntheticScheduleGenerator}.
+ * Sessions are distributed over four days and one room per 25 sessions per day.
+ * They are parsed and converted the same way as a fetched schedule.
+ */
+final class BenchmarkSessions {
+
+    private static final int DAYS_COUNT = 4;
+    private static final int SESSIONS_PER_ROOM = 25;
+
+    private BenchmarkSessions() {
+    }
+
+    static SyntheticScheduleGenerator createGenerator(int sessionsCount) {
+        int roomsCount = Math.max(1, sessionsCount / (DAYS_COUNT * SESSIONS_PER_ROOM));
+        SyntheticScheduleConfig config = new SyntheticScheduleConfig(DAYS_COUNT, roomsCount, sessionsCount);
+        return new SyntheticScheduleGenerator(config);
+    }
+
+    static List<Session> create(int sessionsCount) {
+        return toSessions(createGenerator(sessionsCount).createSchedule());
+    }
+
+    static List<Session> toSessions(SyntheticSchedule schedule) {
+        return sanitize(toSessionsAppModel2(toNetworkSessions(schedule)));
+    }
+
+    static List<info.metadude.android.eventfahrplan.network.models.Session> toNetworkSessions(SyntheticSchedule schedule) {
+        String xml = SyntheticScheduleSerialization.toXml(schedule);
+        ScheduleParser.Result result = new ScheduleParser(KXmlParser::new, NoLogging.INSTANCE).parse(xml, "");
+        if (!result.isSuccessful()) {
+            throw new IllegalStateException("Failed to parse the synthetic schedule.");
+        }
+        return result.getSessions();
+    }
+
+    /**
+     * Returns the sessions of the given day.
+     */
+    static List<Session> ofDay(List<Session> sessions, int day) {
+        List<Session> daySessions = new ArrayList<>();
+        for (Session session : sessions) {
+            if (session.day == day) {
+                daySessions.add(session);
+            }
+        }
+        return daySessions;
+    }
+
+}
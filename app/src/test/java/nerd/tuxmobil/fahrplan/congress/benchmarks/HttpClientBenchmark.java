@@ -0,0 +1,87 @@
+package nerd.tuxmobil.fahrplan.congress.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import info.metadude.android.eventfahrplan.commons.testing.schedule.SyntheticScheduleConfig;
+import info.metadude.android.eventfahrplan.commons.testing.schedule.SyntheticScheduleGenerator;
+import info.metadude.android.eventfahrplan.commons.testing.schedule.SyntheticScheduleSerialization;
+import info.metadude.android.eventfahrplan.network.fetching.FetchScheduleResult;
+import info.metadude.android.eventfahrplan.network.fetching.ScheduleFetcher;
+import nerd.tuxmobil.fahrplan.congress.NoLogging;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+/**
+ * Measures fetching a schedule of 100 sessions from a local MockWebServer with a new
+ * OkHttpClient per request versus one shared client. The difference is the cost of a new
+ * connection pool, thread pool and connection per request. Schedules served via HTTPS
+ * additionally pay for a TLS handshake per request without a shared client.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class HttpClientBenchmark {
+
+    private MockWebServer server;
+
+    private String url;
+
+    private ScheduleFetcher sharedClientFetcher;
+
+    @Setup
+    public void setUp() throws IOException {
+        SyntheticScheduleConfig config = new SyntheticScheduleConfig(4, 1, 100);
+        String scheduleXml = SyntheticScheduleSerialization.toXml(new SyntheticScheduleGenerator(config).createSchedule());
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return new MockResponse().setBody(scheduleXml).setHeader("ETag", "\"synthetic\"");
+            }
+        });
+        server.start();
+        url = server.url("/schedule.xml").toString();
+        sharedClientFetcher = new ScheduleFetcher(new OkHttpClient(), NoLogging.INSTANCE);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Benchmark
+    public FetchScheduleResult fetchWithNewClient() {
+        OkHttpClient okHttpClient = new OkHttpClient();
+        try {
+            return new ScheduleFetcher(okHttpClient, NoLogging.INSTANCE).fetch(url, "");
+        } finally {
+            okHttpClient.dispatcher().executorService().shutdown();
+            okHttpClient.connectionPool().evictAll();
+        }
+    }
+
+    @Benchmark
+    public FetchScheduleResult fetchWithSharedClient() {
+        return sharedClientFetcher.fetch(url, "");
+    }
+
+}
@@ -0,0 +1,77 @@
+package nerd.tuxmobil.fahrplan.congress.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import info.metadude.android.eventfahrplan.commons.temporal.Moment;
+import nerd.tuxmobil.fahrplan.congress.NoLogging;
+import nerd.tuxmobil.fahrplan.congress.models.RoomData;
+import nerd.tuxmobil.fahrplan.congress.models.ScheduleData;
+import nerd.tuxmobil.fahrplan.congress.models.Session;
+import nerd.tuxmobil.fahrplan.congress.repositories.SessionsTransformer;
+import nerd.tuxmobil.fahrplan.congress.schedule.Conference;
+import nerd.tuxmobil.fahrplan.congress.schedule.LayoutCalculator;
+
+/**
+ * Measures the steps which run when the schedule of one day is displayed:
+ * calculating the time frame of the day and the layout parameters of all rooms.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class LayoutBenchmark {
+
+    @Param({"100", "1000", "5000", "20000"})
+    public int sessionsCount;
+
+    private List<Session> daySessions;
+
+    private List<RoomData> roomDataList;
+
+    private Conference conference;
+
+    private LayoutCalculator layoutCalculator;
+
+    @Setup
+    public void setUp() {
+        daySessions = BenchmarkSessions.ofDay(BenchmarkSessions.create(sessionsCount), 1);
+        ScheduleData scheduleData = new SessionsTransformer(Collections::emptyList)
+                .transformSessions(1, daySessions);
+        roomDataList = scheduleData.getRoomDataList();
+        conference = new Conference();
+        conference.calculateTimeFrame(daySessions, dateUtc -> Moment.ofEpochMilli(dateUtc).getMinuteOfDay());
+        layoutCalculator = new LayoutCalculator(1, NoLogging.INSTANCE);
+    }
+
+    @Benchmark
+    public Conference calculateTimeFrame() {
+        Conference conference = new Conference();
+        conference.calculateTimeFrame(daySessions, dateUtc -> Moment.ofEpochMilli(dateUtc).getMinuteOfDay());
+        return conference;
+    }
+
+    @Benchmark
+    public void calculateLayoutParams(Blackhole blackhole) {
+        for (RoomData roomData : roomDataList) {
+            blackhole.consume(layoutCalculator.calculateLayoutParams(roomData, conference));
+        }
+    }
+
+}
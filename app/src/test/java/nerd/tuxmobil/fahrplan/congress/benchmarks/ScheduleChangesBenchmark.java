@@ -0,0 +1,57 @@
+package nerd.tuxmobil.fahrplan.congress.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import info.metadude.android.eventfahrplan.commons.testing.schedule.SyntheticSchedule;
+import info.metadude.android.eventfahrplan.commons.testing.schedule.SyntheticScheduleGenerator;
+import kotlin.Pair;
+import nerd.tuxmobil.fahrplan.congress.models.Session;
+import nerd.tuxmobil.fahrplan.congress.serialization.ScheduleChanges;
+
+/**
+ * Measures detecting changes between two versions of a schedule. In the second version
+ * 5% of the sessions have been modified, canceled or added,
+ * see {@link SyntheticScheduleGenerator#createChangedVersion}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ScheduleChangesBenchmark {
+
+    @Param({"100", "1000", "5000", "20000"})
+    public int sessionsCount;
+
+    private List<Session> oldSessions;
+
+    private List<Session> newSessions;
+
+    @Setup
+    public void setUp() {
+        SyntheticScheduleGenerator generator = BenchmarkSessions.createGenerator(sessionsCount);
+        SyntheticSchedule schedule = generator.createSchedule();
+        oldSessions = BenchmarkSessions.toSessions(schedule);
+        newSessions = BenchmarkSessions.toSessions(generator.createChangedVersion(schedule));
+    }
+
+    @Benchmark
+    public Pair<List<Session>, Boolean> computeSessionsWithChangeFlags() {
+        return ScheduleChanges.INSTANCE.computeSessionsWithChangeFlags(newSessions, oldSessions);
+    }
+
+}
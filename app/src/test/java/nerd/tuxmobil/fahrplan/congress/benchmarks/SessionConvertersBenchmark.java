@@ -0,0 +1,68 @@
+package nerd.tuxmobil.fahrplan.congress.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import nerd.tuxmobil.fahrplan.congress.models.Session;
+
+import static nerd.tuxmobil.fahrplan.congress.dataconverters.SessionsExtensionsKt.sanitize;
+import static nerd.tuxmobil.fahrplan.congress.dataconverters.SessionsExtensionsKt.toSessionsAppModel;
+import static nerd.tuxmobil.fahrplan.congress.dataconverters.SessionsExtensionsKt.toSessionsAppModel2;
+import static nerd.tuxmobil.fahrplan.congress.dataconverters.SessionsExtensionsKt.toSessionsDatabaseModel;
+
+/**
+ * Measures the mappings between the network, app and database session models.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SessionConvertersBenchmark {
+
+    @Param({"100", "1000", "5000", "20000"})
+    public int sessionsCount;
+
+    private List<Session> appSessions;
+
+    private List<info.metadude.android.eventfahrplan.network.models.Session> networkSessions;
+
+    private List<info.metadude.android.eventfahrplan.database.models.Session> databaseSessions;
+
+    @Setup
+    public void setUp() {
+        networkSessions = BenchmarkSessions.toNetworkSessions(
+                BenchmarkSessions.createGenerator(sessionsCount).createSchedule());
+        appSessions = sanitize(toSessionsAppModel2(networkSessions));
+        databaseSessions = toSessionsDatabaseModel(appSessions);
+    }
+
+    @Benchmark
+    public List<Session> networkToAppModel() {
+        return sanitize(toSessionsAppModel2(networkSessions));
+    }
+
+    @Benchmark
+    public List<info.metadude.android.eventfahrplan.database.models.Session> appToDatabaseModel() {
+        return toSessionsDatabaseModel(appSessions);
+    }
+
+    @Benchmark
+    public List<Session> databaseToAppModel() {
+        return toSessionsAppModel(databaseSessions);
+    }
+
+}
@@ -0,0 +1,61 @@
+package nerd.tuxmobil.fahrplan.congress.benchmarks;
+
+import androidx.annotation.NonNull;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import nerd.tuxmobil.fahrplan.congress.models.ScheduleData;
+import nerd.tuxmobil.fahrplan.congress.models.Session;
+import nerd.tuxmobil.fahrplan.congress.repositories.PrioritizedRoomProvider;
+import nerd.tuxmobil.fahrplan.congress.repositories.SessionsTransformer;
+
+/**
+ * Measures grouping the sessions of one day into rooms.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SessionsTransformerBenchmark {
+
+    @Param({"100", "1000", "5000", "20000"})
+    public int sessionsCount;
+
+    private List<Session> daySessions;
+
+    private SessionsTransformer sessionsTransformer;
+
+    @Setup
+    public void setUp() {
+        daySessions = BenchmarkSessions.ofDay(BenchmarkSessions.create(sessionsCount), 1);
+        sessionsTransformer = new SessionsTransformer(new PrioritizedRoomProvider() {
+            @NonNull
+            @Override
+            public List<String> getPrioritizedRooms() {
+                return Arrays.asList("Room 2", "Room 1");
+            }
+        });
+    }
+
+    @Benchmark
+    public ScheduleData transformSessions() {
+        return sessionsTransformer.transformSessions(1, daySessions);
+    }
+
+}
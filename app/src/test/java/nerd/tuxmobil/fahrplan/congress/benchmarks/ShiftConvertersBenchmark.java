@@ -0,0 +1,94 @@
+package nerd.tuxmobil.fahrplan.congress.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import info.metadude.android.eventfahrplan.commons.temporal.DayRange;
+import info.metadude.android.eventfahrplan.commons.temporal.Moment;
+import info.metadude.android.eventfahrplan.commons.testing.schedule.SyntheticDay;
+import info.metadude.android.eventfahrplan.commons.testing.schedule.SyntheticSchedule;
+import info.metadude.android.eventfahrplan.commons.testing.schedule.SyntheticScheduleConfig;
+import info.metadude.android.eventfahrplan.commons.testing.schedule.SyntheticScheduleGenerator;
+import info.metadude.kotlin.library.engelsystem.models.Shift;
+import nerd.tuxmobil.fahrplan.congress.NoLogging;
+import nerd.tuxmobil.fahrplan.congress.models.Session;
+
+import static nerd.tuxmobil.fahrplan.congress.dataconverters.ShiftExtensionsKt.getDescriptionText;
+import static nerd.tuxmobil.fahrplan.congress.dataconverters.ShiftsExtensionsKt.cropToDayRangesExtent;
+import static nerd.tuxmobil.fahrplan.congress.dataconverters.ShiftsExtensionsKt.toSessionAppModels;
+
+/**
+ * Measures converting Engelsystem shifts into sessions. Shifts are spread over a build-up week,
+ * the given number of event days and a tear-down week,
+ * see {@link SyntheticScheduleGenerator#createShifts}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ShiftConvertersBenchmark {
+
+    private static final int LOCATIONS_COUNT = 40;
+    private static final int BUILD_UP_DAYS_COUNT = 7;
+    private static final int TEAR_DOWN_DAYS_COUNT = 7;
+
+    @Param({"1000", "5000"})
+    public int shiftsCount;
+
+    @Param({"4", "28"})
+    public int daysCount;
+
+    private List<DayRange> dayRanges;
+
+    private List<Shift> shifts;
+
+    private List<Shift> croppedShifts;
+
+    @Setup
+    public void setUp() {
+        SyntheticScheduleConfig config = new SyntheticScheduleConfig(daysCount, LOCATIONS_COUNT, 0);
+        SyntheticScheduleGenerator generator = new SyntheticScheduleGenerator(config);
+        SyntheticSchedule schedule = generator.createSchedule();
+        dayRanges = new ArrayList<>(daysCount);
+        for (SyntheticDay day : schedule.getDays()) {
+            Moment moment = Moment.Companion.parseDate(day.getDate().toString());
+            dayRanges.add(new DayRange(moment, moment));
+        }
+        shifts = generator.createShifts(schedule, shiftsCount, BUILD_UP_DAYS_COUNT, TEAR_DOWN_DAYS_COUNT);
+        croppedShifts = cropToDayRangesExtent(shifts, dayRanges);
+    }
+
+    @Benchmark
+    public List<Shift> cropToDayRanges() {
+        return cropToDayRangesExtent(shifts, dayRanges);
+    }
+
+    @Benchmark
+    public List<Session> toSessions() {
+        return toSessionAppModels(croppedShifts, NoLogging.INSTANCE, "Engelshifts", dayRanges);
+    }
+
+    @Benchmark
+    public void descriptionText(Blackhole blackhole) {
+        for (Shift shift : shifts) {
+            blackhole.consume(getDescriptionText(shift));
+        }
+    }
+
+}
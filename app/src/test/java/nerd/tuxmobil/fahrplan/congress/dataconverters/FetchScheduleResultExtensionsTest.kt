@@ -16,12 +16,14 @@ class FetchScheduleResultExtensionsTest {
                 scheduleXml = "<xml></xml>",
                 eTag = "mno456",
                 hostName = "example.com",
-                exceptionMessage = "SSLException"
+                exceptionMessage = "SSLException",
+                httpStatusCode = 304
         )
         val appFetchScheduleResult = AppFetchScheduleResult(
                 httpStatus = AppHttpStatus.HTTP_NOT_MODIFIED,
                 hostName = "example.com",
-                exceptionMessage = "SSLException"
+                exceptionMessage = "SSLException",
+                httpStatusCode = 304
         )
         assertThat(networkFetchScheduleResult
                 .toAppFetchScheduleResult())
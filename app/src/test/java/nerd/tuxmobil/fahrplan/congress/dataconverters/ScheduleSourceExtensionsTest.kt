@@ -0,0 +1,123 @@
+package nerd.tuxmobil.fahrplan.congress.dataconverters
+
+import nerd.tuxmobil.fahrplan.congress.models.Session
+import org.assertj.core.api.Assertions.assertThat
+import org.assertj.core.api.Assertions.entry
+import org.junit.Test
+
+class ScheduleSourceExtensionsTest {
+
+    @Test
+    fun `numeric session IDs are prefixed with their source`() {
+        val sessions = listOf(Session("42")).toSourceNamespace(2)
+
+        assertThat(sessions.single().sessionId).isEqualTo("source2-42")
+        assertThat(sessions.single().sourceIndex).isEqualTo(2)
+    }
+
+    @Test
+    fun `non-numeric session IDs are prefixed with their source`() {
+        val sessions = listOf(Session("workshop-7")).toSourceNamespace(1)
+
+        assertThat(sessions.single().sessionId).isEqualTo("source1-workshop-7")
+        assertThat(sessions.single().sourceIndex).isEqualTo(1)
+    }
+
+    @Test
+    fun `sessions of the main schedule and shifts belong to source 0`() {
+        assertThat(Session("4711").sourceIndex).isEqualTo(0)
+        assertThat(Session("300023").sourceIndex).isEqualTo(0)
+        assertThat(Session("opening").sourceIndex).isEqualTo(0)
+    }
+
+    @Test
+    fun `large numeric session IDs of the main schedule belong to source 0`() {
+        assertThat(Session("1000000").sourceIndex).isEqualTo(0)
+        assertThat(Session("2000042").sourceIndex).isEqualTo(0)
+        assertThat(Session("12345678").sourceIndex).isEqualTo(0)
+    }
+
+    @Test
+    fun `session IDs which merely start like the prefix belong to source 0`() {
+        assertThat(Session("sourcecode-workshop").sourceIndex).isEqualTo(0)
+        assertThat(Session("source3").sourceIndex).isEqualTo(0)
+        assertThat(Session("source0-42").sourceIndex).isEqualTo(0)
+    }
+
+    @Test
+    fun `the original session is not modified`() {
+        val session = Session("42")
+
+        listOf(session).toSourceNamespace(1)
+
+        assertThat(session.sessionId).isEqualTo("42")
+    }
+
+    @Test
+    fun `day indices are taken from main sessions on the same date`() {
+        val mainSessions = listOf(
+                createSession("1", day = 1, date = "2020-12-27", room = "Ada", roomIndex = 0),
+                createSession("2", day = 2, date = "2020-12-28", room = "Ada", roomIndex = 0)
+        )
+        val sourceSessions = listOf(createSession("1000001", day = 1, date = "2020-12-28", room = "Ada", roomIndex = 0))
+
+        val sessions = mainSessions.plusScheduleSources(listOf(sourceSessions))
+
+        assertThat(sessions.last().sessionId).isEqualTo("1000001")
+        assertThat(sessions.last().day).isEqualTo(2)
+    }
+
+    @Test
+    fun `sessions on dates outside of the main schedule are dropped`() {
+        val mainSessions = listOf(createSession("1", day = 1, date = "2020-12-27", room = "Ada", roomIndex = 0))
+        val sourceSessions = listOf(createSession("1000001", day = 1, date = "2020-12-31", room = "Ada", roomIndex = 0))
+
+        val sessions = mainSessions.plusScheduleSources(listOf(sourceSessions))
+
+        assertThat(sessions).extracting("sessionId").containsExactly("1")
+    }
+
+    @Test
+    fun `existing rooms keep their index and new rooms are appended in source order`() {
+        val mainSessions = listOf(
+                createSession("1", day = 1, date = "2020-12-27", room = "Ada", roomIndex = 0),
+                createSession("2", day = 1, date = "2020-12-27", room = "Borg", roomIndex = 1)
+        )
+        val firstSourceSessions = listOf(
+                createSession("1000002", day = 1, date = "2020-12-27", room = "Workshop 2", roomIndex = 1),
+                createSession("1000001", day = 1, date = "2020-12-27", room = "Workshop 1", roomIndex = 0),
+                createSession("1000003", day = 1, date = "2020-12-27", room = "Borg", roomIndex = 2)
+        )
+        val secondSourceSessions = listOf(
+                createSession("2000001", day = 1, date = "2020-12-27", room = "Workshop 1", roomIndex = 0),
+                createSession("2000002", day = 1, date = "2020-12-27", room = "Stage", roomIndex = 1)
+        )
+
+        val sessions = mainSessions.plusScheduleSources(listOf(firstSourceSessions, secondSourceSessions))
+        val roomIndices = sessions.associate { it.room to it.roomIndex }
+
+        assertThat(roomIndices).containsExactly(
+                entry("Ada", 0),
+                entry("Borg", 1),
+                entry("Workshop 1", 2),
+                entry("Workshop 2", 3),
+                entry("Stage", 4)
+        )
+    }
+
+    @Test
+    fun `without additional sources the main sessions are returned`() {
+        val mainSessions = listOf(createSession("1", day = 1, date = "2020-12-27", room = "Ada", roomIndex = 0))
+
+        assertThat(mainSessions.plusScheduleSources(emptyList())).isEqualTo(mainSessions)
+    }
+
+    private fun createSession(sessionId: String, day: Int, date: String, room: String, roomIndex: Int) =
+            Session(sessionId).apply {
+                this.day = day
+                this.date = date
+                this.room = room
+                this.roomIndex = roomIndex
+            }
+
+}
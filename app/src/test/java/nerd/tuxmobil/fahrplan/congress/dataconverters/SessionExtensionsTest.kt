@@ -2,6 +2,18 @@ package nerd.tuxmobil.fahrplan.congress.dataconverters
 
 import info.metadude.android.eventfahrplan.commons.temporal.Moment
 import info.metadude.android.eventfahrplan.database.models.Highlight
+import info.metadude.android.eventfahrplan.database.models.Session.Companion.CHANGED_DAY
+import info.metadude.android.eventfahrplan.database.models.Session.Companion.CHANGED_DURATION
+import info.metadude.android.eventfahrplan.database.models.Session.Companion.CHANGED_IS_CANCELED
+import info.metadude.android.eventfahrplan.database.models.Session.Companion.CHANGED_IS_NEW
+import info.metadude.android.eventfahrplan.database.models.Session.Companion.CHANGED_LANGUAGE
+import info.metadude.android.eventfahrplan.database.models.Session.Companion.CHANGED_RECORDING_OPTOUT
+import info.metadude.android.eventfahrplan.database.models.Session.Companion.CHANGED_ROOM
+import info.metadude.android.eventfahrplan.database.models.Session.Companion.CHANGED_SPEAKERS
+import info.metadude.android.eventfahrplan.database.models.Session.Companion.CHANGED_SUBTITLE
+import info.metadude.android.eventfahrplan.database.models.Session.Companion.CHANGED_TIME
+import info.metadude.android.eventfahrplan.database.models.Session.Companion.CHANGED_TITLE
+import info.metadude.android.eventfahrplan.database.models.Session.Companion.CHANGED_TRACK
 import info.metadude.android.eventfahrplan.database.models.Session.Companion.RECORDING_OPT_OUT_ON
 import nerd.tuxmobil.fahrplan.congress.models.DateInfo
 import nerd.tuxmobil.fahrplan.congress.models.Session
@@ -41,22 +53,37 @@ class SessionExtensionsTest {
                 type = "tutorial",
                 url = "https://talks.mrmcd.net/2018/talk/V3FUNG",
 
-                changedDay = true,
-                changedDuration = true,
-                changedIsCanceled = true,
-                changedIsNew = true,
-                changedLanguage = true,
-                changedRecordingOptOut = true,
-                changedRoom = true,
-                changedSpeakers = true,
-                changedSubtitle = true,
-                changedTime = true,
-                changedTitle = true,
-                changedTrack = true
+                changeFlags = CHANGED_DAY or CHANGED_DURATION or CHANGED_IS_CANCELED or
+                        CHANGED_IS_NEW or CHANGED_LANGUAGE or CHANGED_RECORDING_OPTOUT or
+                        CHANGED_ROOM or CHANGED_SPEAKERS or CHANGED_SUBTITLE or
+                        CHANGED_TIME or CHANGED_TITLE or CHANGED_TRACK
         )
         assertThat(session.toSessionAppModel().toSessionDatabaseModel()).isEqualTo(session)
     }
 
+    @Test
+    fun sessionDatabaseModel_toSessionAppModel_preservesEachChangeFlag() {
+        val flagsByAppGetter = mapOf<Int, (SessionAppModel) -> Boolean>(
+                CHANGED_DAY to { it.changedDay },
+                CHANGED_DURATION to { it.changedDuration },
+                CHANGED_IS_CANCELED to { it.changedIsCanceled },
+                CHANGED_IS_NEW to { it.changedIsNew },
+                CHANGED_LANGUAGE to { it.changedLanguage },
+                CHANGED_RECORDING_OPTOUT to { it.changedRecordingOptOut },
+                CHANGED_ROOM to { it.changedRoom },
+                CHANGED_SPEAKERS to { it.changedSpeakers },
+                CHANGED_SUBTITLE to { it.changedSubtitle },
+                CHANGED_TIME to { it.changedTime },
+                CHANGED_TITLE to { it.changedTitle },
+                CHANGED_TRACK to { it.changedTrack }
+        )
+        flagsByAppGetter.forEach { (flag, isFlagged) ->
+            val session = SessionDatabaseModel(sessionId = "7331", changeFlags = flag).toSessionAppModel()
+            assertThat(isFlagged(session)).isTrue()
+            assertThat(session.changeFlags).isEqualTo(flag)
+        }
+    }
+
     @Test
     fun sessionNetworkModel_toSessionAppModel() {
         val sessionNetworkModel = SessionNetworkModel(
@@ -0,0 +1,110 @@
+package nerd.tuxmobil.fahrplan.congress.net
+
+import info.metadude.android.eventfahrplan.commons.logging.Logging
+import okhttp3.OkHttpClient
+import okhttp3.Request
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.MockWebServer
+import okio.Buffer
+import okio.GzipSink
+import okio.Okio
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.After
+import org.junit.Before
+import org.junit.Test
+
+class CompressionInterceptorTest {
+
+    private companion object {
+        val SCHEDULE_XML = "<schedule>${"<event/>".repeat(1000)}</schedule>"
+    }
+
+    private lateinit var server: MockWebServer
+
+    private val logging = CountingLogging()
+
+    private val client = OkHttpClient.Builder()
+            .addInterceptor(CompressionInterceptor(logging))
+            .build()
+
+    @Before
+    fun setUp() {
+        server = MockWebServer()
+        server.start()
+    }
+
+    @After
+    fun tearDown() {
+        server.shutdown()
+    }
+
+    @Test
+    fun `gzip compressed responses are requested and decompressed`() {
+        val compressedBody = gzip(SCHEDULE_XML)
+        val compressedBytesCount = compressedBody.size()
+        server.enqueue(MockResponse().setBody(compressedBody).setHeader("Content-Encoding", "gzip"))
+
+        val response = client.newCall(Request.Builder().url(server.url("/schedule.xml")).build()).execute()
+
+        assertThat(server.takeRequest().getHeader("Accept-Encoding")).isEqualTo("gzip")
+        assertThat(response.header("Content-Encoding")).isNull()
+        assertThat(response.body()!!.string()).isEqualTo(SCHEDULE_XML)
+        assertThat(logging.counters["http.compressedBytes"]).isEqualTo(compressedBytesCount)
+        assertThat(logging.counters["http.uncompressedBytes"]).isEqualTo(SCHEDULE_XML.length.toLong())
+        assertThat(logging.counters["http.compressedBytes"]).isLessThan(SCHEDULE_XML.length / 10L)
+    }
+
+    @Test
+    fun `uncompressed responses are passed through`() {
+        server.enqueue(MockResponse().setBody(SCHEDULE_XML))
+
+        val response = client.newCall(Request.Builder().url(server.url("/schedule.xml")).build()).execute()
+
+        assertThat(response.body()!!.string()).isEqualTo(SCHEDULE_XML)
+        assertThat(logging.counters["http.compressedBytes"]).isEqualTo(SCHEDULE_XML.length.toLong())
+        assertThat(logging.counters["http.uncompressedBytes"]).isEqualTo(SCHEDULE_XML.length.toLong())
+    }
+
+    @Test
+    fun `requests which choose their encoding are not modified`() {
+        server.enqueue(MockResponse().setBody(SCHEDULE_XML))
+        val request = Request.Builder()
+                .url(server.url("/schedule.xml"))
+                .header("Accept-Encoding", "identity")
+                .build()
+
+        client.newCall(request).execute().close()
+
+        assertThat(server.takeRequest().getHeader("Accept-Encoding")).isEqualTo("identity")
+        assertThat(logging.counters).isEmpty()
+    }
+
+    @Test
+    fun `responses without a body are measured`() {
+        server.enqueue(MockResponse().setResponseCode(304))
+
+        client.newCall(Request.Builder().url(server.url("/schedule.xml")).build()).execute().close()
+
+        assertThat(logging.counters["http.compressedBytes"]).isEqualTo(0)
+        assertThat(logging.counters["http.uncompressedBytes"]).isEqualTo(0)
+    }
+
+    private fun gzip(text: String) = Buffer().also { buffer ->
+        Okio.buffer(GzipSink(buffer)).use { it.writeUtf8(text) }
+    }
+
+    private class CountingLogging : Logging {
+
+        val counters = mutableMapOf<String, Long>()
+
+        override fun d(tag: String, message: String) = Unit
+        override fun e(tag: String, message: String) = Unit
+        override fun report(tag: String, message: String) = Unit
+
+        override fun count(name: String, delta: Long) {
+            counters[name] = (counters[name] ?: 0) + delta
+        }
+
+    }
+
+}
@@ -0,0 +1,100 @@
+package nerd.tuxmobil.fahrplan.congress.net
+
+import info.metadude.android.eventfahrplan.network.fetching.HttpStatus
+import info.metadude.android.eventfahrplan.network.fetching.ScheduleFetcher
+import nerd.tuxmobil.fahrplan.congress.NoLogging
+import okhttp3.Cache
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.MockWebServer
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.After
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+
+class CustomHttpClientTest {
+
+    @get:Rule
+    val temporaryFolder = TemporaryFolder()
+
+    private lateinit var server: MockWebServer
+
+    private lateinit var fetcher: ScheduleFetcher
+
+    private val url get() = server.url("/schedule.xml").toString()
+
+    @Before
+    fun setUp() {
+        server = MockWebServer()
+        server.start()
+        val cache = Cache(temporaryFolder.newFolder("http"), 1024 * 1024)
+        fetcher = ScheduleFetcher(CustomHttpClient.createHttpClient(cache, NoLogging), NoLogging)
+    }
+
+    @After
+    fun tearDown() {
+        server.shutdown()
+    }
+
+    @Test
+    fun `requests share one connection`() {
+        server.enqueue(MockResponse().setBody("<schedule/>"))
+        server.enqueue(MockResponse().setResponseCode(304))
+        server.enqueue(MockResponse().setBody("<schedule/>"))
+
+        fetcher.fetch(url, "")
+        fetcher.fetch(url, "\"abc\"")
+        fetcher.fetch(url, "")
+
+        assertThat(server.takeRequest().sequenceNumber).isEqualTo(0)
+        assertThat(server.takeRequest().sequenceNumber).isEqualTo(1)
+        assertThat(server.takeRequest().sequenceNumber).isEqualTo(2)
+    }
+
+    @Test
+    fun `fresh responses are served from the cache`() {
+        server.enqueue(MockResponse().setBody("<schedule/>").setHeader("Cache-Control", "max-age=60"))
+
+        val first = fetcher.fetch(url, "")
+        val second = fetcher.fetch(url, "")
+
+        assertThat(server.requestCount).isEqualTo(1)
+        assertThat(second.httpStatus).isEqualTo(HttpStatus.HTTP_OK)
+        assertThat(second.scheduleXml).isEqualTo(first.scheduleXml)
+    }
+
+    @Test
+    fun `stale responses are revalidated by the cache`() {
+        server.enqueue(MockResponse()
+                .setBody("<schedule/>")
+                .setHeader("ETag", "\"abc\"")
+                .setHeader("Cache-Control", "no-cache"))
+        server.enqueue(MockResponse().setResponseCode(304))
+
+        fetcher.fetch(url, "")
+        val second = fetcher.fetch(url, "")
+
+        server.takeRequest()
+        assertThat(server.takeRequest().getHeader("If-None-Match")).isEqualTo("\"abc\"")
+        assertThat(second.httpStatus).isEqualTo(HttpStatus.HTTP_OK)
+        assertThat(second.scheduleXml).isEqualTo("<schedule/>")
+        assertThat(second.eTag).isEqualTo("\"abc\"")
+    }
+
+    @Test
+    fun `the stored ETag bypasses the cache`() {
+        server.enqueue(MockResponse()
+                .setBody("<schedule/>")
+                .setHeader("ETag", "\"abc\"")
+                .setHeader("Cache-Control", "max-age=60"))
+        server.enqueue(MockResponse().setResponseCode(304))
+
+        fetcher.fetch(url, "")
+        val second = fetcher.fetch(url, "\"abc\"")
+
+        assertThat(server.requestCount).isEqualTo(2)
+        assertThat(second.httpStatus).isEqualTo(HttpStatus.HTTP_NOT_MODIFIED)
+    }
+
+}
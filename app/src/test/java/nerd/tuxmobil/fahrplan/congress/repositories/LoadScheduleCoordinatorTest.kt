@@ -0,0 +1,243 @@
+package nerd.tuxmobil.fahrplan.congress.repositories
+
+import nerd.tuxmobil.fahrplan.congress.net.FetchScheduleResult
+import nerd.tuxmobil.fahrplan.congress.net.HttpStatus
+import nerd.tuxmobil.fahrplan.congress.net.LoadShiftsResult
+import nerd.tuxmobil.fahrplan.congress.net.ParseScheduleResult
+import nerd.tuxmobil.fahrplan.congress.serialization.ShiftChanges
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.Test
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+
+class LoadScheduleCoordinatorTest {
+
+    private val coordinator = LoadScheduleCoordinator()
+
+    private val fetchScheduleResult = FetchScheduleResult(HttpStatus.HTTP_OK, "example.com")
+
+    private val parseScheduleResult = ParseScheduleResult(true, "1.0")
+
+    private val loadShiftsResult = LoadShiftsResult.Success(ShiftChanges.NONE)
+
+    @Test
+    fun `the first request starts loading and later requests join it`() {
+        assertThat(coordinator.join(RecordingCallbacks().callbacks).startedLoading).isNotNull()
+        assertThat(coordinator.join(RecordingCallbacks().callbacks).startedLoading).isNull()
+    }
+
+    @Test
+    fun `all joined callbacks receive the results`() {
+        val first = RecordingCallbacks()
+        val second = RecordingCallbacks()
+        val loading = coordinator.join(first.callbacks).startedLoading!!
+        coordinator.join(second.callbacks)
+
+        loading.onFetchingDone(fetchScheduleResult)
+        loading.onDaySessionsCommitted(1)
+        loading.onParsingDone(parseScheduleResult)
+        loading.onLoadingShiftsDone(loadShiftsResult)
+
+        val expectedEvents = listOf(fetchScheduleResult, 1, parseScheduleResult, loadShiftsResult)
+        assertThat(first.events).isEqualTo(expectedEvents)
+        assertThat(second.events).isEqualTo(expectedEvents)
+    }
+
+    @Test
+    fun `fetch and parse results are replayed to callbacks which join later`() {
+        val loading = coordinator.join(RecordingCallbacks().callbacks).startedLoading!!
+        loading.onFetchingDone(fetchScheduleResult)
+        loading.onDaySessionsCommitted(1)
+        loading.onParsingDone(parseScheduleResult)
+
+        val late = RecordingCallbacks()
+        coordinator.join(late.callbacks)
+        loading.onLoadingShiftsDone(loadShiftsResult)
+
+        assertThat(late.events).containsExactly(fetchScheduleResult, parseScheduleResult, loadShiftsResult)
+    }
+
+    @Test
+    fun `state follows the progress of the loading`() {
+        assertThat(coordinator.state).isEqualTo(LoadScheduleState.IDLE)
+        val loading = coordinator.join(RecordingCallbacks().callbacks).startedLoading!!
+        assertThat(coordinator.state).isEqualTo(LoadScheduleState.FETCHING)
+        loading.onFetchingDone(fetchScheduleResult)
+        assertThat(coordinator.state).isEqualTo(LoadScheduleState.PARSING)
+        loading.onParsingDone(parseScheduleResult)
+        assertThat(coordinator.state).isEqualTo(LoadScheduleState.IDLE)
+    }
+
+    @Test
+    fun `state is idle once fetching failed`() {
+        val loading = coordinator.join(RecordingCallbacks().callbacks).startedLoading!!
+        loading.onFetchingDone(FetchScheduleResult(HttpStatus.HTTP_NOT_MODIFIED, "example.com"))
+        assertThat(coordinator.state).isEqualTo(LoadScheduleState.IDLE)
+    }
+
+    @Test
+    fun `a completed loading is followed by a new one`() {
+        val loading = coordinator.join(RecordingCallbacks().callbacks).startedLoading!!
+        loading.complete()
+        assertThat(coordinator.join(RecordingCallbacks().callbacks).startedLoading).isNotNull().isNotSameAs(loading)
+    }
+
+    @Test
+    fun `results of a cancelled loading are dropped`() {
+        val callbacks = RecordingCallbacks()
+        val cancelledLoading = coordinator.join(callbacks.callbacks).startedLoading!!
+        coordinator.cancel()
+        val loading = coordinator.join(RecordingCallbacks().callbacks).startedLoading!!
+
+        cancelledLoading.onFetchingDone(fetchScheduleResult)
+        cancelledLoading.complete()
+
+        assertThat(callbacks.events).isEmpty()
+        assertThat(coordinator.state).isEqualTo(LoadScheduleState.FETCHING)
+        assertThat(coordinator.join(RecordingCallbacks().callbacks).startedLoading).isNull()
+        loading.complete()
+    }
+
+    @Test
+    fun `detached callbacks do not receive results`() {
+        val first = RecordingCallbacks()
+        val second = RecordingCallbacks()
+        val firstMembership = coordinator.join(first.callbacks)
+        val loading = firstMembership.startedLoading!!
+        coordinator.join(second.callbacks)
+
+        firstMembership.detach(cancelIfUnused = true)
+        loading.onFetchingDone(fetchScheduleResult)
+
+        assertThat(first.events).isEmpty()
+        assertThat(second.events).containsExactly(fetchScheduleResult)
+    }
+
+    @Test
+    fun `loading is cancelled once the last callbacks detached`() {
+        var cancelCount = 0
+        val firstMembership = coordinator.join(RecordingCallbacks().callbacks)
+        val loading = firstMembership.startedLoading!!
+        loading.onCancel { cancelCount++ }
+        val secondMembership = coordinator.join(RecordingCallbacks().callbacks)
+
+        firstMembership.detach(cancelIfUnused = true)
+        assertThat(cancelCount).isEqualTo(0)
+        assertThat(coordinator.state).isEqualTo(LoadScheduleState.FETCHING)
+
+        secondMembership.detach(cancelIfUnused = true)
+        assertThat(cancelCount).isEqualTo(1)
+        assertThat(coordinator.state).isEqualTo(LoadScheduleState.IDLE)
+        assertThat(coordinator.join(RecordingCallbacks().callbacks).startedLoading).isNotNull().isNotSameAs(loading)
+    }
+
+    @Test
+    fun `work is cancelled right away if it is registered after the last callbacks detached`() {
+        var cancelCount = 0
+        val membership = coordinator.join(RecordingCallbacks().callbacks)
+        membership.detach(cancelIfUnused = true)
+        membership.startedLoading!!.onCancel { cancelCount++ }
+        assertThat(cancelCount).isEqualTo(1)
+    }
+
+    @Test
+    fun `loading continues without callbacks if it is not cancelled on detaching`() {
+        var cancelCount = 0
+        val membership = coordinator.join(RecordingCallbacks().callbacks)
+        val loading = membership.startedLoading!!
+        loading.onCancel { cancelCount++ }
+        membership.detach(cancelIfUnused = false)
+        loading.onFetchingDone(fetchScheduleResult)
+
+        val recreated = RecordingCallbacks()
+        assertThat(coordinator.join(recreated.callbacks).startedLoading).isNull()
+        assertThat(recreated.events).containsExactly(fetchScheduleResult)
+        assertThat(cancelCount).isEqualTo(0)
+    }
+
+    @Test
+    fun `detaching from a completed loading does not cancel the next loading`() {
+        var cancelCount = 0
+        val membership = coordinator.join(RecordingCallbacks().callbacks)
+        membership.startedLoading!!.complete()
+        coordinator.join(RecordingCallbacks().callbacks).startedLoading!!.onCancel { cancelCount++ }
+
+        membership.detach(cancelIfUnused = true)
+
+        assertThat(cancelCount).isEqualTo(0)
+        assertThat(coordinator.state).isEqualTo(LoadScheduleState.FETCHING)
+    }
+
+    @Test
+    fun `all joined callbacks are notified once the loading completed`() {
+        var endedCount = 0
+        val loading = coordinator.join(RecordingCallbacks().callbacks.withOnLoadingEnded { endedCount++ }).startedLoading!!
+        coordinator.join(RecordingCallbacks().callbacks.withOnLoadingEnded { endedCount++ })
+
+        loading.complete()
+        loading.complete()
+
+        assertThat(endedCount).isEqualTo(2)
+    }
+
+    @Test
+    fun `cancel cancels the work of the loading in progress`() {
+        var cancelCount = 0
+        coordinator.join(RecordingCallbacks().callbacks).startedLoading!!.onCancel { cancelCount++ }
+
+        coordinator.cancel()
+        coordinator.cancel()
+
+        assertThat(cancelCount).isEqualTo(1)
+    }
+
+    @Test
+    fun `callbacks are notified once the loading has been cancelled`() {
+        var endedCount = 0
+        val loading = coordinator.join(RecordingCallbacks().callbacks.withOnLoadingEnded { endedCount++ }).startedLoading!!
+
+        coordinator.cancel()
+        loading.complete()
+
+        assertThat(endedCount).isEqualTo(1)
+    }
+
+    @Test
+    fun `concurrent requests start a single loading`() {
+        val requestsCount = 16
+        val executor = Executors.newFixedThreadPool(requestsCount)
+        val start = CountDownLatch(1)
+        val recordings = List(requestsCount) { RecordingCallbacks() }
+        val loadings = recordings.map { recording ->
+            executor.submit<LoadScheduleCoordinator.Loading?> {
+                start.await()
+                coordinator.join(recording.callbacks).startedLoading
+            }
+        }
+        start.countDown()
+        val startedLoadings = loadings.mapNotNull { it.get(5, TimeUnit.SECONDS) }
+        executor.shutdown()
+
+        assertThat(startedLoadings).hasSize(1)
+        startedLoadings.single().onParsingDone(parseScheduleResult)
+        assertThat(recordings).allMatch { it.events == listOf(parseScheduleResult) }
+    }
+
+    private fun LoadScheduleCoordinator.Callbacks.withOnLoadingEnded(onLoadingEnded: () -> Unit) =
+            LoadScheduleCoordinator.Callbacks(onFetchingDone, onDaySessionsCommitted, onParsingDone, onLoadingShiftsDone, onLoadingEnded)
+
+    private class RecordingCallbacks {
+
+        val events = mutableListOf<Any>()
+
+        val callbacks = LoadScheduleCoordinator.Callbacks(
+                onFetchingDone = { events += it },
+                onDaySessionsCommitted = { events += it },
+                onParsingDone = { events += it },
+                onLoadingShiftsDone = { events += it }
+        )
+
+    }
+
+}
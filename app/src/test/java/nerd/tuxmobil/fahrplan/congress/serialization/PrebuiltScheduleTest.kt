@@ -0,0 +1,73 @@
+package nerd.tuxmobil.fahrplan.congress.serialization
+
+import info.metadude.android.eventfahrplan.commons.testing.schedule.SyntheticScheduleConfig
+import info.metadude.android.eventfahrplan.commons.testing.schedule.SyntheticScheduleGenerator
+import info.metadude.android.eventfahrplan.commons.testing.schedule.toXml
+import info.metadude.android.eventfahrplan.network.models.Meta
+import nerd.tuxmobil.fahrplan.congress.models.ScheduleData
+import nerd.tuxmobil.fahrplan.congress.models.Session
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.Test
+import java.nio.BufferUnderflowException
+import java.nio.ByteBuffer
+
+class PrebuiltScheduleTest {
+
+    private val meta = Meta(
+            eTag = "\"5dfa2e5c-2f4a1\"",
+            numDays = 4,
+            subtitle = "",
+            title = "36C3",
+            timeZoneName = null,
+            version = "Juggling"
+    )
+
+    private val sessions = listOf(
+            Session("L42").apply {
+                title = "Opening"
+                day = 1
+                room = "Ada"
+                links = "[Example](https://example.com)"
+            },
+            Session("L43").apply {
+                title = "Closing"
+                day = 4
+                room = "Ada"
+            }
+    )
+
+    @Test
+    fun `read returns the written schedule`() {
+        val bundle = PrebuiltSchedule.write(PrebuiltSchedule(meta, sessions))
+        val actual = PrebuiltSchedule.read(ByteBuffer.wrap(bundle))
+        assertThat(actual).isEqualTo(PrebuiltSchedule(meta, sessions))
+        assertThat(actual!!.meta.timeZoneName).isNull()
+        assertThat(actual.sessions.first().links).isEqualTo("[Example](https://example.com)")
+    }
+
+    @Test
+    fun `read returns null for a schedule snapshot`() {
+        val snapshot = ScheduleSnapshot.write("etag", ScheduleData(1, emptyList()))
+        assertThat(PrebuiltSchedule.read(ByteBuffer.wrap(snapshot))).isNull()
+    }
+
+    @Test(expected = BufferUnderflowException::class)
+    fun `read fails for a truncated bundle`() {
+        val bundle = PrebuiltSchedule.write(PrebuiltSchedule(meta, sessions))
+        PrebuiltSchedule.read(ByteBuffer.wrap(bundle, 0, bundle.size - 1))
+    }
+
+    @Test
+    fun `generate parses all sessions and keeps the ETag`() {
+        val schedule = SyntheticScheduleGenerator(SyntheticScheduleConfig(daysCount = 3, sessionsCount = 120)).createSchedule()
+        val prebuiltSchedule = PrebuiltScheduleGenerator.generate(schedule.toXml(), "\"etag\"")
+        assertThat(prebuiltSchedule.sessions).hasSize(120)
+        assertThat(prebuiltSchedule.meta.eTag).isEqualTo("\"etag\"")
+        assertThat(prebuiltSchedule.meta.numDays).isEqualTo(3)
+        assertThat(prebuiltSchedule.meta.timeZoneName).isEqualTo("Europe/Berlin")
+
+        val bundle = PrebuiltSchedule.write(prebuiltSchedule)
+        assertThat(PrebuiltSchedule.read(ByteBuffer.wrap(bundle))).isEqualTo(prebuiltSchedule)
+    }
+
+}
@@ -0,0 +1,97 @@
+package nerd.tuxmobil.fahrplan.congress.serialization
+
+import nerd.tuxmobil.fahrplan.congress.models.RoomData
+import nerd.tuxmobil.fahrplan.congress.models.ScheduleData
+import nerd.tuxmobil.fahrplan.congress.models.Session
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.Test
+import java.nio.BufferUnderflowException
+import java.nio.ByteBuffer
+
+class ScheduleSnapshotTest {
+
+    private val session = Session("L42").apply {
+        title = "Opening"
+        subtitle = "Welcome"
+        url = null
+        day = 2
+        date = "2019-12-28"
+        dateUTC = 1577523600000
+        startTime = 660
+        relStartTime = 660
+        duration = 30
+        room = "Ada"
+        speakers = "Jane Doe;John Doe"
+        track = "CCC"
+        type = "lecture"
+        lang = "en"
+        slug = "opening"
+        abstractt = "Grüße"
+        description = ""
+        links = "[Example](https://example.com)"
+        highlight = true
+        hasAlarm = true
+        recordingLicense = "CC BY 4.0"
+        recordingOptOut = true
+        changedTitle = true
+    }
+
+    private val otherSession = Session("L43").apply {
+        title = "Closing"
+        day = 2
+        room = "Ada"
+        track = "CCC"
+    }
+
+    private val scheduleData = ScheduleData(2, listOf(
+            RoomData("Ada", listOf(session, otherSession)),
+            RoomData("Borg", emptyList())
+    ))
+
+    @Test
+    fun `read returns the written schedule data`() {
+        val snapshot = ScheduleSnapshot.write("etag", scheduleData)
+        val actual = ScheduleSnapshot.read(ByteBuffer.wrap(snapshot), "etag", 2)
+        assertThat(actual).isEqualTo(scheduleData)
+        with(actual!!.roomDataList.first().sessions.first()) {
+            assertThat(url).isNull()
+            assertThat(abstractt).isEqualTo("Grüße")
+            assertThat(links).isEqualTo("[Example](https://example.com)")
+            assertThat(highlight).isTrue()
+            assertThat(hasAlarm).isTrue()
+            assertThat(changedTitle).isTrue()
+        }
+    }
+
+    @Test
+    fun `read shares instances of repeated strings`() {
+        val snapshot = ScheduleSnapshot.write("etag", scheduleData)
+        val sessions = ScheduleSnapshot.read(ByteBuffer.wrap(snapshot), "etag", 2)!!.roomDataList.first().sessions
+        assertThat(sessions[0].track).isSameAs(sessions[1].track)
+        assertThat(sessions[0].room).isSameAs(sessions[1].room)
+    }
+
+    @Test
+    fun `read returns null for another ETag`() {
+        val snapshot = ScheduleSnapshot.write("etag", scheduleData)
+        assertThat(ScheduleSnapshot.read(ByteBuffer.wrap(snapshot), "other", 2)).isNull()
+    }
+
+    @Test
+    fun `read returns null for another day`() {
+        val snapshot = ScheduleSnapshot.write("etag", scheduleData)
+        assertThat(ScheduleSnapshot.read(ByteBuffer.wrap(snapshot), "etag", 1)).isNull()
+    }
+
+    @Test
+    fun `read returns null for unknown data`() {
+        assertThat(ScheduleSnapshot.read(ByteBuffer.wrap(byteArrayOf(1, 2, 3, 4, 5, 6, 7, 8)), "etag", 2)).isNull()
+    }
+
+    @Test(expected = BufferUnderflowException::class)
+    fun `read fails for a truncated snapshot`() {
+        val snapshot = ScheduleSnapshot.write("etag", scheduleData)
+        ScheduleSnapshot.read(ByteBuffer.wrap(snapshot, 0, snapshot.size - 10), "etag", 2)
+    }
+
+}
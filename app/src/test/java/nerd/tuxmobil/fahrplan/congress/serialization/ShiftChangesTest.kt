@@ -0,0 +1,62 @@
+package nerd.tuxmobil.fahrplan.congress.serialization
+
+import com.google.common.truth.Truth.assertThat
+import info.metadude.android.eventfahrplan.database.models.Session
+import nerd.tuxmobil.fahrplan.congress.serialization.ShiftChanges.Companion.computeShiftChanges
+import org.junit.Test
+
+class ShiftChangesTest {
+
+    @Test
+    fun `computeShiftChanges returns no changes if there are no shifts`() {
+        val changes = computeShiftChanges(emptyList(), emptyList())
+        assertThat(changes).isEqualTo(ShiftChanges.NONE)
+        assertThat(changes.isEmpty).isTrue()
+    }
+
+    @Test
+    fun `computeShiftChanges returns no changes if the shifts are equal`() {
+        val shifts = listOf(Session("300001", title = "Bar"), Session("300002", title = "Heaven"))
+        val changes = computeShiftChanges(shifts.map { it.copy() }, shifts)
+        assertThat(changes.isEmpty).isTrue()
+    }
+
+    @Test
+    fun `computeShiftChanges returns shifts which are not stored as added`() {
+        val oldShifts = listOf(Session("300001"))
+        val newShifts = listOf(Session("300001"), Session("300002"))
+        val changes = computeShiftChanges(newShifts, oldShifts)
+        assertThat(changes.addedShifts).containsExactly(Session("300002"))
+        assertThat(changes.changedShifts).isEmpty()
+        assertThat(changes.removedSessionIds).isEmpty()
+    }
+
+    @Test
+    fun `computeShiftChanges returns shifts which differ in any column as changed`() {
+        val oldShifts = listOf(Session("300001", title = "Bar", dayIndex = 1), Session("300002", roomIndex = 0))
+        val newShifts = listOf(Session("300001", title = "Bar", dayIndex = 2), Session("300002", roomIndex = 0))
+        val changes = computeShiftChanges(newShifts, oldShifts)
+        assertThat(changes.addedShifts).isEmpty()
+        assertThat(changes.changedShifts).containsExactly(Session("300001", title = "Bar", dayIndex = 2))
+        assertThat(changes.removedSessionIds).isEmpty()
+    }
+
+    @Test
+    fun `computeShiftChanges returns the IDs of shifts which are no longer present as removed`() {
+        val oldShifts = listOf(Session("300001"), Session("300002"))
+        val newShifts = listOf(Session("300002"))
+        val changes = computeShiftChanges(newShifts, oldShifts)
+        assertThat(changes.addedShifts).isEmpty()
+        assertThat(changes.changedShifts).isEmpty()
+        assertThat(changes.removedSessionIds).containsExactly("300001")
+    }
+
+    @Test
+    fun `upsertedShifts contains added and changed shifts`() {
+        val oldShifts = listOf(Session("300001", title = "Bar"))
+        val newShifts = listOf(Session("300001", title = "Heaven"), Session("300002"))
+        val changes = computeShiftChanges(newShifts, oldShifts)
+        assertThat(changes.upsertedShifts).containsExactly(Session("300002"), Session("300001", title = "Heaven"))
+    }
+
+}
@@ -40,8 +40,11 @@ object Libs {
         const val emailIntentBuilder = "2.0.0"
         const val engelsystem = "5.0.0"
         const val espresso = "3.3.0"
+        const val jmh = "1.26"
         const val junit = "4.13.1"
+        const val kotlin = "1.4.10"
         const val kotlinCoroutines = "1.4.1"
+        const val kxml2 = "2.3.0"
         const val material = "1.2.1"
         const val mockito = "3.6.0"
         const val mockitoKotlin = "2.2.0"
@@ -55,6 +58,7 @@ object Libs {
         const val threeTenBp = "1.5.0"
         const val tracedroid = "1.4"
         const val truth = "1.1"
+        const val workManager = "2.4.0"
     }
 
     const val annotation = "androidx.annotation:annotation:${Versions.annotation}"
@@ -66,9 +70,13 @@ object Libs {
     const val emailIntentBuilder = "de.cketti.mailto:email-intent-builder:${Versions.emailIntentBuilder}"
     const val engelsystem = "info.metadude.kotlin.library.engelsystem:engelsystem-base:${Versions.engelsystem}"
     const val espresso = "androidx.test.espresso:espresso-core:${Versions.espresso}"
+    const val jmhCore = "org.openjdk.jmh:jmh-core:${Versions.jmh}"
+    const val jmhGeneratorAnnotationProcessor = "org.openjdk.jmh:jmh-generator-annprocess:${Versions.jmh}"
     const val junit = "junit:junit:${Versions.junit}"
+    const val kotlinCompilerEmbeddable = "org.jetbrains.kotlin:kotlin-compiler-embeddable:${Versions.kotlin}"
     const val kotlinCoroutinesAndroid = "org.jetbrains.kotlinx:kotlinx-coroutines-android:${Versions.kotlinCoroutines}"
     const val kotlinCoroutinesCore = "org.jetbrains.kotlinx:kotlinx-coroutines-core:${Versions.kotlinCoroutines}"
+    const val kxml2 = "net.sf.kxml:kxml2:${Versions.kxml2}"
     const val material = "com.google.android.material:material:${Versions.material}"
     const val mockitoCore = "org.mockito:mockito-core:${Versions.mockito}"
     const val mockitoKotlin = "com.nhaarman.mockitokotlin2:mockito-kotlin:${Versions.mockitoKotlin}"
@@ -86,4 +94,5 @@ object Libs {
     const val threeTenBp = "org.threeten:threetenbp:${Versions.threeTenBp}"
     const val tracedroid = "org.ligi:tracedroid:${Versions.tracedroid}"
     const val truth = "com.google.truth:truth:${Versions.truth}"
+    const val workManager = "androidx.work:work-runtime-ktx:${Versions.workManager}"
 }
@@ -0,0 +1,24 @@
+package info.metadude.android.eventfahrplan.commons.http
+
+/**
+ * Comparison of entity tags as defined in RFC 7232, section 2.3.
+ */
+object ETags {
+
+    private const val WEAK_PREFIX = "W/"
+
+    /**
+     * Returns true if both entity tags are equal when ignoring whether either of them
+     * is weak, as in `W/"5dfa2e5c"`.
+     * This is the weak comparison which is used for "If-None-Match" requests.
+     * Empty entity tags never match.
+     */
+    @JvmStatic
+    fun weaklyMatches(eTag: String, otherETag: String): Boolean {
+        if (eTag.isEmpty() || otherETag.isEmpty()) {
+            return false
+        }
+        return eTag.removePrefix(WEAK_PREFIX) == otherETag.removePrefix(WEAK_PREFIX)
+    }
+
+}
@@ -0,0 +1,31 @@
+package info.metadude.android.eventfahrplan.commons.http
+
+import com.google.common.truth.Truth.assertThat
+import org.junit.Test
+
+class ETagsTest {
+
+    @Test
+    fun `weaklyMatches returns true for equal strong entity tags`() {
+        assertThat(ETags.weaklyMatches("\"abc\"", "\"abc\"")).isTrue()
+    }
+
+    @Test
+    fun `weaklyMatches ignores the weakness indicator`() {
+        assertThat(ETags.weaklyMatches("W/\"abc\"", "\"abc\"")).isTrue()
+        assertThat(ETags.weaklyMatches("\"abc\"", "W/\"abc\"")).isTrue()
+        assertThat(ETags.weaklyMatches("W/\"abc\"", "W/\"abc\"")).isTrue()
+    }
+
+    @Test
+    fun `weaklyMatches returns false for different entity tags`() {
+        assertThat(ETags.weaklyMatches("W/\"abc\"", "W/\"abd\"")).isFalse()
+    }
+
+    @Test
+    fun `weaklyMatches returns false for empty entity tags`() {
+        assertThat(ETags.weaklyMatches("", "")).isFalse()
+        assertThat(ETags.weaklyMatches("\"abc\"", "")).isFalse()
+    }
+
+}
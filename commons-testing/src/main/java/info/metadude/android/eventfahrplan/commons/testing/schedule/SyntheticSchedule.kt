@@ -0,0 +1,83 @@
+package info.metadude.android.eventfahrplan.commons.testing.schedule
+
+import org.threeten.bp.LocalDate
+import org.threeten.bp.ZoneOffset
+import org.threeten.bp.ZonedDateTime
+
+/**
+ * Platform independent representation of a generated schedule.
+ * Use [toXml] or [toJson] to obtain a frab compatible document.
+ */
+data class SyntheticSchedule(
+
+        val version: String,
+        val title: String,
+        val timeZoneName: String,
+        val zoneOffset: ZoneOffset,
+        val days: List<SyntheticDay>
+
+) {
+
+    val sessions: List<SyntheticSession>
+        get() = days.flatMap { day -> day.rooms.flatMap { it.sessions } }
+
+}
+
+data class SyntheticDay(
+
+        /**
+         * Starts at 1.
+         */
+        val index: Int,
+        val date: LocalDate,
+        val startsAt: ZonedDateTime,
+        val endsAt: ZonedDateTime,
+        val rooms: List<SyntheticRoom>
+
+)
+
+data class SyntheticRoom(
+
+        val name: String,
+        val sessions: List<SyntheticSession>
+
+)
+
+data class SyntheticSession(
+
+        val id: Int,
+        val guid: String,
+        val startsAt: ZonedDateTime,
+        /**
+         * Minutes.
+         */
+        val duration: Int,
+        val room: String,
+        val slug: String,
+        val title: String,
+        val subtitle: String,
+        val track: String,
+        val type: String,
+        val language: String,
+        val abstract: String,
+        val description: String,
+        val recordingLicense: String,
+        val recordingOptOut: Boolean,
+        val speakers: List<SyntheticSpeaker>,
+        val links: List<SyntheticLink>
+
+)
+
+data class SyntheticSpeaker(
+
+        val id: Int,
+        val name: String
+
+)
+
+data class SyntheticLink(
+
+        val url: String,
+        val title: String
+
+)
@@ -0,0 +1,46 @@
+package info.metadude.android.eventfahrplan.commons.testing.schedule
+
+import org.threeten.bp.LocalDate
+import org.threeten.bp.ZoneOffset
+
+/**
+ * Describes the shape of a schedule created by the [SyntheticScheduleGenerator].
+ *
+ * The same configuration always results in the same schedule.
+ */
+data class SyntheticScheduleConfig @JvmOverloads constructor(
+
+        val daysCount: Int = 4,
+        val roomsCount: Int = 10,
+        val sessionsCount: Int = 500,
+        /**
+         * Share of sessions which start before the previous session in the same room ends.
+         * Ranges from 0.0 (no overlaps) to 1.0.
+         */
+        val overlapRate: Double = 0.0,
+        /**
+         * Length of the abstract. The description is twice as long.
+         */
+        val textLength: Int = 200,
+        val speakersPerSession: Int = 2,
+        val linksPerSession: Int = 1,
+        /**
+         * Share of sessions which are modified, canceled or added by
+         * [SyntheticScheduleGenerator.createChangedVersion]. Ranges from 0.0 to 1.0.
+         */
+        val changeRate: Double = 0.05,
+        val firstDay: LocalDate = LocalDate.of(2019, 12, 27),
+        val zoneOffset: ZoneOffset = ZoneOffset.ofHours(1),
+        val seed: Long = 42
+
+) {
+
+    init {
+        require(daysCount > 0) { "daysCount must be positive." }
+        require(roomsCount > 0) { "roomsCount must be positive." }
+        require(sessionsCount >= 0) { "sessionsCount must not be negative." }
+        require(overlapRate in 0.0..1.0) { "overlapRate must range from 0.0 to 1.0." }
+        require(changeRate in 0.0..1.0) { "changeRate must range from 0.0 to 1.0." }
+    }
+
+}
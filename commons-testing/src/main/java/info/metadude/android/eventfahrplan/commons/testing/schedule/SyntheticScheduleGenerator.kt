@@ -0,0 +1,234 @@
+package info.metadude.android.eventfahrplan.commons.testing.schedule
+
+import info.metadude.kotlin.library.engelsystem.models.Shift
+import org.threeten.bp.LocalTime
+import org.threeten.bp.ZonedDateTime
+import java.util.Random
+import java.util.UUID
+import kotlin.math.max
+import kotlin.math.min
+
+/**
+ * Creates deterministic schedules and Engelsystem shifts of arbitrary size for
+ * load tests, stress tests and benchmarks. See [SyntheticScheduleConfig] for the
+ * available options and [toXml] and [toJson] for serialization.
+ *
+ * Sessions of each day are distributed round-robin over the rooms and take place
+ * between 10:00 and 04:00 of the following day. Sessions get shorter if a room
+ * has to host more sessions than fit into this time frame.
+ */
+class SyntheticScheduleGenerator(private val config: SyntheticScheduleConfig) {
+
+    private companion object {
+        const val FIRST_SESSION_ID = 1000
+        const val DAY_STARTS_AT_HOUR = 10
+        const val DAY_ENDS_AT_HOUR = 4
+        const val DAY_MINUTES = 18 * 60
+        const val BREAK_MINUTES = 15
+        const val OVERLAP_MINUTES = 10
+        val DURATIONS = intArrayOf(30, 45, 60)
+        val TRACKS = listOf("CCC", "Hardware & Making", "Security", "Science", "Ethics, Society & Politics", "Art & Culture", "Entertainment")
+        val TYPES = listOf("lecture", "lecture", "lecture", "workshop", "podium")
+        val LANGUAGES = listOf("en", "en", "de")
+        val WORDS = listOf("lorem", "ipsum", "dolor", "sit", "amet", "consectetur", "adipiscing", "elit", "sed", "do",
+                "eiusmod", "tempor", "incididunt", "ut", "labore", "et", "dolore", "magna", "aliqua", "enim")
+    }
+
+    private enum class Change { TITLE, SUBTITLE, TIME, DURATION, SPEAKERS, LANGUAGE, TRACK, CANCEL, NEW }
+
+    /**
+     * Returns the schedule described by the configuration.
+     */
+    fun createSchedule(): SyntheticSchedule {
+        val random = Random(config.seed)
+        val speakersCount = max(1, config.sessionsCount / 2)
+        var sessionId = FIRST_SESSION_ID
+        val days = (1..config.daysCount).map { dayIndex ->
+            val daySessionsCount = sessionsCountOfDay(dayIndex)
+            val rooms = (0 until config.roomsCount).map { roomIndex ->
+                val roomSessionsCount = daySessionsCount / config.roomsCount +
+                        if (roomIndex < daySessionsCount % config.roomsCount) 1 else 0
+                val roomName = roomName(roomIndex)
+                var startsAt = dayStartsAt(dayIndex)
+                val maxSlotMinutes = DAY_MINUTES / max(1, roomSessionsCount)
+                val sessions = (0 until roomSessionsCount).map {
+                    var duration = DURATIONS[random.nextInt(DURATIONS.size)]
+                    var breakMinutes = BREAK_MINUTES
+                    if (duration + breakMinutes > maxSlotMinutes) {
+                        duration = max(1, maxSlotMinutes)
+                        breakMinutes = 0
+                    }
+                    val overlaps = random.nextDouble() < config.overlapRate
+                    val session = createSession(random, sessionId++, roomName, startsAt, duration, speakersCount)
+                    val minutesUntilNext = duration + breakMinutes -
+                            if (overlaps) min(OVERLAP_MINUTES, duration - 1) + breakMinutes else 0
+                    startsAt = startsAt.plusMinutes(minutesUntilNext.toLong())
+                    session
+                }
+                SyntheticRoom(roomName, sessions)
+            }.filter { it.sessions.isNotEmpty() }
+            SyntheticDay(
+                    index = dayIndex,
+                    date = config.firstDay.plusDays(dayIndex - 1L),
+                    startsAt = dayStartsAt(dayIndex),
+                    endsAt = dayStartsAt(dayIndex + 1).with(LocalTime.of(DAY_ENDS_AT_HOUR, 0)),
+                    rooms = rooms
+            )
+        }
+        return SyntheticSchedule(
+                version = "synthetic-1",
+                title = "Synthetic Congress",
+                timeZoneName = "Europe/Berlin",
+                zoneOffset = config.zoneOffset,
+                days = days
+        )
+    }
+
+    /**
+     * Returns a new version of the given [schedule]. The share of sessions given by
+     * [SyntheticScheduleConfig.changeRate] is retitled, moved, shortened, canceled,
+     * accompanied by a new session or otherwise modified.
+     */
+    fun createChangedVersion(schedule: SyntheticSchedule): SyntheticSchedule {
+        val random = Random(config.seed + 1)
+        val changes = Change.values()
+        var newSessionId = (schedule.sessions.maxOfOrNull { it.id } ?: FIRST_SESSION_ID) + 1
+        var changesCount = 0
+        val days = schedule.days.map { day ->
+            day.copy(rooms = day.rooms.map { room ->
+                val sessions = mutableListOf<SyntheticSession>()
+                for (session in room.sessions) {
+                    if (random.nextDouble() >= config.changeRate) {
+                        sessions += session
+                        continue
+                    }
+                    // Cycle through all kinds of changes so that each one occurs.
+                    when (changes[changesCount++ % changes.size]) {
+                        Change.TITLE -> sessions += session.copy(title = "${session.title} (updated)")
+                        Change.SUBTITLE -> sessions += session.copy(subtitle = createText(random, 40))
+                        Change.TIME -> sessions += session.copy(startsAt = session.startsAt.plusMinutes(BREAK_MINUTES.toLong()))
+                        Change.DURATION -> sessions += session.copy(duration = max(1, session.duration - BREAK_MINUTES))
+                        Change.SPEAKERS -> sessions += session.copy(speakers = session.speakers.drop(1))
+                        Change.LANGUAGE -> sessions += session.copy(language = if (session.language == "de") "en" else "de")
+                        Change.TRACK -> sessions += session.copy(track = TRACKS[(TRACKS.indexOf(session.track) + 1) % TRACKS.size])
+                        Change.CANCEL -> Unit
+                        Change.NEW -> {
+                            sessions += session
+                            sessions += createSession(random, newSessionId++, room.name,
+                                    session.startsAt, session.duration, max(1, config.sessionsCount / 2))
+                        }
+                    }
+                }
+                room.copy(sessions = sessions)
+            })
+        }
+        return schedule.copy(version = "synthetic-2", days = days)
+    }
+
+    /**
+     * Returns [count] shifts which take place during the days of the given [schedule].
+     * Pass [buildUpDaysCount] or [tearDownDaysCount] to spread the shifts over the given number
+     * of days before the first and after the last day of the [schedule] as well. Engelsystem
+     * instances list the shifts of the build-up and tear-down of an event this way.
+     */
+    @JvmOverloads
+    fun createShifts(
+            schedule: SyntheticSchedule,
+            count: Int,
+            buildUpDaysCount: Int = 0,
+            tearDownDaysCount: Int = 0
+    ): List<Shift> {
+        require(buildUpDaysCount >= 0) { "buildUpDaysCount must not be negative." }
+        require(tearDownDaysCount >= 0) { "tearDownDaysCount must not be negative." }
+        val random = Random(config.seed + 2)
+        val firstDayStartsAt = schedule.days.first().startsAt
+        val daysCount = buildUpDaysCount + schedule.days.size + tearDownDaysCount
+        return (0 until count).map { index ->
+            val dayOffset = random.nextInt(daysCount) - buildUpDaysCount
+            val startsAt = firstDayStartsAt.plusDays(dayOffset.toLong()).plusMinutes(30L * random.nextInt(24))
+            val endsAt = startsAt.plusHours(2L + random.nextInt(3))
+            val typeId = random.nextInt(5)
+            Shift(
+                    sID = index + 1,
+                    name = "Angel shift ${index + 1}",
+                    talkTitle = "Shift type $typeId",
+                    typeId = typeId,
+                    locationName = roomName(random.nextInt(config.roomsCount)),
+                    locationUrl = if (random.nextBoolean()) "https://example.com/locations/$typeId" else "",
+                    locationDescription = createText(random, config.textLength / 2),
+                    userComment = if (random.nextInt(4) == 0) createText(random, 40) else "",
+                    startsAt = startsAt,
+                    endsAt = endsAt
+            )
+        }
+    }
+
+    private fun createSession(
+            random: Random,
+            id: Int,
+            roomName: String,
+            startsAt: ZonedDateTime,
+            duration: Int,
+            speakersCount: Int
+    ) = SyntheticSession(
+            id = id,
+            guid = UUID.nameUUIDFromBytes("synthetic-$id".toByteArray()).toString(),
+            startsAt = startsAt,
+            duration = duration,
+            room = roomName,
+            slug = "synthetic-$id",
+            title = "Session $id: ${createText(random, 30)}",
+            subtitle = createText(random, 40),
+            track = TRACKS[random.nextInt(TRACKS.size)],
+            type = TYPES[random.nextInt(TYPES.size)],
+            language = LANGUAGES[random.nextInt(LANGUAGES.size)],
+            abstract = createText(random, config.textLength),
+            description = createText(random, config.textLength * 2),
+            recordingLicense = "CC BY 4.0",
+            recordingOptOut = random.nextInt(10) == 0,
+            speakers = (0 until config.speakersPerSession).map {
+                val speakerId = random.nextInt(speakersCount) + 1
+                SyntheticSpeaker(speakerId, "Speaker $speakerId")
+            },
+            links = (0 until config.linksPerSession).map {
+                SyntheticLink("https://example.com/sessions/$id/$it", "Link $it")
+            }
+    )
+
+    private fun createText(random: Random, length: Int): String {
+        val builder = StringBuilder(length + 16)
+        while (builder.length < length) {
+            if (builder.isNotEmpty()) {
+                builder.append(' ')
+            }
+            builder.append(WORDS[random.nextInt(WORDS.size)])
+        }
+        return builder.substring(0, min(length, builder.length)).trim()
+    }
+
+    private fun sessionsCountOfDay(dayIndex: Int): Int {
+        val sessionsPerDay = config.sessionsCount / config.daysCount
+        val remainder = config.sessionsCount % config.daysCount
+        return sessionsPerDay + if (dayIndex <= remainder) 1 else 0
+    }
+
+    private fun dayStartsAt(dayIndex: Int): ZonedDateTime = config.firstDay
+            .plusDays(dayIndex - 1L)
+            .atTime(DAY_STARTS_AT_HOUR, 0)
+            .atZone(config.zoneOffset)
+
+    private fun roomName(roomIndex: Int) = "Room ${roomIndex + 1}"
+
+}
+
+/**
+ * Returns the number of sessions which have been added, modified or removed in the [other] schedule.
+ * Convenience for assertions in tests which use [SyntheticScheduleConfig.changeRate].
+ */
+fun SyntheticSchedule.countChangedSessions(other: SyntheticSchedule): Int {
+    val otherSessions = other.sessions.associateBy { it.id }
+    val ids = sessions.mapTo(HashSet()) { it.id }
+    val addedCount = otherSessions.keys.count { it !in ids }
+    val changedOrRemovedCount = sessions.count { otherSessions[it.id] != it }
+    return addedCount + changedOrRemovedCount
+}
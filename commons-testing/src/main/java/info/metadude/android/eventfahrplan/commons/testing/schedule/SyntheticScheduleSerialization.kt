@@ -0,0 +1,177 @@
+@file:JvmName("SyntheticScheduleSerialization")
+
+package info.metadude.android.eventfahrplan.commons.testing.schedule
+
+import org.threeten.bp.ZonedDateTime
+import org.threeten.bp.format.DateTimeFormatter
+import java.util.Locale
+
+private val DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ssxxx", Locale.US)
+
+/**
+ * Returns the schedule in the frab XML format as read by the app.
+ */
+fun SyntheticSchedule.toXml(): String {
+    val builder = StringBuilder(sessions.size * 1024)
+    builder.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<schedule>\n")
+            .append("<version>").appendXml(version).append("</version>\n")
+            .append("<conference><title>").appendXml(title).append("</title>")
+            .append("<time_zone_name>").appendXml(timeZoneName).append("</time_zone_name></conference>\n")
+    for (day in days) {
+        builder.append("<day index=\"").append(day.index)
+                .append("\" date=\"").append(day.date)
+                .append("\" start=\"").append(day.startsAt.toDateTimeString())
+                .append("\" end=\"").append(day.endsAt.toDateTimeString()).append("\">\n")
+        for (room in day.rooms) {
+            builder.append("<room name=\"").appendXml(room.name).append("\">\n")
+            for (session in room.sessions) {
+                builder.appendXmlEvent(session)
+            }
+            builder.append("</room>\n")
+        }
+        builder.append("</day>\n")
+    }
+    return builder.append("</schedule>\n").toString()
+}
+
+/**
+ * Returns the schedule in the frab JSON format as read by the app.
+ */
+fun SyntheticSchedule.toJson(): String {
+    val builder = StringBuilder(sessions.size * 1024)
+    builder.append("{\"schedule\":{\"version\":").appendJson(version)
+            .append(",\"conference\":{\"title\":").appendJson(title)
+            .append(",\"time_zone_name\":").appendJson(timeZoneName)
+            .append(",\"days\":[")
+    days.forEachIndexed { dayPosition, day ->
+        if (dayPosition > 0) {
+            builder.append(',')
+        }
+        builder.append("{\"index\":").append(day.index)
+                .append(",\"date\":\"").append(day.date)
+                .append("\",\"day_start\":\"").append(day.startsAt.toDateTimeString())
+                .append("\",\"day_end\":\"").append(day.endsAt.toDateTimeString())
+                .append("\",\"rooms\":{")
+        day.rooms.forEachIndexed { roomPosition, room ->
+            if (roomPosition > 0) {
+                builder.append(',')
+            }
+            builder.appendJson(room.name).append(":[")
+            room.sessions.forEachIndexed { sessionPosition, session ->
+                if (sessionPosition > 0) {
+                    builder.append(',')
+                }
+                builder.appendJsonEvent(session)
+            }
+            builder.append(']')
+        }
+        builder.append("}}")
+    }
+    return builder.append("]}}}").toString()
+}
+
+private fun StringBuilder.appendXmlEvent(session: SyntheticSession) {
+    append("<event guid=\"").append(session.guid).append("\" id=\"").append(session.id).append("\">")
+    append("<date>").append(session.startsAt.toDateTimeString()).append("</date>")
+    append("<start>").appendTime(session.startsAt.hour * 60 + session.startsAt.minute).append("</start>")
+    append("<duration>").appendTime(session.duration).append("</duration>")
+    append("<room>").appendXml(session.room).append("</room>")
+    append("<slug>").appendXml(session.slug).append("</slug>")
+    append("<title>").appendXml(session.title).append("</title>")
+    append("<subtitle>").appendXml(session.subtitle).append("</subtitle>")
+    append("<track>").appendXml(session.track).append("</track>")
+    append("<type>").appendXml(session.type).append("</type>")
+    append("<language>").appendXml(session.language).append("</language>")
+    append("<abstract>").appendXml(session.abstract).append("</abstract>")
+    append("<description>").appendXml(session.description).append("</description>")
+    append("<recording><license>").appendXml(session.recordingLicense).append("</license>")
+    append("<optout>").append(session.recordingOptOut).append("</optout></recording>")
+    append("<persons>")
+    for (speaker in session.speakers) {
+        append("<person id=\"").append(speaker.id).append("\">").appendXml(speaker.name).append("</person>")
+    }
+    append("</persons><links>")
+    for (link in session.links) {
+        append("<link href=\"").appendXml(link.url).append("\">").appendXml(link.title).append("</link>")
+    }
+    append("</links></event>\n")
+}
+
+private fun StringBuilder.appendJsonEvent(session: SyntheticSession) {
+    append("{\"id\":").append(session.id)
+    append(",\"guid\":").appendJson(session.guid)
+    append(",\"date\":").appendJson(session.startsAt.toDateTimeString())
+    append(",\"start\":\"").appendTime(session.startsAt.hour * 60 + session.startsAt.minute).append('"')
+    append(",\"duration\":\"").appendTime(session.duration).append('"')
+    append(",\"room\":").appendJson(session.room)
+    append(",\"slug\":").appendJson(session.slug)
+    append(",\"title\":").appendJson(session.title)
+    append(",\"subtitle\":").appendJson(session.subtitle)
+    append(",\"track\":").appendJson(session.track)
+    append(",\"type\":").appendJson(session.type)
+    append(",\"language\":").appendJson(session.language)
+    append(",\"abstract\":").appendJson(session.abstract)
+    append(",\"description\":").appendJson(session.description)
+    append(",\"recording_license\":").appendJson(session.recordingLicense)
+    append(",\"do_not_record\":").append(session.recordingOptOut)
+    append(",\"persons\":[")
+    session.speakers.forEachIndexed { position, speaker ->
+        if (position > 0) {
+            append(',')
+        }
+        append("{\"id\":").append(speaker.id).append(",\"public_name\":").appendJson(speaker.name).append('}')
+    }
+    append("],\"links\":[")
+    session.links.forEachIndexed { position, link ->
+        if (position > 0) {
+            append(',')
+        }
+        append("{\"url\":").appendJson(link.url).append(",\"title\":").appendJson(link.title).append('}')
+    }
+    append("]}")
+}
+
+private fun ZonedDateTime.toDateTimeString() = DATE_TIME_FORMATTER.format(this)
+
+/**
+ * Appends the given [minutes] formatted as "HH:mm".
+ */
+private fun StringBuilder.appendTime(minutes: Int): StringBuilder {
+    val hours = minutes / 60
+    val remainder = minutes % 60
+    if (hours < 10) {
+        append('0')
+    }
+    append(hours).append(':')
+    if (remainder < 10) {
+        append('0')
+    }
+    return append(remainder)
+}
+
+private fun StringBuilder.appendXml(text: String): StringBuilder {
+    for (character in text) {
+        when (character) {
+            '&' -> append("&amp;")
+            '<' -> append("&lt;")
+            '>' -> append("&gt;")
+            '"' -> append("&quot;")
+            else -> append(character)
+        }
+    }
+    return this
+}
+
+private fun StringBuilder.appendJson(text: String): StringBuilder {
+    append('"')
+    for (character in text) {
+        when (character) {
+            '"' -> append("\\\"")
+            '\\' -> append("\\\\")
+            '\n' -> append("\\n")
+            '\t' -> append("\\t")
+            else -> append(character)
+        }
+    }
+    return append('"')
+}
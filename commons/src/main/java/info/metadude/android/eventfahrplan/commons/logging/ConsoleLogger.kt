@@ -1,9 +1,12 @@
 package info.metadude.android.eventfahrplan.commons.logging
 
 import android.util.Log
+import info.metadude.android.eventfahrplan.commons.BuildConfig
 
 object ConsoleLogger : Logging {
 
+    private const val SPAN_LOG_TAG = "Tracer"
+
     override fun d(tag: String, message: String) {
         Log.d(tag, message)
     }
@@ -16,4 +19,15 @@ object ConsoleLogger : Logging {
         org.ligi.tracedroid.logging.Log.e(tag, message)
     }
 
+    /**
+     * Records the duration of the given [span] in the [Tracer.DEFAULT].
+     * It is also written to the log in debug builds only, since spans end on every load.
+     */
+    override fun endSpan(span: Span) {
+        val durationNanos = Tracer.DEFAULT.endSpan(span)
+        if (BuildConfig.DEBUG) {
+            Log.d(SPAN_LOG_TAG, "${span.name} took ${durationNanos / 1_000_000} ms")
+        }
+    }
+
 }
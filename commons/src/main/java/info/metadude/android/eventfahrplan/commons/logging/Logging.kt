@@ -10,6 +10,26 @@ interface Logging {
 
     fun report(tag: String, message: String)
 
+    /**
+     * Starts measuring the stage of the given [name].
+     * Pass the returned span to [endSpan] once the stage is done.
+     */
+    fun beginSpan(name: String): Span = Tracer.DEFAULT.beginSpan(name)
+
+    /**
+     * Records the duration of the given [span] in the [Tracer.DEFAULT].
+     */
+    fun endSpan(span: Span) {
+        Tracer.DEFAULT.endSpan(span)
+    }
+
+    /**
+     * Adds the given [delta] to the counter of the given [name] in the [Tracer.DEFAULT].
+     */
+    fun count(name: String, delta: Long) {
+        Tracer.DEFAULT.count(name, delta)
+    }
+
     companion object {
 
         fun get(): Logging {
@@ -19,3 +39,15 @@ interface Logging {
     }
 
 }
+
+/**
+ * Measures the given [block] as a span of the given [name].
+ */
+inline fun <T> Logging.trace(name: String, block: () -> T): T {
+    val span = beginSpan(name)
+    try {
+        return block()
+    } finally {
+        endSpan(span)
+    }
+}
@@ -0,0 +1,15 @@
+package info.metadude.android.eventfahrplan.commons.logging
+
+/**
+ * A stage measurement which has been started via [Logging.beginSpan].
+ * Pass it to [Logging.endSpan] once the stage is done.
+ *
+ * The [start time][startedAtNanos] is a monotonic timestamp as returned by [System.nanoTime].
+ * It is only meaningful in relation to other timestamps of the same process.
+ */
+class Span(
+
+        val name: String,
+        val startedAtNanos: Long
+
+)
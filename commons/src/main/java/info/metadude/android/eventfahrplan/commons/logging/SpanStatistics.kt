@@ -0,0 +1,102 @@
+package info.metadude.android.eventfahrplan.commons.logging
+
+import kotlin.math.ceil
+import kotlin.math.min
+
+/**
+ * Accumulates the durations of all spans of the same [name].
+ *
+ * Durations are sorted into a histogram with power of two buckets:
+ * bucket 0 holds durations below 1 ms, bucket `i` holds durations
+ * from 2^(i-1) ms up to 2^i ms. The last bucket holds all longer durations.
+ *
+ * Instances are not thread-safe. See [Tracer] which synchronizes access.
+ */
+class SpanStatistics internal constructor(
+
+        val name: String
+
+) {
+
+    companion object {
+
+        const val BUCKETS_COUNT = 16
+
+        private const val NANOS_PER_MILLI = 1_000_000L
+
+        /**
+         * Returns the histogram bucket for the given [durationNanos].
+         */
+        fun bucketIndexOf(durationNanos: Long): Int {
+            val millis = durationNanos / NANOS_PER_MILLI
+            return if (millis <= 0) 0 else min(BUCKETS_COUNT - 1, 64 - java.lang.Long.numberOfLeadingZeros(millis))
+        }
+
+        /**
+         * Returns the exclusive upper bound of the given bucket in milliseconds
+         * or [Long.MAX_VALUE] for the last bucket.
+         */
+        fun bucketUpperBoundMillis(bucketIndex: Int) =
+                if (bucketIndex == BUCKETS_COUNT - 1) Long.MAX_VALUE else 1L shl bucketIndex
+
+    }
+
+    private val buckets = LongArray(BUCKETS_COUNT)
+
+    var count = 0L
+        private set
+
+    var totalNanos = 0L
+        private set
+
+    var minNanos = 0L
+        private set
+
+    var maxNanos = 0L
+        private set
+
+    val averageNanos
+        get() = if (count == 0L) 0L else totalNanos / count
+
+    internal fun add(durationNanos: Long) {
+        if (count == 0L || durationNanos < minNanos) {
+            minNanos = durationNanos
+        }
+        if (durationNanos > maxNanos) {
+            maxNanos = durationNanos
+        }
+        count++
+        totalNanos += durationNanos
+        buckets[bucketIndexOf(durationNanos)]++
+    }
+
+    internal fun copy() = SpanStatistics(name).also {
+        buckets.copyInto(it.buckets)
+        it.count = count
+        it.totalNanos = totalNanos
+        it.minNanos = minNanos
+        it.maxNanos = maxNanos
+    }
+
+    fun getBucketCount(bucketIndex: Int) = buckets[bucketIndex]
+
+    /**
+     * Returns the upper bound in milliseconds of the bucket which contains the given [percentile].
+     * The [percentile] ranges from 0.0 to 1.0. Returns 0 if no span has been recorded.
+     */
+    fun getPercentileUpperBoundMillis(percentile: Double): Long {
+        if (count == 0L) {
+            return 0L
+        }
+        val rank = ceil(percentile * count).toLong().coerceIn(1L, count)
+        var accumulatedCount = 0L
+        for (bucketIndex in buckets.indices) {
+            accumulatedCount += buckets[bucketIndex]
+            if (accumulatedCount >= rank) {
+                return bucketUpperBoundMillis(bucketIndex)
+            }
+        }
+        return Long.MAX_VALUE
+    }
+
+}
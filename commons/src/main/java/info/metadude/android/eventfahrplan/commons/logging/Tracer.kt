@@ -0,0 +1,121 @@
+package info.metadude.android.eventfahrplan.commons.logging
+
+import java.util.Locale
+
+/**
+ * Records the durations of [spans][Span] and the values of named counters.
+ *
+ * Recording a span costs two [nanoTime] calls and one map lookup so that spans
+ * can remain enabled in release builds. Use [dump] to render the collected
+ * per-stage timing histograms. This class is thread-safe.
+ */
+class Tracer(
+
+        private val nanoTime: () -> Long = { System.nanoTime() }
+
+) {
+
+    companion object {
+
+        /**
+         * The instance used by the default implementations in [Logging].
+         */
+        @JvmField
+        val DEFAULT = Tracer()
+
+        private const val NANOS_PER_MILLI = 1_000_000.0
+
+    }
+
+    private val spanStatistics = LinkedHashMap<String, SpanStatistics>()
+
+    private val counters = LinkedHashMap<String, Long>()
+
+    fun beginSpan(name: String) = Span(name, nanoTime())
+
+    /**
+     * Records the given [span] and returns its duration in nanoseconds.
+     */
+    fun endSpan(span: Span): Long {
+        val durationNanos = nanoTime() - span.startedAtNanos
+        synchronized(this) {
+            spanStatistics.getOrPut(span.name) { SpanStatistics(span.name) }.add(durationNanos)
+        }
+        return durationNanos
+    }
+
+    /**
+     * Adds the given [delta] to the counter of the given [name].
+     */
+    @Synchronized
+    fun count(name: String, delta: Long) {
+        counters[name] = (counters[name] ?: 0L) + delta
+    }
+
+    /**
+     * Returns a copy of the statistics of all spans in the order of their first recording.
+     */
+    @Synchronized
+    fun getSpanStatistics(): List<SpanStatistics> = spanStatistics.values.map { it.copy() }
+
+    /**
+     * Returns a copy of all counters in the order of their first use.
+     */
+    @Synchronized
+    fun getCounters(): Map<String, Long> = LinkedHashMap(counters)
+
+    @Synchronized
+    fun reset() {
+        spanStatistics.clear()
+        counters.clear()
+    }
+
+    /**
+     * Renders the statistics and histogram of each span and all counters as text.
+     * Histogram buckets without spans are omitted.
+     */
+    fun dump(): String {
+        val statistics = getSpanStatistics()
+        val counters = getCounters()
+        val builder = StringBuilder()
+        builder.append("Spans (durations in ms)\n")
+        if (statistics.isEmpty()) {
+            builder.append("  none\n")
+        }
+        for (statisticsOfSpan in statistics) {
+            with(statisticsOfSpan) {
+                builder.append(name).append('\n')
+                builder.append(String.format(Locale.US,
+                        "  count=%d total=%.1f avg=%.1f min=%.1f max=%.1f p50<%s p90<%s p99<%s\n",
+                        count, totalNanos.toMillis(), averageNanos.toMillis(), minNanos.toMillis(), maxNanos.toMillis(),
+                        getPercentileUpperBoundMillis(0.5).toBound(),
+                        getPercentileUpperBoundMillis(0.9).toBound(),
+                        getPercentileUpperBoundMillis(0.99).toBound()))
+                builder.append(" ")
+                for (bucketIndex in 0 until SpanStatistics.BUCKETS_COUNT) {
+                    val bucketCount = getBucketCount(bucketIndex)
+                    if (bucketCount > 0) {
+                        builder.append(" <")
+                                .append(SpanStatistics.bucketUpperBoundMillis(bucketIndex).toBound())
+                                .append(':')
+                                .append(bucketCount)
+                    }
+                }
+                builder.append('\n')
+            }
+        }
+        builder.append("Counters\n")
+        if (counters.isEmpty()) {
+            builder.append("  none\n")
+        }
+        for ((name, value) in counters) {
+            builder.append("  ").append(name).append(" = ").append(value).append('\n')
+        }
+        return builder.toString()
+    }
+
+    private fun Long.toMillis() = this / NANOS_PER_MILLI
+
+    private fun Long.toBound() = if (this == Long.MAX_VALUE) "inf" else toString()
+
+}
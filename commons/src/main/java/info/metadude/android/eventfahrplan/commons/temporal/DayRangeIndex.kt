@@ -0,0 +1,49 @@
+package info.metadude.android.eventfahrplan.commons.temporal
+
+import org.threeten.bp.ZonedDateTime
+
+/**
+ * Finds the day range which contains a point in time by a binary search over the boundaries
+ * of the given [dayRanges]. Lookups take O(log n) instead of testing each day range.
+ *
+ * The [dayRanges] must be sorted by their start and must not overlap, as returned for sessions.
+ * Day ranges start and end at whole seconds, so comparing epoch seconds is exact.
+ */
+class DayRangeIndex(dayRanges: List<DayRange>) {
+
+    private val startsAtSeconds = LongArray(dayRanges.size) { dayRanges[it].startsAt.toEpochSecond() }
+    private val endsAtSeconds = LongArray(dayRanges.size) { dayRanges[it].endsAt.toEpochSecond() }
+
+    init {
+        for (index in 1 until dayRanges.size) {
+            require(startsAtSeconds[index] > endsAtSeconds[index - 1]) {
+                "Day ranges must be sorted and must not overlap: ${dayRanges[index - 1]}, ${dayRanges[index]}"
+            }
+        }
+    }
+
+    val size
+        get() = startsAtSeconds.size
+
+    /**
+     * Returns the index of the day range which contains the given [dateTime]
+     * or -1 if none of them contains it. See [DayRange.contains].
+     */
+    fun indexOf(dateTime: ZonedDateTime): Int {
+        val seconds = dateTime.toEpochSecond()
+        var low = 0
+        var high = startsAtSeconds.size - 1
+        while (low <= high) {
+            val middle = (low + high) ushr 1
+            when {
+                seconds < startsAtSeconds[middle] -> high = middle - 1
+                seconds > endsAtSeconds[middle] -> low = middle + 1
+                else -> return middle
+            }
+        }
+        return -1
+    }
+
+    operator fun contains(dateTime: ZonedDateTime) = indexOf(dateTime) != -1
+
+}
@@ -0,0 +1,102 @@
+package info.metadude.android.eventfahrplan.commons.logging
+
+import org.assertj.core.api.Assertions.assertThat
+import org.assertj.core.api.Assertions.entry
+import org.junit.Test
+
+class TracerTest {
+
+    private var nanoTime = 0L
+
+    private val tracer = Tracer { nanoTime }
+
+    @Test
+    fun `endSpan returns the duration between begin and end`() {
+        val span = tracer.beginSpan("parse")
+        nanoTime += 5_000_000
+        assertThat(tracer.endSpan(span)).isEqualTo(5_000_000)
+    }
+
+    @Test
+    fun `getSpanStatistics accumulates all spans of the same name`() {
+        recordSpan("parse", 2_000_000)
+        recordSpan("parse", 6_000_000)
+        recordSpan("store", 500_000)
+        val statistics = tracer.getSpanStatistics()
+        assertThat(statistics.map { it.name }).containsExactly("parse", "store")
+        with(statistics.first()) {
+            assertThat(count).isEqualTo(2)
+            assertThat(totalNanos).isEqualTo(8_000_000)
+            assertThat(minNanos).isEqualTo(2_000_000)
+            assertThat(maxNanos).isEqualTo(6_000_000)
+            assertThat(averageNanos).isEqualTo(4_000_000)
+        }
+    }
+
+    @Test
+    fun `getSpanStatistics returns a copy`() {
+        recordSpan("parse", 1_000_000)
+        val statistics = tracer.getSpanStatistics()
+        recordSpan("parse", 1_000_000)
+        assertThat(statistics.single().count).isEqualTo(1)
+    }
+
+    @Test
+    fun `getPercentileUpperBoundMillis returns the upper bound of the bucket of the percentile`() {
+        repeat(9) { recordSpan("layout", 3_000_000) }
+        recordSpan("layout", 100_000_000)
+        with(tracer.getSpanStatistics().single()) {
+            assertThat(getPercentileUpperBoundMillis(0.5)).isEqualTo(4)
+            assertThat(getPercentileUpperBoundMillis(0.9)).isEqualTo(4)
+            assertThat(getPercentileUpperBoundMillis(1.0)).isEqualTo(128)
+        }
+    }
+
+    @Test
+    fun `bucketIndexOf sorts durations into power of two millisecond buckets`() {
+        assertThat(SpanStatistics.bucketIndexOf(999_999)).isEqualTo(0)
+        assertThat(SpanStatistics.bucketIndexOf(1_000_000)).isEqualTo(1)
+        assertThat(SpanStatistics.bucketIndexOf(3_999_999)).isEqualTo(2)
+        assertThat(SpanStatistics.bucketIndexOf(4_000_000)).isEqualTo(3)
+        assertThat(SpanStatistics.bucketIndexOf(Long.MAX_VALUE)).isEqualTo(SpanStatistics.BUCKETS_COUNT - 1)
+    }
+
+    @Test
+    fun `count adds up deltas per name`() {
+        tracer.count("sessions", 10)
+        tracer.count("sessions", 5)
+        tracer.count("days", 4)
+        assertThat(tracer.getCounters()).containsExactly(entry("sessions", 15L), entry("days", 4L))
+    }
+
+    @Test
+    fun `reset discards spans and counters`() {
+        recordSpan("parse", 1_000_000)
+        tracer.count("sessions", 1)
+        tracer.reset()
+        assertThat(tracer.getSpanStatistics()).isEmpty()
+        assertThat(tracer.getCounters()).isEmpty()
+    }
+
+    @Test
+    fun `dump renders spans with histogram buckets and counters`() {
+        recordSpan("parse", 3_000_000)
+        tracer.count("sessions", 42)
+        assertThat(tracer.dump()).isEqualTo("""
+            Spans (durations in ms)
+            parse
+              count=1 total=3.0 avg=3.0 min=3.0 max=3.0 p50<4 p90<4 p99<4
+              <4:1
+            Counters
+              sessions = 42
+
+        """.trimIndent())
+    }
+
+    private fun recordSpan(name: String, durationNanos: Long) {
+        val span = tracer.beginSpan(name)
+        nanoTime += durationNanos
+        tracer.endSpan(span)
+    }
+
+}
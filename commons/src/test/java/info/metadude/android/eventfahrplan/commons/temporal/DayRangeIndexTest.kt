@@ -0,0 +1,68 @@
+package info.metadude.android.eventfahrplan.commons.temporal
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.Test
+import org.threeten.bp.ZoneOffset
+import org.threeten.bp.ZonedDateTime
+
+class DayRangeIndexTest {
+
+    private val day1 = Moment.parseDate("2019-12-27")
+    private val day2 = Moment.parseDate("2019-12-28")
+    private val day4 = Moment.parseDate("2019-12-30")
+
+    private val dayRanges = listOf(DayRange(day1), DayRange(day2), DayRange(day4))
+
+    private val index = DayRangeIndex(dayRanges)
+
+    @Test
+    fun `indexOf returns the index of the day range which contains the date time`() {
+        assertThat(index.indexOf(utc(2019, 12, 27, 12, 0))).isEqualTo(0)
+        assertThat(index.indexOf(utc(2019, 12, 28, 12, 0))).isEqualTo(1)
+        assertThat(index.indexOf(utc(2019, 12, 30, 12, 0))).isEqualTo(2)
+    }
+
+    @Test
+    fun `indexOf includes the start and the end of a day range`() {
+        assertThat(index.indexOf(dayRanges[1].startsAt)).isEqualTo(1)
+        assertThat(index.indexOf(dayRanges[1].endsAt)).isEqualTo(1)
+    }
+
+    @Test
+    fun `indexOf compares instants of date times in other time zones`() {
+        val dateTime = utc(2019, 12, 28, 23, 30).withZoneSameInstant(ZoneOffset.ofHours(2))
+        assertThat(index.indexOf(dateTime)).isEqualTo(1)
+    }
+
+    @Test
+    fun `indexOf returns -1 for date times outside of all day ranges`() {
+        assertThat(index.indexOf(utc(2019, 12, 26, 23, 59))).isEqualTo(-1)
+        assertThat(index.indexOf(utc(2019, 12, 29, 12, 0))).isEqualTo(-1)
+        assertThat(index.indexOf(utc(2019, 12, 31, 0, 0))).isEqualTo(-1)
+        assertThat(utc(2019, 12, 29, 12, 0) in index).isFalse()
+    }
+
+    @Test
+    fun `indexOf agrees with DayRange contains`() {
+        var dateTime = utc(2019, 12, 26, 0, 0)
+        while (dateTime < utc(2020, 1, 1, 0, 0)) {
+            val expectedIndex = dayRanges.indexOfFirst { it.contains(dateTime) }
+            assertThat(index.indexOf(dateTime)).isEqualTo(expectedIndex)
+            dateTime = dateTime.plusMinutes(17)
+        }
+    }
+
+    @Test
+    fun `indexOf returns -1 without day ranges`() {
+        assertThat(DayRangeIndex(emptyList()).indexOf(utc(2019, 12, 27, 12, 0))).isEqualTo(-1)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun `unsorted day ranges are rejected`() {
+        DayRangeIndex(listOf(DayRange(day2), DayRange(day1)))
+    }
+
+    private fun utc(year: Int, month: Int, day: Int, hour: Int, minute: Int) =
+            ZonedDateTime.of(year, month, day, hour, minute, 0, 0, ZoneOffset.UTC)
+
+}
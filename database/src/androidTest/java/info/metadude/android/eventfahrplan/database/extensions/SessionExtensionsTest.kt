@@ -38,18 +38,12 @@ class SessionExtensionsTest {
                 type = "tutorial",
                 url = "https://talks.mrmcd.net/2018/talk/V3FUNG",
 
-                changedDay = true,
-                changedDuration = true,
-                changedIsCanceled = true,
-                changedIsNew = true,
-                changedLanguage = true,
-                changedRecordingOptOut = true,
-                changedRoom = true,
-                changedSpeakers = true,
-                changedSubtitle = true,
-                changedTime = true,
-                changedTitle = true,
-                changedTrack = true
+                changeFlags = Session.CHANGED_DAY or Session.CHANGED_DURATION or
+                        Session.CHANGED_IS_CANCELED or Session.CHANGED_IS_NEW or
+                        Session.CHANGED_LANGUAGE or Session.CHANGED_RECORDING_OPTOUT or
+                        Session.CHANGED_ROOM or Session.CHANGED_SPEAKERS or
+                        Session.CHANGED_SUBTITLE or Session.CHANGED_TIME or
+                        Session.CHANGED_TITLE or Session.CHANGED_TRACK
         )
         val values = session.toContentValues()
         assertThat(values.getAsInteger(SESSION_ID)).isEqualTo(7331)
@@ -77,18 +71,7 @@ class SessionExtensionsTest {
         assertThat(values.getAsString(TYPE)).isEqualTo("tutorial")
         assertThat(values.getAsString(URL)).isEqualTo("https://talks.mrmcd.net/2018/talk/V3FUNG")
 
-        assertThat(values.getAsBoolean(CHANGED_DAY)).isEqualTo(true)
-        assertThat(values.getAsBoolean(CHANGED_DURATION)).isEqualTo(true)
-        assertThat(values.getAsBoolean(CHANGED_IS_CANCELED)).isEqualTo(true)
-        assertThat(values.getAsBoolean(CHANGED_IS_NEW)).isEqualTo(true)
-        assertThat(values.getAsBoolean(CHANGED_LANGUAGE)).isEqualTo(true)
-        assertThat(values.getAsBoolean(CHANGED_RECORDING_OPTOUT)).isEqualTo(true)
-        assertThat(values.getAsBoolean(CHANGED_ROOM)).isEqualTo(true)
-        assertThat(values.getAsBoolean(CHANGED_SPEAKERS)).isEqualTo(true)
-        assertThat(values.getAsBoolean(CHANGED_SUBTITLE)).isEqualTo(true)
-        assertThat(values.getAsBoolean(CHANGED_TIME)).isEqualTo(true)
-        assertThat(values.getAsBoolean(CHANGED_TITLE)).isEqualTo(true)
-        assertThat(values.getAsBoolean(CHANGED_TRACK)).isEqualTo(true)
+        assertThat(values.getAsInteger(CHANGE_FLAGS)).isEqualTo(0xFFF)
     }
 
 }
@@ -32,6 +32,8 @@ public interface FahrplanContract {
 
         String NAME = "alarms";
 
+        String TIME_INDEX_NAME = "alarms_time_index";
+
         interface Columns {
 
             /* 0 */ String ID = "_id";
@@ -109,6 +111,8 @@ public interface FahrplanContract {
             /* 17 */ String ROOM_IDX = "room_idx";
             /* 18 */ String REC_LICENSE = "rec_license";
             /* 19 */ String REC_OPTOUT = "rec_optout";
+            // Columns 20 - 31 have been replaced by CHANGE_FLAGS in database version 11.
+            // They are only kept to migrate existing rows.
             /* 20 */ String CHANGED_TITLE = "changed_title";
             /* 21 */ String CHANGED_SUBTITLE = "changed_subtitle";
             /* 22 */ String CHANGED_ROOM = "changed_room";
@@ -123,12 +127,14 @@ public interface FahrplanContract {
             /* 31 */ String CHANGED_IS_CANCELED = "changed_is_canceled";
             /* 32 */ String SLUG = "slug";
             /* 33 */ String URL = "url";
+            /* 34 */ String CHANGE_FLAGS = "change_flags";
         }
 
         interface Defaults {
 
             int DATE_UTC_DEFAULT = 0;
             int ROOM_IDX_DEFAULT = 0;
+            int CHANGE_FLAGS_DEFAULT = 0;
         }
 
         interface Values {
@@ -1,5 +1,7 @@
 package info.metadude.android.eventfahrplan.database.models
 
+import info.metadude.android.eventfahrplan.database.contract.FahrplanContract
+
 /**
  * Database model representing a lecture, a workshop or any similar time-framed happening.
  */
@@ -30,24 +32,30 @@ data class Session(
         val type: String = "",
         val url: String = "",
 
-        val changedDay: Boolean = false,
-        val changedDuration: Boolean = false,
-        val changedIsCanceled: Boolean = false,
-        val changedIsNew: Boolean = false,
-        val changedLanguage: Boolean = false,
-        val changedRecordingOptOut: Boolean = false,
-        val changedRoom: Boolean = false,
-        val changedSpeakers: Boolean = false,
-        val changedSubtitle: Boolean = false,
-        val changedTime: Boolean = false,
-        val changedTitle: Boolean = false,
-        val changedTrack: Boolean = false
+        /**
+         * Bitmask composed of the CHANGED_* flags defined in the companion object.
+         * Persisted as a single column, see [FahrplanContract.SessionsTable.Columns.CHANGE_FLAGS].
+         */
+        val changeFlags: Int = 0
 
 ) {
 
     companion object {
         const val RECORDING_OPT_OUT_ON = true
         const val RECORDING_OPT_OUT_OFF = false
+
+        const val CHANGED_TITLE = 1
+        const val CHANGED_SUBTITLE = 1 shl 1
+        const val CHANGED_ROOM = 1 shl 2
+        const val CHANGED_DAY = 1 shl 3
+        const val CHANGED_SPEAKERS = 1 shl 4
+        const val CHANGED_RECORDING_OPTOUT = 1 shl 5
+        const val CHANGED_LANGUAGE = 1 shl 6
+        const val CHANGED_TRACK = 1 shl 7
+        const val CHANGED_IS_NEW = 1 shl 8
+        const val CHANGED_TIME = 1 shl 9
+        const val CHANGED_DURATION = 1 shl 10
+        const val CHANGED_IS_CANCELED = 1 shl 11
     }
 
 }
@@ -5,6 +5,7 @@ import android.database.Cursor
 import android.database.sqlite.SQLiteDatabase
 import android.database.sqlite.SQLiteException
 import android.util.Log
+import androidx.core.database.sqlite.transaction
 import info.metadude.android.eventfahrplan.database.contract.FahrplanContract.AlarmsTable
 import info.metadude.android.eventfahrplan.database.contract.FahrplanContract.AlarmsTable.Columns.*
 import info.metadude.android.eventfahrplan.database.extensions.*
@@ -33,9 +34,33 @@ class AlarmsDatabaseRepository(
         read(AlarmsTable.NAME, selection = "$SESSION_ID=?", selectionArgs = arrayOf(sessionId))
     }
 
-    private fun query(query: SQLiteDatabase.() -> Cursor): List<Alarm> {
-        val database = sqLiteOpenHelper.readableDatabase
+    /**
+     * Returns the alarm with the earliest time or `null` if there are no alarms.
+     * The alarm is looked up via the time index.
+     */
+    fun queryNext(): Alarm? = query {
+        read(AlarmsTable.NAME, orderBy = "$TIME, $ID", limit = "1")
+    }.firstOrNull()
+
+    /**
+     * Removes the alarms whose time is at or before the given [time] and returns them
+     * ordered by their time. Querying and deleting happens within a single transaction.
+     */
+    fun pollUntil(time: Long): List<Alarm> {
+        val database = sqLiteOpenHelper.writableDatabase
+        return database.transaction {
+            val alarms = queryAlarms(database) {
+                read(AlarmsTable.NAME, selection = "$TIME<=?", selectionArgs = arrayOf("$time"), orderBy = "$TIME, $ID")
+            }
+            delete(AlarmsTable.NAME, "$TIME<=?", arrayOf("$time"))
+            alarms
+        }
+    }
 
+    private fun query(query: SQLiteDatabase.() -> Cursor) =
+            queryAlarms(sqLiteOpenHelper.readableDatabase, query)
+
+    private fun queryAlarms(database: SQLiteDatabase, query: SQLiteDatabase.() -> Cursor): List<Alarm> {
         val cursor = try {
             database.query()
         } catch (e: SQLiteException) {
@@ -69,6 +94,13 @@ class AlarmsDatabaseRepository(
         delete(AlarmsTable.NAME, SESSION_ID, sessionId)
     }
 
+    /**
+     * Deletes the alarms whose time is at or before the given [time] with a single statement.
+     */
+    fun deleteUntil(time: Long) = delete {
+        delete(AlarmsTable.NAME, "$TIME<=?", arrayOf("$time"))
+    }
+
     private fun delete(query: SQLiteDatabase.() -> Int) =
             with(sqLiteOpenHelper) {
                 writableDatabase.delete(query)
@@ -6,21 +6,11 @@ import android.database.sqlite.SQLiteDatabase
 import android.database.sqlite.SQLiteException
 import androidx.core.database.sqlite.transaction
 import info.metadude.android.eventfahrplan.commons.logging.Logging
+import info.metadude.android.eventfahrplan.commons.logging.trace
 import info.metadude.android.eventfahrplan.database.contract.FahrplanContract.SessionByNotificationIdTable
 import info.metadude.android.eventfahrplan.database.contract.FahrplanContract.SessionsTable
 import info.metadude.android.eventfahrplan.database.contract.FahrplanContract.SessionsTable.Columns.ABSTRACT
-import info.metadude.android.eventfahrplan.database.contract.FahrplanContract.SessionsTable.Columns.CHANGED_DAY
-import info.metadude.android.eventfahrplan.database.contract.FahrplanContract.SessionsTable.Columns.CHANGED_DURATION
-import info.metadude.android.eventfahrplan.database.contract.FahrplanContract.SessionsTable.Columns.CHANGED_IS_CANCELED
-import info.metadude.android.eventfahrplan.database.contract.FahrplanContract.SessionsTable.Columns.CHANGED_IS_NEW
-import info.metadude.android.eventfahrplan.database.contract.FahrplanContract.SessionsTable.Columns.CHANGED_LANGUAGE
-import info.metadude.android.eventfahrplan.database.contract.FahrplanContract.SessionsTable.Columns.CHANGED_RECORDING_OPTOUT
-import info.metadude.android.eventfahrplan.database.contract.FahrplanContract.SessionsTable.Columns.CHANGED_ROOM
-import info.metadude.android.eventfahrplan.database.contract.FahrplanContract.SessionsTable.Columns.CHANGED_SPEAKERS
-import info.metadude.android.eventfahrplan.database.contract.FahrplanContract.SessionsTable.Columns.CHANGED_SUBTITLE
-import info.metadude.android.eventfahrplan.database.contract.FahrplanContract.SessionsTable.Columns.CHANGED_TIME
-import info.metadude.android.eventfahrplan.database.contract.FahrplanContract.SessionsTable.Columns.CHANGED_TITLE
-import info.metadude.android.eventfahrplan.database.contract.FahrplanContract.SessionsTable.Columns.CHANGED_TRACK
+import info.metadude.android.eventfahrplan.database.contract.FahrplanContract.SessionsTable.Columns.CHANGE_FLAGS
 import info.metadude.android.eventfahrplan.database.contract.FahrplanContract.SessionsTable.Columns.DATE
 import info.metadude.android.eventfahrplan.database.contract.FahrplanContract.SessionsTable.Columns.DATE_UTC
 import info.metadude.android.eventfahrplan.database.contract.FahrplanContract.SessionsTable.Columns.DAY
@@ -87,8 +77,9 @@ class SessionsDatabaseRepository(
     /**
      * Updates or inserts sessions based on the given [contentValuesBySessionId].
      */
-    fun upsertSessions(vararg contentValuesBySessionId: Pair</* sessionId */ String, ContentValues>) = with(sqLiteOpenHelper) {
-        writableDatabase.transaction {
+    fun upsertSessions(vararg contentValuesBySessionId: Pair</* sessionId */ String, ContentValues>) = logging.trace("SessionsDatabaseRepository.upsertSessions") {
+        logging.count("SessionsDatabaseRepository.upsertedSessions", contentValuesBySessionId.size.toLong())
+        sqLiteOpenHelper.writableDatabase.transaction {
             contentValuesBySessionId.forEach { (sessionId, contentValues) ->
                 upsertSession(sessionId, contentValues)
             }
@@ -117,6 +108,19 @@ class SessionsDatabaseRepository(
         }
     }
 
+    /**
+     * Deletes the sessions of the given [sessionIds]. Returns the number of deleted rows.
+     */
+    fun deleteSessions(vararg sessionIds: String): Int = logging.trace("SessionsDatabaseRepository.deleteSessions") {
+        var deletedRowsCount = 0
+        sqLiteOpenHelper.writableDatabase.transaction {
+            sessionIds.forEach { sessionId ->
+                deletedRowsCount += delete(SessionsTable.NAME, SESSION_ID, sessionId)
+            }
+        }
+        deletedRowsCount
+    }
+
     fun querySessionBySessionId(sessionId: String): Session {
         return try {
             query {
@@ -157,61 +161,51 @@ class SessionsDatabaseRepository(
         )
     }
 
-    private fun query(query: SQLiteDatabase.() -> Cursor): List<Session> = with(sqLiteOpenHelper.readableDatabase) {
-        val cursor = try {
-            query()
-        } catch (e: SQLiteException) {
-            e.printStackTrace()
-            return emptyList()
-        }
+    private fun query(query: SQLiteDatabase.() -> Cursor): List<Session> = logging.trace("SessionsDatabaseRepository.query") {
+        with(sqLiteOpenHelper.readableDatabase) {
+            val cursor = try {
+                query()
+            } catch (e: SQLiteException) {
+                e.printStackTrace()
+                return emptyList()
+            }
 
-        return cursor.map {
-            val recordingOptOut =
-                    if (cursor.getInt(REC_OPTOUT) == REC_OPT_OUT_OFF)
-                        Session.RECORDING_OPT_OUT_OFF
-                    else
-                        Session.RECORDING_OPT_OUT_ON
-
-            Session(
-                    sessionId = cursor.getString(SESSION_ID),
-                    abstractt = cursor.getString(ABSTRACT),
-                    date = cursor.getString(DATE),
-                    dateUTC = cursor.getLong(DATE_UTC),
-                    dayIndex = cursor.getInt(DAY),
-                    description = cursor.getString(DESCR),
-                    duration = cursor.getInt(DURATION),
-                    language = cursor.getString(LANG),
-                    links = cursor.getString(LINKS),
-                    recordingLicense = cursor.getString(REC_LICENSE),
-                    relativeStartTime = cursor.getInt(REL_START),
-                    room = cursor.getString(ROOM),
-                    roomIndex = cursor.getInt(ROOM_IDX),
-                    slug = cursor.getString(SLUG),
-                    speakers = cursor.getString(SPEAKERS),
-                    subtitle = cursor.getString(SUBTITLE),
-                    startTime = cursor.getInt(START),
-                    title = cursor.getString(TITLE),
-                    track = cursor.getString(TRACK),
-                    type = cursor.getString(TYPE),
-                    url = cursor.getString(URL),
-                    recordingOptOut = recordingOptOut,
-                    changedDay = cursor.getInt(CHANGED_DAY).isChanged,
-                    changedDuration = cursor.getInt(CHANGED_DURATION).isChanged,
-                    changedIsCanceled = cursor.getInt(CHANGED_IS_CANCELED).isChanged,
-                    changedIsNew = cursor.getInt(CHANGED_IS_NEW).isChanged,
-                    changedLanguage = cursor.getInt(CHANGED_LANGUAGE).isChanged,
-                    changedRecordingOptOut = cursor.getInt(CHANGED_RECORDING_OPTOUT).isChanged,
-                    changedRoom = cursor.getInt(CHANGED_ROOM).isChanged,
-                    changedSpeakers = cursor.getInt(CHANGED_SPEAKERS).isChanged,
-                    changedSubtitle = cursor.getInt(CHANGED_SUBTITLE).isChanged,
-                    changedTime = cursor.getInt(CHANGED_TIME).isChanged,
-                    changedTitle = cursor.getInt(CHANGED_TITLE).isChanged,
-                    changedTrack = cursor.getInt(CHANGED_TRACK).isChanged
-            )
+            // Low-cardinality values such as date, language, room, track and type are interned
+            // so that all sessions of a large schedule share a few dozen string instances.
+            return cursor.map {
+                val recordingOptOut =
+                        if (cursor.getInt(REC_OPTOUT) == REC_OPT_OUT_OFF)
+                            Session.RECORDING_OPT_OUT_OFF
+                        else
+                            Session.RECORDING_OPT_OUT_ON
+
+                Session(
+                        sessionId = cursor.getString(SESSION_ID),
+                        abstractt = cursor.getString(ABSTRACT),
+                        date = cursor.getString(DATE).intern(),
+                        dateUTC = cursor.getLong(DATE_UTC),
+                        dayIndex = cursor.getInt(DAY),
+                        description = cursor.getString(DESCR),
+                        duration = cursor.getInt(DURATION),
+                        language = cursor.getString(LANG).intern(),
+                        links = cursor.getString(LINKS),
+                        recordingLicense = cursor.getString(REC_LICENSE),
+                        relativeStartTime = cursor.getInt(REL_START),
+                        room = cursor.getString(ROOM).intern(),
+                        roomIndex = cursor.getInt(ROOM_IDX),
+                        slug = cursor.getString(SLUG),
+                        speakers = cursor.getString(SPEAKERS),
+                        subtitle = cursor.getString(SUBTITLE),
+                        startTime = cursor.getInt(START),
+                        title = cursor.getString(TITLE),
+                        track = cursor.getString(TRACK).intern(),
+                        type = cursor.getString(TYPE).intern(),
+                        url = cursor.getString(URL),
+                        recordingOptOut = recordingOptOut,
+                        changeFlags = cursor.getInt(CHANGE_FLAGS)
+                )
+            }
         }
     }
 
-    private val Int.isChanged
-        get() = this != 0
-
 }
@@ -10,7 +10,7 @@ import info.metadude.android.eventfahrplan.database.contract.FahrplanContract.Al
 
 public class AlarmsDBOpenHelper extends SQLiteOpenHelper {
 
-    private static final int DATABASE_VERSION = 4;
+    private static final int DATABASE_VERSION = 5;
 
     private static final String DATABASE_NAME = "alarms";
 
@@ -26,6 +26,11 @@ public class AlarmsDBOpenHelper extends SQLiteOpenHelper {
                     AlarmsTable.Columns.DISPLAY_TIME + " INTEGER," +
                     AlarmsTable.Columns.DAY + " INTEGER);";
 
+    // Keeps the alarms ordered by their time so that the earliest one is found without a table scan.
+    private static final String ALARMS_TIME_INDEX_CREATE =
+            "CREATE INDEX IF NOT EXISTS " + AlarmsTable.TIME_INDEX_NAME + " ON " +
+                    AlarmsTable.NAME + " (" + AlarmsTable.Columns.TIME + ");";
+
     public AlarmsDBOpenHelper(@NonNull Context context) {
         super(context.getApplicationContext(), DATABASE_NAME, null, DATABASE_VERSION);
     }
@@ -33,6 +38,7 @@ public class AlarmsDBOpenHelper extends SQLiteOpenHelper {
     @Override
     public void onCreate(SQLiteDatabase db) {
         db.execSQL(ALARMS_TABLE_CREATE);
+        db.execSQL(ALARMS_TIME_INDEX_CREATE);
     }
 
     @Override
@@ -52,5 +58,8 @@ public class AlarmsDBOpenHelper extends SQLiteOpenHelper {
             db.execSQL("DROP TABLE IF EXISTS " + AlarmsTable.NAME);
             onCreate(db);
         }
+        if (oldVersion < 5) {
+            db.execSQL(ALARMS_TIME_INDEX_CREATE);
+        }
     }
 }
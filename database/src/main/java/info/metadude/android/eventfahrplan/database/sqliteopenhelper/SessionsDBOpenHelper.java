@@ -12,10 +12,11 @@ import info.metadude.android.eventfahrplan.database.contract.FahrplanContract.Se
 import info.metadude.android.eventfahrplan.database.contract.FahrplanContract.SessionsTable.Columns;
 import info.metadude.android.eventfahrplan.database.contract.FahrplanContract.SessionsTable.Defaults;
 import info.metadude.android.eventfahrplan.database.contract.FahrplanContract.SessionsTable.Values;
+import info.metadude.android.eventfahrplan.database.models.Session;
 
 public class SessionsDBOpenHelper extends SQLiteOpenHelper {
 
-    private static final int DATABASE_VERSION = 10;
+    private static final int DATABASE_VERSION = 11;
 
     private static final String DATABASE_NAME = "lectures"; // Keep table name to avoid database migration.
 
@@ -43,18 +44,27 @@ public class SessionsDBOpenHelper extends SQLiteOpenHelper {
                     Columns.REC_LICENSE + " STRING, " +
                     Columns.REC_OPTOUT + " INTEGER," +
                     Columns.URL + " TEXT," +
-                    Columns.CHANGED_TITLE + " INTEGER," +
-                    Columns.CHANGED_SUBTITLE + " INTEGER," +
-                    Columns.CHANGED_ROOM + " INTEGER," +
-                    Columns.CHANGED_DAY + " INTEGER," +
-                    Columns.CHANGED_SPEAKERS + " INTEGER," +
-                    Columns.CHANGED_RECORDING_OPTOUT + " INTEGER," +
-                    Columns.CHANGED_LANGUAGE + " INTEGER," +
-                    Columns.CHANGED_TRACK + " INTEGER," +
-                    Columns.CHANGED_IS_NEW + " INTEGER," +
-                    Columns.CHANGED_TIME + " INTEGER," +
-                    Columns.CHANGED_DURATION + " INTEGER," +
-                    Columns.CHANGED_IS_CANCELED + " INTEGER)";
+                    Columns.CHANGE_FLAGS + " INTEGER DEFAULT " + Defaults.CHANGE_FLAGS_DEFAULT + ")";
+
+    /**
+     * Packs the former boolean CHANGED_* columns into the bitmask of the
+     * {@link Columns#CHANGE_FLAGS} column. The bit positions correspond to the
+     * CHANGED_* constants of the {@link Session} database model.
+     */
+    private static final String CHANGE_FLAGS_MIGRATION =
+            "UPDATE " + SessionsTable.NAME + " SET " + Columns.CHANGE_FLAGS + " = " +
+                    toFlag(Columns.CHANGED_TITLE, Session.CHANGED_TITLE) + " | " +
+                    toFlag(Columns.CHANGED_SUBTITLE, Session.CHANGED_SUBTITLE) + " | " +
+                    toFlag(Columns.CHANGED_ROOM, Session.CHANGED_ROOM) + " | " +
+                    toFlag(Columns.CHANGED_DAY, Session.CHANGED_DAY) + " | " +
+                    toFlag(Columns.CHANGED_SPEAKERS, Session.CHANGED_SPEAKERS) + " | " +
+                    toFlag(Columns.CHANGED_RECORDING_OPTOUT, Session.CHANGED_RECORDING_OPTOUT) + " | " +
+                    toFlag(Columns.CHANGED_LANGUAGE, Session.CHANGED_LANGUAGE) + " | " +
+                    toFlag(Columns.CHANGED_TRACK, Session.CHANGED_TRACK) + " | " +
+                    toFlag(Columns.CHANGED_IS_NEW, Session.CHANGED_IS_NEW) + " | " +
+                    toFlag(Columns.CHANGED_TIME, Session.CHANGED_TIME) + " | " +
+                    toFlag(Columns.CHANGED_DURATION, Session.CHANGED_DURATION) + " | " +
+                    toFlag(Columns.CHANGED_IS_CANCELED, Session.CHANGED_IS_CANCELED);
 
     /**
      * Create statement for a mapping table (notification ID, session ID). Each insert automatically
@@ -130,5 +140,15 @@ public class SessionsDBOpenHelper extends SQLiteOpenHelper {
         if (oldVersion < 10 && newVersion >= 10) {
             db.execSQL(SESSION_BY_NOTIFICATION_ID_TABLE_CREATE);
         }
+        // Tables older than version 9 have been recreated above and already contain the column.
+        if (oldVersion >= 9 && oldVersion < 11 && newVersion >= 11) {
+            db.execSQL("ALTER TABLE " + SessionsTable.NAME + " ADD COLUMN " + Columns.CHANGE_FLAGS +
+                    " INTEGER DEFAULT " + Defaults.CHANGE_FLAGS_DEFAULT);
+            db.execSQL(CHANGE_FLAGS_MIGRATION);
+        }
+    }
+
+    private static String toFlag(@NonNull String columnName, int flag) {
+        return "(CASE WHEN IFNULL(" + columnName + ", 0) != 0 THEN " + flag + " ELSE 0 END)";
     }
 }
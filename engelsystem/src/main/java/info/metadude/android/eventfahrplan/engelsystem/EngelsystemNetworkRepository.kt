@@ -1,27 +1,77 @@
 package info.metadude.android.eventfahrplan.engelsystem
 
+import info.metadude.android.eventfahrplan.engelsystem.loading.ConditionalRequestInterceptor
 import info.metadude.android.eventfahrplan.engelsystem.loading.ShiftsLoading.awaitShiftsResult
 import info.metadude.android.eventfahrplan.engelsystem.models.ShiftsResult
+import info.metadude.android.eventfahrplan.engelsystem.models.ShiftsValidators
 import info.metadude.android.eventfahrplan.engelsystem.utils.UriParser
 import info.metadude.kotlin.library.engelsystem.ApiModule
+import info.metadude.kotlin.library.engelsystem.EngelsystemService
 import okhttp3.OkHttpClient
 import java.net.URISyntaxException
 
 class EngelsystemNetworkRepository(
 
-        private val uriParser: UriParser = UriParser()
+        private val uriParser: UriParser = UriParser(),
+        private val provideService: (baseUrl: String, okHttpClient: OkHttpClient) -> EngelsystemService =
+                ApiModule::provideEngelsystemService
 
 ) {
 
-    suspend fun load(okHttpClient: OkHttpClient, url: String) = try {
+    private val conditionalRequestInterceptor = ConditionalRequestInterceptor()
+
+    private var service: EngelsystemService? = null
+    private var serviceBaseUrl: String? = null
+    private var serviceOkHttpClient: OkHttpClient? = null
+
+    /**
+     * Loads the shifts from the given [url]. The request is conditional on the given [validators]
+     * of a previous response. [ShiftsResult.NotModified] is returned if the shifts are unchanged.
+     * A [ShiftsResult.Success] carries the validators of its response.
+     */
+    suspend fun load(okHttpClient: OkHttpClient,
+                     url: String,
+                     validators: ShiftsValidators = ShiftsValidators.NONE
+    ): ShiftsResult = try {
         val uri = uriParser.parseUri(url)
-        val service = ApiModule.provideEngelsystemService(uri.baseUrl, okHttpClient)
+        val service = getService(uri.baseUrl, okHttpClient)
         val call = service.getShifts(uri.pathPart, uri.apiKey)
-        call.awaitShiftsResult()
+        val requestUrl = call.request().url()
+        val conditionalRequest = conditionalRequestInterceptor.register(requestUrl, validators)
+        try {
+            when (val result = call.awaitShiftsResult()) {
+                is ShiftsResult.Success -> result.copy(validators = conditionalRequest.responseValidators)
+                else -> result
+            }
+        } finally {
+            conditionalRequestInterceptor.unregister(requestUrl)
+        }
     } catch (e: URISyntaxException) {
         ShiftsResult.Exception(e)
     } catch (e: IllegalArgumentException) {
         ShiftsResult.Exception(e)
     }
 
+    /**
+     * Returns the service of the previous request if neither the [baseUrl] nor the [okHttpClient]
+     * have changed. Creating the Retrofit instance and the service proxy is skipped then.
+     * The client of the service shares the connections of the given [okHttpClient].
+     */
+    @Synchronized
+    private fun getService(baseUrl: String, okHttpClient: OkHttpClient): EngelsystemService {
+        val cachedService = service
+        if (cachedService != null && baseUrl == serviceBaseUrl && okHttpClient === serviceOkHttpClient) {
+            return cachedService
+        }
+        val conditionalOkHttpClient = okHttpClient.newBuilder()
+                // Outermost so that the content hash covers the decoded body, not the wire bytes.
+                .apply { interceptors().add(0, conditionalRequestInterceptor) }
+                .build()
+        return provideService(baseUrl, conditionalOkHttpClient).also {
+            service = it
+            serviceBaseUrl = baseUrl
+            serviceOkHttpClient = okHttpClient
+        }
+    }
+
 }
@@ -0,0 +1,84 @@
+package info.metadude.android.eventfahrplan.engelsystem.loading
+
+import info.metadude.android.eventfahrplan.commons.http.ETags
+import info.metadude.android.eventfahrplan.engelsystem.models.ShiftsValidators
+import okhttp3.HttpUrl
+import okhttp3.Interceptor
+import okhttp3.Response
+import okhttp3.ResponseBody
+import okio.ByteString
+import java.net.HttpURLConnection
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * Makes requests to URLs which have been [registered][register] with validators conditional.
+ *
+ * Successful responses whose ETag or content hash matches the registered validators are
+ * replaced with an empty "304 Not Modified" response. Their body is not passed on to the
+ * converter then. The validators of other successful responses are stored in the
+ * [ConditionalRequest] of their URL.
+ *
+ * The interceptor must be the outermost one of its client. The content hash is then computed
+ * from the body which inner interceptors, e.g. for compression, have already decoded.
+ */
+internal class ConditionalRequestInterceptor : Interceptor {
+
+    class ConditionalRequest(val validators: ShiftsValidators) {
+
+        @Volatile
+        var responseValidators = ShiftsValidators.NONE
+            internal set
+
+    }
+
+    private val conditionalRequestsByUrl = ConcurrentHashMap<HttpUrl, ConditionalRequest>()
+
+    /**
+     * Registers the given [validators] for requests to the given [url] until the returned
+     * request is [unregistered][unregister].
+     */
+    fun register(url: HttpUrl, validators: ShiftsValidators) = ConditionalRequest(validators).also {
+        conditionalRequestsByUrl[url] = it
+    }
+
+    fun unregister(url: HttpUrl) {
+        conditionalRequestsByUrl.remove(url)
+    }
+
+    override fun intercept(chain: Interceptor.Chain): Response {
+        val request = chain.request()
+        val conditionalRequest = conditionalRequestsByUrl[request.url()] ?: return chain.proceed(request)
+        val validators = conditionalRequest.validators
+        val requestBuilder = request.newBuilder()
+        if (validators.eTag.isNotEmpty()) {
+            requestBuilder.header("If-None-Match", validators.eTag)
+        }
+        if (validators.lastModified.isNotEmpty()) {
+            requestBuilder.header("If-Modified-Since", validators.lastModified)
+        }
+        val response = chain.proceed(requestBuilder.build())
+        val body = response.body()
+        if (response.code() != HttpURLConnection.HTTP_OK || body == null) {
+            return response
+        }
+        val eTag = response.header("ETag").orEmpty()
+        val bytes = body.bytes()
+        val contentHash = ByteString.of(*bytes).sha256().hex()
+        if (ETags.weaklyMatches(eTag, validators.eTag) || contentHash == validators.contentHash) {
+            return response.newBuilder()
+                    .code(HttpURLConnection.HTTP_NOT_MODIFIED)
+                    .message("Not Modified")
+                    .body(ResponseBody.create(body.contentType(), ByteArray(0)))
+                    .build()
+        }
+        conditionalRequest.responseValidators = ShiftsValidators(
+                eTag = eTag,
+                lastModified = response.header("Last-Modified").orEmpty(),
+                contentHash = contentHash
+        )
+        return response.newBuilder()
+                .body(ResponseBody.create(body.contentType(), bytes))
+                .build()
+    }
+
+}
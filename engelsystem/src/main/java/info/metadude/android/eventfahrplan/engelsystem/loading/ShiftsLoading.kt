@@ -5,6 +5,7 @@ import info.metadude.kotlin.library.engelsystem.models.Shift
 import retrofit2.Call
 import retrofit2.Response
 import retrofit2.awaitResponse
+import java.net.HttpURLConnection
 
 internal object ShiftsLoading {
 
@@ -21,10 +22,13 @@ internal object ShiftsLoading {
 
     /**
      * Converts the receiver into a [ShiftsResult] inspecting the [Response.body]
-     * and [Response.message].
+     * and [Response.message]. "304 Not Modified" responses are converted into
+     * [ShiftsResult.NotModified].
      */
     // Visible for testing
-    fun Response<List<Shift>>.toShiftsResult() = if (isSuccessful) {
+    fun Response<List<Shift>>.toShiftsResult() = if (code() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+        ShiftsResult.NotModified
+    } else if (isSuccessful) {
         val shifts = body()
         if (shifts == null) {
             ShiftsResult.Exception.MissingResponseSuccessBody
@@ -4,7 +4,21 @@ import info.metadude.kotlin.library.engelsystem.models.Shift
 
 sealed class ShiftsResult {
 
-    data class Success(val shifts: List<Shift>) : ShiftsResult()
+    data class Success(
+
+            val shifts: List<Shift>,
+            val validators: ShiftsValidators = ShiftsValidators.NONE
+
+    ) : ShiftsResult()
+
+    /**
+     * The shifts are unchanged compared to the response of the validators which have been
+     * sent with the request. The response body has not been deserialized.
+     */
+    object NotModified : ShiftsResult() {
+        override fun toString() = "NotModified"
+    }
+
     data class Error(val httpStatusCode: Int, val exceptionMessage: String) : ShiftsResult()
 
     open class Exception(val throwable: Throwable) : ShiftsResult() {
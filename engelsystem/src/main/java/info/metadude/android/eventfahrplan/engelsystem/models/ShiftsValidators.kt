@@ -0,0 +1,23 @@
+package info.metadude.android.eventfahrplan.engelsystem.models
+
+/**
+ * Validators of a shifts response which make the next request conditional.
+ *
+ * [eTag] and [lastModified] are sent as the "If-None-Match" and "If-Modified-Since" headers.
+ * [contentHash] identifies the response body for servers which send neither of them.
+ * Empty values are ignored.
+ */
+data class ShiftsValidators(
+
+        val eTag: String = "",
+        val lastModified: String = "",
+        val contentHash: String = ""
+
+) {
+
+    companion object {
+        @JvmField
+        val NONE = ShiftsValidators()
+    }
+
+}
@@ -0,0 +1,188 @@
+package info.metadude.android.eventfahrplan.engelsystem
+
+import com.google.common.truth.Truth.assertThat
+import com.squareup.moshi.Moshi
+import info.metadude.android.eventfahrplan.engelsystem.models.ShiftsResult
+import info.metadude.android.eventfahrplan.engelsystem.models.ShiftsValidators
+import info.metadude.kotlin.library.engelsystem.EngelsystemService
+import kotlinx.coroutines.runBlocking
+import okhttp3.Interceptor
+import okhttp3.OkHttpClient
+import okhttp3.ResponseBody
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.MockWebServer
+import okio.Buffer
+import okio.GzipSink
+import okio.GzipSource
+import okio.Okio
+import org.junit.After
+import org.junit.Before
+import org.junit.Test
+import retrofit2.Retrofit
+import retrofit2.converter.moshi.MoshiConverterFactory
+
+class EngelsystemNetworkRepositoryTest {
+
+    private companion object {
+        const val LAST_MODIFIED = "Sat, 28 Dec 2019 10:00:00 GMT"
+        // SHA-256 of "[]"
+        const val EMPTY_ARRAY_SHA_256 = "4f53cda18c2baa0c0354bb5f9a3ecbe5ed12ab4d8e11ba873c2f11161202b945"
+    }
+
+    private lateinit var mockWebServer: MockWebServer
+
+    private var providedServicesCount = 0
+
+    private val repository = EngelsystemNetworkRepository(provideService = { baseUrl, okHttpClient ->
+        providedServicesCount++
+        Retrofit.Builder()
+                .baseUrl(baseUrl)
+                .client(okHttpClient)
+                .addConverterFactory(MoshiConverterFactory.create(Moshi.Builder().build()))
+                .build()
+                .create(EngelsystemService::class.java)
+    })
+
+    @Before
+    fun setUp() {
+        mockWebServer = MockWebServer()
+        mockWebServer.start()
+    }
+
+    @After
+    fun tearDown() {
+        mockWebServer.shutdown()
+    }
+
+    @Test
+    fun `load reuses the service and the connection of the same client`() {
+        val okHttpClient = OkHttpClient()
+        val firstResult = loadShifts(okHttpClient)
+        val secondResult = loadShifts(okHttpClient)
+
+        assertThat(firstResult).isInstanceOf(ShiftsResult.Success::class.java)
+        assertThat(secondResult).isInstanceOf(ShiftsResult.Success::class.java)
+        assertThat(providedServicesCount).isEqualTo(1)
+        assertThat(mockWebServer.takeRequest().sequenceNumber).isEqualTo(0)
+        // The second request has been sent over the connection of the first one.
+        assertThat(mockWebServer.takeRequest().sequenceNumber).isEqualTo(1)
+    }
+
+    @Test
+    fun `load provides a new service for another client`() {
+        loadShifts(OkHttpClient())
+        loadShifts(OkHttpClient())
+
+        assertThat(providedServicesCount).isEqualTo(2)
+    }
+
+    @Test
+    fun `load returns the validators of the response`() {
+        mockWebServer.enqueue(MockResponse()
+                .addHeader("Content-Type", "application/json")
+                .addHeader("ETag", "\"abc\"")
+                .addHeader("Last-Modified", LAST_MODIFIED)
+                .setBody("[]"))
+
+        val result = runBlocking { repository.load(OkHttpClient(), shiftsUrl) }
+
+        assertThat(result).isInstanceOf(ShiftsResult.Success::class.java)
+        val validators = (result as ShiftsResult.Success).validators
+        assertThat(validators.eTag).isEqualTo("\"abc\"")
+        assertThat(validators.lastModified).isEqualTo(LAST_MODIFIED)
+        assertThat(validators.contentHash).isEqualTo(EMPTY_ARRAY_SHA_256)
+        assertThat(mockWebServer.takeRequest().getHeader("If-None-Match")).isNull()
+    }
+
+    @Test
+    fun `load sends the given validators and returns not modified for HTTP 304`() {
+        mockWebServer.enqueue(MockResponse().setResponseCode(304))
+        val validators = ShiftsValidators(eTag = "\"abc\"", lastModified = LAST_MODIFIED)
+
+        val result = runBlocking { repository.load(OkHttpClient(), shiftsUrl, validators) }
+
+        assertThat(result).isEqualTo(ShiftsResult.NotModified)
+        val request = mockWebServer.takeRequest()
+        assertThat(request.getHeader("If-None-Match")).isEqualTo("\"abc\"")
+        assertThat(request.getHeader("If-Modified-Since")).isEqualTo(LAST_MODIFIED)
+    }
+
+    @Test
+    fun `load returns not modified if the content hash of the response is unchanged`() {
+        mockWebServer.enqueue(MockResponse()
+                .addHeader("Content-Type", "application/json")
+                .setBody("[]"))
+        val validators = ShiftsValidators(contentHash = EMPTY_ARRAY_SHA_256)
+
+        val result = runBlocking { repository.load(OkHttpClient(), shiftsUrl, validators) }
+
+        assertThat(result).isEqualTo(ShiftsResult.NotModified)
+    }
+
+    @Test
+    fun `load returns not modified if the server ignores the condition but sends the same ETag`() {
+        mockWebServer.enqueue(MockResponse()
+                .addHeader("Content-Type", "application/json")
+                .addHeader("ETag", "W/\"abc\"")
+                .setBody("[]"))
+        val validators = ShiftsValidators(eTag = "\"abc\"")
+
+        val result = runBlocking { repository.load(OkHttpClient(), shiftsUrl, validators) }
+
+        assertThat(result).isEqualTo(ShiftsResult.NotModified)
+    }
+
+    @Test
+    fun `load returns the shifts if the content hash of the response has changed`() {
+        mockWebServer.enqueue(MockResponse()
+                .addHeader("Content-Type", "application/json")
+                .setBody("[]"))
+        val validators = ShiftsValidators(contentHash = "outdated")
+
+        val result = runBlocking { repository.load(OkHttpClient(), shiftsUrl, validators) }
+
+        assertThat(result).isEqualTo(ShiftsResult.Success(emptyList(), ShiftsValidators(contentHash = EMPTY_ARRAY_SHA_256)))
+    }
+
+    @Test
+    fun `load computes the content hash of the body which the client has decoded`() {
+        mockWebServer.enqueue(MockResponse()
+                .addHeader("Content-Type", "application/json")
+                .addHeader("Content-Encoding", "gzip")
+                .setBody(gzip("[]")))
+        val okHttpClient = OkHttpClient.Builder()
+                .addInterceptor(gzipDecodingInterceptor)
+                .build()
+
+        val result = runBlocking { repository.load(okHttpClient, shiftsUrl) }
+
+        assertThat(result).isEqualTo(ShiftsResult.Success(emptyList(), ShiftsValidators(contentHash = EMPTY_ARRAY_SHA_256)))
+    }
+
+    private val shiftsUrl
+        get() = mockWebServer.url("/test/shifts-json-export?key=secret").toString()
+
+    private fun loadShifts(okHttpClient: OkHttpClient): ShiftsResult {
+        mockWebServer.enqueue(MockResponse()
+                .addHeader("Content-Type", "application/json")
+                .setBody("[]"))
+        return runBlocking { repository.load(okHttpClient, shiftsUrl) }
+    }
+
+    private val gzipDecodingInterceptor = Interceptor { chain ->
+        val request = chain.request().newBuilder()
+                .header("Accept-Encoding", "gzip")
+                .build()
+        val response = chain.proceed(request)
+        val body = response.body()!!
+        response.newBuilder()
+                .removeHeader("Content-Encoding")
+                .body(ResponseBody.create(body.contentType(), -1L, Okio.buffer(GzipSource(body.source()))))
+                .build()
+    }
+
+    private fun gzip(content: String) = Buffer().also { buffer ->
+        Okio.buffer(GzipSink(buffer)).use { it.writeUtf8(content) }
+    }
+
+}
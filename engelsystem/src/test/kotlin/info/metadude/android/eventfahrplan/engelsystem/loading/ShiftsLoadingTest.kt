@@ -136,6 +136,13 @@ class ShiftsLoadingTest {
         assertThat(shiftsResult).isEqualTo(ShiftsResult.Success(EXPECTED_ONE_ITEM_SHIFTS))
     }
 
+    @Test
+    fun `awaitShiftsResult returns not modified when call responds with HTTP 304`() = runBlocking {
+        val call = performHttpRequest(HttpURLConnection.HTTP_NOT_MODIFIED, EMPTY_STRING)
+        val shiftsResult = call.awaitShiftsResult()
+        assertThat(shiftsResult).isEqualTo(ShiftsResult.NotModified)
+    }
+
     @Test
     fun `awaitShiftsResult returns error when call responds with HTTP 300`() = runBlocking {
         val call = performHttpRequest(HttpURLConnection.HTTP_MULT_CHOICE)
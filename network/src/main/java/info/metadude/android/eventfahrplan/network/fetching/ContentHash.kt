@@ -0,0 +1,31 @@
+package info.metadude.android.eventfahrplan.network.fetching
+
+import java.security.MessageDigest
+
+/**
+ * Hash of a response body. Servers and mirrors which neither send stable ETags nor
+ * a Last-Modified date answer every request with the full schedule. Comparing the hash
+ * with the one of the last imported schedule allows to skip parsing identical content.
+ */
+object ContentHash {
+
+    private const val ALGORITHM = "SHA-256"
+
+    private val HEX_DIGITS = "0123456789abcdef".toCharArray()
+
+    /**
+     * Returns the hex encoded SHA-256 hash of the UTF-8 bytes of the given [content].
+     */
+    @JvmStatic
+    fun of(content: String): String {
+        val digest = MessageDigest.getInstance(ALGORITHM).digest(content.toByteArray(Charsets.UTF_8))
+        val hex = CharArray(digest.size * 2)
+        digest.forEachIndexed { index, byte ->
+            val value = byte.toInt() and 0xFF
+            hex[index * 2] = HEX_DIGITS[value ushr 4]
+            hex[index * 2 + 1] = HEX_DIGITS[value and 0x0F]
+        }
+        return String(hex)
+    }
+
+}
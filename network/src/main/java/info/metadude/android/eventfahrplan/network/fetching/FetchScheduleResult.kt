@@ -1,11 +1,46 @@
 package info.metadude.android.eventfahrplan.network.fetching
 
+/**
+ * Result of a schedule download. [scheduleXml] holds the response body which is either
+ * a frab XML or a frab JSON schedule, see ScheduleFormat.
+ *
+ * [eTag] and [lastModified] hold the validators of the response to be sent with the next request.
+ * [contentHash] identifies the response body independent of the validators, see [ContentHash].
+ * [httpStatusCode] holds the status code of the response or [NO_HTTP_STATUS_CODE] if the
+ * request failed before a response has been received.
+ */
 data class FetchScheduleResult(
 
         val httpStatus: HttpStatus,
         val scheduleXml: String = "",
         val eTag: String = "",
+        val lastModified: String = "",
+        val contentHash: String = "",
         val hostName: String,
-        val exceptionMessage: String = ""
+        val exceptionMessage: String = "",
+        val httpStatusCode: Int = NO_HTTP_STATUS_CODE
 
-)
+) {
+
+    companion object {
+        const val NO_HTTP_STATUS_CODE = 0
+
+        private val TRANSIENT_IO_HTTP_STATUSES = setOf(
+                HttpStatus.HTTP_CONNECT_TIMEOUT,
+                HttpStatus.HTTP_COULD_NOT_CONNECT
+        )
+    }
+
+    /**
+     * Returns true if the download failed for a reason which might go away by retrying soon:
+     * a connection failure or timeout, a request timeout (408), too many requests (429)
+     * or a server error (5xx). Other client errors such as 400, 403 or 410 are permanent.
+     */
+    val isTransientFailure
+        get() = if (httpStatusCode == NO_HTTP_STATUS_CODE) {
+            httpStatus in TRANSIENT_IO_HTTP_STATUSES
+        } else {
+            httpStatusCode == 408 || httpStatusCode == 429 || httpStatusCode in 500..599
+        }
+
+}
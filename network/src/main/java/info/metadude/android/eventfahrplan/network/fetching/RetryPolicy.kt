@@ -0,0 +1,58 @@
+package info.metadude.android.eventfahrplan.network.fetching
+
+import kotlinx.coroutines.delay
+import kotlin.math.min
+import kotlin.math.pow
+import kotlin.random.Random
+
+/**
+ * Repeats an operation whose result is transient with an exponentially growing delay.
+ *
+ * The delay before the n-th retry is [initialDelayMillis] * [multiplier]^(n-1), capped at
+ * [maxDelayMillis]. A random share of up to [jitter] of it is subtracted so that clients
+ * which failed at the same time do not retry at the same time.
+ * The operation is invoked at most [maxAttempts] times.
+ */
+class RetryPolicy(
+
+        val maxAttempts: Int = 4,
+        val initialDelayMillis: Long = 1_000,
+        val maxDelayMillis: Long = 30_000,
+        val multiplier: Double = 2.0,
+        val jitter: Double = 0.5,
+        private val random: Random = Random.Default
+
+) {
+
+    init {
+        require(maxAttempts > 0) { "maxAttempts must be positive but is $maxAttempts." }
+        require(jitter in 0.0..1.0) { "jitter must be within 0 and 1 but is $jitter." }
+    }
+
+    /**
+     * Returns the delay before the given [retry] which starts at 1.
+     */
+    fun delayMillis(retry: Int): Long {
+        val exponentialDelay = min(maxDelayMillis.toDouble(), initialDelayMillis * multiplier.pow(retry - 1))
+        return (exponentialDelay * (1 - jitter * random.nextDouble())).toLong()
+    }
+
+    /**
+     * Invokes the given [operation] until [isTransient] returns false for its result
+     * or until [maxAttempts] is reached. Returns the last result.
+     * The attempt starting at 1 is passed to the [operation].
+     * Waiting for the next attempt is cancellable.
+     */
+    suspend fun <T> retry(isTransient: (result: T) -> Boolean, operation: suspend (attempt: Int) -> T): T {
+        var attempt = 1
+        while (true) {
+            val result = operation(attempt)
+            if (attempt == maxAttempts || !isTransient(result)) {
+                return result
+            }
+            delay(delayMillis(attempt))
+            attempt++
+        }
+    }
+
+}
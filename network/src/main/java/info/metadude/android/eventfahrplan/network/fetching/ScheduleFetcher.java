@@ -0,0 +1,212 @@
+package info.metadude.android.eventfahrplan.network.fetching;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.net.UnknownServiceException;
+
+import javax.net.ssl.SSLException;
+
+import info.metadude.android.eventfahrplan.commons.http.ETags;
+import info.metadude.android.eventfahrplan.commons.logging.Logging;
+import okhttp3.Call;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Downloads a schedule. This class does not depend on the Android framework,
+ * messages are written to the given {@link Logging}.
+ * See ScheduleNetworkRepository for the cancellable, retrying variant.
+ */
+public class ScheduleFetcher {
+
+    private static final String LOG_TAG = "FetchFahrplan";
+
+    private static final String EMPTY_RESPONSE_STRING = "";
+
+    /**
+     * Prefers the frab JSON schedule if the server offers content negotiation.
+     * The response format is detected from the body, see ScheduleFormat.
+     */
+    private static final String ACCEPT_SCHEDULE_FORMATS =
+            "application/json, application/xml;q=0.9, text/xml;q=0.9, */*;q=0.8";
+
+    private final OkHttpClient okHttpClient;
+
+    private final Logging logging;
+
+    public ScheduleFetcher(@NonNull OkHttpClient okHttpClient, @NonNull Logging logging) {
+        this.okHttpClient = okHttpClient;
+        this.logging = logging;
+    }
+
+    /**
+     * Fetches the schedule from the given {@code url}. The given {@code eTag} is sent
+     * as the "If-None-Match" header unless it is empty.
+     */
+    @NonNull
+    public FetchScheduleResult fetch(@NonNull String url, @NonNull String eTag) {
+        return fetch(url, eTag, "");
+    }
+
+    /**
+     * Fetches the schedule from the given {@code url}. The given {@code eTag} is sent
+     * as the "If-None-Match" header, the given {@code lastModified} date as the
+     * "If-Modified-Since" header unless they are empty.
+     * <p>
+     * A successful response whose ETag weakly matches the given {@code eTag} is reported
+     * as {@link HttpStatus#HTTP_NOT_MODIFIED}. Some servers send weak ETags but only
+     * compare strong ones. The body of other successful responses is hashed, see
+     * {@link FetchScheduleResult#getContentHash()}.
+     */
+    @NonNull
+    public FetchScheduleResult fetch(@NonNull String url, @NonNull String eTag, @NonNull String lastModified) {
+        Call call = newCall(url, eTag, lastModified);
+        Response response;
+        try {
+            response = call.execute();
+        } catch (IOException e) {
+            return toResult(call, e);
+        }
+        return toResult(call, response, eTag);
+    }
+
+    /**
+     * Creates the call which fetches the schedule from the given {@code url}
+     * without executing it, see {@link #fetch(String, String, String)}.
+     * The outcome of the call is converted via the {@code toResult} methods.
+     */
+    @NonNull
+    public Call newCall(@NonNull String url, @NonNull String eTag, @NonNull String lastModified) {
+        logging.d(LOG_TAG, url);
+        logging.d(LOG_TAG, "ETag: " + eTag + ", Last-Modified: " + lastModified);
+        Request.Builder requestBuilder = new Request.Builder()
+                .url(url)
+                .addHeader("Accept", ACCEPT_SCHEDULE_FORMATS);
+
+        if (!eTag.isEmpty()) {
+            requestBuilder.addHeader("If-None-Match", eTag);
+        }
+        if (!lastModified.isEmpty()) {
+            requestBuilder.addHeader("If-Modified-Since", lastModified);
+        }
+        return okHttpClient.newCall(requestBuilder.build());
+    }
+
+    /**
+     * Converts the given {@code exception} of a failed {@code call} into a result.
+     */
+    @NonNull
+    public FetchScheduleResult toResult(@NonNull Call call, @NonNull IOException exception) {
+        String host = call.request().url().host();
+        if (exception instanceof SocketTimeoutException) {
+            return failure(HttpStatus.HTTP_CONNECT_TIMEOUT, host);
+        }
+        exception.printStackTrace();
+        if (exception instanceof SSLException) {
+            return failure(HttpStatus.HTTP_LOGIN_FAIL_UNTRUSTED_CERTIFICATE, host, getExceptionMessage((SSLException) exception));
+        }
+        if (exception instanceof UnknownHostException) {
+            return failure(HttpStatus.HTTP_DNS_FAILURE, host);
+        }
+        if (exception instanceof UnknownServiceException) {
+            return failure(HttpStatus.HTTP_CLEARTEXT_NOT_PERMITTED, host);
+        }
+        return failure(HttpStatus.HTTP_COULD_NOT_CONNECT, host);
+    }
+
+    /**
+     * Converts the {@code response} of the given {@code call} into a result.
+     * The given {@code eTag} is the one which has been sent with the request.
+     */
+    @NonNull
+    public FetchScheduleResult toResult(@NonNull Call call, @NonNull Response response, @NonNull String eTag) {
+        String host = call.request().url().host();
+        int statusCode = response.code();
+        if (statusCode != 200) {
+            // Release the connection so that the connection pool can reuse it.
+            response.close();
+        }
+
+        if (statusCode == 304) {
+            return failure(HttpStatus.HTTP_NOT_MODIFIED, host, statusCode);
+        }
+
+        if (statusCode != 200) {
+            logging.e(LOG_TAG, "Error " + statusCode + " while retrieving XML data");
+            if (statusCode == 401) {
+                return failure(HttpStatus.HTTP_WRONG_HTTP_CREDENTIALS, host, statusCode);
+            }
+            if (statusCode == 404) {
+                return failure(HttpStatus.HTTP_NOT_FOUND, host, statusCode);
+            }
+            // The status code tells transient from permanent failures, see FetchScheduleResult.
+            return failure(HttpStatus.HTTP_COULD_NOT_CONNECT, host, statusCode);
+        }
+
+        String responseETag = response.header("ETag");
+        responseETag = responseETag == null ? "" : responseETag;
+        if (!responseETag.isEmpty()) {
+            logging.d(LOG_TAG, "ETag: " + responseETag);
+        } else {
+            logging.d(LOG_TAG, "ETag missing?");
+        }
+        if (ETags.weaklyMatches(responseETag, eTag)) {
+            logging.d(LOG_TAG, "ETag matches, request condition has been ignored.");
+            response.close();
+            return failure(HttpStatus.HTTP_NOT_MODIFIED, host, statusCode);
+        }
+        String responseLastModified = response.header("Last-Modified");
+        responseLastModified = responseLastModified == null ? "" : responseLastModified;
+
+        String responseString;
+        try {
+            responseString = response.body().string();
+        } catch (IOException e) {
+            return new FetchScheduleResult(HttpStatus.HTTP_CANNOT_PARSE_CONTENT, EMPTY_RESPONSE_STRING, responseETag, responseLastModified, "", host, "", statusCode);
+        }
+
+        logging.d(LOG_TAG, "fetch done successfully");
+        String contentHash = ContentHash.of(responseString);
+        return new FetchScheduleResult(HttpStatus.HTTP_OK, responseString, responseETag, responseLastModified, contentHash, host, "", statusCode);
+    }
+
+    private FetchScheduleResult failure(@NonNull HttpStatus status, @NonNull String host) {
+        return failure(status, host, "");
+    }
+
+    private FetchScheduleResult failure(@NonNull HttpStatus status, @NonNull String host, int httpStatusCode) {
+        return failure(status, host, "", httpStatusCode);
+    }
+
+    private FetchScheduleResult failure(@NonNull HttpStatus status, @NonNull String host, @NonNull String exceptionMessage) {
+        return failure(status, host, exceptionMessage, FetchScheduleResult.NO_HTTP_STATUS_CODE);
+    }
+
+    private FetchScheduleResult failure(@NonNull HttpStatus status,
+                                        @NonNull String host,
+                                        @NonNull String exceptionMessage,
+                                        int httpStatusCode) {
+        logging.d(LOG_TAG, "fetch failed");
+        return new FetchScheduleResult(status, EMPTY_RESPONSE_STRING, "", "", "", host, exceptionMessage, httpStatusCode);
+    }
+
+    @NonNull
+    private static String getExceptionMessage(@NonNull SSLException exception) {
+        String message;
+        if (exception.getCause() == null) {
+            message = exception.getMessage();
+        } else {
+            if (exception.getCause().getCause() == null) {
+                message = exception.getCause().getMessage();
+            } else {
+                message = exception.getCause().getCause().getMessage();
+            }
+        }
+        return message == null ? "" : message;
+    }
+
+}
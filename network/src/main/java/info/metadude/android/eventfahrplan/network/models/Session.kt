@@ -1,10 +1,10 @@
 package info.metadude.android.eventfahrplan.network.models
 
-import info.metadude.android.eventfahrplan.network.serialization.FahrplanParser
+import info.metadude.android.eventfahrplan.network.serialization.ScheduleParser
 
 /**
  * Network model representing a lecture, a workshop or any similar time-framed happening.
- * Values in this class are parsed from a schedule XML file via [FahrplanParser].
+ * Values in this class are parsed from a schedule XML file via [ScheduleParser].
  */
 data class Session(
 
@@ -1,36 +1,131 @@
 package info.metadude.android.eventfahrplan.network.repositories
 
-import info.metadude.android.eventfahrplan.network.fetching.FetchFahrplan
+import android.util.Xml
+import info.metadude.android.eventfahrplan.commons.logging.Logging
 import info.metadude.android.eventfahrplan.network.fetching.FetchScheduleResult
-import info.metadude.android.eventfahrplan.network.models.Session
+import info.metadude.android.eventfahrplan.network.fetching.HttpStatus
+import info.metadude.android.eventfahrplan.network.fetching.RetryPolicy
+import info.metadude.android.eventfahrplan.network.fetching.ScheduleFetcher
 import info.metadude.android.eventfahrplan.network.models.Meta
-import info.metadude.android.eventfahrplan.network.serialization.FahrplanParser
+import info.metadude.android.eventfahrplan.network.models.Session
+import info.metadude.android.eventfahrplan.network.serialization.ScheduleParser
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.async
+import kotlinx.coroutines.channels.Channel
+import kotlinx.coroutines.channels.consumeEach
+import kotlinx.coroutines.coroutineScope
+import kotlinx.coroutines.isActive
+import kotlinx.coroutines.runBlocking
+import kotlinx.coroutines.suspendCancellableCoroutine
+import kotlinx.coroutines.withTimeoutOrNull
+import okhttp3.Call
+import okhttp3.Callback
+import okhttp3.HttpUrl
 import okhttp3.OkHttpClient
+import okhttp3.Response
+import org.xmlpull.v1.XmlPullParser
+import java.io.IOException
+import kotlin.coroutines.resume
+
+/**
+ * Fetches and parses schedules in the coroutine of the caller. Cancelling the caller
+ * cancels the HTTP call or stops the parser.
+ *
+ * Each fetch attempt is limited to [fetchTimeoutMillis], parsing to [parseTimeoutMillis].
+ * Attempts which failed transiently, see [FetchScheduleResult.isTransientFailure],
+ * are repeated according to the [retryPolicy].
+ */
+class ScheduleNetworkRepository @JvmOverloads constructor(
 
-class ScheduleNetworkRepository {
+        private val logging: Logging = Logging.get(),
+        private val newPullParser: () -> XmlPullParser = Xml::newPullParser,
+        private val retryPolicy: RetryPolicy = RetryPolicy(),
+        private val fetchTimeoutMillis: Long = FETCH_TIMEOUT_MILLIS,
+        private val parseTimeoutMillis: Long = PARSE_TIMEOUT_MILLIS
 
-    private val fetcher = FetchFahrplan()
-    private val parser = FahrplanParser()
+) {
 
-    fun fetchSchedule(okHttpClient: OkHttpClient,
-                      url: String,
-                      eTag: String,
-                      onFetchScheduleFinished: (fetchScheduleResult: FetchScheduleResult) -> Unit) {
-        fetcher.setListener(onFetchScheduleFinished::invoke)
-        fetcher.fetch(okHttpClient, url, eTag)
+    companion object {
+        private const val LOG_TAG = "ScheduleNetworkRepository"
+        const val FETCH_TIMEOUT_MILLIS = 60_000L
+        const val PARSE_TIMEOUT_MILLIS = 120_000L
+
+        // Days which have been parsed but not yet passed on. Keeps the parser close to the consumer.
+        private const val PARSED_DAYS_CAPACITY = 1
     }
 
-    fun parseSchedule(scheduleXml: String,
-                      eTag: String,
-                      onUpdateSessions: (sessions: List<Session>) -> Unit,
-                      onUpdateMeta: (meta: Meta) -> Unit,
-                      onParsingDone: (result: Boolean, version: String) -> Unit) {
-        parser.setListener(object : FahrplanParser.OnParseCompleteListener {
-            override fun onUpdateSessions(sessions: List<Session>) = onUpdateSessions.invoke(sessions)
-            override fun onUpdateMeta(meta: Meta) = onUpdateMeta.invoke(meta)
-            override fun onParseDone(result: Boolean, version: String) = onParsingDone.invoke(result, version)
+    /**
+     * Fetches the schedule from the given [url], conditional on the given [eTag]
+     * and [lastModified] date unless they are empty, see [ScheduleFetcher].
+     */
+    suspend fun fetchSchedule(okHttpClient: OkHttpClient,
+                              url: String,
+                              eTag: String,
+                              lastModified: String): FetchScheduleResult {
+        val fetcher = ScheduleFetcher(okHttpClient, logging)
+        return retryPolicy.retry(FetchScheduleResult::isTransientFailure) { attempt ->
+            if (attempt > 1) {
+                logging.d(LOG_TAG, "Fetching schedule, attempt $attempt of ${retryPolicy.maxAttempts}.")
+                logging.count("fetchSchedule.retries", 1)
+            }
+            withTimeoutOrNull(fetchTimeoutMillis) {
+                fetcher.fetchCancellable(url, eTag, lastModified)
+            } ?: FetchScheduleResult(HttpStatus.HTTP_CONNECT_TIMEOUT, hostName = HttpUrl.parse(url)?.host().orEmpty())
+        }
+    }
+
+    /**
+     * Parses the given [scheduleXml]. The sessions of each day are passed to [onDaySessionsParsed]
+     * while the remaining days are parsed. The parser is suspended while the previous day is
+     * still being handled so that slow storage throttles parsing instead of buffering all days.
+     * The function returns once all days have been passed.
+     * The result is not successful if parsing failed or took longer than [parseTimeoutMillis].
+     */
+    suspend fun parseSchedule(scheduleXml: String,
+                              eTag: String,
+                              onDaySessionsParsed: suspend (dayIndex: Int, sessions: List<Session>) -> Unit = { _, _ -> }
+    ): ScheduleParser.Result = withTimeoutOrNull(parseTimeoutMillis) {
+        coroutineScope {
+            val daySessionsChannel = Channel<List<Session>>(PARSED_DAYS_CAPACITY)
+            // The parser blocks its thread while the channel is full.
+            val parsing = async(Dispatchers.IO) {
+                try {
+                    ScheduleParser(newPullParser, logging, { !isActive }, { daySessions ->
+                        runBlocking { daySessionsChannel.send(daySessions) }
+                    }).parse(scheduleXml, eTag)
+                } finally {
+                    daySessionsChannel.close()
+                }
+            }
+            // Cancels the channel if the caller fails or is cancelled which releases the parser.
+            daySessionsChannel.consumeEach { daySessions ->
+                onDaySessionsParsed(daySessions.first().dayIndex, daySessions)
+            }
+            parsing.await()
+        }
+    } ?: ScheduleParser.Result(false, emptyList(), Meta(eTag = eTag)).also {
+        logging.e(LOG_TAG, "Parsing the schedule took longer than $parseTimeoutMillis ms.")
+    }
+
+    /**
+     * Runs the call on the thread pool of OkHttp while the calling coroutine is suspended.
+     * The call is cancelled along with the calling coroutine.
+     */
+    private suspend fun ScheduleFetcher.fetchCancellable(url: String,
+                                                         eTag: String,
+                                                         lastModified: String
+    ) = suspendCancellableCoroutine<FetchScheduleResult> { continuation ->
+        val call = newCall(url, eTag, lastModified)
+        continuation.invokeOnCancellation { call.cancel() }
+        call.enqueue(object : Callback {
+            override fun onResponse(call: Call, response: Response) {
+                continuation.resume(toResult(call, response, eTag))
+            }
+
+            override fun onFailure(call: Call, e: IOException) {
+                continuation.resume(toResult(call, e))
+            }
         })
-        parser.parse(scheduleXml, eTag)
     }
 
 }
@@ -0,0 +1,32 @@
+package info.metadude.android.eventfahrplan.network.serialization
+
+/**
+ * Formats of schedule documents which can be parsed by [ScheduleParser].
+ */
+internal enum class ScheduleFormat {
+
+    XML,
+    JSON;
+
+    companion object {
+
+        private const val BYTE_ORDER_MARK = '\uFEFF'
+
+        /**
+         * Detects the format of the given schedule [text] by its first significant character.
+         * Anything which does not look like a JSON object is treated as XML.
+         */
+        @JvmStatic
+        fun of(text: String): ScheduleFormat {
+            for (character in text) {
+                if (character == BYTE_ORDER_MARK || character.isWhitespace()) {
+                    continue
+                }
+                return if (character == '{') JSON else XML
+            }
+            return XML
+        }
+
+    }
+
+}
@@ -0,0 +1,255 @@
+package info.metadude.android.eventfahrplan.network.serialization
+
+import com.squareup.moshi.JsonReader
+import info.metadude.android.eventfahrplan.network.models.Meta
+import info.metadude.android.eventfahrplan.network.models.Session
+import info.metadude.android.eventfahrplan.network.temporal.DateParser
+import okio.Buffer
+
+/**
+ * Streaming parser for the `schedule.json` format published by frab and the c3voc pipeline.
+ * It produces the same [Session] and [Meta] values as the XML parsing in [ScheduleXmlParser].
+ *
+ * Days are indexed by their position in the "days" array starting at 1 which
+ * corresponds to the "index" attribute of the `<day>` element in the XML format.
+ *
+ * The sessions of each day are passed to [onDayParsed] once the day has been read.
+ * Days without sessions are skipped.
+ *
+ * Create one instance per parsing run. This class is not thread-safe.
+ */
+internal class ScheduleJsonParser(
+
+        private val stringPool: StringPool,
+        private val isCancelled: () -> Boolean,
+        private val onDayParsed: (daySessions: List<Session>) -> Unit = {}
+
+) {
+
+    private companion object {
+        const val DEFAULT_DAY_CHANGE_TIME = 600 // Corresponds to 10:00 am, see ScheduleXmlParser.
+        const val MINUTES_OF_DAY = 24 * 60
+    }
+
+    private class ParsingCancelledException : Exception()
+
+    val sessions = ArrayList<Session>()
+
+    val meta = Meta()
+
+    private val speakersAndLinks = SpeakersAndLinksCollector()
+    private val roomIndices = HashMap<String, Int>()
+    private var numDays = 0
+
+    /**
+     * Parses the given [json] and returns true if a complete schedule has been read.
+     * Returns false if parsing has been cancelled or if the "schedule" object is missing.
+     * Malformed JSON causes an exception.
+     */
+    fun parse(json: String, eTag: String): Boolean {
+        val reader = JsonReader.of(Buffer().writeUtf8(json))
+        var scheduleComplete = false
+        try {
+            reader.beginObject()
+            while (reader.hasNext()) {
+                if (reader.nextName() == "schedule") {
+                    readSchedule(reader)
+                    scheduleComplete = true
+                } else {
+                    reader.skipValue()
+                }
+            }
+            reader.endObject()
+        } catch (e: ParsingCancelledException) {
+            return false
+        }
+        if (!scheduleComplete) {
+            return false
+        }
+        meta.numDays = numDays
+        meta.eTag = eTag
+        return true
+    }
+
+    private fun readSchedule(reader: JsonReader) {
+        reader.beginObject()
+        while (reader.hasNext()) {
+            when (reader.nextName()) {
+                "version" -> meta.version = reader.nextSanitizedString()
+                "conference" -> readConference(reader)
+                else -> reader.skipValue()
+            }
+        }
+        reader.endObject()
+    }
+
+    private fun readConference(reader: JsonReader) {
+        reader.beginObject()
+        while (reader.hasNext()) {
+            when (reader.nextName()) {
+                "title" -> meta.title = reader.nextSanitizedString()
+                "subtitle" -> meta.subtitle = reader.nextSanitizedString()
+                "time_zone_name" -> meta.timeZoneName = reader.nextSanitizedString()
+                "days" -> readDays(reader)
+                else -> reader.skipValue()
+            }
+        }
+        reader.endObject()
+    }
+
+    private fun readDays(reader: JsonReader) {
+        reader.beginArray()
+        var dayIndex = 0
+        while (reader.hasNext()) {
+            if (isCancelled()) {
+                throw ParsingCancelledException()
+            }
+            dayIndex++
+            readDay(reader, dayIndex)
+        }
+        reader.endArray()
+        if (dayIndex > numDays) {
+            numDays = dayIndex
+        }
+    }
+
+    private fun readDay(reader: JsonReader, dayIndex: Int) {
+        var date = ""
+        var dayChangeTime = DEFAULT_DAY_CHANGE_TIME
+        val daySessions = ArrayList<Session>()
+        reader.beginObject()
+        while (reader.hasNext()) {
+            when (reader.nextName()) {
+                "date" -> date = stringPool.intern(reader.nextSanitizedString())
+                "day_end" -> dayChangeTime = DateParser.getDayChange(reader.nextSanitizedString())
+                "rooms" -> readRooms(reader, daySessions)
+                else -> reader.skipValue()
+            }
+        }
+        reader.endObject()
+        // Keys are not ordered. Day values are applied once the whole day has been read.
+        for (session in daySessions) {
+            session.dayIndex = dayIndex
+            session.date = date
+            session.relativeStartTime = session.startTime
+            if (session.relativeStartTime < dayChangeTime) {
+                session.relativeStartTime += MINUTES_OF_DAY
+            }
+        }
+        sessions.addAll(daySessions)
+        if (daySessions.isNotEmpty()) {
+            onDayParsed(daySessions)
+        }
+    }
+
+    private fun readRooms(reader: JsonReader, daySessions: MutableList<Session>) {
+        reader.beginObject()
+        while (reader.hasNext()) {
+            val room = stringPool.intern(reader.nextName())
+            val roomIndex = roomIndices.getOrPut(room) { roomIndices.size }
+            reader.beginArray()
+            while (reader.hasNext()) {
+                daySessions += readEvent(reader).apply {
+                    this.room = room
+                    this.roomIndex = roomIndex
+                }
+            }
+            reader.endArray()
+        }
+        reader.endObject()
+    }
+
+    private fun readEvent(reader: JsonReader): Session {
+        val session = Session()
+        reader.beginObject()
+        while (reader.hasNext()) {
+            when (reader.nextName()) {
+                "id" -> session.sessionId = reader.nextSanitizedString()
+                "title" -> session.title = reader.nextSanitizedString()
+                "subtitle" -> session.subtitle = reader.nextSanitizedString()
+                "slug" -> session.slug = reader.nextSanitizedString()
+                "url" -> session.url = reader.nextSanitizedString()
+                "track" -> session.track = stringPool.intern(reader.nextSanitizedString())
+                "type" -> session.type = stringPool.intern(reader.nextSanitizedString())
+                "language" -> session.language = stringPool.intern(reader.nextSanitizedString())
+                "abstract" -> session.abstractt = reader.nextSanitizedString()
+                "description" -> session.description = reader.nextSanitizedString()
+                "start" -> session.startTime = Session.parseStartTime(reader.nextSanitizedString())
+                "duration" -> session.duration = Session.parseDuration(reader.nextSanitizedString())
+                "date" -> session.dateUTC = DateParser.getDateTime(reader.nextSanitizedString())
+                "recording_license" -> session.recordingLicense = stringPool.intern(reader.nextSanitizedString())
+                "do_not_record" -> session.recordingOptOut = reader.nextBooleanOrDefault(Session.RECORDING_OPT_OUT_OFF)
+                "persons" -> readPersons(reader)
+                "links" -> readLinks(reader)
+                else -> reader.skipValue()
+            }
+        }
+        reader.endObject()
+        speakersAndLinks.applyTo(session)
+        return session
+    }
+
+    private fun readPersons(reader: JsonReader) {
+        if (reader.skipNull()) {
+            return
+        }
+        reader.beginArray()
+        while (reader.hasNext()) {
+            var name = ""
+            reader.beginObject()
+            while (reader.hasNext()) {
+                when (reader.nextName()) {
+                    // frab uses "public_name", other generators use "name".
+                    "public_name", "name" -> name = reader.nextSanitizedString()
+                    else -> reader.skipValue()
+                }
+            }
+            reader.endObject()
+            speakersAndLinks.addSpeaker(name)
+        }
+        reader.endArray()
+    }
+
+    private fun readLinks(reader: JsonReader) {
+        if (reader.skipNull()) {
+            return
+        }
+        reader.beginArray()
+        while (reader.hasNext()) {
+            var url: String? = null
+            var title = ""
+            reader.beginObject()
+            while (reader.hasNext()) {
+                when (reader.nextName()) {
+                    "url" -> url = reader.nextSanitizedString()
+                    "title" -> title = reader.nextSanitizedString()
+                    else -> reader.skipValue()
+                }
+            }
+            reader.endObject()
+            speakersAndLinks.addLink(url, title)
+        }
+        reader.endArray()
+    }
+
+    /**
+     * Returns the trimmed string or number value or an empty string for `null`.
+     */
+    private fun JsonReader.nextSanitizedString(): String =
+            if (skipNull()) "" else nextString().trim()
+
+    private fun JsonReader.nextBooleanOrDefault(defaultValue: Boolean): Boolean =
+            if (skipNull()) defaultValue else nextBoolean()
+
+    /**
+     * Consumes the next value and returns true if it is `null`. Returns false otherwise.
+     */
+    private fun JsonReader.skipNull(): Boolean {
+        if (peek() == JsonReader.Token.NULL) {
+            nextNull<Unit>()
+            return true
+        }
+        return false
+    }
+
+}
@@ -0,0 +1,83 @@
+package info.metadude.android.eventfahrplan.network.serialization
+
+import info.metadude.android.eventfahrplan.commons.logging.Logging
+import info.metadude.android.eventfahrplan.network.models.Meta
+import info.metadude.android.eventfahrplan.network.models.Session
+import info.metadude.android.eventfahrplan.network.validation.DateFieldValidation
+import org.xmlpull.v1.XmlPullParser
+
+/**
+ * Parses a frab XML or frab JSON schedule and validates the parsed sessions.
+ *
+ * This class does not depend on the Android framework. [XmlPullParser] instances
+ * are obtained from the given [newPullParser] function, messages are written to
+ * the given [logging]. It can therefore be run in plain JVM unit tests and benchmarks.
+ * See ScheduleNetworkRepository for the Android adapter.
+ *
+ * @param isCancelled invoked while parsing. Parsing stops once it returns true.
+ * @param onDayParsed invoked with the sessions of each day once the day has been parsed.
+ */
+class ScheduleParser @JvmOverloads constructor(
+
+        private val newPullParser: () -> XmlPullParser,
+        private val logging: Logging,
+        private val isCancelled: () -> Boolean = { false },
+        private val onDayParsed: (daySessions: List<Session>) -> Unit = {}
+
+) {
+
+    private companion object {
+        const val LOG_TAG = "ScheduleParser"
+    }
+
+    /**
+     * @param stringPoolStatistics statistics of the values which have been shared while parsing.
+     */
+    data class Result(
+
+            val isSuccessful: Boolean,
+            val sessions: List<Session>,
+            val meta: Meta,
+            val stringPoolStatistics: StringPoolStatistics = StringPoolStatistics.NONE
+
+    )
+
+    /**
+     * Parses the given [schedule] whose format is detected by its content.
+     * The given [eTag] is written into the [Meta] of the result.
+     */
+    fun parse(schedule: String, eTag: String): Result {
+        // Shares one instance per distinct room, track, type, language and date value.
+        val stringPool = StringPool()
+        val result = when (ScheduleFormat.of(schedule)) {
+            ScheduleFormat.XML -> parseXml(schedule, eTag, stringPool)
+            ScheduleFormat.JSON -> parseJson(schedule, eTag, stringPool)
+        }.copy(stringPoolStatistics = stringPool.toStatistics())
+        logging.d(LOG_TAG, stringPool.toString())
+        if (result.isSuccessful) {
+            val dateFieldValidation = DateFieldValidation(logging)
+            dateFieldValidation.validate(result.sessions)
+            dateFieldValidation.printValidationErrors()
+            // TODO Clear database on validation failure.
+        }
+        return result
+    }
+
+    private fun parseXml(xml: String, eTag: String, stringPool: StringPool): Result {
+        val parser = ScheduleXmlParser(newPullParser(), stringPool, isCancelled, onDayParsed)
+        val isSuccessful = parser.parse(xml, eTag)
+        return Result(isSuccessful, parser.sessions, parser.meta)
+    }
+
+    private fun parseJson(json: String, eTag: String, stringPool: StringPool): Result {
+        val parser = ScheduleJsonParser(stringPool, isCancelled, onDayParsed)
+        val isSuccessful = try {
+            parser.parse(json, eTag) && !isCancelled()
+        } catch (e: Exception) {
+            logging.e(LOG_TAG, "Error parsing JSON schedule: ${e.message}")
+            false
+        }
+        return Result(isSuccessful, parser.sessions, parser.meta)
+    }
+
+}
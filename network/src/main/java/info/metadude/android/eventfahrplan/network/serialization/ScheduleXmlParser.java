@@ -1,8 +1,5 @@
 package info.metadude.android.eventfahrplan.network.serialization;
 
-import android.os.AsyncTask;
-import android.util.Xml;
-
 import androidx.annotation.NonNull;
 
 import org.xmlpull.v1.XmlPullParser;
@@ -12,110 +9,63 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 
-import info.metadude.android.eventfahrplan.commons.logging.Logging;
-import info.metadude.android.eventfahrplan.network.models.Session;
 import info.metadude.android.eventfahrplan.network.models.Meta;
+import info.metadude.android.eventfahrplan.network.models.Session;
 import info.metadude.android.eventfahrplan.network.serialization.exceptions.MissingXmlAttributeException;
 import info.metadude.android.eventfahrplan.network.temporal.DateParser;
-import info.metadude.android.eventfahrplan.network.validation.DateFieldValidation;
-
-public class FahrplanParser {
-
-    public interface OnParseCompleteListener {
+import kotlin.Unit;
+import kotlin.jvm.functions.Function0;
+import kotlin.jvm.functions.Function1;
 
-        void onUpdateSessions(@NonNull List<Session> sessions);
+/**
+ * Parser for the XML schedule format published by frab and Pentabarf.
+ * The sessions of each day are passed to {@code onDayParsed} once the day has been read.
+ *
+ * Create one instance per parsing run. This class is not thread-safe.
+ */
+class ScheduleXmlParser {
 
-        void onUpdateMeta(@NonNull Meta meta);
+    private final XmlPullParser parser;
 
-        void onParseDone(Boolean result, String version);
-    }
+    private final StringPool stringPool;
 
-    private ParserTask task;
+    private final Function0<Boolean> isCancelled;
 
-    private OnParseCompleteListener listener;
+    private final Function1<List<Session>, Unit> onDayParsed;
 
-    public FahrplanParser() {
-        task = null;
-    }
+    private final SpeakersAndLinksCollector speakersAndLinks = new SpeakersAndLinksCollector();
 
-    public void parse(String fahrplan, String eTag) {
-        task = new ParserTask(listener);
-        task.execute(fahrplan, eTag);
-    }
+    private List<Session> sessions = new ArrayList<>();
 
-    public void cancel() {
-        if (task != null) {
-            task.cancel(false);
-        }
-    }
+    private Meta meta = new Meta();
 
-    public void setListener(OnParseCompleteListener listener) {
-        this.listener = listener;
-        if (task != null) {
-            task.setListener(listener);
-        }
+    ScheduleXmlParser(@NonNull XmlPullParser parser,
+                      @NonNull StringPool stringPool,
+                      @NonNull Function0<Boolean> isCancelled,
+                      @NonNull Function1<List<Session>, Unit> onDayParsed) {
+        this.parser = parser;
+        this.stringPool = stringPool;
+        this.isCancelled = isCancelled;
+        this.onDayParsed = onDayParsed;
     }
-}
-
-class ParserTask extends AsyncTask<String, Void, Boolean> {
-
-    private List<Session> sessions;
-
-    private Meta meta;
 
-    private FahrplanParser.OnParseCompleteListener listener;
-
-    private boolean completed;
-
-    private boolean result;
-
-    ParserTask(FahrplanParser.OnParseCompleteListener listener) {
-        this.listener = listener;
-        this.completed = false;
+    @NonNull
+    List<Session> getSessions() {
+        return sessions;
     }
 
-    public void setListener(FahrplanParser.OnParseCompleteListener listener) {
-        this.listener = listener;
-
-        if (completed && listener != null) {
-            notifyActivity();
-        }
+    @NonNull
+    Meta getMeta() {
+        return meta;
     }
 
-    @Override
-    protected Boolean doInBackground(String... args) {
-        boolean parsingSuccessful = parseFahrplan(args[0], args[1]);
-        if (parsingSuccessful) {
-            DateFieldValidation dateFieldValidation = new DateFieldValidation(Logging.Companion.get());
-            dateFieldValidation.validate(sessions);
-            dateFieldValidation.printValidationErrors();
-            // TODO Clear database on validation failure.
-        }
-        return parsingSuccessful;
-    }
-
-    private void notifyActivity() {
-        if (result) {
-            listener.onUpdateSessions(sessions);
-            listener.onUpdateMeta(meta);
-        }
-        listener.onParseDone(result, meta.getVersion());
-        completed = false;
-    }
-
-    protected void onPostExecute(Boolean result) {
-        completed = true;
-        this.result = result;
-
-        if (listener != null) {
-            notifyActivity();
-        }
-    }
-
-    private Boolean parseFahrplan(String fahrplan, String eTag) {
-        XmlPullParser parser = Xml.newPullParser();
+    /**
+     * Parses the given {@code xml} and returns true if a complete schedule has been read.
+     * Returns false if parsing has been cancelled or if the XML could not be parsed.
+     */
+    public boolean parse(@NonNull String xml, @NonNull String eTag) {
         try {
-            parser.setInput(new StringReader(fahrplan));
+            parser.setInput(new StringReader(xml));
             int eventType = parser.getEventType();
             boolean done = false;
             int numdays = 0;
@@ -125,9 +75,10 @@ class ParserTask extends AsyncTask<String, Void, Boolean> {
             String date = "";
             int roomIndex = 0;
             int roomMapIndex = 0;
+            int daySessionsStartIndex = 0;
             boolean scheduleComplete = false;
             HashMap<String, Integer> roomsMap = new HashMap<>();
-            while (eventType != XmlPullParser.END_DOCUMENT && !done && !isCancelled()) {
+            while (eventType != XmlPullParser.END_DOCUMENT && !done && !isCancelled.invoke()) {
                 String name;
                 switch (eventType) {
                     case XmlPullParser.START_DOCUMENT:
@@ -139,6 +90,9 @@ class ParserTask extends AsyncTask<String, Void, Boolean> {
                         if (name.equals("schedule")) {
                             scheduleComplete = true;
                         }
+                        if (name.equals("day")) {
+                            notifyDayParsed(sessions.subList(daySessionsStartIndex, sessions.size()));
+                        }
                         break;
                     case XmlPullParser.START_TAG:
                         name = parser.getName();
@@ -149,18 +103,22 @@ class ParserTask extends AsyncTask<String, Void, Boolean> {
                         if (name.equals("day")) {
                             String index = parser.getAttributeValue(null, "index");
                             day = Integer.parseInt(index);
-                            date = parser.getAttributeValue(null, "date");
+                            String dateValue = parser.getAttributeValue(null, "date");
+                            date = dateValue == null ? "" : stringPool.intern(dateValue);
                             String end = parser.getAttributeValue(null, "end");
                             if (end == null) {
                                 throw new MissingXmlAttributeException("day", "end");
                             }
                             dayChangeTime = DateParser.getDayChange(end);
+                            daySessionsStartIndex = sessions.size();
                             if (day > numdays) {
                                 numdays = day;
                             }
                         }
                         if (name.equals("room")) {
-                            room = parser.getAttributeValue(null, "name");
+                            // Sessions of a room without a name are kept with an empty room.
+                            String roomName = parser.getAttributeValue(null, "name");
+                            room = roomName == null ? "" : stringPool.intern(roomName);
                             if (!roomsMap.containsKey(room)) {
                                 roomsMap.put(room, roomIndex);
                                 roomMapIndex = roomIndex;
@@ -180,11 +138,12 @@ class ParserTask extends AsyncTask<String, Void, Boolean> {
                             eventType = parser.next();
                             boolean isSessionDone = false;
                             while (eventType != XmlPullParser.END_DOCUMENT
-                                    && !isSessionDone && !isCancelled()) {
+                                    && !isSessionDone && !isCancelled.invoke()) {
                                 switch (eventType) {
                                     case XmlPullParser.END_TAG:
                                         name = parser.getName();
                                         if (name.equals("event")) {
+                                            speakersAndLinks.applyTo(session);
                                             sessions.add(session);
                                             isSessionDone = true;
                                         }
@@ -206,13 +165,13 @@ class ParserTask extends AsyncTask<String, Void, Boolean> {
                                             session.setUrl(XmlPullParsers.getSanitizedText(parser));
                                         } else if (name.equals("track")) {
                                             parser.next();
-                                            session.setTrack(XmlPullParsers.getSanitizedText(parser));
+                                            session.setTrack(XmlPullParsers.getSanitizedText(parser, stringPool));
                                         } else if (name.equals("type")) {
                                             parser.next();
-                                            session.setType(XmlPullParsers.getSanitizedText(parser));
+                                            session.setType(XmlPullParsers.getSanitizedText(parser, stringPool));
                                         } else if (name.equals("language")) {
                                             parser.next();
-                                            session.setLanguage(XmlPullParsers.getSanitizedText(parser));
+                                            session.setLanguage(XmlPullParsers.getSanitizedText(parser, stringPool));
                                         } else if (name.equals("abstract")) {
                                             parser.next();
                                             session.setAbstractt(XmlPullParsers.getSanitizedText(parser));
@@ -221,26 +180,11 @@ class ParserTask extends AsyncTask<String, Void, Boolean> {
                                             session.setDescription(XmlPullParsers.getSanitizedText(parser));
                                         } else if (name.equals("person")) {
                                             parser.next();
-                                            String separator = session.getSpeakers().length() > 0 ? ";" : "";
-                                            session.setSpeakers(session.getSpeakers() + separator + XmlPullParsers.getSanitizedText(parser));
+                                            speakersAndLinks.addSpeaker(XmlPullParsers.getSanitizedText(parser));
                                         } else if (name.equals("link")) {
                                             String url = parser.getAttributeValue(null, "href");
                                             parser.next();
-                                            String urlName = XmlPullParsers.getSanitizedText(parser);
-                                            if (url == null) {
-                                                url = urlName;
-                                            }
-                                            if (!url.contains("://")) {
-                                                url = "http://" + url;
-                                            }
-                                            StringBuilder sb = new StringBuilder();
-                                            if (session.getLinks().length() > 0) {
-                                                sb.append(session.getLinks());
-                                                sb.append(",");
-                                            }
-                                            sb.append("[").append(urlName).append("]").append("(")
-                                                    .append(url).append(")");
-                                            session.setLinks(sb.toString());
+                                            speakersAndLinks.addLink(url, XmlPullParsers.getSanitizedText(parser));
                                         } else if (name.equals("start")) {
                                             parser.next();
                                             session.setStartTime(Session.Companion.parseStartTime(XmlPullParsers.getSanitizedText(parser)));
@@ -258,7 +202,7 @@ class ParserTask extends AsyncTask<String, Void, Boolean> {
                                             eventType = parser.next();
                                             boolean recordingDone = false;
                                             while (eventType != XmlPullParser.END_DOCUMENT
-                                                    && !recordingDone && !isCancelled()) {
+                                                    && !recordingDone && !isCancelled.invoke()) {
                                                 switch (eventType) {
                                                     case XmlPullParser.END_TAG:
                                                         name = parser.getName();
@@ -270,7 +214,7 @@ class ParserTask extends AsyncTask<String, Void, Boolean> {
                                                         name = parser.getName();
                                                         if (name.equals("license")) {
                                                             parser.next();
-                                                            session.setRecordingLicense(XmlPullParsers.getSanitizedText(parser));
+                                                            session.setRecordingLicense(XmlPullParsers.getSanitizedText(parser, stringPool));
                                                         } else if (name.equals("optout")) {
                                                             parser.next();
                                                             session.setRecordingOptOut(Boolean.parseBoolean(XmlPullParsers.getSanitizedText(parser)));
@@ -339,7 +283,7 @@ class ParserTask extends AsyncTask<String, Void, Boolean> {
             if (!scheduleComplete) {
                 return false;
             }
-            if (isCancelled()) {
+            if (isCancelled.invoke()) {
                 return false;
             }
             meta.setNumDays(numdays);
@@ -351,4 +295,11 @@ class ParserTask extends AsyncTask<String, Void, Boolean> {
         }
     }
 
+
+    private void notifyDayParsed(@NonNull List<Session> daySessions) {
+        if (!daySessions.isEmpty()) {
+            onDayParsed.invoke(new ArrayList<>(daySessions));
+        }
+    }
+
 }
@@ -0,0 +1,70 @@
+package info.metadude.android.eventfahrplan.network.serialization
+
+import info.metadude.android.eventfahrplan.network.models.Session
+
+/**
+ * Collects the `<person>` and `<link>` elements of one session while it is being parsed.
+ * Both lists are serialized into [Session.speakers] and [Session.links] once the session
+ * is complete. This avoids copying the previously collected values for every element.
+ *
+ * Call [applyTo] at the end of each session. The collector can be reused afterwards.
+ */
+internal class SpeakersAndLinksCollector {
+
+    private val speakerNames = ArrayList<String>()
+    private val links = ArrayList<Link>()
+
+    fun addSpeaker(name: String) {
+        speakerNames += name
+    }
+
+    /**
+     * Adds a link. The [title] is used as the URL if no [url] is given.
+     * URLs without a scheme are prefixed with "http://".
+     */
+    fun addLink(url: String?, title: String) {
+        var linkUrl = url ?: title
+        if (!linkUrl.contains("://")) {
+            linkUrl = "http://$linkUrl"
+        }
+        links += Link(linkUrl, title)
+    }
+
+    /**
+     * Writes the collected speakers separated by ";" and the collected links
+     * formatted as "[title](url)" separated by "," into the given [session].
+     * Clears the collected values afterwards.
+     */
+    fun applyTo(session: Session) {
+        session.speakers = serializeSpeakers()
+        session.links = serializeLinks()
+        speakerNames.clear()
+        links.clear()
+    }
+
+    private fun serializeSpeakers(): String {
+        val builder = StringBuilder()
+        for (speakerName in speakerNames) {
+            if (builder.isNotEmpty()) {
+                builder.append(";")
+            }
+            builder.append(speakerName)
+        }
+        return builder.toString()
+    }
+
+    private fun serializeLinks(): String {
+        val builder = StringBuilder()
+        for (link in links) {
+            if (builder.isNotEmpty()) {
+                builder.append(",")
+            }
+            builder.append("[").append(link.title).append("]")
+                    .append("(").append(link.url).append(")")
+        }
+        return builder.toString()
+    }
+
+    private data class Link(val url: String, val title: String)
+
+}
@@ -0,0 +1,65 @@
+package info.metadude.android.eventfahrplan.network.serialization
+
+/**
+ * Symbol table which hands out one shared instance per distinct string value.
+ *
+ * Schedules repeat a few dozen values such as room, track, type or language names for
+ * hundreds of sessions. Routing these values through a pool lets all sessions reference
+ * the same instance instead of retaining a fresh copy each.
+ *
+ * Create one instance per parsing run. This class is not thread-safe.
+ */
+internal class StringPool {
+
+    private val values = HashMap<String, String>()
+
+    /**
+     * Number of [intern] invocations.
+     */
+    var lookupsCount = 0
+        private set
+
+    /**
+     * Number of characters which did not need to be retained because an equal value
+     * has been in the pool already.
+     */
+    var reusedCharsCount = 0L
+        private set
+
+    /**
+     * Number of distinct values in the pool.
+     */
+    val size
+        get() = values.size
+
+    /**
+     * Returns the pooled instance which equals the given [text].
+     * The [text] itself is added to the pool if no such instance exists yet.
+     */
+    fun intern(text: String): String {
+        lookupsCount++
+        val pooled = values[text]
+        if (pooled == null) {
+            values[text] = text
+            return text
+        }
+        reusedCharsCount += text.length
+        return pooled
+    }
+
+    /**
+     * Returns the ratio of [lookups][lookupsCount] per distinct value.
+     * A value of 1 means no value has been deduplicated.
+     */
+    val deduplicationRatio: Float
+        get() = toStatistics().deduplicationRatio
+
+    /**
+     * Returns a snapshot of the current statistics.
+     */
+    fun toStatistics() = StringPoolStatistics(lookupsCount, size, reusedCharsCount)
+
+    override fun toString() = "StringPool(lookups=$lookupsCount, distinct=$size, " +
+            "ratio=${"%.1f".format(deduplicationRatio)}, reusedChars=$reusedCharsCount)"
+
+}
@@ -0,0 +1,31 @@
+package info.metadude.android.eventfahrplan.network.serialization
+
+/**
+ * Statistics of the [StringPool] of one parsing run, see [ScheduleParser.Result].
+ *
+ * @param lookupsCount number of values which have been looked up in the pool.
+ * @param distinctCount number of distinct values in the pool.
+ * @param reusedCharsCount number of characters which did not need to be retained
+ * because an equal value has been in the pool already.
+ */
+data class StringPoolStatistics(
+
+        val lookupsCount: Int,
+        val distinctCount: Int,
+        val reusedCharsCount: Long
+
+) {
+
+    companion object {
+        @JvmField
+        val NONE = StringPoolStatistics(0, 0, 0)
+    }
+
+    /**
+     * Returns the ratio of [lookups][lookupsCount] per distinct value.
+     * A value of 1 means no value has been deduplicated.
+     */
+    val deduplicationRatio: Float
+        get() = if (distinctCount == 0) 1f else lookupsCount.toFloat() / distinctCount
+
+}
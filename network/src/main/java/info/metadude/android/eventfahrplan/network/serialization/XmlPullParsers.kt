@@ -7,3 +7,11 @@ import org.xmlpull.v1.XmlPullParser
 
 @NonNull
 fun XmlPullParser.getSanitizedText(): String = text?.trim() ?: ""
+
+/**
+ * Returns the sanitized text routed through the given [stringPool].
+ * Use it for values which repeat across many sessions.
+ */
+@NonNull
+internal fun XmlPullParser.getSanitizedText(stringPool: StringPool): String =
+        stringPool.intern(getSanitizedText())
@@ -1,5 +1,6 @@
 package info.metadude.android.eventfahrplan.network.temporal
 
+import androidx.annotation.VisibleForTesting
 import info.metadude.android.eventfahrplan.commons.temporal.Moment
 import org.threeten.bp.Instant
 import org.threeten.bp.LocalDate
@@ -10,14 +11,56 @@ class DateParser {
 
     companion object {
 
+        private const val NOT_PARSED = Long.MIN_VALUE
+
+        private const val MILLISECONDS_OF_MINUTE = 60 * 1000L
+        private const val MINUTES_OF_DAY = 24 * 60
+        private const val SECONDS_OF_DAY = 24 * 60 * 60L
+
+        // Length of "2019-01-01".
+        private const val DATE_LENGTH = 10
+        // Length of "2019-01-01T00:00:00Z".
+        private const val DATE_TIME_UTC_LENGTH = 20
+        // Length of "2019-01-01T00:00:00+01:00".
+        private const val DATE_TIME_OFFSET_LENGTH = 25
+
         /**
          * Parses given [text] and returns its date value represented in milliseconds.
          *
+         * The fixed formats used by frab and Pentabarf are parsed without allocations.
+         * Any other text is handed to the ISO-8601 formatter of threetenbp.
+         *
          * @param text either ISO-8601 date and time format (e.g. 2019-01-01T00:00:00Z)
          * or ISO-8601 date format (i.e. 2019-01-01).
          */
         @JvmStatic
-        fun getDateTime(text: String) = if (text.length > 10) {
+        fun getDateTime(text: String): Long {
+            val milliseconds = parseFixedFormat(text)
+            return if (milliseconds == NOT_PARSED) parseWithFormatter(text) else milliseconds
+        }
+
+        /**
+         * Returns [Moment.minuteOfDay] of given parse [text].
+         *
+         * @param text see [DateParser.getDateTime] for valid formats
+         */
+        @JvmStatic
+        fun getDayChange(text: String): Int {
+            val minutes = floorDiv(getDateTime(text), MILLISECONDS_OF_MINUTE)
+            return floorMod(minutes, MINUTES_OF_DAY.toLong()).toInt()
+        }
+
+        // Math.floorDiv and Math.floorMod require API level 24.
+        private fun floorDiv(dividend: Long, divisor: Long): Long {
+            val quotient = dividend / divisor
+            return if (dividend % divisor != 0L && (dividend < 0) != (divisor < 0)) quotient - 1 else quotient
+        }
+
+        private fun floorMod(dividend: Long, divisor: Long) =
+                dividend - floorDiv(dividend, divisor) * divisor
+
+        @VisibleForTesting
+        internal fun parseWithFormatter(text: String) = if (text.length > DATE_LENGTH) {
             val parsed = Instant.from(DateTimeFormatter.ISO_DATE_TIME.parse(text))
             val atUTCOffset = parsed.atOffset(ZoneOffset.UTC)
             atUTCOffset.toEpochSecond() * 1000
@@ -28,14 +71,102 @@ class DateParser {
         }
 
         /**
-         * Returns [Moment.minuteOfDay] of given parse [text].
-         *
-         * @param text see [DateParser.getDateTime] for valid formats
+         * Parses "yyyy-MM-dd", "yyyy-MM-ddTHH:mm:ssZ" and "yyyy-MM-ddTHH:mm:ss±HH:mm".
+         * Returns [NOT_PARSED] for any other text or out of range values so that
+         * the caller can fall back to the formatter which reports the precise error.
          */
-        @JvmStatic
-        fun getDayChange(text: String): Int {
-            val timeUTC = getDateTime(text)
-            return Moment.ofEpochMilli(timeUTC).minuteOfDay
+        @VisibleForTesting
+        internal fun parseFixedFormat(text: String): Long {
+            val length = text.length
+            if (length != DATE_LENGTH && length != DATE_TIME_UTC_LENGTH && length != DATE_TIME_OFFSET_LENGTH) {
+                return NOT_PARSED
+            }
+            if (text[4] != '-' || text[7] != '-') {
+                return NOT_PARSED
+            }
+            val year = text.digits(0, 4)
+            val month = text.digits(5, 2)
+            val day = text.digits(8, 2)
+            if (year < 0 || month < 1 || month > 12 || day < 1 || day > daysInMonth(year, month)) {
+                return NOT_PARSED
+            }
+            val epochDay = epochDay(year, month, day)
+            if (length == DATE_LENGTH) {
+                return epochDay * SECONDS_OF_DAY * 1000
+            }
+
+            if (text[10] != 'T' || text[13] != ':' || text[16] != ':') {
+                return NOT_PARSED
+            }
+            val hour = text.digits(11, 2)
+            val minute = text.digits(14, 2)
+            val second = text.digits(17, 2)
+            if (hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+                return NOT_PARSED
+            }
+
+            val offsetSeconds = if (length == DATE_TIME_UTC_LENGTH) {
+                if (text[19] != 'Z') {
+                    return NOT_PARSED
+                }
+                0
+            } else {
+                val sign = when (text[19]) {
+                    '+' -> 1
+                    '-' -> -1
+                    else -> return NOT_PARSED
+                }
+                if (text[22] != ':') {
+                    return NOT_PARSED
+                }
+                val offsetHours = text.digits(20, 2)
+                val offsetMinutes = text.digits(23, 2)
+                if (offsetHours < 0 || offsetHours > 17 || offsetMinutes < 0 || offsetMinutes > 59) {
+                    return NOT_PARSED
+                }
+                sign * (offsetHours * 3600 + offsetMinutes * 60)
+            }
+
+            val epochSecond = epochDay * SECONDS_OF_DAY + hour * 3600 + minute * 60 + second - offsetSeconds
+            return epochSecond * 1000
         }
+
+        /**
+         * Returns the non-negative number composed of [count] digits starting at [start]
+         * or -1 if any of the characters is not a digit.
+         */
+        private fun String.digits(start: Int, count: Int): Int {
+            var value = 0
+            for (index in start until start + count) {
+                val digit = this[index] - '0'
+                if (digit < 0 || digit > 9) {
+                    return -1
+                }
+                value = value * 10 + digit
+            }
+            return value
+        }
+
+        private fun daysInMonth(year: Int, month: Int) = when (month) {
+            2 -> if (isLeapYear(year)) 29 else 28
+            4, 6, 9, 11 -> 30
+            else -> 31
+        }
+
+        private fun isLeapYear(year: Int) = year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)
+
+        /**
+         * Returns the number of days since 1970-01-01 for the given proleptic Gregorian date.
+         * See http://howardhinnant.github.io/date_algorithms.html#days_from_civil
+         */
+        private fun epochDay(year: Int, month: Int, day: Int): Long {
+            val shiftedYear = if (month <= 2) year - 1 else year
+            val era = (if (shiftedYear >= 0) shiftedYear else shiftedYear - 399) / 400
+            val yearOfEra = shiftedYear - era * 400
+            val dayOfYear = (153 * ((month + 9) % 12) + 2) / 5 + day - 1
+            val dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear
+            return era * 146097L + dayOfEra - 719468
+        }
+
     }
 }
@@ -0,0 +1,34 @@
+package info.metadude.android.eventfahrplan.network.benchmarks;
+
+import info.metadude.android.eventfahrplan.commons.testing.schedule.SyntheticSchedule;
+import info.metadude.android.eventfahrplan.commons.testing.schedule.SyntheticScheduleConfig;
+import info.metadude.android.eventfahrplan.commons.testing.schedule.SyntheticScheduleGenerator;
+import info.metadude.android.eventfahrplan.commons.testing.schedule.SyntheticScheduleSerialization;
+
+/**
+ * Creates frab XML and frab JSON schedules of a given size for benchmarks.
+ * Sessions are distributed over four days and one room per 25 sessions per day.
+ */
+final class BenchmarkSchedules {
+
+    private static final int DAYS_COUNT = 4;
+    private static final int SESSIONS_PER_ROOM = 25;
+
+    private BenchmarkSchedules() {
+    }
+
+    static String createXml(int sessionsCount) {
+        return SyntheticScheduleSerialization.toXml(createSchedule(sessionsCount));
+    }
+
+    static String createJson(int sessionsCount) {
+        return SyntheticScheduleSerialization.toJson(createSchedule(sessionsCount));
+    }
+
+    private static SyntheticSchedule createSchedule(int sessionsCount) {
+        int roomsCount = Math.max(1, sessionsCount / (DAYS_COUNT * SESSIONS_PER_ROOM));
+        SyntheticScheduleConfig config = new SyntheticScheduleConfig(DAYS_COUNT, roomsCount, sessionsCount);
+        return new SyntheticScheduleGenerator(config).createSchedule();
+    }
+
+}
@@ -0,0 +1,47 @@
+package info.metadude.android.eventfahrplan.network.benchmarks;
+
+import org.kxml2.io.KXmlParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import info.metadude.android.eventfahrplan.network.models.Session;
+import info.metadude.android.eventfahrplan.network.serialization.ScheduleParser;
+import info.metadude.android.eventfahrplan.network.validation.DateFieldValidation;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DateFieldValidationBenchmark {
+
+    @Param({"100", "1000", "5000", "20000"})
+    public int sessionsCount;
+
+    private List<Session> sessions;
+
+    @Setup
+    public void setUp() {
+        String scheduleXml = BenchmarkSchedules.createXml(sessionsCount);
+        sessions = new ScheduleParser(KXmlParser::new, NoLogging.INSTANCE).parse(scheduleXml, "").getSessions();
+    }
+
+    @Benchmark
+    public boolean validate() {
+        return new DateFieldValidation(NoLogging.INSTANCE).validate(sessions);
+    }
+
+}
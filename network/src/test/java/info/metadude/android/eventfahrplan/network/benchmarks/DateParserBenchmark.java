@@ -0,0 +1,55 @@
+package info.metadude.android.eventfahrplan.network.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import info.metadude.android.eventfahrplan.network.temporal.DateParser;
+
+/**
+ * Compares the fixed format fast path of {@link DateParser#getDateTime(String)}
+ * with the formatter which handles any other ISO-8601 text such as fractional seconds.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DateParserBenchmark {
+
+    private String dateTime = "2019-12-27T11:00:00+01:00";
+
+    private String dateTimeWithFraction = "2019-12-27T11:00:00.000+01:00";
+
+    private String date = "2019-12-27";
+
+    @Benchmark
+    public long getDateTimeFixedFormat() {
+        return DateParser.getDateTime(dateTime);
+    }
+
+    @Benchmark
+    public long getDateTimeFormatter() {
+        return DateParser.getDateTime(dateTimeWithFraction);
+    }
+
+    @Benchmark
+    public long getDateTimeDate() {
+        return DateParser.getDateTime(date);
+    }
+
+    @Benchmark
+    public int getDayChange() {
+        return DateParser.getDayChange(dateTime);
+    }
+
+}
@@ -0,0 +1,44 @@
+package info.metadude.android.eventfahrplan.network.benchmarks;
+
+import androidx.annotation.NonNull;
+
+import info.metadude.android.eventfahrplan.commons.logging.Logging;
+import info.metadude.android.eventfahrplan.commons.logging.Span;
+
+/**
+ * Discards all messages and spans so that logging does not distort measurements.
+ */
+final class NoLogging implements Logging {
+
+    static final NoLogging INSTANCE = new NoLogging();
+
+    private NoLogging() {
+    }
+
+    @Override
+    public void d(@NonNull String tag, @NonNull String message) {
+    }
+
+    @Override
+    public void e(@NonNull String tag, @NonNull String message) {
+    }
+
+    @Override
+    public void report(@NonNull String tag, @NonNull String message) {
+    }
+
+    @NonNull
+    @Override
+    public Span beginSpan(@NonNull String name) {
+        return new Span(name, 0);
+    }
+
+    @Override
+    public void endSpan(@NonNull Span span) {
+    }
+
+    @Override
+    public void count(@NonNull String name, long delta) {
+    }
+
+}
@@ -0,0 +1,83 @@
+package info.metadude.android.eventfahrplan.network.benchmarks;
+
+import org.kxml2.io.KXmlParser;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import info.metadude.android.eventfahrplan.network.serialization.ScheduleParser;
+import info.metadude.android.eventfahrplan.network.serialization.StringPoolStatistics;
+
+/**
+ * Measures parsing synthetic frab XML and frab JSON schedules including validation.
+ * The statistics of the string pool of the last parsing run are reported as secondary results.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ScheduleParserBenchmark {
+
+    @Param({"100", "1000", "5000", "20000"})
+    public int sessionsCount;
+
+    private String scheduleXml;
+
+    private String scheduleJson;
+
+    private ScheduleParser parser;
+
+    @Setup
+    public void setUp() {
+        scheduleXml = BenchmarkSchedules.createXml(sessionsCount);
+        scheduleJson = BenchmarkSchedules.createJson(sessionsCount);
+        parser = new ScheduleParser(KXmlParser::new, NoLogging.INSTANCE);
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class StringPoolCounters {
+
+        public long stringPoolLookups;
+
+        public long stringPoolDistinctValues;
+
+        public long stringPoolReusedChars;
+
+        public double stringPoolDeduplicationRatio;
+
+        ScheduleParser.Result record(ScheduleParser.Result result) {
+            StringPoolStatistics statistics = result.getStringPoolStatistics();
+            stringPoolLookups = statistics.getLookupsCount();
+            stringPoolDistinctValues = statistics.getDistinctCount();
+            stringPoolReusedChars = statistics.getReusedCharsCount();
+            stringPoolDeduplicationRatio = statistics.getDeduplicationRatio();
+            return result;
+        }
+
+    }
+
+    @Benchmark
+    public ScheduleParser.Result parseXml(StringPoolCounters counters) {
+        return counters.record(parser.parse(scheduleXml, ""));
+    }
+
+    @Benchmark
+    public ScheduleParser.Result parseJson(StringPoolCounters counters) {
+        return counters.record(parser.parse(scheduleJson, ""));
+    }
+
+}
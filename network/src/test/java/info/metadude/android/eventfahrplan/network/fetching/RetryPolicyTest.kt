@@ -0,0 +1,52 @@
+package info.metadude.android.eventfahrplan.network.fetching
+
+import kotlinx.coroutines.runBlocking
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.Test
+import kotlin.random.Random
+
+class RetryPolicyTest {
+
+    @Test
+    fun `delayMillis grows exponentially up to the maximum delay`() {
+        val policy = RetryPolicy(initialDelayMillis = 1_000, maxDelayMillis = 5_000, jitter = 0.0)
+        assertThat(policy.delayMillis(1)).isEqualTo(1_000)
+        assertThat(policy.delayMillis(2)).isEqualTo(2_000)
+        assertThat(policy.delayMillis(3)).isEqualTo(4_000)
+        assertThat(policy.delayMillis(4)).isEqualTo(5_000)
+        assertThat(policy.delayMillis(20)).isEqualTo(5_000)
+    }
+
+    @Test
+    fun `delayMillis subtracts at most the jitter share`() {
+        val policy = RetryPolicy(initialDelayMillis = 1_000, jitter = 0.5, random = Random(42))
+        val delays = (1..100).map { policy.delayMillis(1) }
+        assertThat(delays).allMatch { it in 500..1_000 }
+        assertThat(delays.distinct().size).isGreaterThan(1)
+    }
+
+    @Test
+    fun `retry returns the first result which is not transient`() = runBlocking<Unit> {
+        val policy = RetryPolicy(maxAttempts = 5, initialDelayMillis = 1)
+        val attempts = mutableListOf<Int>()
+        val result = policy.retry({ it < 3 }) { attempt ->
+            attempts += attempt
+            attempt
+        }
+        assertThat(result).isEqualTo(3)
+        assertThat(attempts).containsExactly(1, 2, 3)
+    }
+
+    @Test
+    fun `retry returns the last result once maxAttempts is reached`() = runBlocking<Unit> {
+        val policy = RetryPolicy(maxAttempts = 3, initialDelayMillis = 1)
+        var invocations = 0
+        val result = policy.retry({ true }) { attempt ->
+            invocations++
+            "attempt $attempt"
+        }
+        assertThat(result).isEqualTo("attempt 3")
+        assertThat(invocations).isEqualTo(3)
+    }
+
+}
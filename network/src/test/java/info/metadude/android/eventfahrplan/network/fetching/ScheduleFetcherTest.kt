@@ -0,0 +1,126 @@
+package info.metadude.android.eventfahrplan.network.fetching
+
+import info.metadude.android.eventfahrplan.commons.logging.Logging
+import okhttp3.OkHttpClient
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.MockWebServer
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.After
+import org.junit.Before
+import org.junit.Test
+
+class ScheduleFetcherTest {
+
+    private lateinit var server: MockWebServer
+
+    private val fetcher = ScheduleFetcher(OkHttpClient(), NoLogging)
+
+    @Before
+    fun setUp() {
+        server = MockWebServer()
+        server.start()
+    }
+
+    @After
+    fun tearDown() {
+        server.shutdown()
+    }
+
+    @Test
+    fun `fetch returns the body and the ETag of a successful response`() {
+        server.enqueue(MockResponse().setBody("<schedule/>").setHeader("ETag", "\"abc\""))
+        val result = fetcher.fetch(server.url("/schedule.xml").toString(), "")
+        assertThat(result.httpStatus).isEqualTo(HttpStatus.HTTP_OK)
+        assertThat(result.scheduleXml).isEqualTo("<schedule/>")
+        assertThat(result.eTag).isEqualTo("\"abc\"")
+        assertThat(result.hostName).isEqualTo(server.hostName)
+    }
+
+    @Test
+    fun `fetch sends the ETag and the accepted formats`() {
+        server.enqueue(MockResponse().setResponseCode(304))
+        val result = fetcher.fetch(server.url("/schedule.xml").toString(), "\"abc\"")
+        val request = server.takeRequest()
+        assertThat(request.getHeader("If-None-Match")).isEqualTo("\"abc\"")
+        assertThat(request.getHeader("Accept")).startsWith("application/json")
+        assertThat(result.httpStatus).isEqualTo(HttpStatus.HTTP_NOT_MODIFIED)
+        assertThat(result.scheduleXml).isEmpty()
+    }
+
+    @Test
+    fun `fetch omits the If-None-Match header if the ETag is empty`() {
+        server.enqueue(MockResponse().setBody(""))
+        fetcher.fetch(server.url("/schedule.xml").toString(), "")
+        assertThat(server.takeRequest().getHeader("If-None-Match")).isNull()
+    }
+
+    @Test
+    fun `fetch sends the Last-Modified date`() {
+        server.enqueue(MockResponse().setResponseCode(304))
+        fetcher.fetch(server.url("/schedule.xml").toString(), "", "Fri, 27 Dec 2019 10:00:00 GMT")
+        val request = server.takeRequest()
+        assertThat(request.getHeader("If-Modified-Since")).isEqualTo("Fri, 27 Dec 2019 10:00:00 GMT")
+        assertThat(request.getHeader("If-None-Match")).isNull()
+    }
+
+    @Test
+    fun `fetch returns the Last-Modified date and the content hash of a successful response`() {
+        server.enqueue(MockResponse().setBody("<schedule/>").setHeader("Last-Modified", "Fri, 27 Dec 2019 10:00:00 GMT"))
+        val result = fetcher.fetch(server.url("/schedule.xml").toString(), "")
+        assertThat(result.lastModified).isEqualTo("Fri, 27 Dec 2019 10:00:00 GMT")
+        assertThat(result.contentHash).isEqualTo("41995687fd0c058923ab49c94e6f85e067ae3590916ef524b2a6f6908b1bb534")
+    }
+
+    @Test
+    fun `fetch reports a response with a weakly matching ETag as not modified`() {
+        server.enqueue(MockResponse().setBody("<schedule/>").setHeader("ETag", "W/\"abc\""))
+        val result = fetcher.fetch(server.url("/schedule.xml").toString(), "\"abc\"")
+        assertThat(result.httpStatus).isEqualTo(HttpStatus.HTTP_NOT_MODIFIED)
+        assertThat(result.scheduleXml).isEmpty()
+    }
+
+    @Test
+    fun `fetch maps HTTP status codes`() {
+        server.enqueue(MockResponse().setResponseCode(401))
+        server.enqueue(MockResponse().setResponseCode(404))
+        server.enqueue(MockResponse().setResponseCode(500))
+        val url = server.url("/schedule.xml").toString()
+        assertThat(fetcher.fetch(url, "").httpStatus).isEqualTo(HttpStatus.HTTP_WRONG_HTTP_CREDENTIALS)
+        assertThat(fetcher.fetch(url, "").httpStatus).isEqualTo(HttpStatus.HTTP_NOT_FOUND)
+        assertThat(fetcher.fetch(url, "").httpStatus).isEqualTo(HttpStatus.HTTP_COULD_NOT_CONNECT)
+    }
+
+    @Test
+    fun `fetch keeps the HTTP status code of an unsuccessful response`() {
+        server.enqueue(MockResponse().setResponseCode(403))
+        val url = server.url("/schedule.xml").toString()
+        val result = fetcher.fetch(url, "")
+        assertThat(result.httpStatus).isEqualTo(HttpStatus.HTTP_COULD_NOT_CONNECT)
+        assertThat(result.httpStatusCode).isEqualTo(403)
+        assertThat(result.isTransientFailure).isFalse()
+    }
+
+    @Test
+    fun `isTransientFailure is true for connection failures, 408, 429 and server errors only`() {
+        fun result(httpStatus: HttpStatus, httpStatusCode: Int = FetchScheduleResult.NO_HTTP_STATUS_CODE) =
+                FetchScheduleResult(httpStatus, hostName = "example.com", httpStatusCode = httpStatusCode)
+        assertThat(result(HttpStatus.HTTP_COULD_NOT_CONNECT).isTransientFailure).isTrue()
+        assertThat(result(HttpStatus.HTTP_CONNECT_TIMEOUT).isTransientFailure).isTrue()
+        listOf(408, 429, 500, 502, 503, 599).forEach {
+            assertThat(result(HttpStatus.HTTP_COULD_NOT_CONNECT, it).isTransientFailure).`as`("$it").isTrue()
+        }
+        listOf(400, 403, 410, 418).forEach {
+            assertThat(result(HttpStatus.HTTP_COULD_NOT_CONNECT, it).isTransientFailure).`as`("$it").isFalse()
+        }
+        assertThat(result(HttpStatus.HTTP_NOT_FOUND, 404).isTransientFailure).isFalse()
+        assertThat(result(HttpStatus.HTTP_OK, 200).isTransientFailure).isFalse()
+        assertThat(result(HttpStatus.HTTP_DNS_FAILURE).isTransientFailure).isFalse()
+    }
+
+    object NoLogging : Logging {
+        override fun d(tag: String, message: String) = Unit
+        override fun e(tag: String, message: String) = Unit
+        override fun report(tag: String, message: String) = Unit
+    }
+
+}
@@ -0,0 +1,162 @@
+package info.metadude.android.eventfahrplan.network.repositories
+
+import info.metadude.android.eventfahrplan.commons.testing.schedule.SyntheticScheduleConfig
+import info.metadude.android.eventfahrplan.commons.testing.schedule.SyntheticScheduleGenerator
+import info.metadude.android.eventfahrplan.commons.testing.schedule.toXml
+import info.metadude.android.eventfahrplan.network.fetching.HttpStatus
+import info.metadude.android.eventfahrplan.network.fetching.RetryPolicy
+import info.metadude.android.eventfahrplan.network.serialization.ScheduleParserTest.NoLogging
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.cancelAndJoin
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.runBlocking
+import kotlinx.coroutines.withTimeout
+import okhttp3.OkHttpClient
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.MockWebServer
+import okhttp3.mockwebserver.SocketPolicy
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.After
+import org.junit.Before
+import org.junit.Test
+import org.kxml2.io.KXmlParser
+import java.util.concurrent.TimeUnit
+
+class ScheduleNetworkRepositoryTest {
+
+    private lateinit var server: MockWebServer
+
+    private val okHttpClient = OkHttpClient()
+
+    private val url get() = server.url("/schedule.xml").toString()
+
+    @Before
+    fun setUp() {
+        server = MockWebServer()
+        server.start()
+    }
+
+    @After
+    fun tearDown() {
+        server.shutdown()
+    }
+
+    @Test
+    fun `fetchSchedule retries transient failures`() = runBlocking<Unit> {
+        server.enqueue(MockResponse().setResponseCode(503))
+        server.enqueue(MockResponse().setResponseCode(503))
+        server.enqueue(MockResponse().setBody("<schedule/>"))
+        val result = createRepository().fetchSchedule(okHttpClient, url, "", "")
+        assertThat(result.httpStatus).isEqualTo(HttpStatus.HTTP_OK)
+        assertThat(result.scheduleXml).isEqualTo("<schedule/>")
+        assertThat(server.requestCount).isEqualTo(3)
+    }
+
+    @Test
+    fun `fetchSchedule gives up after the last attempt`() = runBlocking<Unit> {
+        repeat(3) { server.enqueue(MockResponse().setResponseCode(503)) }
+        val result = createRepository(maxAttempts = 3).fetchSchedule(okHttpClient, url, "", "")
+        assertThat(result.httpStatus).isEqualTo(HttpStatus.HTTP_COULD_NOT_CONNECT)
+        assertThat(server.requestCount).isEqualTo(3)
+    }
+
+    @Test
+    fun `fetchSchedule does not retry permanent failures`() = runBlocking<Unit> {
+        server.enqueue(MockResponse().setResponseCode(404))
+        val result = createRepository().fetchSchedule(okHttpClient, url, "", "")
+        assertThat(result.httpStatus).isEqualTo(HttpStatus.HTTP_NOT_FOUND)
+        assertThat(server.requestCount).isEqualTo(1)
+    }
+
+    @Test
+    fun `fetchSchedule does not retry permanent client errors`() = runBlocking<Unit> {
+        server.enqueue(MockResponse().setResponseCode(403))
+        val result = createRepository().fetchSchedule(okHttpClient, url, "", "")
+        assertThat(result.httpStatusCode).isEqualTo(403)
+        assertThat(server.requestCount).isEqualTo(1)
+    }
+
+    @Test
+    fun `fetchSchedule retries too many requests`() = runBlocking<Unit> {
+        server.enqueue(MockResponse().setResponseCode(429))
+        server.enqueue(MockResponse().setBody("<schedule/>"))
+        val result = createRepository().fetchSchedule(okHttpClient, url, "", "")
+        assertThat(result.httpStatus).isEqualTo(HttpStatus.HTTP_OK)
+        assertThat(server.requestCount).isEqualTo(2)
+    }
+
+    @Test
+    fun `fetchSchedule reports an attempt exceeding the timeout as connect timeout`() = runBlocking<Unit> {
+        server.enqueue(MockResponse().setSocketPolicy(SocketPolicy.NO_RESPONSE))
+        val repository = createRepository(maxAttempts = 1, fetchTimeoutMillis = 100)
+        val result = repository.fetchSchedule(okHttpClient, url, "", "")
+        assertThat(result.httpStatus).isEqualTo(HttpStatus.HTTP_CONNECT_TIMEOUT)
+        assertThat(result.hostName).isEqualTo(server.hostName)
+    }
+
+    @Test
+    fun `cancelling the caller cancels the call`() = runBlocking<Unit> {
+        server.enqueue(MockResponse().setSocketPolicy(SocketPolicy.NO_RESPONSE))
+        val job = launch(Dispatchers.Default) {
+            createRepository().fetchSchedule(okHttpClient, url, "", "")
+        }
+        assertThat(server.takeRequest(5, TimeUnit.SECONDS)).isNotNull()
+        withTimeout(5_000) {
+            job.cancelAndJoin()
+        }
+        assertThat(job.isCancelled).isTrue()
+    }
+
+    @Test
+    fun `parseSchedule passes each day before it returns`() = runBlocking<Unit> {
+        val config = SyntheticScheduleConfig(daysCount = 3, roomsCount = 2, sessionsCount = 30)
+        val scheduleXml = SyntheticScheduleGenerator(config).createSchedule().toXml()
+        val parsedDayIndices = mutableListOf<Int>()
+        var parsedDaySessionsCount = 0
+        val result = createRepository().parseSchedule(scheduleXml, "\"abc\"") { dayIndex, sessions ->
+            parsedDayIndices += dayIndex
+            parsedDaySessionsCount += sessions.size
+        }
+        assertThat(result.isSuccessful).isTrue()
+        assertThat(result.meta.eTag).isEqualTo("\"abc\"")
+        assertThat(result.sessions).hasSize(30)
+        assertThat(parsedDayIndices).containsExactly(1, 2, 3)
+        assertThat(parsedDaySessionsCount).isEqualTo(30)
+    }
+
+    @Test
+    fun `parseSchedule releases the waiting parser if passing a day fails`() = runBlocking<Unit> {
+        val config = SyntheticScheduleConfig(daysCount = 5, roomsCount = 2, sessionsCount = 50)
+        val scheduleXml = SyntheticScheduleGenerator(config).createSchedule().toXml()
+        val failure = IllegalStateException("Storage failed.")
+        val thrown = withTimeout(5_000) {
+            runCatching {
+                createRepository().parseSchedule(scheduleXml, "\"abc\"") { _, _ -> throw failure }
+            }.exceptionOrNull()
+        }
+        assertThat(thrown).isSameAs(failure)
+    }
+
+    @Test
+    fun `parseSchedule is not successful if parsing exceeds the timeout`() = runBlocking<Unit> {
+        val config = SyntheticScheduleConfig(daysCount = 3, roomsCount = 2, sessionsCount = 30)
+        val scheduleXml = SyntheticScheduleGenerator(config).createSchedule().toXml()
+        val result = createRepository(parseTimeoutMillis = 0).parseSchedule(scheduleXml, "\"abc\"")
+        assertThat(result.isSuccessful).isFalse()
+        assertThat(result.sessions).isEmpty()
+        assertThat(result.meta.eTag).isEqualTo("\"abc\"")
+    }
+
+    private fun createRepository(
+            maxAttempts: Int = 4,
+            fetchTimeoutMillis: Long = ScheduleNetworkRepository.FETCH_TIMEOUT_MILLIS,
+            parseTimeoutMillis: Long = ScheduleNetworkRepository.PARSE_TIMEOUT_MILLIS
+    ) = ScheduleNetworkRepository(
+            logging = NoLogging,
+            newPullParser = ::KXmlParser,
+            retryPolicy = RetryPolicy(maxAttempts = maxAttempts, initialDelayMillis = 1),
+            fetchTimeoutMillis = fetchTimeoutMillis,
+            parseTimeoutMillis = parseTimeoutMillis
+    )
+
+}
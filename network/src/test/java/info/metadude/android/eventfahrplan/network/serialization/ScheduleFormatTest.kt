@@ -0,0 +1,28 @@
+package info.metadude.android.eventfahrplan.network.serialization
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.Test
+
+class ScheduleFormatTest {
+
+    @Test
+    fun `of returns JSON for a JSON object`() {
+        assertThat(ScheduleFormat.of("{\"schedule\":{}}")).isEqualTo(ScheduleFormat.JSON)
+    }
+
+    @Test
+    fun `of skips leading whitespace and the byte order mark`() {
+        assertThat(ScheduleFormat.of("\uFEFF \n\t{}")).isEqualTo(ScheduleFormat.JSON)
+    }
+
+    @Test
+    fun `of returns XML for an XML document`() {
+        assertThat(ScheduleFormat.of("<?xml version=\"1.0\"?><schedule/>")).isEqualTo(ScheduleFormat.XML)
+    }
+
+    @Test
+    fun `of returns XML for an empty text`() {
+        assertThat(ScheduleFormat.of("")).isEqualTo(ScheduleFormat.XML)
+    }
+
+}
@@ -0,0 +1,188 @@
+package info.metadude.android.eventfahrplan.network.serialization
+
+import info.metadude.android.eventfahrplan.network.temporal.DateParser
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.Test
+
+class ScheduleJsonParserTest {
+
+    private companion object {
+
+        const val SCHEDULE_JSON = """
+            {
+              "schedule": {
+                "version": "1.0 (Final)",
+                "conference": {
+                  "acronym": "36c3",
+                  "title": "36th Chaos Communication Congress",
+                  "time_zone_name": "Europe/Berlin",
+                  "days": [
+                    {
+                      "index": 0,
+                      "date": "2019-12-27",
+                      "day_start": "2019-12-27T11:00:00+01:00",
+                      "day_end": "2019-12-28T04:00:00+01:00",
+                      "rooms": {
+                        "Ada": [
+                          {
+                            "id": 10527,
+                            "date": "2019-12-27T11:00:00+01:00",
+                            "start": "11:00",
+                            "duration": "00:40",
+                            "room": "Ada",
+                            "slug": "36c3-10527-opening",
+                            "url": "https://fahrplan.events.ccc.de/congress/2019/Fahrplan/events/10527.html",
+                            "title": " Opening ",
+                            "subtitle": null,
+                            "track": "CCC",
+                            "type": "lecture",
+                            "language": "en",
+                            "abstract": "Welcome",
+                            "description": "",
+                            "recording_license": "",
+                            "do_not_record": false,
+                            "persons": [
+                              { "id": 1, "public_name": "Jane Doe" },
+                              { "id": 2, "public_name": "John Doe" }
+                            ],
+                            "links": [
+                              { "url": "https://example.com", "title": "Example" }
+                            ],
+                            "attachments": []
+                          }
+                        ],
+                        "Borg": [
+                          {
+                            "id": "10528",
+                            "date": "2019-12-28T01:00:00+01:00",
+                            "start": "01:00",
+                            "duration": "01:30",
+                            "title": "Late night talk",
+                            "track": "CCC",
+                            "type": "lecture",
+                            "language": "de",
+                            "do_not_record": true,
+                            "persons": [],
+                            "links": []
+                          }
+                        ]
+                      }
+                    },
+                    {
+                      "index": 1,
+                      "date": "2019-12-28",
+                      "day_end": "2019-12-29T04:00:00+01:00",
+                      "rooms": {
+                        "Borg": [],
+                        "Clarke": [
+                          {
+                            "id": 10529,
+                            "start": "12:00",
+                            "duration": "00:30",
+                            "title": "Workshop",
+                            "persons": [ { "id": 3, "name": "Alex" } ]
+                          }
+                        ]
+                      }
+                    }
+                  ]
+                }
+              }
+            }
+            """
+
+    }
+
+    @Test
+    fun `parse reads the meta data`() {
+        val parser = createParser()
+        assertThat(parser.parse(SCHEDULE_JSON, "etag")).isTrue()
+        with(parser.meta) {
+            assertThat(version).isEqualTo("1.0 (Final)")
+            assertThat(title).isEqualTo("36th Chaos Communication Congress")
+            assertThat(timeZoneName).isEqualTo("Europe/Berlin")
+            assertThat(numDays).isEqualTo(2)
+            assertThat(eTag).isEqualTo("etag")
+        }
+    }
+
+    @Test
+    fun `parse reads the sessions`() {
+        val parser = createParser()
+        parser.parse(SCHEDULE_JSON, "")
+        assertThat(parser.sessions).hasSize(3)
+        with(parser.sessions[0]) {
+            assertThat(sessionId).isEqualTo("10527")
+            assertThat(dayIndex).isEqualTo(1)
+            assertThat(date).isEqualTo("2019-12-27")
+            assertThat(dateUTC).isEqualTo(DateParser.getDateTime("2019-12-27T11:00:00+01:00"))
+            assertThat(room).isEqualTo("Ada")
+            assertThat(roomIndex).isEqualTo(0)
+            assertThat(startTime).isEqualTo(660)
+            assertThat(relativeStartTime).isEqualTo(660)
+            assertThat(duration).isEqualTo(40)
+            assertThat(title).isEqualTo("Opening")
+            assertThat(subtitle).isEmpty()
+            assertThat(abstractt).isEqualTo("Welcome")
+            assertThat(speakers).isEqualTo("Jane Doe;John Doe")
+            assertThat(links).isEqualTo("[Example](https://example.com)")
+            assertThat(recordingOptOut).isFalse()
+        }
+    }
+
+    @Test
+    fun `parse moves sessions before the day change to the end of the day`() {
+        val parser = createParser()
+        parser.parse(SCHEDULE_JSON, "")
+        with(parser.sessions[1]) {
+            assertThat(sessionId).isEqualTo("10528")
+            assertThat(startTime).isEqualTo(60)
+            assertThat(relativeStartTime).isEqualTo(60 + 24 * 60)
+            assertThat(recordingOptOut).isTrue()
+        }
+    }
+
+    @Test
+    fun `parse keeps room indices stable across days`() {
+        val parser = createParser()
+        parser.parse(SCHEDULE_JSON, "")
+        with(parser.sessions[2]) {
+            assertThat(dayIndex).isEqualTo(2)
+            assertThat(room).isEqualTo("Clarke")
+            assertThat(roomIndex).isEqualTo(2)
+            assertThat(speakers).isEqualTo("Alex")
+        }
+    }
+
+    @Test
+    fun `parse shares repeated values`() {
+        val parser = createParser()
+        parser.parse(SCHEDULE_JSON, "")
+        assertThat(parser.sessions[0].track).isSameAs(parser.sessions[1].track)
+    }
+
+    @Test
+    fun `parse passes the sessions of each day once the day has been read`() {
+        val dayIndices = mutableListOf<List<Int>>()
+        val parser = ScheduleJsonParser(StringPool(), { false }) { daySessions ->
+            dayIndices += daySessions.map { it.dayIndex }
+        }
+        parser.parse(SCHEDULE_JSON, "")
+        assertThat(dayIndices).containsExactly(listOf(1, 1), listOf(2))
+    }
+
+    @Test
+    fun `parse returns false if the schedule is missing`() {
+        assertThat(createParser().parse("{\"version\": 1}", "")).isFalse()
+    }
+
+    @Test
+    fun `parse returns false if cancelled`() {
+        val parser = ScheduleJsonParser(StringPool()) { true }
+        assertThat(parser.parse(SCHEDULE_JSON, "")).isFalse()
+        assertThat(parser.sessions).isEmpty()
+    }
+
+    private fun createParser() = ScheduleJsonParser(StringPool()) { false }
+
+}
@@ -0,0 +1,63 @@
+package info.metadude.android.eventfahrplan.network.serialization
+
+import info.metadude.android.eventfahrplan.commons.testing.schedule.SyntheticScheduleConfig
+import info.metadude.android.eventfahrplan.commons.testing.schedule.SyntheticScheduleGenerator
+import info.metadude.android.eventfahrplan.commons.testing.schedule.toJson
+import info.metadude.android.eventfahrplan.commons.testing.schedule.toXml
+import info.metadude.android.eventfahrplan.network.serialization.ScheduleParserTest.NoLogging
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.Test
+import org.kxml2.io.KXmlParser
+
+/**
+ * Parses large synthetic schedules to verify that both formats scale and yield the same sessions.
+ */
+class ScheduleParserStressTest {
+
+    private val config = SyntheticScheduleConfig(
+            daysCount = 5,
+            roomsCount = 60,
+            sessionsCount = 5000,
+            overlapRate = 0.1,
+            textLength = 500,
+            speakersPerSession = 3
+    )
+
+    private val generator = SyntheticScheduleGenerator(config)
+
+    private val parser = ScheduleParser(::KXmlParser, NoLogging)
+
+    @Test
+    fun `parse reads all sessions of a large XML schedule`() {
+        val schedule = generator.createSchedule()
+        val result = parser.parse(schedule.toXml(), "")
+        assertThat(result.isSuccessful).isTrue()
+        assertThat(result.meta.numDays).isEqualTo(5)
+        assertThat(result.sessions).hasSize(5000)
+        assertThat(result.sessions.map { it.sessionId }.distinct()).hasSize(5000)
+        assertThat(result.sessions.map { it.room }.distinct()).hasSize(60)
+        assertThat(result.sessions.first().speakers.split(";")).hasSize(3)
+    }
+
+    @Test
+    fun `parse yields the same sessions for the XML and JSON representation of a large schedule`() {
+        val schedule = generator.createSchedule()
+        val xmlResult = parser.parse(schedule.toXml(), "")
+        val jsonResult = parser.parse(schedule.toJson(), "")
+        assertThat(jsonResult.isSuccessful).isTrue()
+        assertThat(jsonResult.meta).isEqualTo(xmlResult.meta)
+        assertThat(jsonResult.sessions).isEqualTo(xmlResult.sessions)
+    }
+
+    @Test
+    fun `parse reads the added and canceled sessions of a changed large schedule`() {
+        val schedule = generator.createSchedule()
+        val changedSchedule = generator.createChangedVersion(schedule)
+        val result = parser.parse(changedSchedule.toXml(), "")
+        assertThat(result.isSuccessful).isTrue()
+        assertThat(result.meta.version).isEqualTo("synthetic-2")
+        assertThat(result.sessions.map { it.sessionId }.toSet())
+                .isEqualTo(changedSchedule.sessions.map { "${it.id}" }.toSet())
+    }
+
+}
@@ -0,0 +1,185 @@
+package info.metadude.android.eventfahrplan.network.serialization
+
+import info.metadude.android.eventfahrplan.commons.logging.Logging
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.Test
+import org.kxml2.io.KXmlParser
+
+class ScheduleParserTest {
+
+    private companion object {
+
+        const val SCHEDULE_XML = """<?xml version="1.0" encoding="UTF-8"?>
+            <schedule>
+              <version>1.0 (Final)</version>
+              <conference>
+                <title>36th Chaos Communication Congress</title>
+                <time_zone_name>Europe/Berlin</time_zone_name>
+              </conference>
+              <day index="1" date="2019-12-27" start="2019-12-27T11:00:00+01:00" end="2019-12-28T04:00:00+01:00">
+                <room name="Ada">
+                  <event guid="4b6b2b8e" id="10527">
+                    <date>2019-12-27T11:00:00+01:00</date>
+                    <start>11:00</start>
+                    <duration>00:40</duration>
+                    <room>Ada</room>
+                    <slug>36c3-10527-opening</slug>
+                    <title>Opening</title>
+                    <subtitle></subtitle>
+                    <track>CCC</track>
+                    <type>lecture</type>
+                    <language>en</language>
+                    <abstract>Welcome</abstract>
+                    <description></description>
+                    <recording>
+                      <license></license>
+                      <optout>false</optout>
+                    </recording>
+                    <persons>
+                      <person id="1">Jane Doe</person>
+                    </persons>
+                    <links>
+                      <link href="https://example.com">Example</link>
+                    </links>
+                  </event>
+                </room>
+              </day>
+              <day index="2" date="2019-12-28" start="2019-12-28T11:00:00+01:00" end="2019-12-29T04:00:00+01:00">
+                <room name="Borg">
+                  <event guid="7b1e5a9d" id="10528">
+                    <date>2019-12-29T01:00:00+01:00</date>
+                    <start>01:00</start>
+                    <duration>01:30</duration>
+                    <title>Late night talk</title>
+                    <track>CCC</track>
+                  </event>
+                </room>
+              </day>
+            </schedule>
+            """
+
+        const val SCHEDULE_JSON = """
+            {
+              "schedule": {
+                "version": "1.0 (Final)",
+                "conference": {
+                  "title": "36th Chaos Communication Congress",
+                  "days": [
+                    {
+                      "date": "2019-12-27",
+                      "day_end": "2019-12-28T04:00:00+01:00",
+                      "rooms": {
+                        "Ada": [
+                          { "id": 10527, "date": "2019-12-27T11:00:00+01:00", "start": "11:00", "duration": "00:40", "title": "Opening" }
+                        ]
+                      }
+                    }
+                  ]
+                }
+              }
+            }
+            """
+
+    }
+
+    @Test
+    fun `parse reads an XML schedule`() {
+        val result = createParser().parse(SCHEDULE_XML, "etag")
+        assertThat(result.isSuccessful).isTrue()
+        assertThat(result.meta.version).isEqualTo("1.0 (Final)")
+        assertThat(result.meta.title).isEqualTo("36th Chaos Communication Congress")
+        assertThat(result.meta.numDays).isEqualTo(2)
+        assertThat(result.meta.eTag).isEqualTo("etag")
+        assertThat(result.sessions).hasSize(2)
+        with(result.sessions[0]) {
+            assertThat(sessionId).isEqualTo("10527")
+            assertThat(dayIndex).isEqualTo(1)
+            assertThat(room).isEqualTo("Ada")
+            assertThat(startTime).isEqualTo(660)
+            assertThat(duration).isEqualTo(40)
+            assertThat(speakers).isEqualTo("Jane Doe")
+            assertThat(links).isEqualTo("[Example](https://example.com)")
+        }
+        with(result.sessions[1]) {
+            assertThat(dayIndex).isEqualTo(2)
+            assertThat(relativeStartTime).isEqualTo(60 + 24 * 60)
+        }
+    }
+
+    @Test
+    fun `parse tolerates a room without a name`() {
+        val xml = SCHEDULE_XML.replace("<room name=\"Borg\">", "<room>")
+        val result = createParser().parse(xml, "etag")
+        assertThat(result.isSuccessful).isTrue()
+        assertThat(result.sessions).hasSize(2)
+        with(result.sessions[1]) {
+            assertThat(sessionId).isEqualTo("10528")
+            assertThat(room).isEmpty()
+            assertThat(roomIndex).isEqualTo(1)
+        }
+    }
+
+    @Test
+    fun `parse tolerates a day without a date`() {
+        val xml = SCHEDULE_XML.replace("date=\"2019-12-28\" ", "")
+        val result = createParser().parse(xml, "etag")
+        assertThat(result.isSuccessful).isTrue()
+        assertThat(result.sessions[1].date).isEmpty()
+    }
+
+    @Test
+    fun `parse reads a JSON schedule`() {
+        val result = createParser().parse(SCHEDULE_JSON, "etag")
+        assertThat(result.isSuccessful).isTrue()
+        assertThat(result.meta.numDays).isEqualTo(1)
+        assertThat(result.sessions.single().sessionId).isEqualTo("10527")
+    }
+
+    @Test
+    fun `parse returns the statistics of the shared values`() {
+        val result = createParser().parse(SCHEDULE_XML, "")
+        with(result.stringPoolStatistics) {
+            // Two dates and rooms, one type, language and license and the "CCC" track twice
+            assertThat(lookupsCount).isEqualTo(9)
+            assertThat(distinctCount).isEqualTo(8)
+            assertThat(reusedCharsCount).isEqualTo(3)
+        }
+    }
+
+    @Test
+    fun `parse passes the sessions of each XML day once the day has been parsed`() {
+        val dayIndices = mutableListOf<List<Int>>()
+        val parser = ScheduleParser(::KXmlParser, NoLogging, { false }) { daySessions ->
+            dayIndices += daySessions.map { it.dayIndex }
+        }
+        parser.parse(SCHEDULE_XML, "")
+        assertThat(dayIndices).containsExactly(listOf(1), listOf(2))
+    }
+
+    @Test
+    fun `parse fails for an incomplete XML schedule`() {
+        val result = createParser().parse(SCHEDULE_XML.substringBefore("<day index=\"2\""), "")
+        assertThat(result.isSuccessful).isFalse()
+    }
+
+    @Test
+    fun `parse fails for a malformed JSON schedule`() {
+        val result = createParser().parse("{\"schedule\": [", "")
+        assertThat(result.isSuccessful).isFalse()
+    }
+
+    @Test
+    fun `parse fails if cancelled`() {
+        val result = ScheduleParser(::KXmlParser, NoLogging, { true }).parse(SCHEDULE_XML, "")
+        assertThat(result.isSuccessful).isFalse()
+    }
+
+    private fun createParser() = ScheduleParser(::KXmlParser, NoLogging)
+
+    object NoLogging : Logging {
+        override fun d(tag: String, message: String) = Unit
+        override fun e(tag: String, message: String) = Unit
+        override fun report(tag: String, message: String) = Unit
+    }
+
+}
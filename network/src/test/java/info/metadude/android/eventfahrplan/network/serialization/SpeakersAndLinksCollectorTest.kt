@@ -0,0 +1,59 @@
+package info.metadude.android.eventfahrplan.network.serialization
+
+import info.metadude.android.eventfahrplan.network.models.Session
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.Test
+
+class SpeakersAndLinksCollectorTest {
+
+    @Test
+    fun `applyTo writes empty values if nothing has been collected`() {
+        val session = Session()
+        SpeakersAndLinksCollector().applyTo(session)
+        assertThat(session.speakers).isEmpty()
+        assertThat(session.links).isEmpty()
+    }
+
+    @Test
+    fun `applyTo joins speakers with a semicolon`() {
+        val session = Session()
+        SpeakersAndLinksCollector().apply {
+            addSpeaker("Jane Doe")
+            addSpeaker("John Doe")
+        }.applyTo(session)
+        assertThat(session.speakers).isEqualTo("Jane Doe;John Doe")
+    }
+
+    @Test
+    fun `applyTo formats links as markdown and joins them with a comma`() {
+        val session = Session()
+        SpeakersAndLinksCollector().apply {
+            addLink("https://example.com", "Example")
+            addLink("https://example.org/slides.pdf", "Slides")
+        }.applyTo(session)
+        assertThat(session.links).isEqualTo("[Example](https://example.com),[Slides](https://example.org/slides.pdf)")
+    }
+
+    @Test
+    fun `addLink falls back to the title and prefixes a missing scheme`() {
+        val session = Session()
+        SpeakersAndLinksCollector().apply {
+            addLink(null, "example.com")
+        }.applyTo(session)
+        assertThat(session.links).isEqualTo("[example.com](http://example.com)")
+    }
+
+    @Test
+    fun `applyTo clears the collected values`() {
+        val collector = SpeakersAndLinksCollector().apply {
+            addSpeaker("Jane Doe")
+            addLink("https://example.com", "Example")
+        }
+        collector.applyTo(Session())
+        val session = Session()
+        collector.applyTo(session)
+        assertThat(session.speakers).isEmpty()
+        assertThat(session.links).isEmpty()
+    }
+
+}
@@ -0,0 +1,41 @@
+package info.metadude.android.eventfahrplan.network.serialization
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.Test
+
+class StringPoolTest {
+
+    @Test
+    fun `intern returns the first instance for equal values`() {
+        val pool = StringPool()
+        val first = String("Saal 1".toCharArray())
+        val second = String("Saal 1".toCharArray())
+        assertThat(pool.intern(first)).isSameAs(first)
+        assertThat(pool.intern(second)).isSameAs(first)
+    }
+
+    @Test
+    fun `intern keeps distinct values apart`() {
+        val pool = StringPool()
+        assertThat(pool.intern("en")).isEqualTo("en")
+        assertThat(pool.intern("de")).isEqualTo("de")
+        assertThat(pool.size).isEqualTo(2)
+    }
+
+    @Test
+    fun `statistics reflect lookups, distinct values and reused characters`() {
+        val pool = StringPool()
+        repeat(3) { pool.intern(String("talk".toCharArray())) }
+        pool.intern("workshop")
+        assertThat(pool.lookupsCount).isEqualTo(4)
+        assertThat(pool.size).isEqualTo(2)
+        assertThat(pool.reusedCharsCount).isEqualTo(8)
+        assertThat(pool.deduplicationRatio).isEqualTo(2f)
+    }
+
+    @Test
+    fun `deduplicationRatio is 1 for an empty pool`() {
+        assertThat(StringPool().deduplicationRatio).isEqualTo(1f)
+    }
+
+}
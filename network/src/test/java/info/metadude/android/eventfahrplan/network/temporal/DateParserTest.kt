@@ -1,10 +1,16 @@
 package info.metadude.android.eventfahrplan.network.temporal
 
+import info.metadude.android.eventfahrplan.commons.temporal.Moment
 import org.assertj.core.api.Assertions.assertThat
 import org.junit.Assert.fail
 import org.junit.Test
 import org.threeten.bp.DateTimeException
+import org.threeten.bp.Instant
+import org.threeten.bp.LocalDate
+import org.threeten.bp.ZoneOffset
+import org.threeten.bp.format.DateTimeFormatter
 import org.threeten.bp.format.DateTimeParseException
+import java.util.Random
 
 class DateParserTest {
 
@@ -111,4 +117,71 @@ class DateParserTest {
         assertThat(DateParser.getDayChange("2020-03-29T03:00:00+02:00")).isEqualTo(60)
     }
 
+    @Test
+    fun `parseFixedFormat returns the same milliseconds as the formatter for random date and times`() {
+        val random = Random(42)
+        repeat(10_000) {
+            // Between 1900-01-01 and 2100-01-01.
+            val epochSecond = -2208988800L + (random.nextDouble() * 6311433600L).toLong()
+            // Between -12:00 and +14:00 in steps of 15 minutes.
+            val offset = ZoneOffset.ofTotalSeconds((random.nextInt(105) - 48) * 15 * 60)
+            val text = Instant.ofEpochSecond(epochSecond).atOffset(offset)
+                    .format(DateTimeFormatter.ISO_OFFSET_DATE_TIME)
+            assertThat(DateParser.parseFixedFormat(text))
+                    .`as`(text)
+                    .isEqualTo(DateParser.parseWithFormatter(text))
+            assertThat(DateParser.getDayChange(text))
+                    .`as`(text)
+                    .isEqualTo(Moment.ofEpochMilli(DateParser.parseWithFormatter(text)).minuteOfDay)
+        }
+    }
+
+    @Test
+    fun `parseFixedFormat returns the same milliseconds as the formatter for random dates`() {
+        val random = Random(42)
+        repeat(10_000) {
+            val text = LocalDate.ofEpochDay(random.nextInt(200 * 365).toLong() - 70 * 365).toString()
+            assertThat(DateParser.parseFixedFormat(text))
+                    .`as`(text)
+                    .isEqualTo(DateParser.parseWithFormatter(text))
+        }
+    }
+
+    @Test
+    fun `parseFixedFormat returns the same milliseconds as the formatter for negative offsets`() {
+        val text = "2019-12-31T23:30:00-05:30"
+        assertThat(DateParser.parseFixedFormat(text)).isEqualTo(DateParser.parseWithFormatter(text))
+    }
+
+    @Test
+    fun `parseFixedFormat skips texts which are left to the formatter`() {
+        listOf(
+                "2016-09-14T14:30:00+0200",
+                "1970-01-01T03:00:00",
+                "2019-01-01T00:00:00.000Z",
+                "2019-02-29",
+                "2019-13-01",
+                "2019-01-01T24:00:00Z",
+                "2019-01-01T00:00:00z",
+                "2019-01-01 00:00:00Z"
+        ).forEach {
+            assertThat(DateParser.parseFixedFormat(it)).`as`(it).isEqualTo(Long.MIN_VALUE)
+        }
+    }
+
+    @Test
+    fun `getDateTime falls back to the formatter for fractional seconds`() {
+        assertThat(DateParser.getDateTime("2019-01-01T00:00:00.000Z")).isEqualTo(1546300800000)
+    }
+
+    @Test
+    fun `getDayChange returns minutes of a day for a date and time before 1970`() {
+        assertThat(DateParser.getDayChange("1969-12-31T23:00:00Z")).isEqualTo(1380)
+    }
+
+    @Test
+    fun `getDayChange floors a date and time before 1970 which is not aligned to a minute`() {
+        assertThat(DateParser.getDayChange("1969-12-31T23:59:30Z")).isEqualTo(1439)
+    }
+
 }